@@ -7,53 +7,101 @@ import eu.nurkert.neverUp2Late.gui.PluginOverviewGui;
 import eu.nurkert.neverUp2Late.gui.anvil.AnvilTextPrompt;
 import eu.nurkert.neverUp2Late.handlers.ArtifactDownloader;
 import eu.nurkert.neverUp2Late.handlers.InstallationHandler;
+import eu.nurkert.neverUp2Late.handlers.PerformanceWatchdog;
 import eu.nurkert.neverUp2Late.handlers.PersistentPluginHandler;
 import eu.nurkert.neverUp2Late.handlers.PortalVelocityListener;
+import eu.nurkert.neverUp2Late.handlers.ServerTickTimes;
 import eu.nurkert.neverUp2Late.handlers.UpdateHandler;
+import eu.nurkert.neverUp2Late.net.CircuitBreakerRegistry;
+import eu.nurkert.neverUp2Late.net.IoGovernor;
+import eu.nurkert.neverUp2Late.net.RateLimitTracker;
+import eu.nurkert.neverUp2Late.plugin.BukkitLeakHints;
+import eu.nurkert.neverUp2Late.plugin.ClassLoaderLeakTracker;
 import eu.nurkert.neverUp2Late.plugin.PluginLifecycleManager;
+import eu.nurkert.neverUp2Late.plugin.PluginEnableProfiler;
 import eu.nurkert.neverUp2Late.plugin.PluginManagerApi;
+import eu.nurkert.neverUp2Late.plugin.PluginTimings;
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry;
 import eu.nurkert.neverUp2Late.update.VersionComparator;
+import eu.nurkert.neverUp2Late.update.suggestion.CatalogueSynchronizer;
+import eu.nurkert.neverUp2Late.update.suggestion.PluginLinkSuggester;
+import eu.nurkert.neverUp2Late.update.suggestion.ProjectCatalogue;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import eu.nurkert.neverUp2Late.persistence.ConfigWriter;
+import eu.nurkert.neverUp2Late.persistence.HealthCheckRepository;
 import eu.nurkert.neverUp2Late.persistence.LegacyConfigMigrator;
+import eu.nurkert.neverUp2Late.persistence.PluginTimingRepository;
 import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository;
 import eu.nurkert.neverUp2Late.persistence.SetupStateRepository;
+import eu.nurkert.neverUp2Late.persistence.UpdateScheduleRepository;
 import eu.nurkert.neverUp2Late.persistence.UpdateStateRepository;
+import eu.nurkert.neverUp2Late.persistence.WriteBehindJournal;
 import eu.nurkert.neverUp2Late.persistence.SetupStateRepository.SetupPhase;
 import eu.nurkert.neverUp2Late.setup.InitialSetupManager;
 
 import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
 
 public final class NeverUp2Late extends JavaPlugin {
 
+    private static final String CATALOGUE_FILE = "catalogue.json.gz";
+    private static final long MINIMUM_CATALOGUE_SYNC_MINUTES = 60L;
+
     private PluginContext context;
     private InitialSetupManager setupManager;
+    private PluginTimings timings;
+    private ConfigWriter configWriter;
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
         FileConfiguration configuration = getConfig();
+        configWriter = ConfigWriter.forPlugin(this);
 
         UpdateStateRepository updateStateRepository = UpdateStateRepository.forPlugin(this);
         PluginUpdateSettingsRepository updateSettingsRepository = PluginUpdateSettingsRepository.forPlugin(this);
         SetupStateRepository setupStateRepository = SetupStateRepository.forPlugin(this);
         LegacyConfigMigrator migrator = new LegacyConfigMigrator(configuration, updateStateRepository, updateSettingsRepository, getLogger());
         if (migrator.migrate()) {
-            saveConfig();
+            configWriter.save();
         }
 
+        timings = new PluginTimings(PluginTimingRepository.forPlugin(this), Clock.systemUTC());
+        timings.configureRegression(
+                configuration.getDouble("pluginLifecycle.profiling.regressionFactor", 1.5d),
+                configuration.getLong("pluginLifecycle.profiling.regressionMinimumMillis", 100L)
+        );
+        PluginEnableProfiler enableProfiler = new PluginEnableProfiler(timings, getLogger());
+        getServer().getPluginManager().registerEvents(enableProfiler, this);
+        getServer().getScheduler().runTask(this, enableProfiler::finishStartup);
+
         PersistentPluginHandler persistentPluginHandler = new PersistentPluginHandler(updateStateRepository);
         boolean lifecycleEnabled = configuration.getBoolean("pluginLifecycle.autoManage", true);
         PluginLifecycleManager pluginLifecycleManager = null;
         if (lifecycleEnabled) {
-            pluginLifecycleManager = new PluginManagerApi(
+            PluginManagerApi pluginManagerApi = new PluginManagerApi(
                     getServer().getPluginManager(),
                     getDataFolder().getParentFile(),
                     getLogger()
             );
+            pluginManagerApi.setTimings(timings);
+            pluginManagerApi.spreadBatchReloads(
+                    task -> getServer().getScheduler().runTask(this, task),
+                    Duration.ofMillis(configuration.getLong("pluginLifecycle.reloadTickBudgetMillis", 10L))
+            );
+            pluginLifecycleManager = pluginManagerApi;
+            startLeakTracking(configuration);
             pluginLifecycleManager.registerLoadedPlugins(this);
             pluginLifecycleManager.registerPlugin(this);
         } else {
@@ -61,7 +109,10 @@ public final class NeverUp2Late extends JavaPlugin {
         }
 
         InstallationHandler installationHandler = new InstallationHandler(this, pluginLifecycleManager, updateSettingsRepository);
-        UpdateSourceRegistry updateSourceRegistry = new UpdateSourceRegistry(getLogger(), configuration);
+        UpdateSourceRegistry updateSourceRegistry = new UpdateSourceRegistry(getLogger(), configuration, configWriter);
+        configureRateLimits(configuration);
+        configureCircuitBreakers(configuration);
+        startIoGovernor(configuration);
         int maxBackups = Math.max(0, configuration.getInt("backups.maxCount", 5));
         Path backupsDirectory = getDataFolder().toPath().resolve("backups");
         ArtifactDownloader artifactDownloader = new ArtifactDownloader(backupsDirectory, maxBackups);
@@ -78,8 +129,11 @@ public final class NeverUp2Late extends JavaPlugin {
                 versionComparator,
                 pluginLifecycleManager,
                 updateSettingsRepository,
-                setupStateRepository
+                setupStateRepository,
+                UpdateScheduleRepository.forPlugin(this),
+                configWriter
         );
+        startHealthCheck(configuration, installationHandler, updateHandler, pluginLifecycleManager);
 
         context = new PluginContext(
                 this,
@@ -92,7 +146,9 @@ public final class NeverUp2Late extends JavaPlugin {
                 pluginLifecycleManager,
                 updateSettingsRepository,
                 setupStateRepository,
-                artifactDownloader
+                artifactDownloader,
+                createLinkSuggester(configuration),
+                configWriter
         );
 
         AnvilTextPrompt anvilTextPrompt = new AnvilTextPrompt(this);
@@ -136,7 +192,143 @@ public final class NeverUp2Late extends JavaPlugin {
             } catch (Exception ex) {
                 getLogger().log(java.util.logging.Level.FINE, "Failed to stop update handler during shutdown", ex);
             }
+            if (context.getLinkSuggester() != null) {
+                context.getLinkSuggester().getCatalogue().ifPresent(ProjectCatalogue::saveIfDirty);
+            }
+        }
+        if (timings != null) {
+            timings.saveIfDirty();
+        }
+        WriteBehindJournal.closeAll();
+        if (configWriter != null) {
+            configWriter.close();
+        }
+    }
+
+    /**
+     * Checks every minute whether the class loaders of unloaded plugins were collected. The garbage collection
+     * runs asynchronously; only the hints run on the server thread because they inspect scheduler tasks and
+     * event listeners.
+     */
+    private void startLeakTracking(FileConfiguration configuration) {
+        ClassLoaderLeakTracker tracker = ClassLoaderLeakTracker.shared();
+        tracker.setGracePeriod(Duration.ofMinutes(Math.max(1L, configuration.getLong("pluginLifecycle.leakGraceMinutes", 2L))));
+        BukkitLeakHints.register(tracker, getServer());
+        long period = 20L * 60L;
+        getServer().getScheduler().runTaskTimerAsynchronously(this, () -> {
+            List<ClassLoaderLeakTracker.Suspect> suspects = tracker.detect();
+            if (!suspects.isEmpty() && isEnabled()) {
+                getServer().getScheduler().runTask(this, () -> reportLeaks(tracker.describe(suspects)));
+            }
+        }, period, period);
+    }
+
+    private void reportLeaks(List<ClassLoaderLeakTracker.Leak> leaks) {
+        for (ClassLoaderLeakTracker.Leak leak : leaks) {
+            long minutes = Duration.between(leak.unloadedAt(), Instant.now()).toMinutes();
+            String hints = leak.hints().isEmpty()
+                    ? "no scheduler task, service, listener or thread references it; check static caches of other plugins"
+                    : String.join("; ", leak.hints());
+            getLogger().log(Level.WARNING,
+                    "Class loader of unloaded plugin {0} is still reachable after {1} minute(s); every reload of it will grow metaspace and heap. Possible references: {2}",
+                    new Object[]{leak.pluginName(), minutes, hints});
+        }
+    }
+
+    private void startHealthCheck(FileConfiguration configuration,
+                                  InstallationHandler installationHandler,
+                                  UpdateHandler updateHandler,
+                                  PluginLifecycleManager pluginLifecycleManager) {
+        if (!configuration.getBoolean("healthCheck.enabled", true)) {
+            return;
+        }
+        PerformanceHealthCheck.Thresholds thresholds = new PerformanceHealthCheck.Thresholds(
+                Duration.ofSeconds(Math.max(0L, configuration.getLong("healthCheck.warmupSeconds", 60L))),
+                Duration.ofMinutes(Math.max(1L, configuration.getLong("healthCheck.windowMinutes", 5L))),
+                configuration.getDouble("healthCheck.msptFactor", 1.5d),
+                configuration.getDouble("healthCheck.tpsDrop", 2.0d),
+                configuration.getDouble("healthCheck.heapFactor", 1.5d),
+                configuration.getInt("healthCheck.threadIncrease", 50)
+        );
+        PerformanceHealthCheck healthCheck = new PerformanceHealthCheck(
+                HealthCheckRepository.forPlugin(this), Clock.systemUTC(), thresholds);
+        PerformanceWatchdog watchdog = new PerformanceWatchdog(this, healthCheck, updateHandler,
+                pluginLifecycleManager);
+        watchdog.setRollback(configuration.getBoolean("healthCheck.rollback", true));
+        installationHandler.registerObserver(watchdog);
+        watchdog.start();
+    }
+
+    /**
+     * Reports every tick to the {@link IoGovernor}, which slows or pauses downloads and backup copies while the
+     * server thread is busy.
+     */
+    private void startIoGovernor(FileConfiguration configuration) {
+        IoGovernor governor = IoGovernor.shared();
+        governor.configure(
+                Math.max(0L, configuration.getLong("io.maxKilobytesPerSecond", 0L)) * 1024L,
+                Math.max(1L, configuration.getLong("io.slowedKilobytesPerSecond", 512L)) * 1024L,
+                configuration.getDouble("io.slowAboveMspt", 40d),
+                configuration.getDouble("io.pauseAboveMspt", 50d)
+        );
+        getServer().getScheduler().runTaskTimer(this, new ServerTickTimes(getServer(), governor::reportTick), 1L, 1L);
+    }
+
+    private void configureRateLimits(FileConfiguration configuration) {
+        RateLimitTracker.BucketSettings defaultBucket = null;
+        ConfigurationSection defaults = configuration.getConfigurationSection("rateLimits.default");
+        if (defaults != null && defaults.isSet("capacity")) {
+            defaultBucket = new RateLimitTracker.BucketSettings(defaults.getInt("capacity"),
+                    defaults.getDouble("refillPerMinute", defaults.getInt("capacity")));
+        }
+
+        // Host names contain dots, so per-host buckets are configured as a list instead of nested sections
+        Map<String, RateLimitTracker.BucketSettings> hostBuckets = new HashMap<>();
+        for (Map<?, ?> entry : configuration.getMapList("rateLimits.hosts")) {
+            Object host = entry.get("host");
+            if (!(host instanceof String hostName) || hostName.isBlank()
+                    || !(entry.get("capacity") instanceof Number capacity)) {
+                getLogger().log(Level.WARNING, "Ignoring invalid rate limit entry: {0}", entry);
+                continue;
+            }
+            double refill = entry.get("refillPerMinute") instanceof Number number
+                    ? number.doubleValue()
+                    : capacity.doubleValue();
+            hostBuckets.put(hostName, new RateLimitTracker.BucketSettings(capacity.intValue(), refill));
         }
+        RateLimitTracker.shared().configureBuckets(defaultBucket, hostBuckets);
+    }
+
+    private void configureCircuitBreakers(FileConfiguration configuration) {
+        CircuitBreakerRegistry.Settings defaults = CircuitBreakerRegistry.Settings.defaults();
+        CircuitBreakerRegistry.shared().configure(new CircuitBreakerRegistry.Settings(
+                configuration.getInt("circuitBreaker.windowSize", defaults.windowSize()),
+                configuration.getInt("circuitBreaker.minimumCalls", defaults.minimumCalls()),
+                configuration.getDouble("circuitBreaker.failureRateThreshold", defaults.failureRateThreshold()),
+                Duration.ofSeconds(configuration.getLong("circuitBreaker.openSeconds",
+                        defaults.openDuration().toSeconds())),
+                Duration.ofSeconds(configuration.getLong("circuitBreaker.maxOpenSeconds",
+                        defaults.maxOpenDuration().toSeconds()))));
+    }
+
+    private PluginLinkSuggester createLinkSuggester(FileConfiguration configuration) {
+        if (!configuration.getBoolean("catalogue.enabled", false)) {
+            return new PluginLinkSuggester(getLogger());
+        }
+
+        ProjectCatalogue catalogue = new ProjectCatalogue(getDataFolder().toPath().resolve(CATALOGUE_FILE), getLogger());
+        int pagesPerSync = Math.max(1, configuration.getInt("catalogue.pagesPerSync", 5));
+        long intervalMinutes = Math.max(MINIMUM_CATALOGUE_SYNC_MINUTES,
+                configuration.getLong("catalogue.syncIntervalMinutes", 360L));
+        CatalogueSynchronizer synchronizer = new CatalogueSynchronizer(catalogue, pagesPerSync, getLogger());
+
+        getServer().getScheduler().runTaskAsynchronously(this, catalogue::load);
+        long initialDelayTicks = 5L * 60L * 20L;
+        getServer().getScheduler().runTaskTimerAsynchronously(this, synchronizer::synchronize,
+                initialDelayTicks, intervalMinutes * 60L * 20L);
+
+        return new PluginLinkSuggester(getLogger(), catalogue,
+                task -> getServer().getScheduler().runTaskAsynchronously(this, task));
     }
 
     public PluginContext getContext() {
@@ -3,7 +3,11 @@ package eu.nurkert.neverUp2Late.command;
 import eu.nurkert.neverUp2Late.Permissions;
 import eu.nurkert.neverUp2Late.core.PluginContext;
 import eu.nurkert.neverUp2Late.gui.PluginOverviewGui;
+import eu.nurkert.neverUp2Late.net.CircuitBreakerRegistry;
+import eu.nurkert.neverUp2Late.net.RateLimitTracker;
+import eu.nurkert.neverUp2Late.plugin.ClassLoaderLeakTracker;
 import eu.nurkert.neverUp2Late.setup.InitialSetupManager;
+import eu.nurkert.neverUp2Late.update.suggestion.PluginLinkSuggester;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -13,6 +17,9 @@ import org.bukkit.entity.Player;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Arrays;
 import java.util.List;
@@ -21,6 +28,8 @@ import java.util.Objects;
 
 public class NeverUp2LateCommand implements CommandExecutor, TabCompleter {
 
+    private static final int MAX_PROJECT_COMPLETIONS = 20;
+
     private final QuickInstallCoordinator coordinator;
     private final PluginOverviewGui overviewGui;
     private final InitialSetupManager setupManager;
@@ -60,6 +69,15 @@ public class NeverUp2LateCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
+        if (args.length > 0 && "check".equalsIgnoreCase(args[0])) {
+            if (!sender.hasPermission(Permissions.INSTALL)) {
+                sender.sendMessage(ChatColor.RED + "You do not have permission to check for updates.");
+                return true;
+            }
+            context.getUpdateHandler().checkAll(sender);
+            return true;
+        }
+
         if (args.length > 0 && "select".equalsIgnoreCase(args[0])) {
             if (!sender.hasPermission(Permissions.INSTALL)) {
                 sender.sendMessage(ChatColor.RED + "You do not have permission to manage installations.");
@@ -165,6 +183,19 @@ public class NeverUp2LateCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
+        if (args.length > 0 && "link-all".equalsIgnoreCase(args[0])) {
+            if (!sender.hasPermission(Permissions.GUI_MANAGE_LINK) && !sender.hasPermission(Permissions.GUI_MANAGE)) {
+                sender.sendMessage(ChatColor.RED + "You do not have permission to link plugins.");
+                return true;
+            }
+            if (sender instanceof Player player) {
+                overviewGui.openBulkLink(player);
+            } else {
+                sender.sendMessage(ChatColor.RED + "The link review can only be opened by players.");
+            }
+            return true;
+        }
+
         if (!sender.hasPermission(Permissions.INSTALL)) {
             sender.sendMessage(ChatColor.RED + "You do not have permission to manage installations.");
             return true;
@@ -206,7 +237,15 @@ public class NeverUp2LateCommand implements CommandExecutor, TabCompleter {
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
-            return List.of("gui", "status", "select", "ignore", "cancel", "remove", "setup", "rollback");
+            List<String> subCommands = List.of("gui", "status", "check", "select", "ignore", "cancel", "remove", "setup", "rollback",
+                    "link-all");
+            List<String> projects = completeCatalogueProjects(sender, args[0]);
+            if (projects.isEmpty()) {
+                return subCommands;
+            }
+            List<String> completions = new ArrayList<>(subCommands);
+            completions.addAll(projects);
+            return completions;
         }
         if (args.length == 2 && "select".equalsIgnoreCase(args[0])) {
             return Collections.singletonList("<number>");
@@ -223,6 +262,19 @@ public class NeverUp2LateCommand implements CommandExecutor, TabCompleter {
         return Collections.emptyList();
     }
 
+    private List<String> completeCatalogueProjects(CommandSender sender, String prefix) {
+        if (prefix == null || prefix.length() < 2 || !sender.hasPermission(Permissions.INSTALL)) {
+            return Collections.emptyList();
+        }
+        PluginLinkSuggester suggester = context.getLinkSuggester();
+        if (suggester == null) {
+            return Collections.emptyList();
+        }
+        return suggester.getCatalogue()
+                .map(catalogue -> catalogue.complete(prefix, MAX_PROJECT_COMPLETIONS))
+                .orElse(Collections.emptyList());
+    }
+
     private void displayStatus(CommandSender sender) {
         List<PluginContext.UpdateSourceStatus> statuses = context.getUpdateSourceStatuses();
         if (statuses.isEmpty()) {
@@ -239,8 +291,106 @@ public class NeverUp2LateCommand implements CommandExecutor, TabCompleter {
             String versionInfo = ChatColor.GRAY + " | " + ChatColor.BLUE + status.versionLabel();
             String autoInfo = ChatColor.GRAY + " | Auto-Update: "
                     + (status.autoUpdateEnabled() ? ChatColor.GREEN + "enabled" : ChatColor.RED + "disabled");
+            String staleInfo = status.isStale()
+                    ? ChatColor.GRAY + " | " + ChatColor.GOLD + "stale (provider unavailable)"
+                    : "";
+
+            sender.sendMessage(ChatColor.AQUA + displayName + pathInfo + versionInfo + autoInfo + pluginInfo + staleInfo);
+        }
+
+        List<CircuitBreakerRegistry.CircuitStatus> circuits = CircuitBreakerRegistry.shared().snapshot();
+        if (!circuits.isEmpty()) {
+            sender.sendMessage(ChatColor.GOLD + "Unavailable providers:");
+            Instant now = Instant.now();
+            for (CircuitBreakerRegistry.CircuitStatus circuit : circuits) {
+                String retry = circuit.retryAt() != null
+                        ? "next probe in " + Math.max(1L, Duration.between(now, circuit.retryAt()).toSeconds()) + "s"
+                        : "probing";
+                sender.sendMessage(ChatColor.AQUA + circuit.host() + ChatColor.GRAY + " | "
+                        + ChatColor.RED + circuit.state().name().toLowerCase(Locale.ROOT).replace('_', '-')
+                        + ChatColor.GRAY + " | " + retry);
+            }
+        }
+
+        List<RateLimitTracker.HostBudget> budgets = RateLimitTracker.shared().snapshot();
+        if (!budgets.isEmpty()) {
+            sender.sendMessage(ChatColor.GOLD + "Provider budgets:");
+            for (RateLimitTracker.HostBudget budget : budgets) {
+                sender.sendMessage(ChatColor.AQUA + budget.host() + ChatColor.GRAY + " | " + describeBudget(budget));
+            }
+        }
+
+        displayMemory(sender);
+    }
+
+    private void displayMemory(CommandSender sender) {
+        ClassLoaderLeakTracker tracker = ClassLoaderLeakTracker.shared();
+        List<ClassLoaderLeakTracker.MemorySample> trend = tracker.memoryTrend();
+        if (!trend.isEmpty()) {
+            ClassLoaderLeakTracker.MemorySample first = trend.get(0);
+            ClassLoaderLeakTracker.MemorySample latest = trend.get(trend.size() - 1);
+            long minutes = Duration.between(first.time(), latest.time()).toMinutes();
+            StringBuilder line = new StringBuilder(ChatColor.GOLD + "Memory: " + ChatColor.GRAY + "heap "
+                    + ChatColor.AQUA + megabytes(latest.heapUsed())
+                    + (latest.heapMax() > 0 ? ChatColor.GRAY + " / " + megabytes(latest.heapMax()) : ""));
+            if (latest.metaspaceUsed() >= 0) {
+                line.append(ChatColor.GRAY).append(" | metaspace ").append(ChatColor.AQUA)
+                        .append(megabytes(latest.metaspaceUsed()))
+                        .append(describeGrowth(first.metaspaceUsed() >= 0 ? latest.metaspaceUsed() - first.metaspaceUsed() : 0L, minutes));
+            }
+            line.append(ChatColor.GRAY).append(" | classes ").append(ChatColor.AQUA).append(latest.loadedClasses())
+                    .append(ChatColor.GRAY).append(" (").append(signed(latest.loadedClasses() - first.loadedClasses()))
+                    .append(")");
+            sender.sendMessage(line.toString());
+        }
 
-            sender.sendMessage(ChatColor.AQUA + displayName + pathInfo + versionInfo + autoInfo + pluginInfo);
+        List<ClassLoaderLeakTracker.Leak> leaks = tracker.leaks();
+        if (!leaks.isEmpty()) {
+            sender.sendMessage(ChatColor.GOLD + "Plugin class loaders that were not released:");
+            Instant now = Instant.now();
+            for (ClassLoaderLeakTracker.Leak leak : leaks) {
+                String hints = leak.hints().isEmpty() ? "no references found" : String.join("; ", leak.hints());
+                sender.sendMessage(ChatColor.AQUA + leak.pluginName() + ChatColor.GRAY + " | unloaded "
+                        + Duration.between(leak.unloadedAt(), now).toMinutes() + " min ago | " + ChatColor.RED + hints);
+            }
+        }
+    }
+
+    private String describeGrowth(long bytes, long minutes) {
+        return ChatColor.GRAY + " (" + (bytes >= 0 ? "+" : "-") + megabytes(Math.abs(bytes)) + " in " + minutes + " min)";
+    }
+
+    private String megabytes(long bytes) {
+        return (bytes / (1024L * 1024L)) + " MB";
+    }
+
+    private String signed(long value) {
+        return value >= 0 ? "+" + value : Long.toString(value);
+    }
+
+    private String describeBudget(RateLimitTracker.HostBudget budget) {
+        StringBuilder description = new StringBuilder();
+        if (budget.remaining() == null) {
+            description.append(ChatColor.GREEN).append("no limit reported");
+        } else {
+            description.append(budget.remaining() > 0 ? ChatColor.GREEN : ChatColor.RED)
+                    .append(budget.remaining());
+            if (budget.limit() != null) {
+                description.append('/').append(budget.limit());
+            }
+            description.append(" requests left");
+            if (!budget.headerDriven()) {
+                description.append(ChatColor.GRAY).append(" (local bucket)");
+            }
+        }
+        Instant now = Instant.now();
+        if (budget.blockedUntil() != null) {
+            description.append(ChatColor.GRAY).append(" | ").append(ChatColor.RED).append("paused for ")
+                    .append(Math.max(1L, Duration.between(now, budget.blockedUntil()).toSeconds())).append('s');
+        } else if (budget.resetAt() != null && budget.resetAt().isAfter(now)) {
+            description.append(ChatColor.GRAY).append(" | resets in ")
+                    .append(Duration.between(now, budget.resetAt()).toSeconds()).append('s');
         }
+        return description.toString();
     }
 }
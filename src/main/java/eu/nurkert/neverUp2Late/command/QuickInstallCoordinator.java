@@ -3,8 +3,9 @@ package eu.nurkert.neverUp2Late.command;
 import eu.nurkert.neverUp2Late.Permissions;
 import eu.nurkert.neverUp2Late.core.PluginContext;
 import eu.nurkert.neverUp2Late.fetcher.AssetPatternBuilder;
+import eu.nurkert.neverUp2Late.fetcher.FetchRequest;
+import eu.nurkert.neverUp2Late.fetcher.FetchResult;
 import eu.nurkert.neverUp2Late.fetcher.GithubReleaseFetcher;
-import eu.nurkert.neverUp2Late.fetcher.UpdateFetcher;
 import eu.nurkert.neverUp2Late.fetcher.exception.AssetSelectionRequiredException;
 import eu.nurkert.neverUp2Late.fetcher.exception.CompatibilityMismatchException;
 import eu.nurkert.neverUp2Late.handlers.ArtifactDownloader;
@@ -12,6 +13,7 @@ import eu.nurkert.neverUp2Late.handlers.PersistentPluginHandler;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.TargetDirectory;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.UpdateSource;
+import eu.nurkert.neverUp2Late.update.suggestion.BulkLinkResolver.BulkLinkProposal;
 import eu.nurkert.neverUp2Late.util.ArchiveUtils;
 import eu.nurkert.neverUp2Late.util.ArchiveUtils.ArchiveEntry;
 import eu.nurkert.neverUp2Late.util.FileNameSanitizer;
@@ -29,6 +31,7 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitScheduler;
 import org.bukkit.entity.Player;
 
+import eu.nurkert.neverUp2Late.persistence.ConfigWriter;
 import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository;
 import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository.PluginUpdateSettings;
 import eu.nurkert.neverUp2Late.plugin.ManagedPlugin;
@@ -58,6 +61,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.OptionalLong;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
@@ -131,6 +135,7 @@ public class QuickInstallCoordinator {
     private final JavaPlugin plugin;
     private final BukkitScheduler scheduler;
     private final FileConfiguration configuration;
+    private final ConfigWriter configWriter;
     private final UpdateSourceRegistry updateSourceRegistry;
     private final eu.nurkert.neverUp2Late.handlers.UpdateHandler updateHandler;
     private final eu.nurkert.neverUp2Late.handlers.PersistentPluginHandler persistentPluginHandler;
@@ -150,6 +155,7 @@ public class QuickInstallCoordinator {
         this.plugin = context.getPlugin();
         this.scheduler = context.getScheduler();
         this.configuration = context.getConfiguration();
+        this.configWriter = context.getConfigWriter();
         this.updateSourceRegistry = context.getUpdateSourceRegistry();
         this.updateHandler = context.getUpdateHandler();
         this.persistentPluginHandler = context.getPersistentPluginHandler();
@@ -195,6 +201,86 @@ public class QuickInstallCoordinator {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Creates update sources for all accepted bulk link proposals. All sources are written to the
+     * configuration in a single save; proposals that cannot be analysed or would conflict with an existing
+     * source are skipped. Downloads are left to the next scheduled update check.
+     */
+    public void linkAll(CommandSender sender, List<BulkLinkProposal> proposals) {
+        if (!hasPermission(sender, Permissions.GUI_MANAGE_LINK)) {
+            return;
+        }
+        List<BulkLinkProposal> accepted = proposals == null ? List.of() : proposals.stream()
+                .filter(BulkLinkProposal::hasSuggestion)
+                .toList();
+        if (accepted.isEmpty()) {
+            send(sender, ChatColor.YELLOW + "No links were selected.");
+            return;
+        }
+
+        Set<String> reservedNames = new HashSet<>();
+        List<InstallationPlan> plans = new ArrayList<>();
+        for (BulkLinkProposal proposal : accepted) {
+            String pluginName = proposal.pluginName();
+            String url = proposal.suggestion().url();
+            Path jarPath = pluginLifecycleManager != null
+                    ? pluginLifecycleManager.findByName(pluginName).map(ManagedPlugin::getPath).orElse(null)
+                    : null;
+            if (jarPath == null) {
+                send(sender, ChatColor.RED + "Skipping " + pluginName + ": no JAR file found.");
+                continue;
+            }
+
+            InstallationPlan plan;
+            try {
+                plan = analyse(new URI(url), url);
+                plan.setInstalledPluginName(pluginName);
+                plan.setFilename(jarPath.getFileName().toString());
+                plan.setSourceName(ensureUniqueName(plan.getSuggestedName(), reservedNames));
+                updateSourceRegistry.createFetcher(plan.getFetcherType(), plan.getOptions());
+            } catch (Exception e) {
+                logger.log(Level.FINE, "Failed to prepare bulk link for " + pluginName, e);
+                send(sender, ChatColor.RED + "Skipping " + pluginName + ": " + e.getMessage());
+                continue;
+            }
+
+            if (!findConflictingSources(plan).isEmpty()) {
+                send(sender, ChatColor.YELLOW + "Skipping " + pluginName + ": an update source already exists.");
+                continue;
+            }
+            plans.add(plan);
+        }
+
+        if (plans.isEmpty()) {
+            send(sender, ChatColor.YELLOW + "No update sources were created.");
+            return;
+        }
+
+        if (persistSourceConfiguration(plans, sender) == null) {
+            return;
+        }
+
+        int registered = 0;
+        for (InstallationPlan plan : plans) {
+            try {
+                updateSourceRegistry.registerDynamicSource(
+                        plan.getSourceName(),
+                        plan.getFetcherType(),
+                        plan.getTargetDirectory(),
+                        plan.getFilename(),
+                        plan.getOptions()
+                );
+                registered++;
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Failed to register dynamic source " + plan.getSourceName(), e);
+                send(sender, ChatColor.RED + "Could not register source " + plan.getSourceName() + ": " + e.getMessage());
+            }
+        }
+
+        send(sender, ChatColor.GREEN + "Linked " + ChatColor.AQUA + registered + ChatColor.GREEN
+                + " plugins. Updates are checked during the next update cycle.");
+    }
+
     private void install(CommandSender sender, String rawUrl, String forcedPluginName) {
         if (!hasPermission(sender, Permissions.INSTALL)) {
             return;
@@ -474,8 +560,8 @@ public class QuickInstallCoordinator {
             return false;
         }
 
-        UpdateFetcher fetcher = source.getFetcher();
-        if (fetcher == null) {
+        Class<?> fetcherClass = source.getFetcherClass();
+        if (fetcherClass == null) {
             return false;
         }
 
@@ -485,7 +571,6 @@ public class QuickInstallCoordinator {
         }
 
         String normalizedType = type.trim();
-        Class<?> fetcherClass = fetcher.getClass();
 
         if (normalizedType.contains(".")) {
             return fetcherClass.getName().equalsIgnoreCase(normalizedType);
@@ -508,23 +593,31 @@ public class QuickInstallCoordinator {
 
         Set<String> removed = new LinkedHashSet<>();
 
-        for (UpdateSource conflict : conflicts) {
-            if (conflict == null) {
-                continue;
-            }
-            String name = conflict.getName();
-            if (name == null || name.isBlank()) {
-                continue;
-            }
-            if (updateSourceRegistry.unregisterSource(name)) {
-                removed.add(name);
-                if (logger != null) {
-                    logger.log(Level.INFO,
-                            "Removed conflicting update source {0} before applying new quick install plan.",
-                            name);
+        configWriter.update(() -> {
+            for (UpdateSource conflict : conflicts) {
+                if (conflict == null) {
+                    continue;
+                }
+                String name = conflict.getName();
+                if (name == null || name.isBlank()) {
+                    continue;
+                }
+                if (updateSourceRegistry.unregisterSource(name)) {
+                    removed.add(name);
+                    if (logger != null) {
+                        logger.log(Level.INFO,
+                                "Removed conflicting update source {0} before applying new quick install plan.",
+                                name);
+                    }
                 }
             }
-        }
+            return !removed.isEmpty();
+        }).exceptionally(ex -> {
+            if (logger != null) {
+                logger.log(Level.WARNING, "Failed to save configuration after removing conflicting sources", ex);
+            }
+            return null;
+        });
 
         if (removed.isEmpty()) {
             return;
@@ -533,21 +626,6 @@ public class QuickInstallCoordinator {
         if (sender != null) {
             send(sender, ChatColor.YELLOW + "Removed conflicting update sources: " + String.join(", ", removed));
         }
-
-        saveConfigQuietly();
-    }
-
-    private void saveConfigQuietly() {
-        if (plugin == null) {
-            return;
-        }
-        try {
-            plugin.saveConfig();
-        } catch (RuntimeException ex) {
-            if (logger != null) {
-                logger.log(Level.WARNING, "Failed to save configuration after removing conflicting sources", ex);
-            }
-        }
     }
 
     private UpdateSource selectPrimarySource(List<UpdateSource> candidates, InstallationPlan plan) {
@@ -590,12 +668,13 @@ public class QuickInstallCoordinator {
     private void prepareAndInstall(CommandSender sender, InstallationPlan plan) {
         send(sender, ChatColor.YELLOW + "Loading version information…");
         eu.nurkert.neverUp2Late.fetcher.UpdateFetcher fetcher;
+        FetchResult result;
         try {
             fetcher = updateSourceRegistry.createFetcher(plan.getFetcherType(), plan.getOptions());
-            fetcher.loadLatestBuildInfo();
-            String downloadUrl = Objects.requireNonNull(fetcher.getLatestDownloadUrl(), "downloadUrl");
-            plan.setLatestBuild(fetcher.getLatestBuild());
-            plan.setLatestVersion(fetcher.getLatestVersion());
+            result = fetcher.fetchLatest(FetchRequest.of(plan.getDisplayName()));
+            String downloadUrl = Objects.requireNonNull(result.downloadUrl(), "downloadUrl");
+            plan.setLatestBuild(result.build());
+            plan.setLatestVersion(result.version());
             plan.setDownloadUrl(downloadUrl);
             plan.setFilename(determineFilename(downloadUrl, plan.getDefaultFilename()));
         } catch (AssetSelectionRequiredException selection) {
@@ -613,7 +692,7 @@ public class QuickInstallCoordinator {
             return;
         }
 
-        if (!ensureArchiveConfiguration(sender, plan, fetcher)) {
+        if (!ensureArchiveConfiguration(sender, plan, fetcher, result)) {
             return;
         }
 
@@ -729,8 +808,9 @@ public class QuickInstallCoordinator {
 
     private boolean ensureArchiveConfiguration(CommandSender sender,
                                                InstallationPlan plan,
-                                               eu.nurkert.neverUp2Late.fetcher.UpdateFetcher fetcher) {
-        if (!(fetcher instanceof GithubReleaseFetcher githubFetcher) || !githubFetcher.isSelectedAssetArchive()) {
+                                               eu.nurkert.neverUp2Late.fetcher.UpdateFetcher fetcher,
+                                               FetchResult result) {
+        if (!(fetcher instanceof GithubReleaseFetcher githubFetcher) || !GithubReleaseFetcher.isArchive(result)) {
             plan.getOptions().remove("archiveEntryPattern");
             return true;
         }
@@ -998,6 +1078,10 @@ public class QuickInstallCoordinator {
     }
 
     private ConfigurationSnapshot persistSourceConfiguration(InstallationPlan plan, CommandSender sender) {
+        return persistSourceConfiguration(List.of(plan), sender);
+    }
+
+    private ConfigurationSnapshot persistSourceConfiguration(List<InstallationPlan> plans, CommandSender sender) {
         synchronized (configurationLock) {
             ConfigurationSnapshot snapshot = createSnapshot();
             if (snapshot == null) {
@@ -1005,12 +1089,20 @@ public class QuickInstallCoordinator {
                 return null;
             }
             try {
-                applyPlanToConfiguration(plan);
-                plugin.saveConfig();
+                configWriter.update(() -> {
+                    for (InstallationPlan plan : plans) {
+                        applyPlanToConfiguration(plan);
+                    }
+                    return true;
+                }).exceptionally(ex -> {
+                    send(sender, ChatColor.RED + "Could not write configuration: " + ex.getMessage());
+                    return null;
+                });
                 return snapshot;
             } catch (Exception ex) {
+                String names = plans.stream().map(InstallationPlan::getSourceName).collect(Collectors.joining(", "));
                 logger.log(Level.SEVERE,
-                        "Failed to persist configuration for " + plan.getSourceName() + ':', ex);
+                        "Failed to persist configuration for " + names + ':', ex);
                 restoreConfiguration(snapshot);
                 send(sender, ChatColor.RED + "Could not write configuration: " + ex.getMessage());
                 return null;
@@ -1032,12 +1124,15 @@ public class QuickInstallCoordinator {
             return;
         }
         synchronized (configurationLock) {
-            try {
-                configuration.loadFromString(snapshot.data());
-                plugin.saveConfig();
-            } catch (InvalidConfigurationException | RuntimeException ex) {
-                logger.log(Level.SEVERE, "Failed to restore configuration after error", ex);
-            }
+            configWriter.update(() -> {
+                try {
+                    configuration.loadFromString(snapshot.data());
+                    return true;
+                } catch (InvalidConfigurationException | RuntimeException ex) {
+                    logger.log(Level.SEVERE, "Failed to restore configuration after error", ex);
+                    return false;
+                }
+            });
         }
     }
 
@@ -1793,6 +1888,16 @@ public class QuickInstallCoordinator {
         return candidate;
     }
 
+    private String ensureUniqueName(String base, Set<String> reservedNames) {
+        String candidate = base;
+        int counter = 1;
+        while (updateSourceRegistry.hasSource(candidate) || reservedNames.contains(candidate.toLowerCase(Locale.ROOT))) {
+            candidate = base + "-" + counter++;
+        }
+        reservedNames.add(candidate.toLowerCase(Locale.ROOT));
+        return candidate;
+    }
+
     private void ensurePreferredSourceName(InstallationPlan plan) {
         if (plan == null || updateSourceRegistry == null) {
             return;
@@ -1924,16 +2029,15 @@ public class QuickInstallCoordinator {
                     .filter(source -> matchesPluginSource(source, pluginName, jarPath))
                     .toList();
 
-            for (UpdateSource source : matchingSources) {
-                if (updateSourceRegistry.unregisterSource(source.getName())) {
-                    configuration.set("filenames." + source.getName(), null);
-                    persistentPluginHandler.removePluginInfo(source.getName());
+            configWriter.update(() -> {
+                for (UpdateSource source : matchingSources) {
+                    if (updateSourceRegistry.unregisterSource(source.getName())) {
+                        configuration.set("filenames." + source.getName(), null);
+                        persistentPluginHandler.removePluginInfo(source.getName());
+                    }
                 }
-            }
-
-            if (!matchingSources.isEmpty()) {
-                plugin.saveConfig();
-            }
+                return !matchingSources.isEmpty();
+            });
 
             if (pluginUpdateSettingsRepository != null) {
                 pluginUpdateSettingsRepository.removeSettings(pluginName);
@@ -2006,18 +2110,17 @@ public class QuickInstallCoordinator {
             }
         }
 
-        int removed = 0;
-        for (UpdateSource source : matchingSources) {
-            if (updateSourceRegistry.unregisterSource(source.getName())) {
-                configuration.set("filenames." + source.getName(), null);
-                persistentPluginHandler.removePluginInfo(source.getName());
-                removed++;
+        AtomicInteger removed = new AtomicInteger();
+        configWriter.update(() -> {
+            for (UpdateSource source : matchingSources) {
+                if (updateSourceRegistry.unregisterSource(source.getName())) {
+                    configuration.set("filenames." + source.getName(), null);
+                    persistentPluginHandler.removePluginInfo(source.getName());
+                    removed.incrementAndGet();
+                }
             }
-        }
-
-        if (removed > 0) {
-            plugin.saveConfig();
-        }
+            return removed.get() > 0;
+        });
 
         if (pluginUpdateSettingsRepository != null && !pluginName.isBlank()) {
             PluginUpdateSettings current = pluginUpdateSettingsRepository.getSettings(pluginName);
@@ -2027,7 +2130,7 @@ public class QuickInstallCoordinator {
             }
         }
 
-        if (removed > 0) {
+        if (removed.get() > 0) {
             send(sender, ChatColor.YELLOW + "Automatic updates for " + ChatColor.AQUA + displayName
                     + ChatColor.YELLOW + " have been disabled.");
             send(sender, ChatColor.GRAY + "The plugin remains installed; only the update source was removed.");
@@ -2119,14 +2222,14 @@ public class QuickInstallCoordinator {
                     .filter(source -> matchesPluginSource(source, pluginName, currentPath))
                     .toList();
 
-            for (UpdateSource source : matchingSources) {
-                if (updateSourceRegistry.updateSourceFilename(source.getName(), sanitized)) {
-                    configuration.set("filenames." + source.getName(), sanitized);
+            configWriter.update(() -> {
+                for (UpdateSource source : matchingSources) {
+                    if (updateSourceRegistry.updateSourceFilename(source.getName(), sanitized)) {
+                        configuration.set("filenames." + source.getName(), sanitized);
+                    }
                 }
-            }
-            if (!matchingSources.isEmpty()) {
-                plugin.saveConfig();
-            }
+                return !matchingSources.isEmpty();
+            });
 
             pluginLifecycleManager.updateManagedPluginPath(currentPath, targetPath);
 
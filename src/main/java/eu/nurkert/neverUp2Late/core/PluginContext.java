@@ -4,6 +4,7 @@ import eu.nurkert.neverUp2Late.handlers.ArtifactDownloader;
 import eu.nurkert.neverUp2Late.handlers.InstallationHandler;
 import eu.nurkert.neverUp2Late.handlers.PersistentPluginHandler;
 import eu.nurkert.neverUp2Late.handlers.UpdateHandler;
+import eu.nurkert.neverUp2Late.persistence.ConfigWriter;
 import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository;
 import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository.PluginUpdateSettings;
 import eu.nurkert.neverUp2Late.persistence.SetupStateRepository;
@@ -13,15 +14,16 @@ import eu.nurkert.neverUp2Late.plugin.PluginLifecycleManager;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.TargetDirectory;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.UpdateSource;
+import eu.nurkert.neverUp2Late.update.suggestion.PluginLinkSuggester;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitScheduler;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -42,6 +44,8 @@ public class PluginContext {
     private final PluginUpdateSettingsRepository pluginUpdateSettingsRepository;
     private final SetupStateRepository setupStateRepository;
     private final ArtifactDownloader artifactDownloader;
+    private final PluginLinkSuggester linkSuggester;
+    private final ConfigWriter configWriter;
 
     public PluginContext(JavaPlugin plugin,
                          BukkitScheduler scheduler,
@@ -53,7 +57,9 @@ public class PluginContext {
                          PluginLifecycleManager pluginLifecycleManager,
                          PluginUpdateSettingsRepository pluginUpdateSettingsRepository,
                          SetupStateRepository setupStateRepository,
-                         ArtifactDownloader artifactDownloader) {
+                         ArtifactDownloader artifactDownloader,
+                         PluginLinkSuggester linkSuggester,
+                         ConfigWriter configWriter) {
         this.plugin = plugin;
         this.scheduler = scheduler;
         this.configuration = configuration;
@@ -65,6 +71,8 @@ public class PluginContext {
         this.pluginUpdateSettingsRepository = pluginUpdateSettingsRepository;
         this.setupStateRepository = setupStateRepository;
         this.artifactDownloader = artifactDownloader;
+        this.linkSuggester = linkSuggester;
+        this.configWriter = configWriter;
     }
 
     public JavaPlugin getPlugin() {
@@ -111,6 +119,14 @@ public class PluginContext {
         return artifactDownloader;
     }
 
+    public PluginLinkSuggester getLinkSuggester() {
+        return linkSuggester;
+    }
+
+    public ConfigWriter getConfigWriter() {
+        return configWriter;
+    }
+
     public List<UpdateSourceStatus> getUpdateSourceStatuses() {
         if (updateSourceRegistry == null) {
             return Collections.emptyList();
@@ -121,22 +137,9 @@ public class PluginContext {
             return Collections.emptyList();
         }
 
-        Map<String, PluginState> storedStates = Collections.emptyMap();
-        if (persistentPluginHandler != null) {
-            List<String> names = new ArrayList<>(sources.size());
-            for (UpdateSource source : sources) {
-                if (source == null) {
-                    continue;
-                }
-                String name = source.getName();
-                if (name != null && !name.isBlank()) {
-                    names.add(name);
-                }
-            }
-            storedStates = persistentPluginHandler.getPluginStates(names);
-        }
-
-        Map<String, PluginState> stateLookup = new HashMap<>(storedStates);
+        Map<String, PluginState> stateLookup = persistentPluginHandler != null
+                ? persistentPluginHandler.getPluginStates()
+                : Collections.emptyMap();
         List<UpdateSourceStatus> result = new ArrayList<>(sources.size());
 
         for (UpdateSource source : sources) {
@@ -157,6 +160,10 @@ public class PluginContext {
                 autoUpdate = settings.autoUpdateEnabled();
             }
 
+            Instant staleSince = updateHandler != null
+                    ? updateHandler.getStaleSince(sourceName).orElse(null)
+                    : null;
+
             result.add(new UpdateSourceStatus(
                     sourceName,
                     pluginName,
@@ -164,7 +171,8 @@ public class PluginContext {
                     targetPath,
                     build,
                     version,
-                    autoUpdate
+                    autoUpdate,
+                    staleSince
             ));
         }
 
@@ -210,12 +218,20 @@ public class PluginContext {
                                      Path targetPath,
                                      Integer lastBuild,
                                      String lastVersion,
-                                     boolean autoUpdateEnabled) {
+                                     boolean autoUpdateEnabled,
+                                     Instant staleSince) {
 
         public boolean hasBuildInformation() {
             return lastBuild != null || (lastVersion != null && !lastVersion.isBlank());
         }
 
+        /**
+         * @return {@code true} if the provider of the source is unavailable and the last known metadata is shown
+         */
+        public boolean isStale() {
+            return staleSince != null;
+        }
+
         public String displayName() {
             return sourceName != null ? sourceName : "Unknown source";
         }
@@ -0,0 +1,23 @@
+package eu.nurkert.neverUp2Late.fetcher;
+
+import java.util.List;
+
+/**
+ * The fetcher types shipped with NeverUp2Late.
+ */
+public final class BuiltInFetchers implements FetcherProvider {
+
+    @Override
+    public List<Class<? extends UpdateFetcher>> fetcherTypes() {
+        return List.of(
+                CurseforgeFetcher.class,
+                GeyserFetcher.class,
+                GithubReleaseFetcher.class,
+                HangarFetcher.class,
+                JenkinsFetcher.class,
+                ModrinthFetcher.class,
+                PaperFetcher.class,
+                SpigotFetcher.class
+        );
+    }
+}
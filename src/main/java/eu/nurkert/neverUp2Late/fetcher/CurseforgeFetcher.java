@@ -51,7 +51,7 @@ public class CurseforgeFetcher extends JsonUpdateFetcher {
     }
 
     @Override
-    public void loadLatestBuildInfo() throws Exception {
+    public FetchResult fetchLatest(FetchRequest request) throws Exception {
         Comparator<CurseforgeFile> comparator = Comparator
                 .comparing(CurseforgeFile::fileDate, Comparator.nullsLast(Comparator.naturalOrder()))
                 .thenComparingInt(this::releasePriority)
@@ -62,6 +62,7 @@ public class CurseforgeFetcher extends JsonUpdateFetcher {
         int pagesFetched = 0;
 
         while (pagesFetched < config.maxPages()) {
+            request.cancellation().throwIfCancelled();
             FilesResponse response = getJson(String.format(API_TEMPLATE,
                     config.modId(),
                     config.pageSize(),
@@ -105,7 +106,7 @@ public class CurseforgeFetcher extends JsonUpdateFetcher {
         String version = resolveVersion(best);
         int buildNumber = resolveBuildNumber(best);
 
-        setLatestBuildInfo(version, buildNumber, downloadUrl);
+        return new FetchResult(version, buildNumber, downloadUrl);
     }
 
     @Override
@@ -0,0 +1,22 @@
+package eu.nurkert.neverUp2Late.fetcher;
+
+import eu.nurkert.neverUp2Late.update.CancellationToken;
+
+import java.util.Objects;
+
+/**
+ * One request for the latest build of an update source.
+ *
+ * @param sourceName   name of the update source the request is made for
+ * @param cancellation aborts the request; fetchers that walk several pages or versions check it in between
+ */
+public record FetchRequest(String sourceName, CancellationToken cancellation) {
+
+    public FetchRequest {
+        Objects.requireNonNull(cancellation, "cancellation");
+    }
+
+    public static FetchRequest of(String sourceName) {
+        return new FetchRequest(sourceName, new CancellationToken());
+    }
+}
@@ -0,0 +1,40 @@
+package eu.nurkert.neverUp2Late.fetcher;
+
+import eu.nurkert.neverUp2Late.update.UpdateContext;
+
+import java.util.function.Consumer;
+
+/**
+ * Immutable result of {@link UpdateFetcher#fetchLatest(FetchRequest)}.
+ *
+ * @param version           latest version, {@code null} if the provider only publishes build numbers
+ * @param build             latest build number
+ * @param downloadUrl       download URL of the latest build
+ * @param contextConfigurer customises the update context for this build, for example with a download
+ *                          processor; {@code null} if nothing needs to be configured
+ * @param reusable          {@code false} if the configurer reads state that the fetcher replaces on its next
+ *                          fetch, so the result must be applied right away and not be kept for a later run
+ */
+public record FetchResult(String version,
+                          int build,
+                          String downloadUrl,
+                          Consumer<UpdateContext> contextConfigurer,
+                          boolean reusable) {
+
+    public FetchResult(String version, int build, String downloadUrl) {
+        this(version, build, downloadUrl, null);
+    }
+
+    public FetchResult(String version, int build, String downloadUrl, Consumer<UpdateContext> contextConfigurer) {
+        this(version, build, downloadUrl, contextConfigurer, true);
+    }
+
+    /**
+     * Applies this result's customisations to the context of the update that installs it.
+     */
+    public void configureContext(UpdateContext context) {
+        if (contextConfigurer != null) {
+            contextConfigurer.accept(context);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package eu.nurkert.neverUp2Late.fetcher;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the {@code type} of an update source to a fetcher constructor.
+ * <p>
+ * Each type is resolved once: the class is looked up among the types of the {@link FetcherProvider}s found
+ * through {@link ServiceLoader} and only loaded by name if no provider knows it, and its constructor is
+ * cached as a {@link MethodHandle}. Constructors are preferred in the order options section, configuration
+ * file, {@code boolean} (ignore unstable builds), {@code Boolean}, none.
+ * <p>
+ * Like {@link eu.nurkert.neverUp2Late.net.RateLimitTracker}, a single {@link #shared()} instance is used by
+ * default.
+ */
+public class FetcherFactory {
+
+    private static final String DEFAULT_FETCHER_PACKAGE = "eu.nurkert.neverUp2Late.fetcher";
+    private static final FetcherFactory SHARED = new FetcherFactory(FetcherFactory.class.getClassLoader());
+
+    private final ClassLoader classLoader;
+    private final Map<String, Class<? extends UpdateFetcher>> provided = new ConcurrentHashMap<>();
+    private final Map<String, FetcherType> types = new ConcurrentHashMap<>();
+
+    public FetcherFactory(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+        try {
+            // Explicit class loader: the thread's context class loader belongs to the server, not the plugin
+            for (FetcherProvider provider : ServiceLoader.load(FetcherProvider.class, classLoader)) {
+                for (Class<? extends UpdateFetcher> type : provider.fetcherTypes()) {
+                    provided.put(type.getName(), type);
+                }
+            }
+        } catch (ServiceConfigurationError ignored) {
+            // Types are loaded by name instead
+        }
+    }
+
+    public static FetcherFactory shared() {
+        return SHARED;
+    }
+
+    /**
+     * @param type a fetcher class name or a short form such as {@code githubRelease} or {@code Modrinth}
+     * @throws ReflectiveOperationException if no fetcher class or no usable constructor exists for the type
+     */
+    public FetcherType resolve(String type) throws ReflectiveOperationException {
+        FetcherType resolved = types.get(type);
+        if (resolved != null) {
+            return resolved;
+        }
+        resolved = createType(resolveClass(resolveClassName(type)));
+        FetcherType existing = types.putIfAbsent(type, resolved);
+        return existing != null ? existing : resolved;
+    }
+
+    private Class<? extends UpdateFetcher> resolveClass(String className) throws ClassNotFoundException {
+        Class<? extends UpdateFetcher> known = provided.get(className);
+        if (known != null) {
+            return known;
+        }
+        Class<?> rawClass = Class.forName(className, true, classLoader);
+        if (!UpdateFetcher.class.isAssignableFrom(rawClass)) {
+            throw new IllegalArgumentException(className + " does not implement UpdateFetcher");
+        }
+        return rawClass.asSubclass(UpdateFetcher.class);
+    }
+
+    private static FetcherType createType(Class<? extends UpdateFetcher> fetcherClass) throws ReflectiveOperationException {
+        Constructor<?> sectionConstructor = null;
+        Constructor<?> fileConstructor = null;
+        for (Constructor<?> constructor : fetcherClass.getDeclaredConstructors()) {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            if (parameterTypes.length != 1) {
+                continue;
+            }
+            if (sectionConstructor == null && parameterTypes[0].isAssignableFrom(ConfigurationSection.class)) {
+                sectionConstructor = constructor;
+            } else if (fileConstructor == null && parameterTypes[0].isAssignableFrom(FileConfiguration.class)) {
+                fileConstructor = constructor;
+            }
+        }
+        if (sectionConstructor != null) {
+            return new FetcherType(fetcherClass, Argument.OPTIONS, unreflect(sectionConstructor));
+        }
+        if (fileConstructor != null) {
+            return new FetcherType(fetcherClass, Argument.CONFIGURATION, unreflect(fileConstructor));
+        }
+        for (Class<?> parameterType : new Class<?>[]{boolean.class, Boolean.class}) {
+            try {
+                return new FetcherType(fetcherClass, Argument.IGNORE_UNSTABLE,
+                        unreflect(fetcherClass.getDeclaredConstructor(parameterType)));
+            } catch (NoSuchMethodException ignored) {
+                // Try the next constructor shape
+            }
+        }
+        return new FetcherType(fetcherClass, Argument.NONE, unreflect(fetcherClass.getDeclaredConstructor()));
+    }
+
+    private static MethodHandle unreflect(Constructor<?> constructor) throws IllegalAccessException {
+        constructor.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+        // One call site shape per argument, so the handle is invoked exactly
+        MethodType type = handle.type().parameterCount() == 0
+                ? MethodType.methodType(UpdateFetcher.class)
+                : MethodType.methodType(UpdateFetcher.class, Object.class);
+        return handle.asType(type);
+    }
+
+    static String resolveClassName(String type) {
+        String trimmed = type.trim();
+        if (trimmed.contains(".")) {
+            return trimmed;
+        }
+
+        if (Character.isUpperCase(trimmed.charAt(0))) {
+            return DEFAULT_FETCHER_PACKAGE + "." + trimmed;
+        }
+
+        String pascalCase = toPascalCase(trimmed);
+        if (!pascalCase.endsWith("Fetcher")) {
+            pascalCase = pascalCase + "Fetcher";
+        }
+        return DEFAULT_FETCHER_PACKAGE + "." + pascalCase;
+    }
+
+    private static String toPascalCase(String value) {
+        String[] parts = value.split("[^a-zA-Z0-9]+");
+        StringBuilder builder = new StringBuilder();
+        for (String part : parts) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            builder.append(Character.toUpperCase(part.charAt(0)));
+            if (part.length() > 1) {
+                builder.append(part.substring(1));
+            }
+        }
+        return builder.toString();
+    }
+
+    private enum Argument {
+        OPTIONS,
+        CONFIGURATION,
+        IGNORE_UNSTABLE,
+        NONE
+    }
+
+    /**
+     * A resolved fetcher type that creates fetchers without further reflection.
+     */
+    public static final class FetcherType {
+
+        private final Class<? extends UpdateFetcher> fetcherClass;
+        private final Argument argument;
+        private final MethodHandle constructor;
+
+        private FetcherType(Class<? extends UpdateFetcher> fetcherClass, Argument argument, MethodHandle constructor) {
+            this.fetcherClass = fetcherClass;
+            this.argument = argument;
+            this.constructor = constructor;
+        }
+
+        public Class<? extends UpdateFetcher> fetcherClass() {
+            return fetcherClass;
+        }
+
+        /**
+         * @param options        options of the source
+         * @param configuration  the plugin configuration, for fetchers that read it themselves
+         * @param ignoreUnstable global setting for fetchers that only accept this flag
+         */
+        public UpdateFetcher create(ConfigurationSection options,
+                                    FileConfiguration configuration,
+                                    boolean ignoreUnstable) throws Exception {
+            try {
+                return switch (argument) {
+                    case OPTIONS -> (UpdateFetcher) constructor.invokeExact((Object) options);
+                    case CONFIGURATION -> (UpdateFetcher) constructor.invokeExact((Object) configuration);
+                    case IGNORE_UNSTABLE -> (UpdateFetcher) constructor.invokeExact((Object) ignoreUnstable);
+                    case NONE -> (UpdateFetcher) constructor.invokeExact();
+                };
+            } catch (Exception | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Failed to create " + fetcherClass.getName(), ex);
+            }
+        }
+    }
+}
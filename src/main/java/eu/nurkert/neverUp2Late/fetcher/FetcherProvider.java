@@ -0,0 +1,12 @@
+package eu.nurkert.neverUp2Late.fetcher;
+
+import java.util.List;
+
+/**
+ * Supplies fetcher types to {@link FetcherFactory}. Implementations are discovered through
+ * {@link java.util.ServiceLoader}, so fetcher types are found without probing class names.
+ */
+public interface FetcherProvider {
+
+    List<Class<? extends UpdateFetcher>> fetcherTypes();
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -48,9 +49,6 @@ public class GithubReleaseFetcher extends JsonUpdateFetcher {
     private final boolean allowPrerelease;
     private final String installedPluginName;
 
-    private Asset selectedAsset;
-    private boolean selectedAssetIsArchive;
-
     public GithubReleaseFetcher(ConfigurationSection options) {
         this(options, HttpClient.builder()
                 .headers(GITHUB_HEADERS)
@@ -69,12 +67,10 @@ public class GithubReleaseFetcher extends JsonUpdateFetcher {
         this.archiveEntryPattern = archivePattern != null ? Pattern.compile(archivePattern) : null;
         this.allowPrerelease = options.getBoolean("allowPrerelease", false);
         this.installedPluginName = trimToNull(options.getString("installedPlugin"));
-        this.selectedAsset = null;
-        this.selectedAssetIsArchive = false;
     }
 
     @Override
-    public void loadLatestBuildInfo() throws Exception {
+    public FetchResult fetchLatest(FetchRequest request) throws Exception {
         Release[] releaseArray = getJson(buildReleasesUrl(), Release[].class);
         List<Release> releases = releaseArray != null ? List.of(releaseArray) : List.of();
 
@@ -86,34 +82,28 @@ public class GithubReleaseFetcher extends JsonUpdateFetcher {
                         .thenComparingLong(Release::id));
 
         if (latestRelease.isPresent()) {
-            processRelease(latestRelease.get());
-            return;
+            return processRelease(latestRelease.get());
         }
 
-        loadFromTags();
+        return loadFromTags();
     }
 
-    @Override
-    public void configureContext(UpdateContext context) {
-        if (selectedAsset == null) {
-            context.setDownloadProcessor(null);
-            return;
-        }
-        if (selectedAssetIsArchive) {
-            context.setDownloadProcessor(new GithubArchiveDownloadProcessor(
-                    archiveEntryPattern,
-                    Optional.ofNullable(assetDisplayName(selectedAsset)).orElse(selectedAsset.browserDownloadUrl())));
-        } else {
-            context.setDownloadProcessor(null);
-        }
+    /**
+     * @return whether the result selected an archive the plugin JAR still has to be extracted from
+     */
+    public static boolean isArchive(FetchResult result) {
+        return result != null && result.contextConfigurer() instanceof AssetSelection selection && selection.archive();
     }
 
     public boolean isSelectedAssetArchive() {
-        return selectedAssetIsArchive;
+        return isArchive(latestResult());
     }
 
     public Optional<String> getSelectedAssetDownloadUrl() {
-        return selectedAsset != null ? Optional.ofNullable(selectedAsset.browserDownloadUrl()) : Optional.empty();
+        FetchResult result = latestResult();
+        return result != null && result.contextConfigurer() instanceof AssetSelection selection
+                ? Optional.ofNullable(selection.asset().browserDownloadUrl())
+                : Optional.empty();
     }
 
     public Optional<Pattern> getArchiveEntryPattern() {
@@ -281,7 +271,7 @@ public class GithubReleaseFetcher extends JsonUpdateFetcher {
         return trimmed.isEmpty() ? null : trimmed;
     }
 
-    private void processRelease(Release latest) throws IOException, AssetSelectionRequiredException {
+    private FetchResult processRelease(Release latest) throws IOException, AssetSelectionRequiredException {
         String tagName = trimToNull(latest.tagName());
         if (tagName == null) {
             throw new IOException("Latest release for " + owner + "/" + repository + " is missing a tag name");
@@ -293,10 +283,7 @@ public class GithubReleaseFetcher extends JsonUpdateFetcher {
         if (matchingAssets.isEmpty()) {
             Asset zipball = assets.isEmpty() ? buildArchiveAsset(tagName) : null;
             if (zipball != null) {
-                setArchiveSelection(zipball);
-                int build = Math.toIntExact(latest.id());
-                setLatestBuildInfo(tagName, build, zipball.browserDownloadUrl());
-                return;
+                return select(tagName, Math.toIntExact(latest.id()), zipball, true);
             }
 
             throw new IOException("No asset download URL"
@@ -305,13 +292,10 @@ public class GithubReleaseFetcher extends JsonUpdateFetcher {
         }
 
         Asset selected = matchingAssets.get(0);
-        setSelection(selected);
-
-        int build = Math.toIntExact(latest.id());
-        setLatestBuildInfo(tagName, build, selected.browserDownloadUrl());
+        return select(tagName, Math.toIntExact(latest.id()), selected, isArchiveAsset(selected));
     }
 
-    private void loadFromTags() throws IOException {
+    private FetchResult loadFromTags() throws IOException {
         Tag[] tagArray = getJson(buildTagsUrl(), Tag[].class);
         List<Tag> tags = tagArray != null ? List.of(tagArray) : List.of();
         if (tags.isEmpty()) {
@@ -329,20 +313,12 @@ public class GithubReleaseFetcher extends JsonUpdateFetcher {
             throw new IOException("Unable to determine download URL for tag " + tagName);
         }
 
-        setArchiveSelection(archiveAsset);
-
-        int build = buildNumberFromSha(latestTag.commit());
-        setLatestBuildInfo(tagName, build, archiveAsset.browserDownloadUrl());
-    }
-
-    private void setSelection(Asset selected) {
-        this.selectedAsset = selected;
-        this.selectedAssetIsArchive = isArchiveAsset(selected);
+        return select(tagName, buildNumberFromSha(latestTag.commit()), archiveAsset, true);
     }
 
-    private void setArchiveSelection(Asset asset) {
-        this.selectedAsset = asset;
-        this.selectedAssetIsArchive = true;
+    private FetchResult select(String tagName, int build, Asset asset, boolean archive) {
+        return new FetchResult(tagName, build, asset.browserDownloadUrl(),
+                new AssetSelection(asset, archive, archiveEntryPattern));
     }
 
     private Asset buildArchiveAsset(String tagName) {
@@ -407,6 +383,23 @@ public class GithubReleaseFetcher extends JsonUpdateFetcher {
         }
     }
 
+    /**
+     * The asset a fetch selected; archives get a download processor that extracts the plugin JAR.
+     */
+    private record AssetSelection(Asset asset, boolean archive, Pattern entryPattern) implements Consumer<UpdateContext> {
+
+        @Override
+        public void accept(UpdateContext context) {
+            if (!archive) {
+                context.setDownloadProcessor(null);
+                return;
+            }
+            context.setDownloadProcessor(new GithubArchiveDownloadProcessor(
+                    entryPattern,
+                    Optional.ofNullable(assetDisplayName(asset)).orElse(asset.browserDownloadUrl())));
+        }
+    }
+
     private record Tag(
             @JsonProperty("name") String name,
             @JsonProperty("commit") TagCommit commit
@@ -45,13 +45,14 @@ public class HangarFetcher extends JsonUpdateFetcher {
     }
 
     @Override
-    public void loadLatestBuildInfo() throws Exception {
+    public FetchResult fetchLatest(FetchRequest request) throws Exception {
         Comparator<VersionResponse> comparator = buildComparator();
         VersionResponse best = null;
 
         int offset = 0;
         int pagesFetched = 0;
         while (pagesFetched < config.maxPages()) {
+            request.cancellation().throwIfCancelled();
             VersionsResponse response = getJson(String.format(API_TEMPLATE,
                     config.owner(),
                     config.slug(),
@@ -98,7 +99,7 @@ public class HangarFetcher extends JsonUpdateFetcher {
         String downloadUrl = resolveDownloadUrl(download);
         int buildNumber = resolveBuildNumber(best);
 
-        setLatestBuildInfo(best.name(), buildNumber, downloadUrl);
+        return new FetchResult(best.name(), buildNumber, downloadUrl);
     }
 
     @Override
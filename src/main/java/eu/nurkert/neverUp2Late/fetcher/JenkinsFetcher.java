@@ -65,7 +65,7 @@ public class JenkinsFetcher extends JsonUpdateFetcher {
     }
 
     @Override
-    public void loadLatestBuildInfo() throws Exception {
+    public FetchResult fetchLatest(FetchRequest request) throws Exception {
         Build build = fetchPreferredBuild();
         if (build == null) {
             throw new IOException("No build information available for " + jobBaseUrl);
@@ -78,7 +78,7 @@ public class JenkinsFetcher extends JsonUpdateFetcher {
 
         String downloadUrl = buildDownloadUrl(build, artifact);
         String version = determineVersion(build, artifact);
-        setLatestBuildInfo(version, build.number(), downloadUrl);
+        return new FetchResult(version, build.number(), downloadUrl);
     }
 
     @Override
@@ -2,10 +2,10 @@ package eu.nurkert.neverUp2Late.fetcher;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import eu.nurkert.neverUp2Late.net.HttpClient;
+import eu.nurkert.neverUp2Late.net.JsonSupport;
+import eu.nurkert.neverUp2Late.update.UpdateContext;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -21,6 +21,12 @@ import java.util.stream.Collectors;
 
 /**
  * Base class for update fetchers that communicate with JSON based HTTP APIs.
+ * <p>
+ * Responses are read with the {@link JsonSupport#shared() shared} readers unless a custom mapper is given.
+ * Subclasses implement the stateless {@link #fetchLatest(FetchRequest)}; {@link #loadLatestBuildInfo()} only
+ * keeps its last result for callers of the older getters. Subclasses written against the older contract
+ * override {@link #loadLatestBuildInfo()} and call {@link #setLatestBuildInfo(String, int, String)}; they are
+ * fetched through the serialised adapter of {@link UpdateFetcher#fetchLatest(FetchRequest)}.
  */
 public abstract class JsonUpdateFetcher implements UpdateFetcher {
 
@@ -28,37 +34,73 @@ public abstract class JsonUpdateFetcher implements UpdateFetcher {
     private static final Pattern BUILD_NUMBER_PATTERN = Pattern.compile("-b(\\d+)$", Pattern.CASE_INSENSITIVE);
 
     private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
+    private final JsonSupport json;
 
-    private String latestVersion;
-    private int latestBuild;
-    private String latestDownloadUrl;
+    private final boolean legacy = isLegacy(getClass());
+    private volatile FetchResult latest;
 
     protected JsonUpdateFetcher() {
-        this(new HttpClient(), defaultMapper());
+        this(new HttpClient());
     }
 
     protected JsonUpdateFetcher(HttpClient httpClient) {
-        this(httpClient, defaultMapper());
+        this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
+        this.json = JsonSupport.shared();
     }
 
     protected JsonUpdateFetcher(HttpClient httpClient, ObjectMapper objectMapper) {
         this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
-        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+        this.json = JsonSupport.forMapper(Objects.requireNonNull(objectMapper, "objectMapper"));
+    }
+
+    @Override
+    public FetchResult fetchLatest(FetchRequest request) throws Exception {
+        if (!legacy) {
+            throw new UnsupportedOperationException(
+                    getClass().getName() + " implements neither fetchLatest nor loadLatestBuildInfo");
+        }
+        return UpdateFetcher.super.fetchLatest(request);
+    }
+
+    @Override
+    public void loadLatestBuildInfo() throws Exception {
+        latest = fetchLatest(FetchRequest.of(getClass().getSimpleName()));
+    }
+
+    /**
+     * @return {@code true} if the type still overrides {@link #loadLatestBuildInfo()} instead of
+     *         {@link #fetchLatest(FetchRequest)}
+     */
+    static boolean isLegacy(Class<?> type) {
+        try {
+            return type.getMethod("loadLatestBuildInfo").getDeclaringClass() != JsonUpdateFetcher.class
+                    && type.getMethod("fetchLatest", FetchRequest.class).getDeclaringClass() == JsonUpdateFetcher.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stores the latest build for the older getters.
+     *
+     * @deprecated implement {@link #fetchLatest(FetchRequest)} and return a {@link FetchResult} instead
+     */
+    @Deprecated
+    protected void setLatestBuildInfo(String version, int build, String downloadUrl) {
+        latest = new FetchResult(version, build, downloadUrl);
     }
 
-    private static ObjectMapper defaultMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-        mapper.disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE);
-        return mapper;
+    /**
+     * @return the result of the last {@link #loadLatestBuildInfo()}, or {@code null} if nothing was loaded yet
+     */
+    protected FetchResult latestResult() {
+        return latest;
     }
 
     protected <T> T getJson(String url, Class<T> type) throws IOException {
         String body = httpClient.get(url);
         try {
-            return objectMapper.readValue(body, type);
+            return json.reader(type).readValue(body);
         } catch (JsonProcessingException e) {
             throw new IOException("Failed to parse response from " + url, e);
         }
@@ -67,7 +109,7 @@ public abstract class JsonUpdateFetcher implements UpdateFetcher {
     protected <T> T getJson(String url, TypeReference<T> type) throws IOException {
         String body = httpClient.get(url);
         try {
-            return objectMapper.readValue(body, type);
+            return json.reader(type).readValue(body);
         } catch (JsonProcessingException e) {
             throw new IOException("Failed to parse response from " + url, e);
         }
@@ -128,24 +170,29 @@ public abstract class JsonUpdateFetcher implements UpdateFetcher {
         return OptionalInt.empty();
     }
 
-    protected void setLatestBuildInfo(String version, int build, String downloadUrl) {
-        this.latestVersion = version;
-        this.latestBuild = build;
-        this.latestDownloadUrl = downloadUrl;
-    }
-
     @Override
     public String getLatestVersion() {
-        return latestVersion;
+        FetchResult result = latest;
+        return result != null ? result.version() : null;
     }
 
     @Override
     public int getLatestBuild() {
-        return latestBuild;
+        FetchResult result = latest;
+        return result != null ? result.build() : 0;
     }
 
     @Override
     public String getLatestDownloadUrl() {
-        return latestDownloadUrl;
+        FetchResult result = latest;
+        return result != null ? result.downloadUrl() : null;
+    }
+
+    @Override
+    public void configureContext(UpdateContext context) {
+        FetchResult result = latest;
+        if (result != null) {
+            result.configureContext(context);
+        }
     }
 }
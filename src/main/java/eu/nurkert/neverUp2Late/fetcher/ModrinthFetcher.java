@@ -64,7 +64,7 @@ public class ModrinthFetcher extends JsonUpdateFetcher {
     }
 
     @Override
-    public void loadLatestBuildInfo() throws Exception {
+    public FetchResult fetchLatest(FetchRequest request) throws Exception {
         List<VersionResponse> versions = getJson(apiUrl, new TypeReference<>() {});
         if (versions == null || versions.isEmpty()) {
             throw new IOException("No versions returned for " + apiUrl);
@@ -95,7 +95,7 @@ public class ModrinthFetcher extends JsonUpdateFetcher {
         int buildNumber = resolveBuildNumber(latestBuild);
         String downloadUrl = resolveDownloadUrl(latestBuild);
 
-        setLatestBuildInfo(latestBuild.versionNumber(), buildNumber, downloadUrl);
+        return new FetchResult(latestBuild.versionNumber(), buildNumber, downloadUrl);
     }
 
     @Override
@@ -55,7 +55,7 @@ public class PaperFetcher extends JsonUpdateFetcher {
     }
 
     @Override
-    public void loadLatestBuildInfo() throws Exception {
+    public FetchResult fetchLatest(FetchRequest request) throws Exception {
         ProjectResponse project = getJson(API_URL, ProjectResponse.class);
         List<String> versions = new ArrayList<>(project.versions());
         if (fetchStableVersions) {
@@ -76,6 +76,7 @@ public class PaperFetcher extends JsonUpdateFetcher {
 
         Exception lastError = null;
         for (String version : versions) {
+            request.cancellation().throwIfCancelled();
             if (restrictToInstalled) {
                 if (installedVersion == null) {
                     installedVersion = getInstalledVersion();
@@ -98,8 +99,7 @@ public class PaperFetcher extends JsonUpdateFetcher {
                 String downloadUrl = API_URL + "/versions/" + version + "/builds/" + latestBuild
                         + "/downloads/paper-" + version + "-" + latestBuild + ".jar";
 
-                setLatestBuildInfo(version, latestBuild, downloadUrl);
-                return;
+                return new FetchResult(version, latestBuild, downloadUrl);
             } catch (Exception exception) {
                 lastError = exception;
                 if (!restrictToInstalled && version.equals(newestVersion)) {
@@ -2,7 +2,9 @@ package eu.nurkert.neverUp2Late.fetcher;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import eu.nurkert.neverUp2Late.fetcher.exception.CompatibilityMismatchException;
+import eu.nurkert.neverUp2Late.net.CircuitOpenException;
 import eu.nurkert.neverUp2Late.net.HttpClient;
+import eu.nurkert.neverUp2Late.net.RateLimitExceededException;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.Plugin;
@@ -94,7 +96,7 @@ public class SpigotFetcher extends JsonUpdateFetcher {
     }
 
     @Override
-    public void loadLatestBuildInfo() throws Exception {
+    public FetchResult fetchLatest(FetchRequest request) throws Exception {
         ResourceResponse resource = getJson(resourceUrl(), ResourceResponse.class);
         if (resource == null) {
             throw new IOException("No response received for resource " + resourceId);
@@ -116,9 +118,13 @@ public class SpigotFetcher extends JsonUpdateFetcher {
         IOException lastFailure = null;
 
         for (VersionRef ref : versions) {
+            request.cancellation().throwIfCancelled();
             VersionResponse version;
             try {
                 version = getJson(versionUrl(ref.id()), VersionResponse.class);
+            } catch (RateLimitExceededException | CircuitOpenException e) {
+                // Walking older versions would only hit the same exhausted budget or unavailable host.
+                throw e;
             } catch (IOException e) {
                 lastFailure = e;
                 continue;
@@ -132,6 +138,8 @@ public class SpigotFetcher extends JsonUpdateFetcher {
             String downloadUrl;
             try {
                 downloadUrl = resolveDownloadUrl(resource, version);
+            } catch (RateLimitExceededException | CircuitOpenException e) {
+                throw e;
             } catch (IOException e) {
                 lastFailure = e;
                 continue;
@@ -144,8 +152,7 @@ public class SpigotFetcher extends JsonUpdateFetcher {
             String versionName = resolveVersionName(version);
             int buildNumber = resolveBuildNumber(versionName, version.version(), version.id());
 
-            setLatestBuildInfo(versionName, buildNumber, downloadUrl);
-            return;
+            return new FetchResult(versionName, buildNumber, downloadUrl);
         }
 
         if (lastFailure != null) {
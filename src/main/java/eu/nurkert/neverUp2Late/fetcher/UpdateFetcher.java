@@ -2,8 +2,49 @@ package eu.nurkert.neverUp2Late.fetcher;
 
 /**
  * UpdateFetcher interface defines methods to fetch the latest build information.
+ * <p>
+ * {@link #fetchLatest(FetchRequest)} returns the latest build as an immutable result and may be called
+ * concurrently, for example by a scheduled run and a dry-run check of the same source. The older contract
+ * of {@link #loadLatestBuildInfo()} followed by the getters keeps the result in the fetcher itself; fetchers
+ * that only implement it are adapted by the default {@link #fetchLatest(FetchRequest)}, which serialises
+ * the calls on the fetcher instance. Its results still read the fetcher's state when they configure a
+ * context, so they are not {@link FetchResult#reusable() reusable}, and callers must not fetch again with
+ * an adapted fetcher until the context of its previous result is configured (see {@link #isAdapted(Class)}).
  */
 public interface UpdateFetcher {
+
+    /**
+     * Fetches the latest build. Implementations must not keep per-request state in the fetcher.
+     *
+     * @throws Exception If an error occurs during fetching or processing.
+     */
+    default FetchResult fetchLatest(FetchRequest request) throws Exception {
+        synchronized (this) {
+            loadLatestBuildInfo();
+            return new FetchResult(getLatestVersion(), getLatestBuild(), getLatestDownloadUrl(), context -> {
+                synchronized (this) {
+                    configureContext(context);
+                }
+            }, false);
+        }
+    }
+
+    /**
+     * @return {@code true} if fetchers of the type only implement the older contract and rely on the default
+     *         {@link #fetchLatest(FetchRequest)}
+     */
+    static boolean isAdapted(Class<? extends UpdateFetcher> type) {
+        if (type == null) {
+            return false;
+        }
+        try {
+            return type.getMethod("fetchLatest", FetchRequest.class).getDeclaringClass() == UpdateFetcher.class
+                    || JsonUpdateFetcher.isLegacy(type);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     /**
      * Loads the latest build information.
      *
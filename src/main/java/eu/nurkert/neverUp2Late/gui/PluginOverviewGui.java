@@ -3,7 +3,9 @@ package eu.nurkert.neverUp2Late.gui;
 import eu.nurkert.neverUp2Late.Permissions;
 import eu.nurkert.neverUp2Late.command.QuickInstallCoordinator;
 import eu.nurkert.neverUp2Late.core.PluginContext;
+import eu.nurkert.neverUp2Late.fetcher.FetchResult;
 import eu.nurkert.neverUp2Late.gui.anvil.AnvilTextPrompt;
+import eu.nurkert.neverUp2Late.handlers.UpdateHandler;
 import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository;
 import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository.PluginUpdateSettings;
 import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository.UpdateBehaviour;
@@ -12,6 +14,8 @@ import eu.nurkert.neverUp2Late.plugin.PluginLifecycleException;
 import eu.nurkert.neverUp2Late.plugin.PluginLifecycleManager;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.TargetDirectory;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.UpdateSource;
+import eu.nurkert.neverUp2Late.update.suggestion.BulkLinkResolver;
+import eu.nurkert.neverUp2Late.update.suggestion.BulkLinkResolver.BulkLinkProposal;
 import eu.nurkert.neverUp2Late.update.suggestion.PluginLinkSuggestion;
 import eu.nurkert.neverUp2Late.update.suggestion.PluginLinkSuggester;
 import eu.nurkert.neverUp2Late.util.FileNameSanitizer;
@@ -25,6 +29,8 @@ import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
@@ -36,6 +42,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -70,6 +77,18 @@ public class PluginOverviewGui implements Listener {
     private static final int INSTALL_SEARCH_SLOT = 20;
     private static final int INSTALL_MANUAL_SLOT = 22;
     private static final int INSTALL_BACK_SLOT = 26;
+    private static final int BULK_PAGE_SIZE = 45;
+    private static final int BULK_PREVIOUS_SLOT = 45;
+    private static final int BULK_CANCEL_SLOT = 48;
+    private static final int BULK_SUMMARY_SLOT = 49;
+    private static final int BULK_CONFIRM_SLOT = 50;
+    private static final int BULK_NEXT_SLOT = 53;
+    private static final int OVERVIEW_PAGE_SIZE = 45;
+    private static final int OVERVIEW_PREVIOUS_OFFSET = 0;
+    private static final int OVERVIEW_NEXT_OFFSET = 1;
+    private static final int OVERVIEW_FILTER_OFFSET = 4;
+    private static final int OVERVIEW_CLEANUP_OFFSET = 7;
+    private static final int OVERVIEW_INSTALL_OFFSET = 8;
 
     private final PluginContext context;
     private final QuickInstallCoordinator coordinator;
@@ -78,6 +97,10 @@ public class PluginOverviewGui implements Listener {
     private final Map<UUID, ManagedPlugin> pendingRemovalRequests = new ConcurrentHashMap<>();
     private final Map<UUID, ManagedPlugin> pendingSuggestionRequests = new ConcurrentHashMap<>();
     private final Map<UUID, String> pendingInstallSearches = new ConcurrentHashMap<>();
+    private final Map<UUID, BulkLinkReview> bulkLinkReviews = new ConcurrentHashMap<>();
+    private final Set<UUID> pendingBulkLinks = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, OverviewState> overviewStates = new ConcurrentHashMap<>();
+    private final Map<String, CachedPluginItem> pluginItems = new ConcurrentHashMap<>();
     private final PluginUpdateSettingsRepository updateSettingsRepository;
     private final PluginLinkSuggester linkSuggester;
     private final AnvilTextPrompt anvilTextPrompt;
@@ -87,7 +110,13 @@ public class PluginOverviewGui implements Listener {
         this.coordinator = Objects.requireNonNull(coordinator, "coordinator");
         this.anvilTextPrompt = Objects.requireNonNull(anvilTextPrompt, "anvilTextPrompt");
         this.updateSettingsRepository = context.getPluginUpdateSettingsRepository();
-        this.linkSuggester = new PluginLinkSuggester(context.getPlugin().getLogger());
+        this.linkSuggester = context.getLinkSuggester() != null
+                ? context.getLinkSuggester()
+                : new PluginLinkSuggester(context.getPlugin().getLogger());
+        context.getUpdateSourceRegistry().addListener(changes -> pluginItems.clear());
+        if (updateSettingsRepository != null) {
+            updateSettingsRepository.addListener(this::invalidatePluginItem);
+        }
     }
 
     public void open(Player player) {
@@ -99,6 +128,7 @@ public class PluginOverviewGui implements Listener {
             player.sendMessage(ChatColor.RED + "Plugin management is disabled.");
             return;
         }
+        overviewStates.remove(player.getUniqueId());
         openOverview(player);
     }
 
@@ -139,17 +169,266 @@ public class PluginOverviewGui implements Listener {
         });
     }
 
+    /**
+     * Resolves update source candidates for every managed plugin that is not linked yet and opens a single
+     * review screen with the proposals sorted by confidence.
+     */
+    public void openBulkLink(Player player) {
+        Objects.requireNonNull(player, "player");
+        if (!checkPermission(player, Permissions.GUI_MANAGE_LINK)) {
+            return;
+        }
+        PluginLifecycleManager lifecycleManager = context.getPluginLifecycleManager();
+        if (lifecycleManager == null) {
+            player.sendMessage(ChatColor.RED + "Plugin management is disabled.");
+            return;
+        }
+        UUID playerId = player.getUniqueId();
+        if (!pendingBulkLinks.add(playerId)) {
+            player.sendMessage(ChatColor.YELLOW + "Link suggestions are still being resolved…");
+            return;
+        }
+
+        List<BulkLinkResolver.Request> requests = lifecycleManager.getManagedPlugins().stream()
+                .filter(plugin -> plugin.getPath() != null)
+                .filter(plugin -> !isSelfPlugin(plugin))
+                .filter(plugin -> findMatchingSource(plugin).isEmpty())
+                .map(plugin -> new BulkLinkResolver.Request(plugin.getName(), buildSearchTerms(plugin)))
+                .filter(request -> !request.searchTerms().isEmpty())
+                .toList();
+        if (requests.isEmpty()) {
+            pendingBulkLinks.remove(playerId);
+            player.sendMessage(ChatColor.GREEN + "All plugins are already linked to an update source.");
+            return;
+        }
+
+        player.sendMessage(ChatColor.GRAY + "Searching update sources for " + ChatColor.AQUA + requests.size()
+                + ChatColor.GRAY + " unlinked plugins…");
+
+        int concurrency = context.getConfiguration().getInt("quickInstall.linkAll.concurrency", 4);
+        double lookupsPerSecond = context.getConfiguration().getDouble("quickInstall.linkAll.lookupsPerSecond", 2.0d);
+        double minimumConfidence = context.getConfiguration().getDouble("quickInstall.linkAll.minimumConfidence", 0.75d);
+        BulkLinkResolver resolver = new BulkLinkResolver(linkSuggester, context.getPlugin().getLogger(),
+                concurrency, lookupsPerSecond);
+        resolver.resolve(requests).whenComplete((proposals, error) -> {
+            if (error != null) {
+                context.getPlugin().getLogger().log(Level.WARNING, "Failed to resolve bulk link suggestions", error);
+            }
+            List<BulkLinkProposal> result = proposals != null ? proposals : List.of();
+            context.getScheduler().runTask(context.getPlugin(), () -> {
+                pendingBulkLinks.remove(playerId);
+                if (!player.isOnline()) {
+                    return;
+                }
+                long found = result.stream().filter(BulkLinkProposal::hasSuggestion).count();
+                player.sendMessage(ChatColor.GREEN + "Found candidates for " + found + " of " + result.size() + " plugins.");
+                bulkLinkReviews.put(playerId, new BulkLinkReview(result, minimumConfidence));
+                openBulkLinkReview(player);
+            });
+        });
+    }
+
+    private void openBulkLinkReview(Player player) {
+        BulkLinkReview review = bulkLinkReviews.get(player.getUniqueId());
+        if (review == null) {
+            return;
+        }
+        Inventory inventory = Bukkit.createInventory(null, MAX_SIZE, ChatColor.DARK_PURPLE + "NU2L – Link all ("
+                + (review.page + 1) + "/" + review.pageCount() + ")");
+
+        ItemStack filler = createFiller();
+        for (int i = 0; i < MAX_SIZE; i++) {
+            inventory.setItem(i, filler.clone());
+        }
+
+        int offset = review.page * BULK_PAGE_SIZE;
+        for (int slot = 0; slot < BULK_PAGE_SIZE && offset + slot < review.proposals.size(); slot++) {
+            int index = offset + slot;
+            inventory.setItem(slot, createBulkProposalItem(review.proposals.get(index), review.accepted[index]));
+        }
+
+        if (review.page > 0) {
+            inventory.setItem(BULK_PREVIOUS_SLOT, createPageItem("Previous page"));
+        }
+        if (review.page + 1 < review.pageCount()) {
+            inventory.setItem(BULK_NEXT_SLOT, createPageItem("Next page"));
+        }
+        inventory.setItem(BULK_CANCEL_SLOT, createBulkCancelItem());
+        inventory.setItem(BULK_SUMMARY_SLOT, createBulkSummaryItem(review));
+        inventory.setItem(BULK_CONFIRM_SLOT, createBulkConfirmItem(review.acceptedCount()));
+
+        openInventories.put(player.getUniqueId(), InventorySession.bulkLink(inventory));
+        player.openInventory(inventory);
+    }
+
+    private void handleBulkLinkClick(Player player, int slot) {
+        UUID playerId = player.getUniqueId();
+        BulkLinkReview review = bulkLinkReviews.get(playerId);
+        if (review == null) {
+            player.closeInventory();
+            return;
+        }
+        if (slot == BULK_PREVIOUS_SLOT && review.page > 0) {
+            review.page--;
+            openBulkLinkReview(player);
+            return;
+        }
+        if (slot == BULK_NEXT_SLOT && review.page + 1 < review.pageCount()) {
+            review.page++;
+            openBulkLinkReview(player);
+            return;
+        }
+        if (slot == BULK_CANCEL_SLOT) {
+            bulkLinkReviews.remove(playerId);
+            openInventories.remove(playerId);
+            player.closeInventory();
+            player.sendMessage(ChatColor.YELLOW + "Linking cancelled.");
+            return;
+        }
+        if (slot == BULK_CONFIRM_SLOT) {
+            List<BulkLinkProposal> accepted = review.acceptedProposals();
+            bulkLinkReviews.remove(playerId);
+            openInventories.remove(playerId);
+            player.closeInventory();
+            coordinator.linkAll(player, accepted);
+            return;
+        }
+        if (slot < 0 || slot >= BULK_PAGE_SIZE) {
+            return;
+        }
+        int index = review.page * BULK_PAGE_SIZE + slot;
+        if (index >= review.proposals.size() || !review.proposals.get(index).hasSuggestion()) {
+            return;
+        }
+        review.accepted[index] = !review.accepted[index];
+        openBulkLinkReview(player);
+    }
+
+    private ItemStack createBulkProposalItem(BulkLinkProposal proposal, boolean accepted) {
+        Material material;
+        if (!proposal.hasSuggestion()) {
+            material = Material.BARRIER;
+        } else {
+            material = accepted ? Material.LIME_DYE : Material.GRAY_DYE;
+        }
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.setDisplayName(ChatColor.GOLD + proposal.pluginName());
+            List<String> lore = new ArrayList<>();
+            PluginLinkSuggestion suggestion = proposal.suggestion();
+            if (suggestion == null) {
+                lore.add(ChatColor.RED + "No matching source found.");
+                lore.add(ChatColor.GRAY + "Link it manually from the plugin details.");
+            } else {
+                int percent = (int) Math.round(proposal.confidence() * 100d);
+                ChatColor confidenceColor = proposal.confidence() >= 0.85d ? ChatColor.GREEN
+                        : proposal.confidence() >= 0.6d ? ChatColor.YELLOW : ChatColor.RED;
+                lore.add(ChatColor.GRAY + "Confidence: " + confidenceColor + percent + "%");
+                lore.add(ChatColor.GRAY + "Source: " + ChatColor.AQUA
+                        + Objects.requireNonNullElse(suggestion.title(), suggestion.provider())
+                        + ChatColor.DARK_GRAY + " (" + suggestion.provider() + ")");
+                lore.add(ChatColor.DARK_GRAY + suggestion.url());
+                if (proposal.candidateCount() > 1) {
+                    lore.add(ChatColor.DARK_GRAY + "" + (proposal.candidateCount() - 1) + " other candidates");
+                }
+                lore.add(" ");
+                lore.add(accepted
+                        ? ChatColor.GREEN + "Selected – click to skip."
+                        : ChatColor.YELLOW + "Skipped – click to select.");
+            }
+            meta.setLore(lore);
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    private ItemStack createPageItem(String label) {
+        ItemStack item = new ItemStack(Material.ARROW);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.setDisplayName(ChatColor.YELLOW + label);
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    private ItemStack createBulkCancelItem() {
+        ItemStack item = new ItemStack(Material.RED_STAINED_GLASS_PANE);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.setDisplayName(ChatColor.RED + "Cancel");
+            meta.setLore(List.of(ChatColor.GRAY + "Closes the review without linking."));
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    private ItemStack createBulkSummaryItem(BulkLinkReview review) {
+        ItemStack item = new ItemStack(Material.WRITTEN_BOOK);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            long found = review.proposals.stream().filter(BulkLinkProposal::hasSuggestion).count();
+            meta.setDisplayName(ChatColor.AQUA + "Link all plugins");
+            meta.setLore(List.of(
+                    ChatColor.GRAY + "Unlinked plugins: " + ChatColor.WHITE + review.proposals.size(),
+                    ChatColor.GRAY + "With candidates: " + ChatColor.WHITE + found,
+                    ChatColor.GRAY + "Selected: " + ChatColor.GREEN + review.acceptedCount(),
+                    " ",
+                    ChatColor.DARK_GRAY + "Sorted by confidence. Click an entry to toggle it."
+            ));
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    private ItemStack createBulkConfirmItem(int acceptedCount) {
+        ItemStack item = new ItemStack(Material.LIME_STAINED_GLASS_PANE);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.setDisplayName(ChatColor.GREEN + "Link " + acceptedCount + " plugins");
+            meta.setLore(List.of(
+                    ChatColor.GRAY + "Creates all selected update sources",
+                    ChatColor.GRAY + "with a single configuration write."
+            ));
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    /**
+     * Shows one page of the managed plugins that match the player's filter. The last row holds the page,
+     * filter, cleanup and install buttons.
+     */
     private void openOverview(Player player) {
+        OverviewState state = overviewStates.computeIfAbsent(player.getUniqueId(), id -> new OverviewState());
         List<ManagedPlugin> plugins = context.getPluginLifecycleManager().getManagedPlugins()
                 .stream()
                 .sorted(Comparator.comparing(ManagedPlugin::getName, String.CASE_INSENSITIVE_ORDER))
                 .toList();
+        pruneCachedItems(plugins);
+
+        List<ManagedPlugin> visible = new ArrayList<>();
+        List<ItemStack> items = new ArrayList<>();
+        for (ManagedPlugin plugin : plugins) {
+            CachedPluginItem cached = pluginItem(plugin);
+            if (state.filter.matches(plugin, cached)) {
+                visible.add(plugin);
+                items.add(cached.item());
+            }
+        }
 
-        int requiredSlots = plugins.size() + 1;
-        int size = Math.max(9, ((requiredSlots + 8) / 9) * 9);
-        size = Math.min(size, MAX_SIZE);
+        state.pageCount = Math.max(1, (visible.size() + OVERVIEW_PAGE_SIZE - 1) / OVERVIEW_PAGE_SIZE);
+        state.page = Math.min(state.page, state.pageCount - 1);
+        int offset = state.page * OVERVIEW_PAGE_SIZE;
+        int shown = Math.min(OVERVIEW_PAGE_SIZE, visible.size() - offset);
+        int size = Math.min(MAX_SIZE, ((shown + 8) / 9) * 9 + 9);
 
-        Inventory inventory = Bukkit.createInventory(null, size, ChatColor.DARK_PURPLE + "NU2L Plugins");
+        String title = ChatColor.DARK_PURPLE + "NU2L Plugins";
+        if (state.pageCount > 1) {
+            title += " (" + (state.page + 1) + "/" + state.pageCount + ")";
+        }
+        Inventory inventory = Bukkit.createInventory(null, size, title);
 
         ItemStack filler = createFiller();
         for (int i = 0; i < size; i++) {
@@ -157,26 +436,76 @@ public class PluginOverviewGui implements Listener {
         }
 
         Map<Integer, ManagedPlugin> slotMapping = new HashMap<>();
-        int availableSlots = Math.max(0, size - 1);
-        boolean truncated = plugins.size() > availableSlots;
-        for (int slot = 0; slot < availableSlots && slot < plugins.size(); slot++) {
-            ManagedPlugin plugin = plugins.get(slot);
-            inventory.setItem(slot, createPluginItem(plugin));
-            slotMapping.put(slot, plugin);
+        for (int slot = 0; slot < shown; slot++) {
+            inventory.setItem(slot, items.get(offset + slot).clone());
+            slotMapping.put(slot, visible.get(offset + slot));
         }
 
-        inventory.setItem(size - 2, createCleanupButton());
-        inventory.setItem(size - 1, createInstallButton());
+        int controls = size - 9;
+        if (state.page > 0) {
+            inventory.setItem(controls + OVERVIEW_PREVIOUS_OFFSET, createPageItem("Previous page"));
+        }
+        if (state.page + 1 < state.pageCount) {
+            inventory.setItem(controls + OVERVIEW_NEXT_OFFSET, createPageItem("Next page"));
+        }
+        inventory.setItem(controls + OVERVIEW_FILTER_OFFSET, createFilterItem(state.filter, visible.size(), plugins.size()));
+        inventory.setItem(controls + OVERVIEW_CLEANUP_OFFSET, createCleanupButton());
+        inventory.setItem(controls + OVERVIEW_INSTALL_OFFSET, createInstallButton());
 
         openInventories.put(player.getUniqueId(), InventorySession.overview(inventory, slotMapping));
         player.openInventory(inventory);
+    }
+
+    private void handleOverviewClick(Player player, InventorySession session, int slot) {
+        OverviewState state = overviewStates.computeIfAbsent(player.getUniqueId(), id -> new OverviewState());
+        int controls = session.inventory().getSize() - 9;
+        if (slot == controls + OVERVIEW_INSTALL_OFFSET) {
+            beginStandaloneInstall(player);
+            return;
+        }
+        if (slot == controls + OVERVIEW_CLEANUP_OFFSET) {
+            cleanupAllJarNames(player);
+            return;
+        }
+        if (slot == controls + OVERVIEW_PREVIOUS_OFFSET && state.page > 0) {
+            state.page--;
+            openOverview(player);
+            return;
+        }
+        if (slot == controls + OVERVIEW_NEXT_OFFSET && state.page + 1 < state.pageCount) {
+            state.page++;
+            openOverview(player);
+            return;
+        }
+        if (slot == controls + OVERVIEW_FILTER_OFFSET) {
+            state.filter = state.filter.next();
+            state.page = 0;
+            openOverview(player);
+            return;
+        }
 
-        if (truncated) {
-            player.sendMessage(ChatColor.YELLOW + "Only the first " + availableSlots
-                    + " plugins are shown (" + plugins.size() + " total).");
+        ManagedPlugin plugin = session.plugins().get(slot);
+        if (plugin != null) {
+            openPluginDetails(player, plugin);
         }
     }
 
+    private ItemStack createFilterItem(OverviewFilter filter, int matching, int total) {
+        ItemStack item = new ItemStack(Material.HOPPER);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.setDisplayName(ChatColor.AQUA + "Filter: " + filter.label);
+            meta.setLore(List.of(
+                    ChatColor.GRAY + "Showing " + ChatColor.WHITE + matching + ChatColor.GRAY + " of "
+                            + ChatColor.WHITE + total + ChatColor.GRAY + " plugins",
+                    " ",
+                    ChatColor.YELLOW + "Click to show: " + filter.next().label
+            ));
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
     private void openPluginDetails(Player player, ManagedPlugin plugin) {
         Inventory inventory = Bukkit.createInventory(null, DETAIL_INVENTORY_SIZE,
                 ChatColor.DARK_PURPLE + Objects.requireNonNullElse(plugin.getName(), "Plugin"));
@@ -186,7 +515,7 @@ public class PluginOverviewGui implements Listener {
             inventory.setItem(i, filler.clone());
         }
 
-        inventory.setItem(DETAIL_STATUS_SLOT, createPluginItem(plugin));
+        inventory.setItem(DETAIL_STATUS_SLOT, pluginItem(plugin).item().clone());
         inventory.setItem(DETAIL_ENABLE_SLOT, createEnableItem(plugin));
         inventory.setItem(DETAIL_LOAD_SLOT, createLoadItem(plugin));
         inventory.setItem(DETAIL_LINK_SLOT, createLinkItem(plugin));
@@ -202,8 +531,57 @@ public class PluginOverviewGui implements Listener {
         player.openInventory(inventory);
     }
 
-    private ItemStack createPluginItem(ManagedPlugin plugin) {
+    /**
+     * Returns the overview item of the plugin. Items are built once and reused until a lifecycle, settings or
+     * update source change invalidates them, so reopening the overview does not resolve every plugin again.
+     */
+    private CachedPluginItem pluginItem(ManagedPlugin plugin) {
+        String key = cacheKey(plugin.getName());
+        CachedPluginItem cached = key != null ? pluginItems.get(key) : null;
+        if (cached != null
+                && Objects.equals(cached.path(), plugin.getPath())
+                && (cached.source() == null || cached.availableUpdate() == availableUpdate(cached.source()))) {
+            return cached;
+        }
+
         Optional<UpdateSource> source = findMatchingSource(plugin);
+        FetchResult update = source.map(this::availableUpdate).orElse(null);
+        CachedPluginItem created = new CachedPluginItem(createPluginItem(plugin, source, update),
+                plugin.getPath(), source.orElse(null), update);
+        if (key != null) {
+            pluginItems.put(key, created);
+        }
+        return created;
+    }
+
+    private FetchResult availableUpdate(UpdateSource source) {
+        UpdateHandler updateHandler = context.getUpdateHandler();
+        return updateHandler != null ? updateHandler.getAvailableUpdate(source.getName()).orElse(null) : null;
+    }
+
+    private void invalidatePluginItem(String pluginName) {
+        String key = cacheKey(pluginName);
+        if (key != null) {
+            pluginItems.remove(key);
+        }
+    }
+
+    private void pruneCachedItems(List<ManagedPlugin> plugins) {
+        Set<String> keys = new HashSet<>();
+        for (ManagedPlugin plugin : plugins) {
+            String key = cacheKey(plugin.getName());
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        pluginItems.keySet().retainAll(keys);
+    }
+
+    private static String cacheKey(String pluginName) {
+        return pluginName == null || pluginName.isBlank() ? null : pluginName.toLowerCase(Locale.ROOT);
+    }
+
+    private ItemStack createPluginItem(ManagedPlugin plugin, Optional<UpdateSource> source, FetchResult update) {
         Material material = source.isPresent() ? Material.ENCHANTED_BOOK : Material.BOOK;
         ItemStack item = new ItemStack(material);
         ItemMeta meta = item.getItemMeta();
@@ -226,6 +604,11 @@ public class PluginOverviewGui implements Listener {
                 lore.add(ChatColor.DARK_GRAY + "File: " + ChatColor.WHITE + path.getFileName());
                 source.ifPresentOrElse(linkedSource -> {
                     lore.add(ChatColor.GRAY + "Update source: " + ChatColor.AQUA + linkedSource.getName());
+                    if (update != null) {
+                        lore.add(ChatColor.GRAY + "Update available: " + ChatColor.GREEN + (update.version() != null
+                                ? update.version()
+                                : "build " + update.build()));
+                    }
                     lore.add(ChatColor.YELLOW + "Click to update the link.");
                 }, () -> lore.add(ChatColor.RED + "No update source linked – click to set one."));
             } else {
@@ -682,6 +1065,8 @@ public class PluginOverviewGui implements Listener {
                     "Failed to toggle plugin load state for " + pluginName, ex);
             player.sendMessage(ChatColor.RED + "Action failed: " + ex.getMessage());
         }
+        // Loading without enabling fires no plugin event
+        invalidatePluginItem(pluginName);
 
         openPluginDetails(player, plugin);
     }
@@ -789,6 +1174,11 @@ public class PluginOverviewGui implements Listener {
 
         event.setCancelled(true);
 
+        if (session.view() == View.BULK_LINK) {
+            handleBulkLinkClick(player, event.getRawSlot());
+            return;
+        }
+
         if (session.view() == View.NEW_INSTALL) {
             int clicked = event.getRawSlot();
             if (clicked == INSTALL_BACK_SLOT) {
@@ -814,26 +1204,7 @@ public class PluginOverviewGui implements Listener {
         }
 
         if (session.view() == View.OVERVIEW) {
-            int size = session.inventory().getSize();
-            int installSlot = size - 1;
-            int cleanupSlot = size - 2;
-            
-            if (event.getRawSlot() == installSlot) {
-                beginStandaloneInstall(player);
-                return;
-            }
-            
-            if (event.getRawSlot() == cleanupSlot) {
-                cleanupAllJarNames(player);
-                return;
-            }
-
-            ManagedPlugin plugin = session.plugins().get(event.getRawSlot());
-            if (plugin == null) {
-                return;
-            }
-
-            openPluginDetails(player, plugin);
+            handleOverviewClick(player, session, event.getRawSlot());
             return;
         }
 
@@ -924,6 +1295,19 @@ public class PluginOverviewGui implements Listener {
         pendingRemovalRequests.remove(playerId);
         pendingSuggestionRequests.remove(playerId);
         pendingInstallSearches.remove(playerId);
+        bulkLinkReviews.remove(playerId);
+        pendingBulkLinks.remove(playerId);
+        overviewStates.remove(playerId);
+    }
+
+    @EventHandler
+    public void onPluginEnable(PluginEnableEvent event) {
+        invalidatePluginItem(event.getPlugin().getName());
+    }
+
+    @EventHandler
+    public void onPluginDisable(PluginDisableEvent event) {
+        invalidatePluginItem(event.getPlugin().getName());
     }
 
     @EventHandler
@@ -1851,7 +2235,8 @@ public class PluginOverviewGui implements Listener {
         OVERVIEW,
         DETAIL,
         LINK_SUGGESTIONS,
-        NEW_INSTALL
+        NEW_INSTALL,
+        BULK_LINK
     }
 
     private record InventorySession(Inventory inventory,
@@ -1884,11 +2269,99 @@ public class PluginOverviewGui implements Listener {
             return new InventorySession(inventory, View.NEW_INSTALL, Map.of(), null,
                     Map.copyOf(suggestions), List.copyOf(ordered), searchTerm);
         }
+
+        static InventorySession bulkLink(Inventory inventory) {
+            return new InventorySession(inventory, View.BULK_LINK, Map.of(), null, Map.of(), List.of(), null);
+        }
+    }
+
+    /**
+     * Mutable review state of a link-all run; proposals above the confidence threshold start selected.
+     */
+    private static final class BulkLinkReview {
+        private final List<BulkLinkProposal> proposals;
+        private final boolean[] accepted;
+        private int page;
+
+        private BulkLinkReview(List<BulkLinkProposal> proposals, double minimumConfidence) {
+            this.proposals = List.copyOf(proposals);
+            this.accepted = new boolean[this.proposals.size()];
+            for (int i = 0; i < accepted.length; i++) {
+                BulkLinkProposal proposal = this.proposals.get(i);
+                accepted[i] = proposal.hasSuggestion() && proposal.confidence() >= minimumConfidence;
+            }
+        }
+
+        private int pageCount() {
+            return Math.max(1, (proposals.size() + BULK_PAGE_SIZE - 1) / BULK_PAGE_SIZE);
+        }
+
+        private int acceptedCount() {
+            int count = 0;
+            for (boolean value : accepted) {
+                if (value) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private List<BulkLinkProposal> acceptedProposals() {
+            List<BulkLinkProposal> result = new ArrayList<>();
+            for (int i = 0; i < accepted.length; i++) {
+                if (accepted[i]) {
+                    result.add(proposals.get(i));
+                }
+            }
+            return result;
+        }
     }
 
     private record LinkRequest(String pluginName, boolean standalone) {
     }
 
+    /**
+     * Page and filter of a player's overview, kept while they move between the overview and plugin details.
+     */
+    private static final class OverviewState {
+        private OverviewFilter filter = OverviewFilter.ALL;
+        private int page;
+        private int pageCount = 1;
+    }
+
+    private enum OverviewFilter {
+        ALL("All plugins"),
+        UNLINKED("Without update source"),
+        OUTDATED("Update available"),
+        DISABLED("Disabled");
+
+        private final String label;
+
+        OverviewFilter(String label) {
+            this.label = label;
+        }
+
+        private OverviewFilter next() {
+            OverviewFilter[] values = values();
+            return values[(ordinal() + 1) % values.length];
+        }
+
+        private boolean matches(ManagedPlugin plugin, CachedPluginItem item) {
+            return switch (this) {
+                case ALL -> true;
+                case UNLINKED -> item.source() == null;
+                case OUTDATED -> item.availableUpdate() != null;
+                case DISABLED -> !plugin.isEnabled();
+            };
+        }
+    }
+
+    /**
+     * Overview item of a plugin together with what it was built from.
+     */
+    private record CachedPluginItem(ItemStack item, Path path, UpdateSource source, FetchResult availableUpdate) {
+    }
+
     private boolean checkPermission(Player player, String permission) {
         if (permission == null || permission.isBlank()) {
             return true;
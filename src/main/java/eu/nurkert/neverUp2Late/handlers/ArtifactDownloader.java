@@ -1,10 +1,18 @@
 package eu.nurkert.neverUp2Late.handlers;
 
+import eu.nurkert.neverUp2Late.net.CircuitBreakerRegistry;
+import eu.nurkert.neverUp2Late.net.CircuitOpenException;
 import eu.nurkert.neverUp2Late.net.HttpClient;
 import eu.nurkert.neverUp2Late.net.HttpException;
+import eu.nurkert.neverUp2Late.net.IoGovernor;
+import eu.nurkert.neverUp2Late.net.RateLimitExceededException;
+import eu.nurkert.neverUp2Late.net.RateLimitTracker;
+import eu.nurkert.neverUp2Late.update.CancellationToken;
+import eu.nurkert.neverUp2Late.update.UpdateAbortedException;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.ConnectException;
@@ -30,6 +38,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
@@ -117,6 +126,20 @@ public class ArtifactDownloader {
     public Optional<BackupRecord> backupExistingFileCopy(Path target,
                                                         String primaryIdentifier,
                                                         String secondaryIdentifier) throws IOException {
+        return backupExistingFileCopy(target, primaryIdentifier, secondaryIdentifier, null);
+    }
+
+    /**
+     * Copies the provided {@code target} into the configured backup directory without removing the original
+     * file, stopping when {@code cancellation} is cancelled.
+     *
+     * @param cancellation token of the update the backup belongs to, {@code null} if it cannot be cancelled
+     * @throws UpdateAbortedException if the update is cancelled while the file is copied
+     */
+    public Optional<BackupRecord> backupExistingFileCopy(Path target,
+                                                        String primaryIdentifier,
+                                                        String secondaryIdentifier,
+                                                        CancellationToken cancellation) throws IOException {
         if (!backupsEnabled() || target == null) {
             return Optional.empty();
         }
@@ -135,13 +158,19 @@ public class ArtifactDownloader {
         Path pluginDirectory = root.resolve(key);
         Files.createDirectories(pluginDirectory);
 
+        Optional<BackupRecord> identical = findIdenticalLatestBackup(pluginDirectory, normalizedTarget);
+        if (identical.isPresent()) {
+            // Repeated attempts to replace the same file must not rotate older versions out of the backups
+            return identical;
+        }
+
         String fileName = normalizedTarget.getFileName() != null
                 ? normalizedTarget.getFileName().toString()
                 : "artifact.jar";
         String timestamp = BACKUP_TIMESTAMP_FORMATTER.format(LocalDateTime.now());
         Path backupPath = createUniqueBackupPath(pluginDirectory, timestamp, fileName);
 
-        Files.copy(normalizedTarget, backupPath);
+        copyGoverned(normalizedTarget, backupPath, cancellation);
         pruneOldBackups(pluginDirectory);
 
         Instant createdAt = Instant.now();
@@ -265,6 +294,18 @@ public class ArtifactDownloader {
         return Optional.of(new RestorationResult(normalizedDestination, backupToRestore, backupTimestamp));
     }
 
+    private Optional<BackupRecord> findIdenticalLatestBackup(Path pluginDirectory, Path target) throws IOException {
+        List<Path> backups = collectBackups(pluginDirectory);
+        if (backups.isEmpty()) {
+            return Optional.empty();
+        }
+        Path latest = backups.get(0);
+        if (Files.size(latest) != Files.size(target) || Files.mismatch(latest, target) != -1L) {
+            return Optional.empty();
+        }
+        return Optional.of(new BackupRecord(latest, Files.getLastModifiedTime(latest).toInstant()));
+    }
+
     private boolean backupsEnabled() {
         return backupsRoot != null;
     }
@@ -370,13 +411,28 @@ public class ArtifactDownloader {
 
         int attempts = Math.max(1, request.getMaxAttempts());
         IOException lastException = null;
+        CancellationToken cancellation = request.getCancellation();
 
         for (int attempt = 1; attempt <= attempts; attempt++) {
+            if (cancellation != null) {
+                cancellation.throwIfCancelled();
+            }
             // Always download to a temporary file; backup ONLY after successful download to prevent data loss.
             Path tempFile = Files.createTempFile(parent, destination.getFileName().toString(), ".download");
             try {
                 URLConnection connection = openConnection(request);
-                copyToTempFile(connection, tempFile, request.getChecksumValidator());
+                String host = connection.getURL().getHost();
+                // Blocking socket reads ignore interrupts, so a cancelled download closes its connection instead
+                try (CancellationToken.Registration ignored = abortOnCancel(connection, cancellation)) {
+                    copyToTempFile(connection, tempFile, request.getChecksumValidator(), cancellation);
+                    CircuitBreakerRegistry.shared().recordSuccess(host);
+                } catch (IOException ex) {
+                    if (cancellation != null && cancellation.isCancelled()) {
+                        throw abortedBy(cancellation, ex);
+                    }
+                    CircuitBreakerRegistry.shared().recordOutcome(host, ex);
+                    throw ex;
+                }
                 validateArchiveIfExpected(destination, tempFile);
                 if (request.isBackupExisting()) {
                     try {
@@ -398,7 +454,7 @@ public class ArtifactDownloader {
                     hook.onFailure(destination, ex);
                     throw ex;
                 }
-                sleepBackoff(attempt);
+                sleepBackoff(attempt, cancellation);
             } finally {
                 Files.deleteIfExists(tempFile);
             }
@@ -413,6 +469,40 @@ public class ArtifactDownloader {
         throw ex;
     }
 
+    /**
+     * Asks the server for the size of an artifact without downloading it.
+     *
+     * @return the announced size in bytes, or empty if the server does not announce it
+     * @throws IOException if the server cannot be reached
+     */
+    public OptionalLong probeContentLength(String url) throws IOException {
+        URLConnection connection = openConnection(DownloadRequest.builder()
+                .url(url)
+                .destination(Path.of("probe"))
+                .readTimeout(10_000)
+                .build());
+        if (!(connection instanceof HttpURLConnection httpConnection)) {
+            long length = connection.getContentLengthLong();
+            return length >= 0L ? OptionalLong.of(length) : OptionalLong.empty();
+        }
+        String host = httpConnection.getURL().getHost();
+        try {
+            httpConnection.setRequestMethod("HEAD");
+            int status = httpConnection.getResponseCode();
+            RateLimitTracker.shared().recordResponse(host, status,
+                    name -> Optional.ofNullable(httpConnection.getHeaderField(name)));
+            CircuitBreakerRegistry.shared().recordOutcome(host,
+                    status >= 500 ? new HttpException(url, status, null) : null);
+            long length = status < 400 ? httpConnection.getContentLengthLong() : -1L;
+            return length >= 0L ? OptionalLong.of(length) : OptionalLong.empty();
+        } catch (IOException ex) {
+            CircuitBreakerRegistry.shared().recordOutcome(host, ex);
+            throw ex;
+        } finally {
+            httpConnection.disconnect();
+        }
+    }
+
     private boolean isRetryable(IOException ex) {
         if (ex == null) {
             return false;
@@ -420,20 +510,51 @@ public class ArtifactDownloader {
         if (ex instanceof UnknownHostException) {
             return false;
         }
+        if (ex instanceof InterruptedIOException) {
+            return false;
+        }
+        if (ex instanceof RateLimitExceededException || ex instanceof CircuitOpenException) {
+            // Retrying before the host budget resets or the circuit closes would only burn attempts.
+            return false;
+        }
         if (ex instanceof HttpException httpException) {
             int status = httpException.getStatusCode();
-            return status == 429 || (status >= 500 && status < 600);
+            return status >= 500 && status < 600;
         }
         return ex instanceof SocketTimeoutException
                 || ex instanceof ConnectException;
     }
 
-    private void sleepBackoff(int attempt) {
+    private void sleepBackoff(int attempt, CancellationToken cancellation) throws InterruptedIOException {
+        long delay = Math.min(5_000L, 1_000L * attempt);
+        if (cancellation != null) {
+            cancellation.sleep(delay);
+            return;
+        }
         try {
-            Thread.sleep(Math.min(5_000L, 1_000L * attempt));
+            Thread.sleep(delay);
         } catch (InterruptedException ie) {
             Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Download interrupted during backoff");
+        }
+    }
+
+    private static CancellationToken.Registration abortOnCancel(URLConnection connection,
+                                                                CancellationToken cancellation) {
+        if (cancellation == null || !(connection instanceof HttpURLConnection httpConnection)) {
+            return () -> {
+            };
+        }
+        return cancellation.onCancel(httpConnection::disconnect);
+    }
+
+    private static UpdateAbortedException abortedBy(CancellationToken cancellation, IOException cause) {
+        if (cause instanceof UpdateAbortedException aborted) {
+            return aborted;
         }
+        UpdateAbortedException aborted = new UpdateAbortedException(cancellation.getReason().orElse("Download aborted"));
+        aborted.initCause(cause);
+        return aborted;
     }
 
     private void validateArchiveIfExpected(Path destination, Path tempFile) throws IOException {
@@ -459,6 +580,15 @@ public class ArtifactDownloader {
 
     private URLConnection openConnection(DownloadRequest request) throws IOException {
         URL url = new URL(request.getUrl());
+        // The circuit is checked first, so downloads from an unavailable host do not use up its request budget
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.shared();
+        if (!circuitBreakers.allowRequest(url.getHost())) {
+            throw new CircuitOpenException(url.getHost(), circuitBreakers.getRetryAt(url.getHost()).orElse(null));
+        }
+        RateLimitTracker rateLimits = RateLimitTracker.shared();
+        if (!rateLimits.tryAcquire(url.getHost())) {
+            throw new RateLimitExceededException(url.getHost(), rateLimits.nextAvailable(url.getHost()).orElse(null));
+        }
         URLConnection connection = url.openConnection();
         connection.setConnectTimeout(request.getConnectTimeout());
         connection.setReadTimeout(request.getReadTimeout());
@@ -481,14 +611,22 @@ public class ArtifactDownloader {
 
     private void copyToTempFile(URLConnection connection,
                                 Path tempFile,
-                                ChecksumValidator checksumValidator) throws IOException {
+                                ChecksumValidator checksumValidator,
+                                CancellationToken cancellation) throws IOException {
         if (connection instanceof HttpURLConnection httpConnection) {
             int status = httpConnection.getResponseCode();
+            String host = httpConnection.getURL().getHost();
+            RateLimitTracker rateLimits = RateLimitTracker.shared();
+            rateLimits.recordResponse(host, status, name -> Optional.ofNullable(httpConnection.getHeaderField(name)));
             if (status >= 400) {
-                throw new HttpException(
+                HttpException httpException = new HttpException(
                         httpConnection.getURL().toString(),
                         status,
                         readErrorBody(httpConnection));
+                if (status == 429) {
+                    throw new RateLimitExceededException(host, rateLimits.nextAvailable(host).orElse(null), httpException);
+                }
+                throw httpException;
             }
         }
 
@@ -496,7 +634,7 @@ public class ArtifactDownloader {
              OutputStream outputStream = Files.newOutputStream(tempFile, StandardOpenOption.WRITE)) {
 
             if (checksumValidator == null || !checksumValidator.requiresDigest()) {
-                inputStream.transferTo(outputStream);
+                transfer(inputStream, outputStream, cancellation);
                 if (checksumValidator != null) {
                     checksumValidator.validate(tempFile, null);
                 }
@@ -505,12 +643,30 @@ public class ArtifactDownloader {
 
             MessageDigest digest = checksumValidator.createDigest();
             try (DigestInputStream digestInputStream = new DigestInputStream(inputStream, digest)) {
-                digestInputStream.transferTo(outputStream);
+                transfer(digestInputStream, outputStream, cancellation);
             }
             checksumValidator.validate(tempFile, digest);
         }
     }
 
+    private static void transfer(InputStream inputStream,
+                                 OutputStream outputStream,
+                                 CancellationToken cancellation) throws IOException {
+        // Downloads and their checksums share the bandwidth cap and yield to a slow server thread
+        IoGovernor.shared().transfer(inputStream, outputStream, cancellation);
+    }
+
+    private static void copyGoverned(Path source, Path target, CancellationToken cancellation) throws IOException {
+        OutputStream created = Files.newOutputStream(target, StandardOpenOption.CREATE_NEW);
+        try (OutputStream outputStream = created;
+             InputStream inputStream = Files.newInputStream(source)) {
+            IoGovernor.shared().transfer(inputStream, outputStream, cancellation);
+        } catch (IOException ex) {
+            Files.deleteIfExists(target);
+            throw ex;
+        }
+    }
+
     private String readErrorBody(HttpURLConnection connection) {
         try (InputStream errorStream = connection.getErrorStream()) {
             if (errorStream == null) {
@@ -545,6 +701,7 @@ public class ArtifactDownloader {
         private final boolean backupExisting;
         private final String backupPrimaryIdentifier;
         private final String backupSecondaryIdentifier;
+        private final CancellationToken cancellation;
 
         private DownloadRequest(Builder builder) {
             this.url = builder.url;
@@ -557,6 +714,7 @@ public class ArtifactDownloader {
             this.backupExisting = builder.backupExisting;
             this.backupPrimaryIdentifier = builder.backupPrimaryIdentifier;
             this.backupSecondaryIdentifier = builder.backupSecondaryIdentifier;
+            this.cancellation = builder.cancellation;
         }
 
         public String getUrl() {
@@ -599,6 +757,10 @@ public class ArtifactDownloader {
             return backupSecondaryIdentifier;
         }
 
+        public CancellationToken getCancellation() {
+            return cancellation;
+        }
+
         public static Builder builder() {
             return new Builder();
         }
@@ -614,6 +776,7 @@ public class ArtifactDownloader {
             private boolean backupExisting;
             private String backupPrimaryIdentifier;
             private String backupSecondaryIdentifier;
+            private CancellationToken cancellation;
 
             public Builder url(String url) {
                 this.url = url;
@@ -661,6 +824,14 @@ public class ArtifactDownloader {
                 return this;
             }
 
+            /**
+             * Aborts the download, including retries and backoff, once the token is cancelled.
+             */
+            public Builder cancellation(CancellationToken cancellation) {
+                this.cancellation = cancellation;
+                return this;
+            }
+
             public DownloadRequest build() {
                 Objects.requireNonNull(url, "url");
                 Objects.requireNonNull(destination, "destination");
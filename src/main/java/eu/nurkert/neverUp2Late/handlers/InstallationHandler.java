@@ -4,6 +4,7 @@ import eu.nurkert.neverUp2Late.persistence.RestartCooldownRepository;
 import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository;
 import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository.PluginUpdateSettings;
 import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository.UpdateBehaviour;
+import eu.nurkert.neverUp2Late.plugin.BatchReloadResult;
 import eu.nurkert.neverUp2Late.plugin.ManagedPlugin;
 import eu.nurkert.neverUp2Late.plugin.PluginLifecycleException;
 import eu.nurkert.neverUp2Late.plugin.PluginLifecycleManager;
@@ -23,15 +24,31 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.nio.file.Path;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.Set;
 
+/**
+ * Runs the post update actions once the update pipeline has installed new builds.
+ * <p>
+ * Completions that arrive while a batch is open (see {@link #beginBatch()}) are collected and handled
+ * together when the batch closes: every plugin is offered a reload first, and the server is restarted at
+ * most once for everything that could not be reloaded. Completions and batch boundaries are handled on the
+ * server thread.
+ */
 public class InstallationHandler implements Listener, UpdateCompletionListener {
 
     private static final LocalTime PLUGIN_RESTART_WINDOW_START = LocalTime.of(3, 0);
@@ -41,7 +58,9 @@ public class InstallationHandler implements Listener, UpdateCompletionListener {
     private final JavaPlugin plugin;
     private final Server server;
     private final List<PostUpdateAction> actions = new CopyOnWriteArrayList<>();
-    private volatile UpdateCompletedEvent pendingEvent;
+    private final List<PostUpdateObserver> observers = new CopyOnWriteArrayList<>();
+    private final Map<String, UpdateCompletedEvent> pendingEvents = new LinkedHashMap<>();
+    private final AtomicInteger openBatches = new AtomicInteger();
     private final PluginUpdateSettingsRepository updateSettingsRepository;
     private final Clock clock;
     private final Logger logger;
@@ -97,25 +116,45 @@ public class InstallationHandler implements Listener, UpdateCompletionListener {
         this.clock = Objects.requireNonNull(clock, "clock");
         this.logger = logger;
         if (pluginLifecycleManager != null) {
-            actions.add(new PluginReloadAction(pluginLifecycleManager, logger, updateSettingsRepository));
+            actions.add(new PluginReloadAction(pluginLifecycleManager, logger, updateSettingsRepository,
+                    this::notifyApplied));
         }
-        registerAction(new ServerRestartAction(server, restartCooldownRepository, logger));
+        registerAction(new ServerRestartAction(server, restartCooldownRepository, logger, this::notifyApplied));
     }
 
     public void registerAction(PostUpdateAction action) {
         actions.add(action);
     }
 
+    public void registerObserver(PostUpdateObserver observer) {
+        observers.add(Objects.requireNonNull(observer, "observer"));
+    }
+
+    /**
+     * Opens a batch. Completions are collected until every opened batch has been closed again.
+     * May be called from any thread.
+     */
+    public void beginBatch() {
+        openBatches.incrementAndGet();
+    }
+
+    /**
+     * Closes a batch opened by {@link #beginBatch()} and handles the collected completions once no batch is
+     * open anymore.
+     */
+    public void endBatch() {
+        if (openBatches.updateAndGet(open -> Math.max(0, open - 1)) == 0) {
+            tryExecutePendingEvent();
+        }
+    }
+
     @Override
     public void onUpdateCompleted(UpdateCompletedEvent event) {
-        if (!server.getOnlinePlayers().isEmpty()) {
-            pendingEvent = event;
-            if (shouldDeferForPluginWindow(event)) {
-                scheduleDeferredRestart(event);
-            }
-            return;
+        // A later build of the same source supersedes the one installed before it
+        pendingEvents.put(event.getSource().getName(), event);
+        if (openBatches.get() == 0) {
+            tryExecutePendingEvent();
         }
-        executeActions(event);
     }
 
     @EventHandler
@@ -125,45 +164,66 @@ public class InstallationHandler implements Listener, UpdateCompletionListener {
         }
     }
 
-    private void executeActions(UpdateCompletedEvent event) {
-        if (shouldDeferForPluginWindow(event)) {
-            pendingEvent = event;
-            scheduleDeferredRestart(event);
+    private void notifyApplied(List<UpdateCompletedEvent> events) {
+        if (events.isEmpty()) {
             return;
         }
-        pendingEvent = null;
-        cancelDeferredRestartTask();
-        runPostUpdateActions(event);
+        for (PostUpdateObserver observer : observers) {
+            try {
+                observer.applied(events);
+            } catch (RuntimeException ex) {
+                server.getLogger().log(Level.SEVERE, "Failed to notify post update observer " + observer, ex);
+            }
+        }
     }
 
-    private void runPostUpdateActions(UpdateCompletedEvent event) {
+    private void runPostUpdateActions(List<UpdateCompletedEvent> batch) {
+        CompletableFuture<List<UpdateCompletedEvent>> remaining = CompletableFuture.completedFuture(batch);
         for (PostUpdateAction action : actions) {
-            try {
-                boolean shouldContinue = action.execute(event);
-                if (!shouldContinue) {
-                    break;
-                }
-            } catch (Exception ex) {
+            remaining = remaining.thenCompose(events -> runPostUpdateAction(action, events));
+        }
+    }
+
+    private CompletionStage<List<UpdateCompletedEvent>> runPostUpdateAction(PostUpdateAction action,
+                                                                            List<UpdateCompletedEvent> events) {
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(events);
+        }
+        try {
+            return action.execute(events).exceptionally(ex -> {
                 server.getLogger().log(Level.SEVERE, "Failed to execute post update action " + action, ex);
-            }
+                return events;
+            });
+        } catch (Exception ex) {
+            server.getLogger().log(Level.SEVERE, "Failed to execute post update action " + action, ex);
+            return CompletableFuture.completedFuture(events);
         }
     }
 
     void tryExecutePendingEvent() {
-        UpdateCompletedEvent pending = pendingEvent;
-        if (pending == null) {
+        if (pendingEvents.isEmpty() || openBatches.get() > 0) {
             return;
         }
+        // Players are checked first, so every player leaving does not reschedule the deferred restart
         if (!server.getOnlinePlayers().isEmpty()) {
             return;
         }
-        if (shouldDeferForPluginWindow(pending)) {
-            scheduleDeferredRestart(pending);
+        List<UpdateCompletedEvent> batch = List.copyOf(pendingEvents.values());
+        if (shouldDeferForPluginWindow(batch)) {
+            scheduleDeferredRestart(batch);
             return;
         }
-        pendingEvent = null;
+        pendingEvents.clear();
         cancelDeferredRestartTask();
-        runPostUpdateActions(pending);
+        runPostUpdateActions(batch);
+    }
+
+    /**
+     * A batch waits for the maintenance window only if none of its updates may restart the server right away;
+     * otherwise the plugin updates are completed by the same restart.
+     */
+    private boolean shouldDeferForPluginWindow(List<UpdateCompletedEvent> batch) {
+        return batch.stream().allMatch(this::shouldDeferForPluginWindow);
     }
 
     private boolean shouldDeferForPluginWindow(UpdateCompletedEvent event) {
@@ -195,14 +255,14 @@ public class InstallationHandler implements Listener, UpdateCompletionListener {
         return !time.isBefore(PLUGIN_RESTART_WINDOW_START) || time.isBefore(PLUGIN_RESTART_WINDOW_END);
     }
 
-    private void scheduleDeferredRestart(UpdateCompletedEvent event) {
-        if (event == null) {
+    private void scheduleDeferredRestart(List<UpdateCompletedEvent> batch) {
+        if (batch.isEmpty()) {
             return;
         }
 
         Duration delay = timeUntilNextWindow(LocalDateTime.now(clock));
         if (logger != null) {
-            String sourceName = event.getSource() != null ? event.getSource().getName() : "unknown";
+            String sourceName = describe(batch);
             long hours = delay.toHours();
             long minutes = delay.minusHours(hours).toMinutes();
             logger.log(Level.INFO,
@@ -252,8 +312,43 @@ public class InstallationHandler implements Listener, UpdateCompletionListener {
         }
     }
 
+    private static String describe(List<UpdateCompletedEvent> batch) {
+        List<String> names = new ArrayList<>();
+        for (UpdateCompletedEvent event : batch) {
+            names.add(event.getSource().getName());
+        }
+        return String.join(", ", names);
+    }
+
     public interface PostUpdateAction {
+
+        /**
+         * @return {@code true} if the following actions should still handle the event
+         */
         boolean execute(UpdateCompletedEvent event) throws Exception;
+
+        /**
+         * Handles a batch of completed updates. The following actions run once the returned stage completes.
+         *
+         * @return the events the following actions should still handle
+         */
+        default CompletionStage<List<UpdateCompletedEvent>> execute(List<UpdateCompletedEvent> batch) throws Exception {
+            List<UpdateCompletedEvent> remaining = new ArrayList<>();
+            for (UpdateCompletedEvent event : batch) {
+                if (execute(event)) {
+                    remaining.add(event);
+                }
+            }
+            return CompletableFuture.completedFuture(remaining);
+        }
+    }
+
+    /**
+     * Notified with the updates that the post update actions applied: right after they were reloaded, or right
+     * before the server restarts to complete them. Updates that are still pending are not reported.
+     */
+    public interface PostUpdateObserver {
+        void applied(List<UpdateCompletedEvent> events);
     }
 
     public static class ServerRestartAction implements PostUpdateAction {
@@ -262,18 +357,46 @@ public class InstallationHandler implements Listener, UpdateCompletionListener {
         private final Logger logger;
         private static final long RESTART_COOLDOWN_MILLIS = Duration.ofHours(1).toMillis();
         private final AtomicLong lastRestartTime;
+        private final Consumer<List<UpdateCompletedEvent>> applied;
 
         public ServerRestartAction(Server server,
                                    RestartCooldownRepository restartCooldownRepository,
                                    Logger logger) {
+            this(server, restartCooldownRepository, logger, events -> { });
+        }
+
+        /**
+         * @param applied receives the updates the restart completes, right before the server shuts down
+         */
+        public ServerRestartAction(Server server,
+                                   RestartCooldownRepository restartCooldownRepository,
+                                   Logger logger,
+                                   Consumer<List<UpdateCompletedEvent>> applied) {
             this.server = server;
             this.restartCooldownRepository = restartCooldownRepository;
             this.logger = logger;
+            this.applied = Objects.requireNonNull(applied, "applied");
             this.lastRestartTime = new AtomicLong(restartCooldownRepository.getLastRestartTime());
         }
 
         @Override
         public boolean execute(UpdateCompletedEvent event) {
+            execute(List.of(event));
+            return false;
+        }
+
+        /**
+         * Restarts the server once for the whole batch, unless the restart cooldown is active.
+         */
+        @Override
+        public CompletionStage<List<UpdateCompletedEvent>> execute(List<UpdateCompletedEvent> batch) {
+            if (!batch.isEmpty()) {
+                restart(batch);
+            }
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        private void restart(List<UpdateCompletedEvent> batch) {
             long now = System.currentTimeMillis();
 
             while (true) {
@@ -294,7 +417,7 @@ public class InstallationHandler implements Listener, UpdateCompletionListener {
                                     seconds
                             )
                     );
-                    return false;
+                    return;
                 }
 
                 if (lastRestartTime.compareAndSet(lastRestart, now)) {
@@ -303,9 +426,10 @@ public class InstallationHandler implements Listener, UpdateCompletionListener {
                 }
             }
 
-            logger.log(Level.INFO, "Restarting server to complete plugin update.");
+            logger.log(Level.INFO, "Restarting server to complete {0} update(s): {1}",
+                    new Object[]{batch.size(), describe(batch)});
+            applied.accept(batch);
             server.shutdown();
-            return false;
         }
 
         @Override
@@ -318,32 +442,24 @@ public class InstallationHandler implements Listener, UpdateCompletionListener {
         private final PluginLifecycleManager lifecycleManager;
         private final Logger logger;
         private final PluginUpdateSettingsRepository updateSettingsRepository;
+        private final Consumer<List<UpdateCompletedEvent>> applied;
 
         PluginReloadAction(PluginLifecycleManager lifecycleManager,
                            Logger logger,
-                           PluginUpdateSettingsRepository updateSettingsRepository) {
+                           PluginUpdateSettingsRepository updateSettingsRepository,
+                           Consumer<List<UpdateCompletedEvent>> applied) {
             this.lifecycleManager = lifecycleManager;
             this.logger = logger;
             this.updateSettingsRepository = updateSettingsRepository;
+            this.applied = applied;
         }
 
         @Override
         public boolean execute(UpdateCompletedEvent event) {
-            UpdateSource source = event.getSource();
-            if (source == null || source.getTargetDirectory() != TargetDirectory.PLUGINS) {
-                return true;
-            }
-            if (event.getDestination() == null) {
+            if (!isReloadable(event)) {
                 return true;
             }
             try {
-                ManagedPlugin plugin = lifecycleManager.findByPath(event.getDestination()).orElse(null);
-                if (plugin != null && updateSettingsRepository != null) {
-                    PluginUpdateSettings settings = updateSettingsRepository.getSettings(plugin.getName());
-                    if (settings.behaviour() != UpdateBehaviour.AUTO_RELOAD) {
-                        return true;
-                    }
-                }
                 boolean reloaded = lifecycleManager.reloadPlugin(event.getDestination());
                 if (reloaded) {
                     if (logger != null) {
@@ -351,6 +467,7 @@ public class InstallationHandler implements Listener, UpdateCompletionListener {
                                 "Reloaded plugin from {0} without requiring a server restart.",
                                 event.getDestination());
                     }
+                    applied.accept(List.of(event));
                     return false;
                 }
             } catch (PluginLifecycleException ex) {
@@ -364,6 +481,89 @@ public class InstallationHandler implements Listener, UpdateCompletionListener {
             return true;
         }
 
+        /**
+         * Reloads all plugins of the batch together, so dependencies are handled in the right order. Only the
+         * updates that could not be reloaded are passed on.
+         */
+        @Override
+        public CompletionStage<List<UpdateCompletedEvent>> execute(List<UpdateCompletedEvent> batch) {
+            List<UpdateCompletedEvent> remaining = new ArrayList<>();
+            Map<Path, UpdateCompletedEvent> reloadable = new LinkedHashMap<>();
+            for (UpdateCompletedEvent event : batch) {
+                if (isReloadable(event)) {
+                    reloadable.put(event.getDestination().toAbsolutePath().normalize(), event);
+                } else {
+                    remaining.add(event);
+                }
+            }
+            if (reloadable.isEmpty()) {
+                return CompletableFuture.completedFuture(remaining);
+            }
+            return lifecycleManager.reloadPlugins(reloadable.keySet()).handle((result, failure) -> {
+                if (failure != null) {
+                    if (logger != null) {
+                        logger.log(Level.WARNING, "Batch plugin reload failed: {0}", failure.getMessage());
+                    }
+                    remaining.addAll(reloadable.values());
+                    return remaining;
+                }
+                List<UpdateCompletedEvent> reloaded = new ArrayList<>();
+                reloadable.forEach((path, event) -> {
+                    if (report(result, path, event, remaining)) {
+                        reloaded.add(event);
+                    }
+                });
+                applied.accept(reloaded);
+                return remaining;
+            });
+        }
+
+        /**
+         * @return {@code true} if the plugin was reloaded
+         */
+        private boolean report(BatchReloadResult result,
+                            Path path,
+                            UpdateCompletedEvent event,
+                            List<UpdateCompletedEvent> remaining) {
+            if (result.isReloaded(path)) {
+                if (logger != null) {
+                    logger.log(Level.INFO,
+                            "Reloaded plugin from {0} without requiring a server restart.",
+                            event.getDestination());
+                    String regression = result.regressions().get(path);
+                    if (regression != null) {
+                        logger.log(Level.WARNING,
+                                "Update from {0} made the plugin noticeably slower: {1}",
+                                new Object[]{event.getDestination(), regression});
+                    }
+                }
+                return true;
+            }
+            remaining.add(event);
+            if (logger != null) {
+                logger.log(Level.WARNING,
+                        "Failed to reload plugin from {0}: {1}",
+                        new Object[]{event.getDestination(), result.failures().get(path)});
+            }
+            return false;
+        }
+
+        private boolean isReloadable(UpdateCompletedEvent event) {
+            UpdateSource source = event.getSource();
+            if (source == null || source.getTargetDirectory() != TargetDirectory.PLUGINS) {
+                return false;
+            }
+            if (event.getDestination() == null) {
+                return false;
+            }
+            ManagedPlugin plugin = lifecycleManager.findByPath(event.getDestination()).orElse(null);
+            if (plugin != null && updateSettingsRepository != null) {
+                PluginUpdateSettings settings = updateSettingsRepository.getSettings(plugin.getName());
+                return settings.behaviour() == UpdateBehaviour.AUTO_RELOAD;
+            }
+            return true;
+        }
+
         @Override
         public String toString() {
             return "PluginReloadAction";
@@ -0,0 +1,199 @@
+package eu.nurkert.neverUp2Late.handlers;
+
+import eu.nurkert.neverUp2Late.plugin.PluginLifecycleException;
+import eu.nurkert.neverUp2Late.plugin.PluginLifecycleManager;
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck;
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck.PerformanceSample;
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck.UpdatedSource;
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck.Verdict;
+import eu.nurkert.neverUp2Late.update.UpdateCompletedEvent;
+import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.TargetDirectory;
+import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.UpdateSource;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Feeds the {@link PerformanceHealthCheck} with server metrics and rolls updates back that made the server
+ * slower.
+ * <p>
+ * Every {@value #SAMPLE_TICKS} ticks a sample of the tick rate, the milliseconds per tick (on servers that
+ * report them), the heap used after the latest garbage collection and the thread count is recorded. Once
+ * updates have been reloaded, or right before the restart that completes them, an observation is opened for
+ * them; if the health check reports a regression, the previous backup of every plugin of that batch is
+ * restored through the {@link UpdateHandler}, which holds the destination lock while doing so, and the rolled
+ * back release is recorded, so the next run does not install it again. Server jars of the batch are only
+ * reported: restoring one would not undo the running build and swaps the jar underneath the server.
+ */
+public class PerformanceWatchdog implements InstallationHandler.PostUpdateObserver {
+
+    private static final long SAMPLE_TICKS = 100L;
+
+    private final JavaPlugin plugin;
+    private final PerformanceHealthCheck healthCheck;
+    private final UpdateHandler updateHandler;
+    private final PluginLifecycleManager lifecycleManager;
+    private final Logger logger;
+    private volatile boolean rollback = true;
+    private long windowStartNanos;
+    private int ticks;
+
+    public PerformanceWatchdog(JavaPlugin plugin,
+                               PerformanceHealthCheck healthCheck,
+                               UpdateHandler updateHandler,
+                               PluginLifecycleManager lifecycleManager) {
+        this.plugin = plugin;
+        this.healthCheck = healthCheck;
+        this.updateHandler = updateHandler;
+        this.lifecycleManager = lifecycleManager;
+        this.logger = plugin.getLogger();
+    }
+
+    /**
+     * @param rollback {@code false} to only report regressions
+     */
+    public void setRollback(boolean rollback) {
+        this.rollback = rollback;
+    }
+
+    public void start() {
+        windowStartNanos = System.nanoTime();
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    @Override
+    public void applied(List<UpdateCompletedEvent> events) {
+        List<UpdatedSource> sources = new ArrayList<>();
+        for (UpdateCompletedEvent event : events) {
+            UpdateSource source = event.getSource();
+            if (source == null || event.getDestination() == null) {
+                continue;
+            }
+            sources.add(new UpdatedSource(
+                    source.getName(),
+                    source.getInstalledPluginName(),
+                    event.getDestination().toAbsolutePath().normalize(),
+                    source.getTargetDirectory() == TargetDirectory.PLUGINS));
+        }
+        if (!sources.isEmpty() && !healthCheck.observe(sources)) {
+            logger.log(Level.FINE, "No performance baseline recorded yet; skipping health check for {0}", sources.size());
+        }
+    }
+
+    private void tick() {
+        if (++ticks < SAMPLE_TICKS) {
+            return;
+        }
+        long now = System.nanoTime();
+        double seconds = (now - windowStartNanos) / 1_000_000_000d;
+        double tps = seconds > 0d ? Math.min(20d, ticks / seconds) : 20d;
+        ticks = 0;
+        windowStartNanos = now;
+        double mspt = ServerTickTimes.averageTickMillis(plugin.getServer());
+        PerformanceSample sample = new PerformanceSample(Instant.now(), mspt, tps, heapAfterGc(),
+                ManagementFactory.getThreadMXBean().getThreadCount());
+        for (Verdict verdict : healthCheck.record(sample)) {
+            handle(verdict);
+        }
+    }
+
+    private void handle(Verdict verdict) {
+        if (!verdict.regressed()) {
+            logger.log(Level.INFO, "Post-update health check passed for {0}", verdict.sourceNames());
+            return;
+        }
+        if (!rollback) {
+            logger.log(Level.WARNING, "Performance regressed after updating {0}: {1}",
+                    new Object[]{verdict.sourceNames(), verdict.report()});
+            return;
+        }
+        List<UpdatedSource> plugins = new ArrayList<>();
+        List<String> serverJars = new ArrayList<>();
+        for (UpdatedSource source : verdict.observation().sources()) {
+            if (source.plugin()) {
+                plugins.add(source);
+            } else {
+                serverJars.add(source.name());
+            }
+        }
+        if (plugins.isEmpty()) {
+            logger.log(Level.WARNING, "Performance regressed after updating {0}: {1}. Server jars are not rolled back automatically; restore {2} with /nu2l rollback if needed.",
+                    new Object[]{verdict.sourceNames(), verdict.report(), serverJars});
+            return;
+        }
+        if (serverJars.isEmpty()) {
+            logger.log(Level.WARNING, "Performance regressed after updating {0}: {1}. Restoring the previous build(s).",
+                    new Object[]{verdict.sourceNames(), verdict.report()});
+        } else {
+            logger.log(Level.WARNING, "Performance regressed after updating {0}: {1}. Restoring the previous build(s) of the plugins; server jars are not rolled back automatically, restore {2} with /nu2l rollback if needed.",
+                    new Object[]{verdict.sourceNames(), verdict.report(), serverJars});
+        }
+        BukkitScheduler scheduler = plugin.getServer().getScheduler();
+        for (UpdatedSource source : plugins) {
+            scheduler.runTaskAsynchronously(plugin, () -> restore(source));
+        }
+    }
+
+    private void restore(UpdatedSource source) {
+        try {
+            Optional<ArtifactDownloader.RestorationResult> restoration = updateHandler.rollBack(
+                    source.name(),
+                    source.destination(),
+                    source.installedPluginName());
+            if (restoration.isEmpty()) {
+                logger.log(Level.WARNING, "No backup available to roll back {0}", source.name());
+                return;
+            }
+            logger.log(Level.INFO, "Rolled back {0} to backup {1}",
+                    new Object[]{source.name(), restoration.get().getOriginalBackupPath().getFileName()});
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Failed to roll back {0}: {1}", new Object[]{source.name(), ex.getMessage()});
+            return;
+        }
+        if (lifecycleManager == null) {
+            logger.log(Level.INFO, "The previous build of {0} is used after the next restart", source.name());
+            return;
+        }
+        if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> reload(source));
+        }
+    }
+
+    private void reload(UpdatedSource source) {
+        try {
+            boolean reloaded = source.installedPluginName() != null
+                    ? lifecycleManager.reloadPlugin(source.installedPluginName())
+                    : lifecycleManager.reloadPlugin(source.destination());
+            if (!reloaded) {
+                logger.log(Level.INFO, "The previous build of {0} is used after the next restart", source.name());
+            }
+        } catch (PluginLifecycleException ex) {
+            logger.log(Level.WARNING, "Failed to reload {0} after the rollback: {1}",
+                    new Object[]{source.name(), ex.getMessage()});
+        }
+    }
+
+    private static long heapAfterGc() {
+        long used = 0L;
+        boolean known = false;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (afterGc != null) {
+                used += afterGc.getUsed();
+                known = true;
+            }
+        }
+        return known ? used : -1L;
+    }
+}
@@ -43,16 +43,27 @@ public class PersistentPluginHandler {
             return Collections.emptyMap();
         }
 
+        Map<String, PluginState> snapshot = repository.snapshot();
         Map<String, PluginState> states = new HashMap<>();
         for (String name : pluginNames) {
             if (name == null || name.isBlank()) {
                 continue;
             }
-            repository.find(name).ifPresent(state -> states.put(name, state));
+            PluginState state = snapshot.get(name);
+            if (state != null) {
+                states.put(name, state);
+            }
         }
         return states;
     }
 
+    /**
+     * @return an immutable snapshot of all stored plugin states
+     */
+    public Map<String, PluginState> getPluginStates() {
+        return repository.snapshot();
+    }
+
     public boolean hasPluginInfo(String pluginName) {
         return repository.hasPluginInfo(pluginName);
     }
@@ -60,4 +71,15 @@ public class PersistentPluginHandler {
     public void removePluginInfo(String pluginName) {
         repository.savePluginState(pluginName, null, null);
     }
+
+    /**
+     * Keeps the currently installed release of the plugin from being installed again after it was rolled back.
+     */
+    public Optional<PluginState> markRolledBack(String pluginName) {
+        return repository.markRolledBack(pluginName);
+    }
+
+    public Optional<PluginState> getRolledBackRelease(String pluginName) {
+        return repository.findRolledBack(pluginName);
+    }
 }
@@ -0,0 +1,70 @@
+package eu.nurkert.neverUp2Late.handlers;
+
+import org.bukkit.Server;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Reports how long the server thread needs per tick. Scheduled to run every tick.
+ * <p>
+ * Paper reports the milliseconds per tick through {@code Server#getAverageTickTime()}. Spigot does not, so
+ * there the time between two runs of this task is used instead; it only exceeds the 50 ms tick slot when a
+ * tick overran, and shorter intervals are reported as {@code 0} because they say nothing about headroom.
+ */
+public final class ServerTickTimes implements Runnable {
+
+    private static final double TICK_SLOT_MILLIS = 50d;
+    private static final MethodHandle AVERAGE_TICK_TIME = findAverageTickTime();
+
+    private final Server server;
+    private final DoubleConsumer listener;
+    private long lastTickNanos;
+
+    public ServerTickTimes(Server server, DoubleConsumer listener) {
+        this.server = server;
+        this.listener = listener;
+    }
+
+    @Override
+    public void run() {
+        long now = System.nanoTime();
+        long previous = lastTickNanos;
+        lastTickNanos = now;
+        double mspt = averageTickMillis(server);
+        if (mspt < 0d) {
+            if (previous == 0L) {
+                return;
+            }
+            double interval = (now - previous) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            mspt = interval > TICK_SLOT_MILLIS ? interval : 0d;
+        }
+        listener.accept(mspt);
+    }
+
+    /**
+     * @return the average milliseconds per tick reported by the server, {@code -1} if it does not report them
+     */
+    public static double averageTickMillis(Server server) {
+        if (AVERAGE_TICK_TIME == null || server == null) {
+            return -1d;
+        }
+        try {
+            return (double) AVERAGE_TICK_TIME.invokeExact(server);
+        } catch (Throwable ex) {
+            return -1d;
+        }
+    }
+
+    private static MethodHandle findAverageTickTime() {
+        try {
+            return MethodHandles.publicLookup()
+                    .findVirtual(Server.class, "getAverageTickTime", MethodType.methodType(double.class));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            return null;
+        }
+    }
+}
@@ -1,19 +1,36 @@
 package eu.nurkert.neverUp2Late.handlers;
 
+import eu.nurkert.neverUp2Late.fetcher.FetchResult;
+import eu.nurkert.neverUp2Late.fetcher.UpdateFetcher;
+import eu.nurkert.neverUp2Late.net.CircuitBreakerRegistry;
+import eu.nurkert.neverUp2Late.net.CircuitOpenException;
 import eu.nurkert.neverUp2Late.net.HttpException;
+import eu.nurkert.neverUp2Late.net.RateLimitExceededException;
+import eu.nurkert.neverUp2Late.net.RateLimitTracker;
+import eu.nurkert.neverUp2Late.persistence.ConfigWriter;
 import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository;
 import eu.nurkert.neverUp2Late.plugin.ManagedPlugin;
 import eu.nurkert.neverUp2Late.plugin.PluginLifecycleManager;
 import eu.nurkert.neverUp2Late.persistence.SetupStateRepository;
 import eu.nurkert.neverUp2Late.persistence.SetupStateRepository.SetupPhase;
+import eu.nurkert.neverUp2Late.update.BackupUpdateStep;
+import eu.nurkert.neverUp2Late.update.CancellationToken;
 import eu.nurkert.neverUp2Late.update.DownloadUpdateStep;
 import eu.nurkert.neverUp2Late.update.FetchUpdateStep;
 import eu.nurkert.neverUp2Late.update.InstallUpdateStep;
+import eu.nurkert.neverUp2Late.update.MetadataCache;
+import eu.nurkert.neverUp2Late.update.ReplaceArtifactStep;
+import eu.nurkert.neverUp2Late.update.StageExecutors;
+import eu.nurkert.neverUp2Late.update.UpdateAbortedException;
 import eu.nurkert.neverUp2Late.update.UpdateContext;
 import eu.nurkert.neverUp2Late.update.UpdateJob;
+import eu.nurkert.neverUp2Late.update.UpdateSchedule;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry;
+import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.SourceChange;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.TargetDirectory;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.UpdateSource;
+import eu.nurkert.neverUp2Late.update.UpdateWorkQueue;
+import eu.nurkert.neverUp2Late.update.UpdateWorkQueue.Priority;
 import eu.nurkert.neverUp2Late.update.VersionComparator;
 import eu.nurkert.neverUp2Late.util.ArchiveUtils;
 import org.bukkit.ChatColor;
@@ -26,15 +43,28 @@ import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.URI;
 import java.net.UnknownHostException;
 import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -44,11 +74,25 @@ import java.util.HashMap;
 public class UpdateHandler {
 
     private static final long MINIMUM_UPDATE_INTERVAL_MINUTES = 30L;
+    private static final Duration MAXIMUM_DEFERRAL_WAIT = Duration.ofMinutes(2);
+    private static final long SCHEDULE_TICK_SECONDS = 60L;
+    private static final long DEFAULT_MAX_INTERVAL_MINUTES = 1440L;
+    private static final long DEFAULT_STARTUP_SPREAD_MINUTES = 10L;
+    private static final int DEFAULT_MAX_BURST = 4;
+    private static final int DEFAULT_WORKERS = 2;
+    private static final int LOCK_STRIPES = 32;
+    private static final long DEFAULT_STEP_DEADLINE_SECONDS = 300L;
+    private static final long DEFAULT_JOB_DEADLINE_SECONDS = 600L;
+    private static final long DEFAULT_SHUTDOWN_WAIT_SECONDS = 10L;
+    private static final String SHUTDOWN_REASON = "The server is shutting down";
+    private static final long DEFAULT_CHECK_CACHE_MINUTES = 10L;
+    private static final int CHECK_PARALLELISM = 6;
 
     private final JavaPlugin plugin;
     private final Server server;
     private final BukkitScheduler scheduler;
     private final FileConfiguration configuration;
+    private final ConfigWriter configWriter;
     private final PersistentPluginHandler persistentPluginHandler;
     private final InstallationHandler installationHandler;
     private final UpdateSourceRegistry updateSourceRegistry;
@@ -59,12 +103,27 @@ public class UpdateHandler {
     private final PluginLifecycleManager pluginLifecycleManager;
     private final PluginUpdateSettingsRepository updateSettingsRepository;
     private final SetupStateRepository setupStateRepository;
+    private final UpdateSchedule updateSchedule;
 
     private volatile boolean shuttingDown;
     private BukkitTask scheduledTask;
-    private final ReentrantLock updateRunLock = new ReentrantLock();
 
-    private boolean networkWarningShown;
+    private final UpdateWorkQueue<QueuedRun> workQueue = new UpdateWorkQueue<>();
+    // Runs writing to the same destination are serialised, runs of unrelated sources proceed in parallel
+    private final ReentrantLock[] destinationLocks = new ReentrantLock[LOCK_STRIPES];
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicInteger routineWorkers = new AtomicInteger();
+    private final Set<String> runningSources = ConcurrentHashMap.newKeySet();
+    private final Set<CancellationToken> activeRuns = ConcurrentHashMap.newKeySet();
+    private final MetadataCache metadataCache = new MetadataCache(Clock.systemUTC(), Duration.ZERO);
+
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.shared();
+    // Hosts whose open circuit has already been reported, so the warning is logged once per outage
+    private final Set<String> hostsReportedDown = ConcurrentHashMap.newKeySet();
+    // Last host a source was rejected for, used to skip the source without building its job
+    private final Map<String, String> sourceHosts = new ConcurrentHashMap<>();
+    private final Map<String, Instant> staleSources = new ConcurrentHashMap<>();
+    private final Map<String, FetchResult> availableUpdates = new ConcurrentHashMap<>();
 
     public UpdateHandler(JavaPlugin plugin,
                          BukkitScheduler scheduler,
@@ -76,11 +135,14 @@ public class UpdateHandler {
                          VersionComparator versionComparator,
                          PluginLifecycleManager pluginLifecycleManager,
                          PluginUpdateSettingsRepository updateSettingsRepository,
-                         SetupStateRepository setupStateRepository) {
+                         SetupStateRepository setupStateRepository,
+                         UpdateSchedule.Store scheduleStore,
+                         ConfigWriter configWriter) {
         this.plugin = plugin;
         this.server = plugin.getServer();
         this.scheduler = scheduler;
         this.configuration = configuration;
+        this.configWriter = configWriter;
         this.persistentPluginHandler = persistentPluginHandler;
         this.installationHandler = installationHandler;
         this.updateSourceRegistry = updateSourceRegistry;
@@ -91,101 +153,327 @@ public class UpdateHandler {
         this.pluginLifecycleManager = pluginLifecycleManager;
         this.updateSettingsRepository = updateSettingsRepository;
         this.setupStateRepository = setupStateRepository;
+        this.updateSchedule = new UpdateSchedule(scheduleStore, readScheduleSettings(false), Clock.systemUTC());
+        Arrays.setAll(destinationLocks, index -> new ReentrantLock());
+        updateSourceRegistry.addListener(this::onSourcesChanged);
     }
 
-    public void start() {
-        long configuredIntervalMinutes = configuration.getInt("updateInterval");
-        long intervalMinutes = Math.max(MINIMUM_UPDATE_INTERVAL_MINUTES, configuredIntervalMinutes);
-        if (configuredIntervalMinutes < MINIMUM_UPDATE_INTERVAL_MINUTES) {
-            logger.log(Level.INFO,
-                    "Configured update interval of {0} minutes is below the minimum. Using {1} minutes instead.",
-                    new Object[]{configuredIntervalMinutes, MINIMUM_UPDATE_INTERVAL_MINUTES});
+    /**
+     * Forgets what was learned about sources that were removed or got a new fetcher, so their next check
+     * is not skipped because of the previous fetcher's metadata.
+     */
+    private void onSourcesChanged(List<SourceChange> changes) {
+        for (SourceChange change : changes) {
+            if (!change.fetcherReplaced()) {
+                continue;
+            }
+            String name = change.name();
+            metadataCache.invalidate(name);
+            sourceHosts.remove(name);
+            staleSources.remove(name);
+            availableUpdates.remove(name);
         }
-        long intervalTicks = intervalMinutes * 20L * 60L;
+    }
+
+    public void start() {
+        updateSchedule.setSettings(readScheduleSettings(true));
+        metadataCache.setMaxAge(Duration.ofMinutes(
+                configuration.getLong("updates.check.cacheMinutes", DEFAULT_CHECK_CACHE_MINUTES)));
+        updateSchedule.setServerIdentity(resolveServerIdentity());
+        long spreadMinutes = Math.max(0L,
+                configuration.getLong("updates.schedule.startupSpreadMinutes", DEFAULT_STARTUP_SPREAD_MINUTES));
+        updateSchedule.spreadOverdue(
+                updateSourceRegistry.getSources().stream().map(UpdateSource::getName).toList(),
+                Duration.ofMinutes(spreadMinutes));
+        long tickPeriod = SCHEDULE_TICK_SECONDS * 20L;
         if (scheduledTask != null) {
             scheduledTask.cancel();
         }
         shuttingDown = false;
-        scheduledTask = scheduler.runTaskTimerAsynchronously(plugin, this::checkForUpdates, 0L, intervalTicks);
+        // Every tick only checks the sources whose persisted next-due time has passed
+        scheduledTask = scheduler.runTaskTimerAsynchronously(plugin, this::checkForUpdates, tickPeriod, tickPeriod);
     }
 
+    /**
+     * Stops the scheduler, aborts running updates and waits a bounded time for them to wind down, so
+     * disabling the plugin never blocks on a slow download.
+     */
     public void stop() {
         shuttingDown = true;
         if (scheduledTask != null) {
             scheduledTask.cancel();
             scheduledTask = null;
         }
+        workQueue.clear();
+        activeRuns.forEach(cancellation -> cancellation.cancel(SHUTDOWN_REASON));
+        awaitRunningUpdates(Duration.ofSeconds(Math.max(0L,
+                configuration.getLong("updates.deadlines.shutdownSeconds", DEFAULT_SHUTDOWN_WAIT_SECONDS))));
+        updateSchedule.saveIfDirty();
+    }
+
+    private void awaitRunningUpdates(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!activeRuns.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!activeRuns.isEmpty()) {
+            logger.log(Level.WARNING, "{0} update run(s) did not stop within {1} seconds and were left behind.",
+                    new Object[]{activeRuns.size(), timeout.toSeconds()});
+        }
+    }
+
+    public UpdateSchedule getUpdateSchedule() {
+        return updateSchedule;
+    }
+
+    private UpdateSchedule.Settings readScheduleSettings(boolean logAdjustments) {
+        long configuredIntervalMinutes = configuration.getInt("updateInterval");
+        long intervalMinutes = Math.max(MINIMUM_UPDATE_INTERVAL_MINUTES, configuredIntervalMinutes);
+        if (logAdjustments && configuredIntervalMinutes < MINIMUM_UPDATE_INTERVAL_MINUTES) {
+            logger.log(Level.INFO,
+                    "Configured update interval of {0} minutes is below the minimum. Using {1} minutes instead.",
+                    new Object[]{configuredIntervalMinutes, MINIMUM_UPDATE_INTERVAL_MINUTES});
+        }
+        long minMinutes = Math.max(MINIMUM_UPDATE_INTERVAL_MINUTES,
+                configuration.getLong("updates.schedule.minIntervalMinutes", intervalMinutes));
+        long maxMinutes = Math.max(minMinutes,
+                configuration.getLong("updates.schedule.maxIntervalMinutes", DEFAULT_MAX_INTERVAL_MINUTES));
+        return new UpdateSchedule.Settings(
+                Duration.ofMinutes(minMinutes),
+                Duration.ofMinutes(maxMinutes),
+                configuration.getDouble("updates.schedule.cadenceFraction", 0.25d),
+                configuration.getDouble("updates.schedule.backoffFactor", 1.5d),
+                0.3d,
+                configuration.getDouble("updates.schedule.jitter", 0.5d));
+    }
+
+    /**
+     * Identifies this server for the scheduling jitter. Servers sharing a host and directory layout can be told
+     * apart with {@code updates.schedule.serverId}.
+     */
+    private String resolveServerIdentity() {
+        String configured = configuration.getString("updates.schedule.serverId");
+        if (configured != null && !configured.isBlank()) {
+            return configured.trim();
+        }
+        String hostName;
+        try {
+            hostName = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException | SecurityException e) {
+            hostName = "localhost";
+        }
+        return hostName + "|" + server.getWorldContainer().getAbsolutePath() + "|" + server.getPort();
     }
 
+    /**
+     * Queues the routine checks of all due sources. The checks themselves run on the update workers, so
+     * manual runs submitted in the meantime are handled first.
+     */
     private void checkForUpdates() {
         if (shuttingDown || !plugin.isEnabled()) {
             return;
         }
-        if (!updateRunLock.tryLock()) {
-            logger.log(Level.FINE, "Skipping update check because another update run is still in progress.");
+        List<UpdateSource> sources = updateSourceRegistry.getSources();
+        updateSchedule.retain(sources.stream().map(UpdateSource::getName).toList());
+        int maxBurst = Math.max(1, configuration.getInt("updates.schedule.maxBurst", DEFAULT_MAX_BURST));
+        List<UpdateSource> allDue = sources.stream()
+                .filter(source -> updateSchedule.isDue(source.getName()))
+                .filter(source -> !runningSources.contains(source.getName()) && !workQueue.contains(source.getName()))
+                .sorted(Comparator.comparing(UpdateSource::getName, updateSchedule.dueOrder()))
+                .toList();
+        if (allDue.isEmpty()) {
+            reportRecoveredHosts();
+            updateSchedule.saveIfDirty();
             return;
         }
-        try {
+        // Limit the checks per tick so provider load stays flat; the rest follows on the next ticks
+        List<UpdateSource> dueSources = allDue.subList(0, Math.min(maxBurst, allDue.size()));
+        logger.log(Level.FINE, "Queueing {0} of {1} due update sources ({2} registered).",
+                new Object[]{dueSources.size(), allDue.size(), sources.size()});
         if (setupStateRepository != null && setupStateRepository.getPhase() != SetupPhase.COMPLETED) {
             logger.log(Level.FINE, "Running updates while setup is incomplete (phase={0}).", setupStateRepository.getPhase());
         }
-        boolean networkIssueThisRun = false;
         File pluginsFolder = plugin.getDataFolder().getParentFile();
         File serverFolder = server.getWorldContainer().getAbsoluteFile();
 
         // Avoid duplicate writes to the same destination within a single run
         Map<Path, String> destinationsSeen = new HashMap<>();
 
-        for (UpdateSource source : updateSourceRegistry.getSources()) {
-            if (shuttingDown || !plugin.isEnabled()) {
-                break;
-            }
+        for (UpdateSource source : dueSources) {
             Path destination = resolveDestination(source, pluginsFolder, serverFolder);
             if (destination == null) {
+                updateSchedule.postpone(source.getName());
                 continue;
             }
-            Path normalizedDest = destination != null ? destination.toAbsolutePath().normalize() : null;
-            if (normalizedDest != null) {
-                String existing = destinationsSeen.putIfAbsent(normalizedDest, source.getName());
-                if (existing != null) {
-                    logger.log(Level.WARNING,
-                            "Skipped update for source {0} because destination {1} is already handled by {2}.",
-                            new Object[]{source.getName(), normalizedDest, existing});
-                    continue;
-                }
+            Path normalizedDest = destination.toAbsolutePath().normalize();
+            String existing = destinationsSeen.putIfAbsent(normalizedDest, source.getName());
+            if (existing != null) {
+                logger.log(Level.WARNING,
+                        "Skipped update for source {0} because destination {1} is already handled by {2}.",
+                        new Object[]{source.getName(), normalizedDest, existing});
+                updateSchedule.postpone(source.getName());
+                continue;
             }
             if (shouldSkipAutomaticUpdate(source, destination)) {
+                updateSchedule.postpone(source.getName());
                 continue;
             }
-            UpdateJob job = createDefaultJob();
-            UpdateContext context = new UpdateContext(source, destination, logger);
-            configureRetention(context, destination);
+            String knownHost = sourceHosts.get(source.getName());
+            if (knownHost != null && circuitBreakers.getState(knownHost) == CircuitBreakerRegistry.State.OPEN) {
+                serveStaleMetadata(source, knownHost);
+                postponeUntil(source, circuitBreakers.getRetryAt(knownHost).orElse(null));
+                continue;
+            }
+            enqueue(source, destination, routinePriority(source), null, false);
+        }
+        updateSchedule.saveIfDirty();
+    }
 
-            try {
-                job.run(context);
-                handleFilenameRetention(context);
-            } catch (UnknownHostException e) {
-                networkIssueThisRun = true;
-                handleUnknownHost(source, e);
-            } catch (IOException e) {
-                logger.log(Level.WARNING,
-                        "I/O error while updating {0}: {1}", new Object[]{source.getName(), e.getMessage()});
-            } catch (Exception e) {
-                if (shuttingDown || !plugin.isEnabled()) {
-                    logger.log(Level.FINEST, "Update check aborted while plugin is disabling", e);
+    /**
+     * The server jar and NeverUp2Late itself are checked ahead of the other routine sources.
+     */
+    private Priority routinePriority(UpdateSource source) {
+        if (source.getTargetDirectory() == TargetDirectory.SERVER
+                || plugin.getName().equalsIgnoreCase(source.getInstalledPluginName())) {
+            return Priority.ESSENTIAL;
+        }
+        return Priority.ROUTINE;
+    }
+
+    private void enqueue(UpdateSource source,
+                         Path destination,
+                         Priority priority,
+                         CommandSender sender,
+                         boolean deferred) {
+        QueuedRun run = new QueuedRun(source, destination, sender != null ? List.of(sender) : List.of(), deferred);
+        if (!workQueue.submit(source.getName(), priority, run, QueuedRun::merge)) {
+            logger.log(Level.FINE, "Merged update request for {0} into the already queued run.", source.getName());
+        }
+        dispatchWorkers();
+    }
+
+    /**
+     * Starts update workers until the queue is being drained by the configured number of workers.
+     * <p>
+     * No worker is started for routine runs while all routine slots are taken: the workers holding those slots
+     * pick them up once their current run is done.
+     */
+    private void dispatchWorkers() {
+        int maxWorkers = maxWorkers();
+        while (!shuttingDown && plugin.isEnabled()) {
+            int active = activeWorkers.get();
+            if (active >= maxWorkers) {
+                return;
+            }
+            synchronized (workQueue) {
+                if (!workQueue.hasPollable(routineWorkers.get() < routineSlots())) {
+                    return;
+                }
+            }
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                if (active == 0) {
+                    // Everything installed until the queue runs dry is handed to the installation handler as one batch
+                    installationHandler.beginBatch();
+                }
+                scheduler.runTaskAsynchronously(plugin, this::drainQueue);
+            }
+        }
+    }
+
+    private int maxWorkers() {
+        return Math.max(1, configuration.getInt("updates.queue.workers", DEFAULT_WORKERS));
+    }
+
+    /**
+     * One worker is kept free of routine checks so manual and essential runs never wait behind them. With a
+     * single worker no slot can be kept free; routine checks then share it with the other runs.
+     */
+    private int routineSlots() {
+        return Math.max(1, maxWorkers() - 1);
+    }
+
+    private void drainQueue() {
+        try {
+            int routineSlots = routineSlots();
+            while (!shuttingDown && plugin.isEnabled()) {
+                UpdateWorkQueue.Task<QueuedRun> task;
+                boolean routine;
+                synchronized (workQueue) {
+                    task = workQueue.poll(routineWorkers.get() < routineSlots).orElse(null);
+                    routine = task != null && task.priority() == Priority.ROUTINE;
+                    if (routine) {
+                        routineWorkers.incrementAndGet();
+                    }
+                }
+                if (task == null) {
                     break;
                 }
-                logger.log(Level.SEVERE, "Unexpected error while checking updates for " + source.getName(), e);
+                try {
+                    runQueued(task);
+                } finally {
+                    if (routine) {
+                        routineWorkers.decrementAndGet();
+                    }
+                }
+            }
+        } finally {
+            if (activeWorkers.decrementAndGet() == 0) {
+                closeBatch();
             }
         }
+        // Runs queued while this worker was finishing must not be left behind
+        dispatchWorkers();
+    }
 
-        if (!networkIssueThisRun && networkWarningShown) {
-            logger.log(Level.INFO, "Connection to update servers restored. Resuming normal update checks.");
-            networkWarningShown = false;
+    /**
+     * Closes the installation batch on the server thread, after the completions the workers scheduled there.
+     */
+    private void closeBatch() {
+        // A disabled plugin cannot schedule tasks anymore; the server is stopping and nothing is left to complete
+        if (plugin.isEnabled()) {
+            scheduler.runTask(plugin, installationHandler::endBatch);
         }
+    }
+
+    private void runQueued(UpdateWorkQueue.Task<QueuedRun> task) {
+        QueuedRun run = task.payload();
+        UpdateSource source = run.source();
+        runningSources.add(source.getName());
+        try {
+            if (task.priority() == Priority.MANUAL) {
+                executeManualRun(source, run.senders());
+            } else {
+                runRoutineCheck(run);
+            }
+        } finally {
+            runningSources.remove(source.getName());
+        }
+    }
+
+    private void runRoutineCheck(QueuedRun run) {
+        UpdateSource source = run.source();
+        ReentrantLock lock = lockFor(run.destination());
+        lock.lock();
+        try {
+            if (runAutomaticUpdate(source, run.destination()) == RunOutcome.ABORTED) {
+                workQueue.clear();
+            }
+        } catch (RateLimitExceededException e) {
+            deferUntilBudgetResets(run, e);
         } finally {
-            updateRunLock.unlock();
+            lock.unlock();
         }
+        reportRecoveredHosts();
+        updateSchedule.saveIfDirty();
+    }
+
+    private ReentrantLock lockFor(Path destination) {
+        return destinationLocks[Math.floorMod(destination.toAbsolutePath().normalize().hashCode(), LOCK_STRIPES)];
     }
 
     private Path resolveDestination(UpdateSource source, File pluginsFolder, File serverFolder) {
@@ -222,9 +510,11 @@ public class UpdateHandler {
                         logger.log(Level.INFO, "Detected filename mismatch for {0}. recovering from {1} to {2}",
                                 new Object[]{source.getName(), source.getFilename(), actualFilename});
                         
-                        updateSourceRegistry.updateSourceFilename(source.getName(), actualFilename);
-                        configuration.set("filenames." + source.getName(), actualFilename);
-                        plugin.saveConfig();
+                        configWriter.update(() -> {
+                            updateSourceRegistry.updateSourceFilename(source.getName(), actualFilename);
+                            configuration.set("filenames." + source.getName(), actualFilename);
+                            return true;
+                        });
                         
                         return actualPath;
                     }
@@ -235,6 +525,96 @@ public class UpdateHandler {
         return expectedPath;
     }
 
+    private RunOutcome runAutomaticUpdate(UpdateSource source, Path destination) throws RateLimitExceededException {
+        UpdateJob job = createDefaultJob();
+        UpdateContext context = new UpdateContext(source, destination, logger);
+        configureRetention(context, destination);
+
+        try {
+            runJob(job, context);
+            handleFilenameRetention(context);
+            staleSources.remove(source.getName());
+            updateSchedule.recordCheck(source.getName(), releaseMarker(context));
+        } catch (UpdateAbortedException e) {
+            if (shuttingDown || !plugin.isEnabled()) {
+                logger.log(Level.FINE, "Update check of {0} aborted: {1}", new Object[]{source.getName(), e.getMessage()});
+                return RunOutcome.ABORTED;
+            }
+            updateSchedule.postpone(source.getName());
+            logger.log(Level.WARNING, "Update check of {0} aborted: {1}", new Object[]{source.getName(), e.getMessage()});
+        } catch (RateLimitExceededException e) {
+            throw e;
+        } catch (CircuitOpenException e) {
+            sourceHosts.put(source.getName(), e.getHost());
+            serveStaleMetadata(source, e.getHost());
+            reportUnavailableHosts();
+            postponeUntil(source, e.getRetryAt().orElse(null));
+            return RunOutcome.STALE;
+        } catch (IOException e) {
+            updateSchedule.postpone(source.getName());
+            if (CircuitBreakerRegistry.isHostFailure(e)) {
+                handleUnreachableHost(source, e);
+                return RunOutcome.STALE;
+            }
+            logger.log(Level.WARNING,
+                    "I/O error while updating {0}: {1}", new Object[]{source.getName(), e.getMessage()});
+        } catch (Exception e) {
+            if (shuttingDown || !plugin.isEnabled()) {
+                logger.log(Level.FINEST, "Update check aborted while plugin is disabling", e);
+                return RunOutcome.ABORTED;
+            }
+            updateSchedule.postpone(source.getName());
+            logger.log(Level.SEVERE, "Unexpected error while checking updates for " + source.getName(), e);
+        }
+        return RunOutcome.COMPLETED;
+    }
+
+    /**
+     * @return identifier of the release reported by the provider, or {@code null} if nothing was fetched
+     */
+    private String releaseMarker(UpdateContext context) {
+        if (context.getLatestVersion() == null && context.getLatestBuild() <= 0) {
+            return null;
+        }
+        return context.getLatestBuild() + "|" + Objects.toString(context.getLatestVersion(), "");
+    }
+
+    private void postponeUntil(UpdateSource source, Instant retryAt) {
+        if (retryAt != null) {
+            updateSchedule.postpone(source.getName(), retryAt);
+        } else {
+            updateSchedule.postpone(source.getName());
+        }
+    }
+
+    /**
+     * Queues the source again once its provider budget is available, if that happens within
+     * {@link #MAXIMUM_DEFERRAL_WAIT}. Otherwise, or if the source was already deferred once, it is left for
+     * its next scheduled check.
+     */
+    private void deferUntilBudgetResets(QueuedRun run, RateLimitExceededException exception) {
+        UpdateSource source = run.source();
+        Instant now = Instant.now();
+        Instant retryAt = RateLimitTracker.shared().nextAvailable(exception.getHost())
+                .orElse(exception.getRetryAt().orElse(null));
+        if (run.deferred() || shuttingDown || (retryAt != null && retryAt.isAfter(now.plus(MAXIMUM_DEFERRAL_WAIT)))) {
+            logPostponed(source, exception.getHost(), retryAt);
+            postponeUntil(source, retryAt);
+            return;
+        }
+        long delayTicks = retryAt != null ? Math.max(1L, (Duration.between(now, retryAt).toMillis() + 49L) / 50L) : 1L;
+        // Waiting happens in the scheduler instead of blocking a worker
+        scheduler.runTaskLaterAsynchronously(plugin,
+                () -> enqueue(source, run.destination(), routinePriority(source), null, true), delayTicks);
+    }
+
+    private void logPostponed(UpdateSource source, String host, Instant retryAt) {
+        logger.log(Level.INFO,
+                "Postponed update check for {0} to the next run because the request budget of {1} is exhausted{2}.",
+                new Object[]{source.getName(), host,
+                        retryAt != null ? " until " + retryAt : ""});
+    }
+
     /**
      * Creates the default update pipeline consisting of fetch, download and
      * install steps. Plugins can register new steps by overriding this method
@@ -243,85 +623,361 @@ public class UpdateHandler {
      */
     private UpdateJob createDefaultJob() {
         return new UpdateJob()
-                .addStep(new FetchUpdateStep(persistentPluginHandler, versionComparator))
-                .addStep(new DownloadUpdateStep(artifactDownloader))
-                .addStep(new InstallUpdateStep(plugin, persistentPluginHandler, installationHandler));
+                .addStep(new FetchUpdateStep(persistentPluginHandler, versionComparator, metadataCache))
+                .addParallel(new BackupUpdateStep(artifactDownloader), new DownloadUpdateStep(artifactDownloader, false))
+                .addStep(new ReplaceArtifactStep())
+                .addStep(new InstallUpdateStep(plugin, persistentPluginHandler, installationHandler))
+                .stepTimeout(Duration.ofSeconds(
+                        configuration.getLong("updates.deadlines.stepSeconds", DEFAULT_STEP_DEADLINE_SECONDS)))
+                .jobTimeout(Duration.ofSeconds(
+                        configuration.getLong("updates.deadlines.jobSeconds", DEFAULT_JOB_DEADLINE_SECONDS)));
     }
 
-    private void handleUnknownHost(UpdateSource source, UnknownHostException e) {
-        if (!networkWarningShown) {
-            logger.log(Level.WARNING,
-                    "Unable to reach update server while checking {0}: {1}. The plugin will retry automatically.",
-                    new Object[]{source.getName(), e.getMessage()});
-            networkWarningShown = true;
+    /**
+     * Runs the job while its cancellation token is registered, so {@link #stop()} can abort it.
+     */
+    private void runJob(UpdateJob job, UpdateContext context) throws Exception {
+        CancellationToken cancellation = context.getCancellation();
+        activeRuns.add(cancellation);
+        boolean completed = false;
+        try {
+            if (shuttingDown) {
+                cancellation.cancel(SHUTDOWN_REASON);
+            }
+            job.run(context);
+            completed = true;
+        } finally {
+            activeRuns.remove(cancellation);
+            context.discardStagedArtifact();
+            recordAvailableUpdate(context, completed);
+        }
+    }
+
+    /**
+     * Remembers the release of a source that is newer than the installed one until a run installs it.
+     */
+    private void recordAvailableUpdate(UpdateContext context, boolean completed) {
+        FetchResult result = context.getFetchResult().orElse(null);
+        if (result == null) {
+            return;
+        }
+        String name = context.getSource().getName();
+        boolean installed = completed && !context.isCancelled() && context.getDownloadedArtifact().isPresent();
+        if (context.isUpdateAvailable() && !installed) {
+            availableUpdates.put(name, result);
+        } else {
+            availableUpdates.remove(name);
+        }
+    }
+
+    private void handleUnreachableHost(UpdateSource source, IOException e) {
+        serveStaleMetadata(source, null);
+        // Once the circuit of the host opens, the outage is reported once instead of for every source
+        Level level = hostsReportedDown.isEmpty() ? Level.WARNING : Level.FINE;
+        logger.log(level,
+                "Unable to reach update server while checking {0}: {1}. The plugin will retry automatically.",
+                new Object[]{source.getName(), e.getMessage()});
+        reportUnavailableHosts();
+    }
+
+    /**
+     * Keeps the last known metadata of a source whose provider is unavailable instead of failing the source.
+     */
+    private void serveStaleMetadata(UpdateSource source, String host) {
+        staleSources.putIfAbsent(source.getName(), Instant.now());
+        String known = persistentPluginHandler.getPluginState(source.getName())
+                .map(state -> state.version() != null ? "version " + state.version() : "build " + state.build())
+                .orElse("no recorded version");
+        logger.log(Level.FINE, "Serving last known metadata for {0} ({1}) because {2} is unavailable.",
+                new Object[]{source.getName(), known, host != null ? host : "its update server"});
+    }
+
+    private void reportUnavailableHosts() {
+        for (CircuitBreakerRegistry.CircuitStatus status : circuitBreakers.snapshot()) {
+            if (status.state() == CircuitBreakerRegistry.State.OPEN && hostsReportedDown.add(status.host())) {
+                logger.log(Level.WARNING,
+                        "Update server {0} is unavailable. Its sources are skipped until {1} and keep their last known versions.",
+                        new Object[]{status.host(), status.retryAt()});
+            }
+        }
+    }
+
+    private void reportRecoveredHosts() {
+        for (String host : List.copyOf(hostsReportedDown)) {
+            if (circuitBreakers.getState(host) == CircuitBreakerRegistry.State.CLOSED) {
+                hostsReportedDown.remove(host);
+                logger.log(Level.INFO, "Connection to {0} restored. Resuming normal update checks.", host);
+            }
+        }
+    }
+
+    /**
+     * Restores the previous backup of a source and records the removed release as rolled back, so it is not
+     * installed again. Holds the lock of the destination, so the rollback never interleaves with an update
+     * writing the same file.
+     *
+     * @return the restored backup, or empty if there is none
+     */
+    public Optional<ArtifactDownloader.RestorationResult> rollBack(String sourceName,
+                                                                   Path destination,
+                                                                   String installedPluginName) throws IOException {
+        ReentrantLock lock = lockFor(destination);
+        lock.lock();
+        try {
+            Optional<ArtifactDownloader.RestorationResult> restoration =
+                    artifactDownloader.restorePreviousBackup(destination, installedPluginName, sourceName);
+            if (restoration.isPresent()) {
+                persistentPluginHandler.markRolledBack(sourceName).ifPresent(release -> logger.log(Level.INFO,
+                        "Skipping release {0} of {1} until a newer one is available",
+                        new Object[]{release.version() != null ? release.version() : release.build(), sourceName}));
+            }
+            return restoration;
+        } finally {
+            lock.unlock();
         }
     }
 
+    /**
+     * @return the time since which the source is served from stale metadata because its provider is unavailable
+     */
+    public Optional<Instant> getStaleSince(String sourceName) {
+        return sourceName == null ? Optional.empty() : Optional.ofNullable(staleSources.get(sourceName));
+    }
+
+    /**
+     * @return the newest release of the source found by the last check, if it is not installed yet
+     */
+    public Optional<FetchResult> getAvailableUpdate(String sourceName) {
+        return sourceName == null ? Optional.empty() : Optional.ofNullable(availableUpdates.get(sourceName));
+    }
+
     public void runJobNow(UpdateSource source, CommandSender sender) {
         Objects.requireNonNull(source, "source");
         if (shuttingDown || !plugin.isEnabled()) {
             notify(sender, ChatColor.RED + "The updater is currently shutting down. Please try again later.");
             return;
         }
-        scheduler.runTaskAsynchronously(plugin, () -> executeManualRun(source, sender));
+        if (workQueue.contains(source.getName())) {
+            notify(sender, ChatColor.YELLOW + displayName(source) + " is already queued; you will be notified once it finishes.");
+        }
+        enqueue(source, null, Priority.MANUAL, sender, false);
     }
 
-    private void executeManualRun(UpdateSource source, CommandSender sender) {
+    private void executeManualRun(UpdateSource source, List<CommandSender> senders) {
         if (shuttingDown || !plugin.isEnabled()) {
-            notify(sender, ChatColor.RED + "The updater is currently shutting down. Please try again later.");
+            notify(senders, ChatColor.RED + "The updater is currently shutting down. Please try again later.");
             return;
         }
-        if (!updateRunLock.tryLock()) {
-            notify(sender, ChatColor.RED + "Another update run is currently in progress. Please try again shortly.");
+        File pluginsFolder = plugin.getDataFolder().getParentFile();
+        File serverFolder = server.getWorldContainer().getAbsoluteFile();
+        Path destination = resolveDestination(source, pluginsFolder, serverFolder);
+        if (destination == null) {
+            notify(senders, ChatColor.RED + "No filename configured for " + displayName(source) + "; update aborted.");
             return;
         }
+        ReentrantLock lock = lockFor(destination);
+        if (!lock.tryLock()) {
+            notify(senders, ChatColor.YELLOW + "Waiting for the running update of " + destination.getFileName() + " to finish…");
+            lock.lock();
+        }
         try {
-            File pluginsFolder = plugin.getDataFolder().getParentFile();
-            File serverFolder = server.getWorldContainer().getAbsoluteFile();
-            Path destination = resolveDestination(source, pluginsFolder, serverFolder);
-            if (destination == null) {
-                notify(sender, ChatColor.RED + "No filename configured for " + displayName(source) + "; update aborted.");
-                return;
-            }
             UpdateJob job = createDefaultJob();
             UpdateContext context = new UpdateContext(source, destination, logger);
             configureRetention(context, destination);
 
-            notify(sender, ChatColor.YELLOW + "Checking " + displayName(source) + " for new versions…");
+            notify(senders, ChatColor.YELLOW + "Checking " + displayName(source) + " for new versions…");
 
-            job.run(context);
+            runJob(job, context);
             handleFilenameRetention(context);
+            staleSources.remove(source.getName());
+            updateSchedule.recordCheck(source.getName(), releaseMarker(context));
             if (context.isCancelled()) {
                 String reason = context.getCancelReason().orElse("Installation cancelled.");
-                notify(sender, ChatColor.GOLD + reason);
+                notify(senders, ChatColor.GOLD + reason);
                 return;
             }
 
             String version = context.getLatestVersion();
             String buildInfo = version != null ? "Version " + version : "Build " + context.getLatestBuild();
             String destinationFile = destination.getFileName() != null ? destination.getFileName().toString() : destination.toString();
-            notify(sender, ChatColor.GREEN + "Installation complete: " + displayName(source) + " "
+            notify(senders, ChatColor.GREEN + "Installation complete: " + displayName(source) + " "
                     + buildInfo + " → " + destinationFile + ". Please restart the server.");
+        } catch (UpdateAbortedException e) {
+            notify(senders, ChatColor.GOLD + "Update of " + displayName(source) + " aborted: " + e.getMessage());
+            logger.log(Level.INFO, "Manual update of {0} aborted: {1}", new Object[]{source.getName(), e.getMessage()});
         } catch (UnknownHostException e) {
-            notify(sender, ChatColor.RED + "Download failed: " + e.getMessage());
-            handleUnknownHost(source, e);
+            notify(senders, ChatColor.RED + "Download failed: " + e.getMessage());
+            handleUnreachableHost(source, e);
+        } catch (RateLimitExceededException e) {
+            handleRateLimit(senders, source, e);
+        } catch (CircuitOpenException e) {
+            handleOpenCircuit(senders, source, e);
         } catch (IOException e) {
             if (e instanceof HttpException httpException) {
-                handleHttpError(sender, source, httpException);
+                handleHttpError(senders, source, httpException);
             } else {
-                notify(sender, ChatColor.RED + "I/O error: " + e.getMessage());
+                notify(senders, ChatColor.RED + "I/O error: " + e.getMessage());
                 logger.log(Level.WARNING,
                         "I/O error while installing {0}: {1}", new Object[]{source.getName(), e.getMessage()});
             }
         } catch (Exception e) {
-            notify(sender, ChatColor.RED + "Unexpected error: " + e.getMessage());
+            notify(senders, ChatColor.RED + "Unexpected error: " + e.getMessage());
             logger.log(Level.SEVERE, "Unexpected error while running manual update for " + source.getName(), e);
         } finally {
-            updateRunLock.unlock();
+            lock.unlock();
+        }
+        updateSchedule.saveIfDirty();
+    }
+
+    /**
+     * Checks every source for new releases without downloading anything and reports the pending updates.
+     * The loaded metadata is reused by the next run of each source.
+     */
+    public void checkAll(CommandSender sender) {
+        if (shuttingDown || !plugin.isEnabled()) {
+            notify(sender, ChatColor.RED + "The updater is currently shutting down. Please try again later.");
+            return;
+        }
+        List<UpdateSource> sources = updateSourceRegistry.getSources();
+        if (sources.isEmpty()) {
+            notify(sender, ChatColor.YELLOW + "No update sources are currently registered.");
+            return;
         }
+        notify(sender, ChatColor.YELLOW + "Checking " + sources.size() + " sources for updates without installing…");
+        scheduler.runTaskAsynchronously(plugin, () -> {
+            File pluginsFolder = plugin.getDataFolder().getParentFile();
+            File serverFolder = server.getWorldContainer().getAbsoluteFile();
+            // Destinations are resolved one after another because resolving may rewrite the configuration
+            List<Path> destinations = new ArrayList<>();
+            for (UpdateSource source : sources) {
+                destinations.add(resolveDestination(source, pluginsFolder, serverFolder));
+            }
+            // A fixed number of lanes take the next source once their check is done, so no pool thread waits
+            CheckResult[] results = new CheckResult[sources.size()];
+            AtomicInteger next = new AtomicInteger();
+            List<CompletableFuture<Void>> lanes = new ArrayList<>();
+            for (int lane = 0; lane < Math.min(CHECK_PARALLELISM, sources.size()); lane++) {
+                lanes.add(CompletableFuture.runAsync(() -> {
+                    for (int i = next.getAndIncrement(); i < results.length; i = next.getAndIncrement()) {
+                        results[i] = checkSource(sources.get(i), destinations.get(i));
+                    }
+                }, StageExecutors.shared().io()));
+            }
+            CompletableFuture.allOf(lanes.toArray(CompletableFuture[]::new))
+                    .thenRun(() -> reportCheck(sender, Arrays.asList(results)));
+        });
     }
 
-    private void handleHttpError(CommandSender sender, UpdateSource source, HttpException exception) {
+    private CheckResult checkSource(UpdateSource source, Path destination) {
+        String installed = persistentPluginHandler.getPluginState(source.getName())
+                .map(state -> state.version() != null ? state.version() : "build " + state.build())
+                .orElse("not installed");
+        if (destination == null) {
+            return CheckResult.failed(source, installed, "no filename configured");
+        }
+        // Fetchers return immutable results, so a check may run alongside an update of the same source. Adapted
+        // fetchers keep their result in the fetcher until the update configured its context, though.
+        ReentrantLock lock = UpdateFetcher.isAdapted(source.getFetcherClass()) ? lockFor(destination) : null;
+        if (lock != null && !lock.tryLock()) {
+            return CheckResult.failed(source, installed, "update in progress");
+        }
+        try {
+            UpdateContext context = new UpdateContext(source, destination, logger);
+            UpdateJob job = new UpdateJob()
+                    .addStep(new FetchUpdateStep(persistentPluginHandler, versionComparator))
+                    .stepTimeout(Duration.ofSeconds(
+                            configuration.getLong("updates.deadlines.stepSeconds", DEFAULT_STEP_DEADLINE_SECONDS)));
+            long started = System.nanoTime();
+            runJob(job, context);
+            Duration latency = Duration.ofNanos(System.nanoTime() - started);
+            context.getFetchResult().ifPresent(result -> metadataCache.markLoaded(source.getName(), result));
+            staleSources.remove(source.getName());
+
+            String available = context.getLatestVersion() != null
+                    ? context.getLatestVersion()
+                    : "build " + context.getLatestBuild();
+            OptionalLong size = OptionalLong.empty();
+            if (context.isUpdateAvailable() && context.getDownloadUrl() != null) {
+                try {
+                    size = artifactDownloader.probeContentLength(context.getDownloadUrl());
+                } catch (IOException e) {
+                    logger.log(Level.FINE, "Could not determine download size of {0}: {1}",
+                            new Object[]{source.getName(), e.getMessage()});
+                }
+            }
+            return new CheckResult(source.getName(), installed, available, context.isUpdateAvailable(), size, latency, null);
+        } catch (Exception e) {
+            metadataCache.invalidate(source.getName());
+            return CheckResult.failed(source, installed, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void reportCheck(CommandSender sender, List<CheckResult> results) {
+        List<CheckResult> sorted = results.stream()
+                .sorted(Comparator.comparing(CheckResult::updateAvailable).reversed()
+                        .thenComparing(CheckResult::sourceName, String.CASE_INSENSITIVE_ORDER))
+                .toList();
+        long pending = sorted.stream().filter(CheckResult::updateAvailable).count();
+        long failed = sorted.stream().filter(result -> result.error() != null).count();
+        List<String> lines = new ArrayList<>();
+        lines.add(ChatColor.GOLD + "Pending updates (source | installed → available | download | provider latency):");
+        for (CheckResult result : sorted) {
+            StringBuilder line = new StringBuilder()
+                    .append(ChatColor.AQUA).append(result.sourceName())
+                    .append(ChatColor.GRAY).append(" | ").append(ChatColor.WHITE).append(result.installed());
+            if (result.error() != null) {
+                line.append(ChatColor.GRAY).append(" | ").append(ChatColor.RED).append("check failed: ").append(result.error());
+            } else if (result.updateAvailable()) {
+                line.append(ChatColor.GRAY).append(" → ").append(ChatColor.GREEN).append(result.available())
+                        .append(ChatColor.GRAY).append(" | ")
+                        .append(result.downloadSize().isPresent() ? formatSize(result.downloadSize().getAsLong()) : "size unknown")
+                        .append(" | ").append(result.latency().toMillis()).append(" ms");
+            } else {
+                line.append(ChatColor.GRAY).append(" | up to date | ").append(result.latency().toMillis()).append(" ms");
+            }
+            lines.add(line.toString());
+        }
+        lines.add(ChatColor.GOLD + String.valueOf(pending) + " update(s) pending, "
+                + (sorted.size() - pending - failed) + " up to date, " + failed + " failed.");
+        lines.forEach(line -> notify(sender, line));
+    }
+
+    private static String formatSize(long bytes) {
+        if (bytes < 1024L) {
+            return bytes + " B";
+        }
+        if (bytes < 1024L * 1024L) {
+            return String.format(Locale.ROOT, "%.1f KiB", bytes / 1024d);
+        }
+        return String.format(Locale.ROOT, "%.1f MiB", bytes / (1024d * 1024d));
+    }
+
+    private void handleRateLimit(List<CommandSender> senders, UpdateSource source, RateLimitExceededException exception) {
+        String host = exception.getHost() != null ? exception.getHost() : "the remote server";
+        String retry = exception.getRetryAt()
+                .map(retryAt -> Math.max(1L, Duration.between(Instant.now(), retryAt).toSeconds()))
+                .map(seconds -> " Try again in " + seconds + " seconds.")
+                .orElse(" Please try again later.");
+        notify(senders, ChatColor.GOLD + "Request budget of " + host + " is exhausted." + retry);
+        logger.log(Level.INFO, "Manual update for {0} deferred: {1}", new Object[]{source.getName(), exception.getMessage()});
+    }
+
+    private void handleOpenCircuit(List<CommandSender> senders, UpdateSource source, CircuitOpenException exception) {
+        sourceHosts.put(source.getName(), exception.getHost());
+        serveStaleMetadata(source, exception.getHost());
+        String retry = exception.getRetryAt()
+                .map(retryAt -> Math.max(1L, Duration.between(Instant.now(), retryAt).toSeconds()))
+                .map(seconds -> " Next attempt possible in " + seconds + " seconds.")
+                .orElse(" Please try again shortly.");
+        notify(senders, ChatColor.GOLD + exception.getHost() + " is currently unavailable; "
+                + displayName(source) + " keeps its installed version." + retry);
+    }
+
+    private void handleHttpError(List<CommandSender> senders, UpdateSource source, HttpException exception) {
         int statusCode = exception.getStatusCode();
         String hostDescription = describeHost(exception.getUrl());
         String displayHost = hostDescription != null ? hostDescription : "the remote server";
@@ -334,7 +990,7 @@ public class UpdateHandler {
             message = "HTTP " + statusCode + " error while downloading from " + displayHost + ".";
         }
 
-        notify(sender, ChatColor.RED + message);
+        notify(senders, ChatColor.RED + message);
         logger.log(Level.WARNING,
                 "HTTP error {0} while installing {1} from {2}: {3}",
                 new Object[]{statusCode, source.getName(), exception.getUrl(), truncate(exception.getResponseBody())});
@@ -371,6 +1027,10 @@ public class UpdateHandler {
         return trimmed.substring(0, 200) + "…";
     }
 
+    private void notify(List<CommandSender> senders, String message) {
+        senders.forEach(sender -> notify(sender, message));
+    }
+
     private void notify(CommandSender sender, String message) {
         if (sender == null || message == null) {
             return;
@@ -517,11 +1177,15 @@ public class UpdateHandler {
             }
         }
 
-        boolean updated = updateSourceRegistry.updateSourceFilename(context.getSource().getName(), currentPath.getFileName().toString());
-        if (updated) {
-            configuration.set("filenames." + context.getSource().getName(), currentPath.getFileName().toString());
-            plugin.saveConfig();
-        }
+        String sourceName = context.getSource().getName();
+        String filename = currentPath.getFileName().toString();
+        configWriter.update(() -> {
+            boolean updated = updateSourceRegistry.updateSourceFilename(sourceName, filename);
+            if (updated) {
+                configuration.set("filenames." + sourceName, filename);
+            }
+            return updated;
+        });
     }
 
     private boolean isSafeToReplace(Path existingPath, String expectedPluginName, Path downloadedPath) {
@@ -562,4 +1226,42 @@ public class UpdateHandler {
         }
         return baseName;
     }
+
+    private enum RunOutcome {
+        COMPLETED,
+        STALE,
+        ABORTED
+    }
+
+    private record CheckResult(String sourceName,
+                               String installed,
+                               String available,
+                               boolean updateAvailable,
+                               OptionalLong downloadSize,
+                               Duration latency,
+                               String error) {
+
+        private static CheckResult failed(UpdateSource source, String installed, String error) {
+            return new CheckResult(source.getName(), installed, null, false, OptionalLong.empty(), Duration.ZERO, error);
+        }
+    }
+
+    /**
+     * Payload of a queued run.
+     *
+     * @param destination resolved destination of a routine check, {@code null} if it is resolved when the run starts
+     * @param senders     players and consoles to notify about a manual run
+     * @param deferred    whether the run was already deferred because of an exhausted request budget
+     */
+    private record QueuedRun(UpdateSource source, Path destination, List<CommandSender> senders, boolean deferred) {
+
+        private static QueuedRun merge(QueuedRun queued, QueuedRun submitted) {
+            List<CommandSender> senders = new ArrayList<>(queued.senders());
+            submitted.senders().stream().filter(sender -> !senders.contains(sender)).forEach(senders::add);
+            return new QueuedRun(submitted.source(),
+                    submitted.destination() != null ? submitted.destination() : queued.destination(),
+                    List.copyOf(senders),
+                    queued.deferred() && submitted.deferred());
+        }
+    }
 }
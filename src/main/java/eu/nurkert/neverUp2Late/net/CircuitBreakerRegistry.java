@@ -0,0 +1,302 @@
+package eu.nurkert.neverUp2Late.net;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-host circuit breakers that stop NeverUp2Late from waiting for timeouts of providers that are down.
+ * <p>
+ * Every host starts {@link State#CLOSED}. Once the failure rate within the sliding window of recent
+ * requests reaches the configured threshold the circuit opens and requests to the host are rejected
+ * immediately. After the open duration a single probe request is let through ({@link State#HALF_OPEN});
+ * its outcome either closes the circuit again or reopens it with a doubled open duration.
+ * <p>
+ * Only failures that indicate an unreachable host count towards the failure rate: connection and DNS
+ * errors, timeouts and {@code 5xx} responses.
+ */
+public class CircuitBreakerRegistry {
+
+    private static final CircuitBreakerRegistry SHARED = new CircuitBreakerRegistry(Clock.systemUTC(), Settings.defaults());
+
+    private final Clock clock;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private volatile Settings settings;
+
+    public CircuitBreakerRegistry(Clock clock, Settings settings) {
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.settings = Objects.requireNonNull(settings, "settings");
+    }
+
+    public static CircuitBreakerRegistry shared() {
+        return SHARED;
+    }
+
+    public void configure(Settings settings) {
+        this.settings = Objects.requireNonNull(settings, "settings");
+    }
+
+    /**
+     * Checks whether a request to the host may be sent. In the half-open state only one probe is admitted
+     * at a time; its outcome must be reported through {@link #recordSuccess(String)} or
+     * {@link #recordFailure(String)}.
+     */
+    public boolean allowRequest(String host) {
+        String key = normalizeHost(host);
+        if (key == null) {
+            return true;
+        }
+        return circuit(key).allowRequest(clock.instant(), settings);
+    }
+
+    public void recordSuccess(String host) {
+        String key = normalizeHost(host);
+        if (key != null) {
+            circuit(key).record(false, clock.instant(), settings);
+        }
+    }
+
+    public void recordFailure(String host) {
+        String key = normalizeHost(host);
+        if (key != null) {
+            circuit(key).record(true, clock.instant(), settings);
+        }
+    }
+
+    /**
+     * Records the outcome of a request that ended with the given exception, or a success for {@code null}.
+     * Rejections that never reached the host are ignored.
+     */
+    public void recordOutcome(String host, IOException failure) {
+        if (failure instanceof CircuitOpenException) {
+            return;
+        }
+        if (failure != null && isHostFailure(failure)) {
+            recordFailure(host);
+        } else {
+            recordSuccess(host);
+        }
+    }
+
+    public State getState(String host) {
+        String key = normalizeHost(host);
+        Circuit circuit = key != null ? circuits.get(key) : null;
+        return circuit != null ? circuit.state(clock.instant()) : State.CLOSED;
+    }
+
+    /**
+     * @return the time at which the next probe request is admitted if the circuit is open
+     */
+    public Optional<Instant> getRetryAt(String host) {
+        String key = normalizeHost(host);
+        Circuit circuit = key != null ? circuits.get(key) : null;
+        return circuit != null ? circuit.retryAt(clock.instant()) : Optional.empty();
+    }
+
+    /**
+     * @return hosts whose circuit is not closed, ordered by host name
+     */
+    public List<CircuitStatus> snapshot() {
+        Instant now = clock.instant();
+        List<CircuitStatus> result = new ArrayList<>();
+        circuits.forEach((host, circuit) -> {
+            CircuitStatus status = circuit.status(host, now);
+            if (status.state() != State.CLOSED) {
+                result.add(status);
+            }
+        });
+        result.sort(Comparator.comparing(CircuitStatus::host));
+        return result;
+    }
+
+    /**
+     * @return {@code true} if the exception indicates that the host could not be reached or did not answer in time
+     */
+    public static boolean isHostFailure(IOException exception) {
+        if (exception instanceof HttpException httpException) {
+            return httpException.getStatusCode() >= 500;
+        }
+        return exception instanceof UnknownHostException
+                || exception instanceof ConnectException
+                || exception instanceof NoRouteToHostException
+                || exception instanceof SocketTimeoutException
+                || exception instanceof HttpTimeoutException;
+    }
+
+    private Circuit circuit(String host) {
+        return circuits.computeIfAbsent(host, key -> new Circuit());
+    }
+
+    private static String normalizeHost(String host) {
+        if (host == null || host.isBlank()) {
+            return null;
+        }
+        return host.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * @param windowSize           number of recent requests used to compute the failure rate
+     * @param minimumCalls         requests required in the window before the circuit may open
+     * @param failureRateThreshold failure rate ({@code 0..1}) at which the circuit opens
+     * @param openDuration         time the circuit stays open before a probe is allowed
+     * @param maxOpenDuration      upper bound for the open duration after repeated failed probes
+     */
+    public record Settings(int windowSize,
+                           int minimumCalls,
+                           double failureRateThreshold,
+                           Duration openDuration,
+                           Duration maxOpenDuration) {
+
+        public Settings {
+            windowSize = Math.max(1, windowSize);
+            minimumCalls = Math.max(1, Math.min(windowSize, minimumCalls));
+            failureRateThreshold = Math.min(1d, Math.max(0.01d, failureRateThreshold));
+            openDuration = openDuration == null || openDuration.isNegative() || openDuration.isZero()
+                    ? Duration.ofSeconds(30)
+                    : openDuration;
+            maxOpenDuration = maxOpenDuration == null || maxOpenDuration.compareTo(openDuration) < 0
+                    ? openDuration
+                    : maxOpenDuration;
+        }
+
+        public static Settings defaults() {
+            return new Settings(10, 3, 0.5d, Duration.ofSeconds(30), Duration.ofMinutes(10));
+        }
+    }
+
+    /**
+     * Read-only view of a circuit for status output.
+     *
+     * @param retryAt time at which the next probe is admitted, {@code null} while a probe is pending
+     */
+    public record CircuitStatus(String host, State state, Instant retryAt, int consecutiveOpenings) {
+    }
+
+    private static final class Circuit {
+
+        private boolean[] outcomes = new boolean[0];
+        private int recorded;
+        private int next;
+        private State state = State.CLOSED;
+        private Instant openUntil;
+        private Instant probeStartedAt;
+        private int consecutiveOpenings;
+
+        synchronized boolean allowRequest(Instant now, Settings settings) {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (now.isBefore(openUntil)) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    probeStartedAt = now;
+                    return true;
+                case HALF_OPEN:
+                default:
+                    // A probe that never reported back must not keep the circuit half-open forever.
+                    if (probeStartedAt != null && now.isBefore(probeStartedAt.plus(settings.openDuration()))) {
+                        return false;
+                    }
+                    probeStartedAt = now;
+                    return true;
+            }
+        }
+
+        synchronized void record(boolean failure, Instant now, Settings settings) {
+            if (state == State.OPEN) {
+                // Late result of a request started before the circuit opened
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                probeStartedAt = null;
+                if (failure) {
+                    open(now, settings);
+                } else {
+                    close();
+                }
+                return;
+            }
+            if (outcomes.length != settings.windowSize()) {
+                outcomes = new boolean[settings.windowSize()];
+                recorded = 0;
+                next = 0;
+            }
+            outcomes[next] = failure;
+            next = (next + 1) % outcomes.length;
+            recorded = Math.min(outcomes.length, recorded + 1);
+            if (recorded < settings.minimumCalls()) {
+                return;
+            }
+            int failures = 0;
+            for (int i = 0; i < recorded; i++) {
+                if (outcomes[i]) {
+                    failures++;
+                }
+            }
+            if ((double) failures / recorded >= settings.failureRateThreshold()) {
+                open(now, settings);
+            }
+        }
+
+        synchronized State state(Instant now) {
+            if (state == State.OPEN && !now.isBefore(openUntil)) {
+                return State.HALF_OPEN;
+            }
+            return state;
+        }
+
+        synchronized Optional<Instant> retryAt(Instant now) {
+            if (state == State.OPEN && now.isBefore(openUntil)) {
+                return Optional.of(openUntil);
+            }
+            return Optional.empty();
+        }
+
+        synchronized CircuitStatus status(String host, Instant now) {
+            return new CircuitStatus(host, state(now), retryAt(now).orElse(null), consecutiveOpenings);
+        }
+
+        private void open(Instant now, Settings settings) {
+            long factor = 1L << Math.min(consecutiveOpenings, 16);
+            Duration duration = settings.openDuration().multipliedBy(factor);
+            if (duration.compareTo(settings.maxOpenDuration()) > 0) {
+                duration = settings.maxOpenDuration();
+            }
+            state = State.OPEN;
+            openUntil = now.plus(duration);
+            consecutiveOpenings++;
+            recorded = 0;
+            next = 0;
+        }
+
+        private void close() {
+            state = State.CLOSED;
+            openUntil = null;
+            consecutiveOpenings = 0;
+            recorded = 0;
+            next = 0;
+        }
+    }
+}
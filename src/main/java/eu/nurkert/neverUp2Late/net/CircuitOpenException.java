@@ -0,0 +1,31 @@
+package eu.nurkert.neverUp2Late.net;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Exception thrown when a request is not sent because the circuit of the target host is open.
+ */
+public class CircuitOpenException extends IOException {
+
+    private final String host;
+    private final Instant retryAt;
+
+    public CircuitOpenException(String host, Instant retryAt) {
+        super("Host " + host + " is unavailable" + (retryAt != null ? " until " + retryAt : ""));
+        this.host = host;
+        this.retryAt = retryAt;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * @return the time at which a probe request will be allowed again, if known
+     */
+    public Optional<Instant> getRetryAt() {
+        return Optional.ofNullable(retryAt);
+    }
+}
@@ -1,6 +1,7 @@
 package eu.nurkert.neverUp2Late.net;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
@@ -29,6 +30,8 @@ public class HttpClient {
     private final java.net.http.HttpClient client;
     private final Duration requestTimeout;
     private final Map<String, String> defaultHeaders;
+    private final RateLimitTracker rateLimitTracker;
+    private final CircuitBreakerRegistry circuitBreakers;
 
     public HttpClient() {
         this(builder());
@@ -44,19 +47,38 @@ public class HttpClient {
     }
 
     protected HttpClient(java.net.http.HttpClient client, Duration requestTimeout, Map<String, String> defaultHeaders) {
+        this(client, requestTimeout, defaultHeaders, RateLimitTracker.shared(), CircuitBreakerRegistry.shared());
+    }
+
+    protected HttpClient(java.net.http.HttpClient client,
+                         Duration requestTimeout,
+                         Map<String, String> defaultHeaders,
+                         RateLimitTracker rateLimitTracker,
+                         CircuitBreakerRegistry circuitBreakers) {
         this.client = Objects.requireNonNull(client, "client");
         this.requestTimeout = Objects.requireNonNull(requestTimeout, "requestTimeout");
         this.defaultHeaders = Map.copyOf(defaultHeaders);
+        this.rateLimitTracker = Objects.requireNonNull(rateLimitTracker, "rateLimitTracker");
+        this.circuitBreakers = Objects.requireNonNull(circuitBreakers, "circuitBreakers");
     }
 
     private HttpClient(Builder builder) {
-        this(builder.client, builder.requestTimeout, builder.buildHeaders());
+        this(builder.client, builder.requestTimeout, builder.buildHeaders(), builder.rateLimitTracker,
+                builder.circuitBreakers);
     }
 
     protected Map<String, String> getDefaultHeaders() {
         return defaultHeaders;
     }
 
+    protected RateLimitTracker getRateLimitTracker() {
+        return rateLimitTracker;
+    }
+
+    protected CircuitBreakerRegistry getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -67,13 +89,25 @@ public class HttpClient {
      * @param url the URL to invoke
      * @return response body
      * @throws IOException when the request fails or returns a non-successful status code
+     * @throws RateLimitExceededException when the request budget of the target host is exhausted; no request is sent
+     * @throws CircuitOpenException when the target host is considered unavailable; no request is sent
      */
     public String get(String url) throws IOException {
+        String host = RateLimitTracker.hostOf(url);
+        // The circuit is checked first, so requests to an unavailable host do not use up its request budget
+        if (!circuitBreakers.allowRequest(host)) {
+            throw new CircuitOpenException(host, circuitBreakers.getRetryAt(host).orElse(null));
+        }
+        if (!rateLimitTracker.tryAcquire(host)) {
+            throw new RateLimitExceededException(host, rateLimitTracker.nextAvailable(host).orElse(null));
+        }
         try {
             return doGet(url);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            throw new IOException("Request interrupted", e);
+            InterruptedIOException interrupted = new InterruptedIOException("Request to " + host + " interrupted");
+            interrupted.initCause(e);
+            throw interrupted;
         }
     }
 
@@ -83,12 +117,30 @@ public class HttpClient {
                 .GET();
         defaultHeaders.forEach(builder::header);
 
-        HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        String requestHost = RateLimitTracker.hostOf(url);
+        HttpResponse<String> response;
+        try {
+            response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            circuitBreakers.recordOutcome(requestHost, e);
+            throw e;
+        }
         int statusCode = response.statusCode();
+        if (statusCode >= 500) {
+            circuitBreakers.recordFailure(requestHost);
+        } else {
+            circuitBreakers.recordSuccess(requestHost);
+        }
+        rateLimitTracker.recordResponse(response.uri().getHost(), statusCode, response.headers()::firstValue);
         if (statusCode >= 200 && statusCode < 300) {
             return response.body();
         }
-        throw new HttpException(url, statusCode, response.body());
+        HttpException failure = new HttpException(url, statusCode, response.body());
+        if (statusCode == 429) {
+            String host = response.uri().getHost();
+            throw new RateLimitExceededException(host, rateLimitTracker.nextAvailable(host).orElse(null), failure);
+        }
+        throw failure;
     }
 
     public static final class Builder {
@@ -96,6 +148,8 @@ public class HttpClient {
         private java.net.http.HttpClient client;
         private Duration requestTimeout;
         private final Map<String, String> headers;
+        private RateLimitTracker rateLimitTracker;
+        private CircuitBreakerRegistry circuitBreakers;
 
         private Builder() {
             this.client = java.net.http.HttpClient.newBuilder()
@@ -103,6 +157,8 @@ public class HttpClient {
                     .build();
             this.requestTimeout = DEFAULT_REQUEST_TIMEOUT;
             this.headers = new LinkedHashMap<>(DEFAULT_HEADERS);
+            this.rateLimitTracker = RateLimitTracker.shared();
+            this.circuitBreakers = CircuitBreakerRegistry.shared();
         }
 
         public Builder client(java.net.http.HttpClient client) {
@@ -142,6 +198,16 @@ public class HttpClient {
             return this;
         }
 
+        public Builder rateLimitTracker(RateLimitTracker rateLimitTracker) {
+            this.rateLimitTracker = Objects.requireNonNull(rateLimitTracker, "rateLimitTracker");
+            return this;
+        }
+
+        public Builder circuitBreakers(CircuitBreakerRegistry circuitBreakers) {
+            this.circuitBreakers = Objects.requireNonNull(circuitBreakers, "circuitBreakers");
+            return this;
+        }
+
         public Builder accept(String mediaType) {
             return header("Accept", mediaType);
         }
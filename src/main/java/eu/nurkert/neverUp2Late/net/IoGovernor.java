@@ -0,0 +1,195 @@
+package eu.nurkert.neverUp2Late.net;
+
+import eu.nurkert.neverUp2Late.update.CancellationToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Paces the disk and network I/O of downloads, checksums and backup copies so it does not compete with
+ * the server thread.
+ * <p>
+ * Transfers draw bytes from a token bucket refilled at the configured bandwidth cap. The server thread
+ * reports the duration of every tick through {@link #reportTick(double)}; while the average tick is slower
+ * than {@code slowAboveMspt} the bucket is refilled at the slowed rate, and while it is slower than
+ * {@code pauseAboveMspt} transfers wait until the average drops below {@code slowAboveMspt} again. Tick
+ * reports older than two seconds are ignored, so transfers never wait for a server thread that stopped
+ * reporting, for example during shutdown.
+ * <p>
+ * Like {@link RateLimitTracker}, a single {@link #shared()} instance is used by default.
+ */
+public class IoGovernor {
+
+    public static final int CHUNK_SIZE = 16 * 1024;
+    private static final IoGovernor SHARED = new IoGovernor(System::nanoTime, IoGovernor::sleep);
+    private static final long STALE_REPORT_MILLIS = 2_000L;
+    private static final long PAUSE_POLL_MILLIS = 50L;
+    // Weight of the newest tick in the average, roughly the last 10 ticks count
+    private static final double TICK_SMOOTHING = 0.1d;
+
+    private final LongSupplier nanoTime;
+    private final Sleeper sleeper;
+    private long bytesPerSecond;
+    private long slowedBytesPerSecond = 512L * 1024L;
+    private double slowAboveMspt = 40d;
+    private double pauseAboveMspt = 50d;
+    private double averageMspt = -1d;
+    private long lastReportNanos;
+    private boolean paused;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public IoGovernor(LongSupplier nanoTime, Sleeper sleeper) {
+        this.nanoTime = Objects.requireNonNull(nanoTime, "nanoTime");
+        this.sleeper = Objects.requireNonNull(sleeper, "sleeper");
+        this.lastRefillNanos = nanoTime.getAsLong();
+    }
+
+    public static IoGovernor shared() {
+        return SHARED;
+    }
+
+    /**
+     * @param bytesPerSecond       bandwidth cap, {@code 0} for no cap
+     * @param slowedBytesPerSecond bandwidth while the server is slow; never above the cap
+     * @param slowAboveMspt        average tick duration in milliseconds above which I/O is slowed
+     * @param pauseAboveMspt       average tick duration in milliseconds above which I/O pauses
+     */
+    public synchronized void configure(long bytesPerSecond,
+                                       long slowedBytesPerSecond,
+                                       double slowAboveMspt,
+                                       double pauseAboveMspt) {
+        this.bytesPerSecond = Math.max(0L, bytesPerSecond);
+        this.slowedBytesPerSecond = Math.max(1024L, slowedBytesPerSecond);
+        this.slowAboveMspt = Math.max(1d, slowAboveMspt);
+        this.pauseAboveMspt = Math.max(this.slowAboveMspt, pauseAboveMspt);
+        this.tokens = Math.min(tokens, currentRate());
+    }
+
+    /**
+     * Called by the server thread once per tick.
+     *
+     * @param mspt milliseconds the tick took
+     */
+    public synchronized void reportTick(double mspt) {
+        if (mspt < 0d) {
+            return;
+        }
+        averageMspt = averageMspt < 0d || isStale() ? mspt : averageMspt + (mspt - averageMspt) * TICK_SMOOTHING;
+        lastReportNanos = nanoTime.getAsLong();
+        if (averageMspt >= pauseAboveMspt) {
+            paused = true;
+        } else if (averageMspt < slowAboveMspt) {
+            paused = false;
+        }
+        notifyAll();
+    }
+
+    /**
+     * @return the average tick duration in milliseconds, {@code -1} if the server thread does not report
+     */
+    public synchronized double averageMspt() {
+        return isStale() ? -1d : averageMspt;
+    }
+
+    /**
+     * Blocks until the given number of bytes may be read or written.
+     *
+     * @throws InterruptedIOException if the thread is interrupted or the cancellation token is cancelled
+     */
+    public void acquire(int bytes, CancellationToken cancellation) throws IOException {
+        long waitNanos;
+        synchronized (this) {
+            awaitHeadroom(cancellation);
+            long rate = currentRate();
+            if (rate <= 0L) {
+                return;
+            }
+            refill(rate);
+            tokens -= bytes;
+            waitNanos = tokens < 0d ? (long) (-tokens / rate * TimeUnit.SECONDS.toNanos(1)) : 0L;
+        }
+        if (waitNanos > 0L) {
+            pause(waitNanos, cancellation);
+        }
+    }
+
+    /**
+     * Copies the stream in chunks drawn from this governor.
+     */
+    public void transfer(InputStream inputStream,
+                         OutputStream outputStream,
+                         CancellationToken cancellation) throws IOException {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            if (cancellation != null) {
+                cancellation.throwIfCancelled();
+            }
+            acquire(read, cancellation);
+            outputStream.write(buffer, 0, read);
+        }
+    }
+
+    private void awaitHeadroom(CancellationToken cancellation) throws IOException {
+        while (paused && !isStale()) {
+            if (cancellation != null) {
+                cancellation.throwIfCancelled();
+            }
+            try {
+                wait(PAUSE_POLL_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("I/O interrupted while paused for the server");
+            }
+        }
+    }
+
+    private long currentRate() {
+        boolean slow = !isStale() && averageMspt >= slowAboveMspt;
+        if (!slow) {
+            return bytesPerSecond;
+        }
+        return bytesPerSecond > 0L ? Math.min(bytesPerSecond, slowedBytesPerSecond) : slowedBytesPerSecond;
+    }
+
+    private void refill(long rate) {
+        long now = nanoTime.getAsLong();
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        lastRefillNanos = now;
+        // At most one second of burst
+        tokens = Math.min(rate, tokens + elapsedSeconds * rate);
+    }
+
+    private boolean isStale() {
+        return averageMspt < 0d
+                || nanoTime.getAsLong() - lastReportNanos > TimeUnit.MILLISECONDS.toNanos(STALE_REPORT_MILLIS);
+    }
+
+    private void pause(long nanos, CancellationToken cancellation) throws IOException {
+        if (cancellation != null) {
+            cancellation.sleep(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(nanos)));
+            return;
+        }
+        try {
+            sleeper.sleep(nanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("I/O interrupted while throttled");
+        }
+    }
+
+    private static void sleep(long nanos) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+
+    @FunctionalInterface
+    public interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+}
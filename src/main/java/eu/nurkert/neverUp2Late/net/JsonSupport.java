@@ -0,0 +1,96 @@
+package eu.nurkert.neverUp2Late.net;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Jackson configuration shared by every component that reads JSON from remote APIs.
+ * <p>
+ * Each {@link ObjectMapper} keeps its own deserializer cache, so mappers created per fetcher introspect the
+ * same response types over and over. Instead, a single {@link #shared()} mapper is configured once and only
+ * handed out as immutable {@link ObjectReader}s and {@link ObjectWriter}s. Readers are cached per type, so a
+ * response type is introspected the first time any component reads it. If the Blackbird module is on the
+ * class path it is registered, replacing reflective property access with generated accessors.
+ */
+public final class JsonSupport {
+
+    private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+    private static final JsonSupport SHARED = new JsonSupport(createMapper());
+
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    /**
+     * @param mapper mapper to read and write with; it must not be reconfigured afterwards
+     */
+    public JsonSupport(ObjectMapper mapper) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.writer = mapper.writer();
+    }
+
+    public static JsonSupport shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the readers of {@code mapper}, or the shared ones if {@code mapper} is {@code null} or the shared mapper.
+     */
+    public static JsonSupport forMapper(ObjectMapper mapper) {
+        return mapper == null || mapper == SHARED.mapper ? SHARED : new JsonSupport(mapper);
+    }
+
+    public ObjectReader reader(Class<?> type) {
+        return reader(mapper.getTypeFactory().constructType(type));
+    }
+
+    public ObjectReader reader(TypeReference<?> type) {
+        return reader(mapper.getTypeFactory().constructType(type));
+    }
+
+    private ObjectReader reader(JavaType type) {
+        ObjectReader reader = readers.get(type);
+        if (reader != null) {
+            return reader;
+        }
+        // Resolves the root deserializer eagerly, so later reads of this type skip introspection
+        return readers.computeIfAbsent(type, mapper::readerFor);
+    }
+
+    public ObjectWriter writer() {
+        return writer;
+    }
+
+    static ObjectMapper createMapper() {
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE);
+        Module blackbird = loadBlackbird();
+        if (blackbird != null) {
+            builder.addModule(blackbird);
+        }
+        return builder.build();
+    }
+
+    private static Module loadBlackbird() {
+        try {
+            Class<?> moduleClass = Class.forName(BLACKBIRD_MODULE, true, JsonSupport.class.getClassLoader());
+            return (Module) moduleClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException ignored) {
+            // Optional module; reflective access is used without it
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package eu.nurkert.neverUp2Late.net;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Exception thrown when a request is not sent because the request budget of the target host is exhausted.
+ */
+public class RateLimitExceededException extends IOException {
+
+    private final String host;
+    private final Instant retryAt;
+
+    public RateLimitExceededException(String host, Instant retryAt) {
+        this(host, retryAt, null);
+    }
+
+    public RateLimitExceededException(String host, Instant retryAt, Throwable cause) {
+        super("Request budget for " + host + " exhausted"
+                + (retryAt != null ? " until " + retryAt : ""), cause);
+        this.host = host;
+        this.retryAt = retryAt;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * @return the earliest time a request to the host is expected to be accepted again, if known
+     */
+    public Optional<Instant> getRetryAt() {
+        return Optional.ofNullable(retryAt);
+    }
+}
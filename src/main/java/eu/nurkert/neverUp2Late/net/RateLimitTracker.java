@@ -0,0 +1,366 @@
+package eu.nurkert.neverUp2Late.net;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps track of the request budget of every remote host NeverUp2Late talks to.
+ * <p>
+ * Budgets are learned from the {@code X-RateLimit-Limit}, {@code X-RateLimit-Remaining},
+ * {@code X-RateLimit-Reset} and {@code Retry-After} headers of every response. Hosts that never publish
+ * such headers (for example Spiget) can be throttled with a configurable token bucket instead. Callers
+ * ask {@link #tryAcquire(String)} before sending a request so exhausted hosts are skipped without
+ * spending an attempt.
+ * <p>
+ * Because HTTP clients are created by many independent components, a single {@link #shared()} instance is
+ * used by default.
+ */
+public class RateLimitTracker {
+
+    private static final RateLimitTracker SHARED = new RateLimitTracker(Clock.systemUTC());
+
+    /**
+     * Values of {@code X-RateLimit-Reset} above this threshold are interpreted as epoch seconds, smaller
+     * values as seconds until the reset.
+     */
+    private static final long EPOCH_SECONDS_THRESHOLD = 1_000_000_000L;
+    private static final Duration FALLBACK_BLOCK_DURATION = Duration.ofSeconds(60);
+
+    private final Clock clock;
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+    private volatile Map<String, BucketSettings> bucketSettings = Map.of();
+    private volatile BucketSettings defaultBucket;
+
+    public RateLimitTracker(Clock clock) {
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    public static RateLimitTracker shared() {
+        return SHARED;
+    }
+
+    /**
+     * Configures the token buckets applied to hosts that do not publish rate limit headers.
+     *
+     * @param defaultBucket bucket for hosts without explicit settings, {@code null} for no limit
+     * @param perHost       bucket settings keyed by host name
+     */
+    public void configureBuckets(BucketSettings defaultBucket, Map<String, BucketSettings> perHost) {
+        Map<String, BucketSettings> normalized = new HashMap<>();
+        if (perHost != null) {
+            perHost.forEach((host, settings) -> {
+                if (host != null && settings != null) {
+                    normalized.put(normalizeHost(host), settings);
+                }
+            });
+        }
+        this.bucketSettings = Map.copyOf(normalized);
+        this.defaultBucket = defaultBucket;
+        hosts.values().forEach(HostState::resetBucket);
+    }
+
+    /**
+     * Reserves one request for the given host.
+     *
+     * @return {@code false} if the host's budget is exhausted and the request should be deferred
+     */
+    public boolean tryAcquire(String host) {
+        String key = normalizeHost(host);
+        if (key == null) {
+            return true;
+        }
+        return state(key).tryAcquire(clock.instant());
+    }
+
+    /**
+     * @return the time at which the host is expected to accept requests again, or empty if it currently does
+     */
+    public Optional<Instant> nextAvailable(String host) {
+        String key = normalizeHost(host);
+        if (key == null) {
+            return Optional.empty();
+        }
+        HostState state = hosts.get(key);
+        return state == null ? Optional.empty() : state.nextAvailable(clock.instant());
+    }
+
+    /**
+     * Updates the budget of a host from the headers of a response.
+     *
+     * @param headerLookup resolves a header value by its (case-insensitive) name
+     */
+    public void recordResponse(String host, int statusCode, Function<String, Optional<String>> headerLookup) {
+        String key = normalizeHost(host);
+        if (key == null || headerLookup == null) {
+            return;
+        }
+        Instant now = clock.instant();
+        Integer limit = parseInteger(headerLookup.apply("X-RateLimit-Limit"));
+        Integer remaining = parseInteger(headerLookup.apply("X-RateLimit-Remaining"));
+        Instant resetAt = parseReset(headerLookup.apply("X-RateLimit-Reset"), now);
+        Instant retryAfter = parseRetryAfter(headerLookup.apply("Retry-After"), now);
+        state(key).record(now, statusCode, limit, remaining, resetAt, retryAfter);
+    }
+
+    /**
+     * @return the current budget of every host seen so far, ordered by host name
+     */
+    public List<HostBudget> snapshot() {
+        Instant now = clock.instant();
+        List<HostBudget> result = new ArrayList<>();
+        hosts.forEach((host, state) -> result.add(state.toBudget(host, now)));
+        result.sort(Comparator.comparing(HostBudget::host));
+        return result;
+    }
+
+    /**
+     * @return the lower-cased host of the URL or {@code null} if it cannot be determined
+     */
+    public static String hostOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            return normalizeHost(URI.create(url.trim()).getHost());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private HostState state(String host) {
+        return hosts.computeIfAbsent(host, key -> new HostState(key));
+    }
+
+    private BucketSettings bucketFor(String host) {
+        BucketSettings settings = bucketSettings.get(host);
+        return settings != null ? settings : defaultBucket;
+    }
+
+    private static String normalizeHost(String host) {
+        if (host == null || host.isBlank()) {
+            return null;
+        }
+        return host.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Integer parseInteger(Optional<String> value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return (int) Math.floor(Double.parseDouble(value.get().trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Instant parseReset(Optional<String> value, Instant now) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            double seconds = Double.parseDouble(value.get().trim());
+            if (seconds >= EPOCH_SECONDS_THRESHOLD) {
+                return Instant.ofEpochMilli(Math.round(seconds * 1000d));
+            }
+            return now.plusMillis(Math.round(Math.max(0d, seconds) * 1000d));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Instant parseRetryAfter(Optional<String> value, Instant now) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        String raw = value.get().trim();
+        try {
+            return now.plusSeconds(Math.max(0L, Long.parseLong(raw)));
+        } catch (NumberFormatException ignored) {
+            // Retry-After may also be an HTTP date
+        }
+        try {
+            return ZonedDateTime.parse(raw, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Instant later(Instant first, Instant second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.isAfter(second) ? first : second;
+    }
+
+    /**
+     * Token bucket settings for a host without rate limit headers.
+     *
+     * @param capacity        maximum burst size
+     * @param refillPerMinute tokens added per minute
+     */
+    public record BucketSettings(int capacity, double refillPerMinute) {
+
+        public BucketSettings {
+            capacity = Math.max(1, capacity);
+            refillPerMinute = Math.max(0.01d, refillPerMinute);
+        }
+    }
+
+    /**
+     * Read-only view of a host budget for status output.
+     *
+     * @param limit        request limit announced by the host, if any
+     * @param remaining    remaining requests announced by the host or the remaining bucket tokens
+     * @param resetAt      time at which the announced budget resets, if known
+     * @param blockedUntil time until which requests are deferred, or {@code null} if the host is available
+     * @param headerDriven {@code true} if the budget comes from response headers, {@code false} for a token bucket
+     */
+    public record HostBudget(String host,
+                             Integer limit,
+                             Integer remaining,
+                             Instant resetAt,
+                             Instant blockedUntil,
+                             boolean headerDriven) {
+    }
+
+    private final class HostState {
+
+        private final String host;
+        private Integer limit;
+        private Integer remaining;
+        private Instant resetAt;
+        private Instant blockedUntil;
+        private boolean headerDriven;
+        private double tokens = -1d;
+        private Instant lastRefill;
+
+        private HostState(String host) {
+            this.host = host;
+        }
+
+        synchronized boolean tryAcquire(Instant now) {
+            if (blockedUntil != null) {
+                if (now.isBefore(blockedUntil)) {
+                    return false;
+                }
+                blockedUntil = null;
+            }
+            if (headerDriven) {
+                if (resetAt != null && !now.isBefore(resetAt)) {
+                    remaining = null;
+                    resetAt = null;
+                }
+                if (remaining == null) {
+                    return true;
+                }
+                if (remaining <= 0) {
+                    return false;
+                }
+                // Optimistic local accounting; the next response corrects the value.
+                remaining--;
+                return true;
+            }
+            BucketSettings bucket = bucketFor(host);
+            if (bucket == null) {
+                return true;
+            }
+            refill(bucket, now);
+            if (tokens < 1d) {
+                return false;
+            }
+            tokens -= 1d;
+            return true;
+        }
+
+        synchronized Optional<Instant> nextAvailable(Instant now) {
+            if (blockedUntil != null && now.isBefore(blockedUntil)) {
+                return Optional.of(blockedUntil);
+            }
+            if (headerDriven) {
+                if (remaining != null && remaining <= 0 && resetAt != null && now.isBefore(resetAt)) {
+                    return Optional.of(resetAt);
+                }
+                return Optional.empty();
+            }
+            BucketSettings bucket = bucketFor(host);
+            if (bucket == null) {
+                return Optional.empty();
+            }
+            refill(bucket, now);
+            if (tokens >= 1d) {
+                return Optional.empty();
+            }
+            double minutesUntilToken = (1d - tokens) / bucket.refillPerMinute();
+            return Optional.of(now.plusMillis((long) Math.ceil(minutesUntilToken * 60_000d)));
+        }
+
+        synchronized void record(Instant now,
+                                 int statusCode,
+                                 Integer announcedLimit,
+                                 Integer announcedRemaining,
+                                 Instant announcedReset,
+                                 Instant retryAfter) {
+            if (announcedRemaining != null) {
+                headerDriven = true;
+                remaining = announcedRemaining;
+                limit = announcedLimit != null ? announcedLimit : limit;
+                resetAt = announcedReset;
+                if (remaining <= 0 && resetAt == null) {
+                    resetAt = now.plus(FALLBACK_BLOCK_DURATION);
+                }
+            }
+            if (retryAfter != null) {
+                blockedUntil = later(blockedUntil, retryAfter);
+            } else if (statusCode == 429) {
+                blockedUntil = later(blockedUntil, resetAt != null ? resetAt : now.plus(FALLBACK_BLOCK_DURATION));
+            }
+        }
+
+        synchronized void resetBucket() {
+            tokens = -1d;
+            lastRefill = null;
+        }
+
+        synchronized HostBudget toBudget(String name, Instant now) {
+            Instant blocked = nextAvailable(now).orElse(null);
+            if (headerDriven) {
+                return new HostBudget(name, limit, remaining, resetAt, blocked, true);
+            }
+            BucketSettings bucket = bucketFor(host);
+            if (bucket == null) {
+                return new HostBudget(name, null, null, null, blocked, false);
+            }
+            return new HostBudget(name, bucket.capacity(), (int) Math.floor(tokens), null, blocked, false);
+        }
+
+        private void refill(BucketSettings bucket, Instant now) {
+            if (tokens < 0d || lastRefill == null) {
+                tokens = bucket.capacity();
+                lastRefill = now;
+                return;
+            }
+            long elapsedMillis = Math.max(0L, Duration.between(lastRefill, now).toMillis());
+            tokens = Math.min(bucket.capacity(), tokens + elapsedMillis * bucket.refillPerMinute() / 60_000d);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package eu.nurkert.neverUp2Late.persistence;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Single writer of {@code config.yml}.
+ * <p>
+ * Changes made through {@link #update(BooleanSupplier)} are applied under the writer's lock, so the
+ * configuration is never serialised halfway through a change. Saves are debounced: a write starts once no
+ * further save was requested for {@code debounce}, but at the latest {@code maxDelay} after the first
+ * request, and covers every change made until then. The file is serialised on the writer's own thread and
+ * replaced atomically. The future returned to callers completes once their change is on disk.
+ */
+public final class ConfigWriter {
+
+    private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(500L);
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(5L);
+
+    private final FileConfiguration configuration;
+    private final Path file;
+    private final Logger logger;
+    private final long debounceNanos;
+    private final long maxDelayNanos;
+    private final Object lock = new Object();
+    private final ScheduledExecutorService executor;
+
+    private CompletableFuture<Void> pending;
+    private ScheduledFuture<?> scheduledWrite;
+    private long firstRequestNanos;
+    private boolean closed;
+
+    public ConfigWriter(FileConfiguration configuration, File file, Logger logger, Duration debounce, Duration maxDelay) {
+        this.configuration = Objects.requireNonNull(configuration, "configuration");
+        this.file = file.toPath();
+        this.logger = logger;
+        this.debounceNanos = Math.max(0L, debounce.toNanos());
+        this.maxDelayNanos = Math.max(debounceNanos, maxDelay.toNanos());
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "NeverUp2Late-ConfigWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static ConfigWriter forPlugin(JavaPlugin plugin) {
+        return new ConfigWriter(plugin.getConfig(), new File(plugin.getDataFolder(), "config.yml"),
+                plugin.getLogger(), DEFAULT_DEBOUNCE, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Applies a change to the configuration and saves it.
+     *
+     * @param mutation changes the configuration and returns whether anything changed
+     * @return completes once the change is written; already completed if nothing changed
+     */
+    public CompletableFuture<Void> update(BooleanSupplier mutation) {
+        boolean changed;
+        synchronized (lock) {
+            changed = mutation.getAsBoolean();
+        }
+        return changed ? save() : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Saves changes that were made to the configuration directly.
+     *
+     * @return completes once the configuration is written
+     */
+    public synchronized CompletableFuture<Void> save() {
+        return request(false);
+    }
+
+    /**
+     * Writes the configuration without waiting for further changes.
+     *
+     * @return completes once the configuration is written
+     */
+    public synchronized CompletableFuture<Void> flush() {
+        return request(true);
+    }
+
+    /**
+     * Writes pending changes on the calling thread and stops the writer; later saves are written directly.
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (scheduledWrite != null) {
+                scheduledWrite.cancel(false);
+            }
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5L, TimeUnit.SECONDS)) {
+                logger.log(Level.WARNING, "Timed out waiting for config.yml to be written");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        write();
+    }
+
+    private CompletableFuture<Void> request(boolean immediately) {
+        if (pending == null) {
+            pending = new CompletableFuture<>();
+            firstRequestNanos = System.nanoTime();
+        } else if (scheduledWrite != null && !scheduledWrite.cancel(false)) {
+            // The write has started but not yet taken the pending future, so it serialises this change too
+            return pending;
+        }
+        CompletableFuture<Void> result = pending;
+        if (closed) {
+            write();
+            return result;
+        }
+        long delay = immediately ? 0L : Math.min(debounceNanos, firstRequestNanos + maxDelayNanos - System.nanoTime());
+        scheduledWrite = executor.schedule(this::write, Math.max(0L, delay), TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private void write() {
+        CompletableFuture<Void> done;
+        synchronized (this) {
+            done = pending;
+            pending = null;
+            scheduledWrite = null;
+        }
+        if (done == null) {
+            return;
+        }
+        try {
+            String data;
+            synchronized (lock) {
+                data = configuration.saveToString();
+            }
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temporary, data, StandardCharsets.UTF_8);
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            done.complete(null);
+        } catch (IOException | RuntimeException ex) {
+            logger.log(Level.SEVERE, "Failed to save " + file.getFileName(), ex);
+            done.completeExceptionally(ex);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package eu.nurkert.neverUp2Late.persistence;
+
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck;
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck.Observation;
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck.PerformanceSample;
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck.UpdatedSource;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores the open post-update observations in {@code health.yml}, so an update that is completed by a
+ * restart is still compared with the baseline recorded before it.
+ *
+ * <pre>
+ * observations:
+ *   - startedAt: &lt;epoch millis&gt;
+ *     baseline: {mspt: &lt;ms&gt;, tps: &lt;tps&gt;, heapAfterGc: &lt;bytes&gt;, threads: &lt;count&gt;}
+ *     sources:
+ *       - name: &lt;source&gt;
+ *         plugin: &lt;installed plugin name&gt;
+ *         destination: &lt;path&gt;
+ *         pluginsFolder: &lt;true|false&gt;
+ * </pre>
+ */
+public class HealthCheckRepository implements PerformanceHealthCheck.Store {
+
+    private static final String FILE_NAME = "health.yml";
+    private static final String ROOT_NODE = "observations";
+
+    private final File stateFile;
+    private final Logger logger;
+
+    public HealthCheckRepository(File dataFolder, Logger logger) {
+        this.stateFile = new File(dataFolder, FILE_NAME);
+        this.logger = logger;
+    }
+
+    public static HealthCheckRepository forPlugin(JavaPlugin plugin) {
+        return new HealthCheckRepository(plugin.getDataFolder(), plugin.getLogger());
+    }
+
+    @Override
+    public synchronized List<Observation> load() {
+        List<Observation> result = new ArrayList<>();
+        if (!stateFile.isFile()) {
+            return result;
+        }
+        FileConfiguration configuration = YamlConfiguration.loadConfiguration(stateFile);
+        for (Map<?, ?> entry : configuration.getMapList(ROOT_NODE)) {
+            List<UpdatedSource> sources = new ArrayList<>();
+            if (entry.get("sources") instanceof List<?> list) {
+                for (Object element : list) {
+                    if (element instanceof Map<?, ?> source) {
+                        toSource(source).ifPresent(sources::add);
+                    }
+                }
+            }
+            if (sources.isEmpty() || !(entry.get("baseline") instanceof Map<?, ?> baseline)) {
+                continue;
+            }
+            Instant startedAt = Instant.ofEpochMilli(asLong(entry.get("startedAt")));
+            result.add(new Observation(sources, new PerformanceSample(
+                    startedAt,
+                    asDouble(baseline.get("mspt"), -1d),
+                    asDouble(baseline.get("tps"), 0d),
+                    asLong(baseline.get("heapAfterGc")),
+                    (int) asLong(baseline.get("threads"))), startedAt));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void save(List<Observation> observations) {
+        if (observations.isEmpty()) {
+            if (stateFile.exists() && !stateFile.delete()) {
+                logger.log(Level.WARNING, "Could not delete {0}", stateFile.getAbsolutePath());
+            }
+            return;
+        }
+        File dataFolder = stateFile.getParentFile();
+        if (dataFolder != null && !dataFolder.exists() && !dataFolder.mkdirs()) {
+            logger.log(Level.WARNING, "Could not create plugin data folder at {0}", dataFolder.getAbsolutePath());
+        }
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Observation observation : observations) {
+            Map<String, Object> baseline = new LinkedHashMap<>();
+            baseline.put("mspt", observation.baseline().msPerTick());
+            baseline.put("tps", observation.baseline().tps());
+            baseline.put("heapAfterGc", observation.baseline().heapAfterGcBytes());
+            baseline.put("threads", observation.baseline().threadCount());
+            List<Map<String, Object>> sources = new ArrayList<>();
+            for (UpdatedSource source : observation.sources()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("name", source.name());
+                entry.put("plugin", source.installedPluginName());
+                entry.put("destination", source.destination() != null ? source.destination().toString() : null);
+                entry.put("pluginsFolder", source.plugin());
+                sources.add(entry);
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("startedAt", observation.startedAt().toEpochMilli());
+            entry.put("baseline", baseline);
+            entry.put("sources", sources);
+            entries.add(entry);
+        }
+        FileConfiguration configuration = new YamlConfiguration();
+        configuration.set(ROOT_NODE, entries);
+        try {
+            configuration.save(stateFile);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to save post-update observations", e);
+        }
+    }
+
+    private Optional<UpdatedSource> toSource(Map<?, ?> entry) {
+        Object name = entry.get("name");
+        Object destination = entry.get("destination");
+        if (name == null || destination == null) {
+            return Optional.empty();
+        }
+        try {
+            Object plugin = entry.get("plugin");
+            return Optional.of(new UpdatedSource(
+                    name.toString(),
+                    plugin != null ? plugin.toString() : null,
+                    Path.of(destination.toString()),
+                    Boolean.TRUE.equals(entry.get("pluginsFolder"))));
+        } catch (InvalidPathException ex) {
+            logger.log(Level.WARNING, "Ignoring invalid destination {0} in {1}", new Object[]{destination, FILE_NAME});
+            return Optional.empty();
+        }
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private static double asDouble(Object value, double fallback) {
+        return value instanceof Number number ? number.doubleValue() : fallback;
+    }
+}
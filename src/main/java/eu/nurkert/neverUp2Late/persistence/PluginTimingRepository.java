@@ -0,0 +1,104 @@
+package eu.nurkert.neverUp2Late.persistence;
+
+import eu.nurkert.neverUp2Late.plugin.PluginTimings;
+import eu.nurkert.neverUp2Late.plugin.PluginTimings.PhaseTiming;
+import eu.nurkert.neverUp2Late.plugin.PluginTimings.VersionTiming;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores the load and enable durations of every plugin version in {@code timings.yml}. Entries are kept as
+ * a list because plugin versions usually contain dots, which YAML paths would split.
+ *
+ * <pre>
+ * timings:
+ *   - plugin: &lt;name&gt;
+ *     version: &lt;version&gt;
+ *     loadMillis: &lt;millis&gt;
+ *     loadSamples: &lt;count&gt;
+ *     enableMillis: &lt;millis&gt;
+ *     enableSamples: &lt;count&gt;
+ *     lastSeen: &lt;epoch millis&gt;
+ * </pre>
+ */
+public class PluginTimingRepository implements PluginTimings.Store {
+
+    private static final String FILE_NAME = "timings.yml";
+    private static final String ROOT_NODE = "timings";
+
+    private final File stateFile;
+    private final Logger logger;
+
+    public PluginTimingRepository(File dataFolder, Logger logger) {
+        this.stateFile = new File(dataFolder, FILE_NAME);
+        this.logger = logger;
+    }
+
+    public static PluginTimingRepository forPlugin(JavaPlugin plugin) {
+        return new PluginTimingRepository(plugin.getDataFolder(), plugin.getLogger());
+    }
+
+    @Override
+    public synchronized List<VersionTiming> load() {
+        List<VersionTiming> result = new ArrayList<>();
+        if (!stateFile.isFile()) {
+            return result;
+        }
+        FileConfiguration configuration = YamlConfiguration.loadConfiguration(stateFile);
+        for (Map<?, ?> entry : configuration.getMapList(ROOT_NODE)) {
+            Object plugin = entry.get("plugin");
+            Object version = entry.get("version");
+            if (plugin == null || version == null) {
+                continue;
+            }
+            result.add(new VersionTiming(
+                    plugin.toString(),
+                    version.toString(),
+                    new PhaseTiming(asLong(entry.get("loadMillis")), (int) asLong(entry.get("loadSamples"))),
+                    new PhaseTiming(asLong(entry.get("enableMillis")), (int) asLong(entry.get("enableSamples"))),
+                    asLong(entry.get("lastSeen"))));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void save(List<VersionTiming> timings) {
+        File dataFolder = stateFile.getParentFile();
+        if (dataFolder != null && !dataFolder.exists() && !dataFolder.mkdirs()) {
+            logger.log(Level.WARNING, "Could not create plugin data folder at {0}", dataFolder.getAbsolutePath());
+        }
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (VersionTiming timing : timings) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("plugin", timing.plugin());
+            entry.put("version", timing.version());
+            entry.put("loadMillis", timing.load().averageMillis());
+            entry.put("loadSamples", timing.load().samples());
+            entry.put("enableMillis", timing.enable().averageMillis());
+            entry.put("enableSamples", timing.enable().samples());
+            entry.put("lastSeen", timing.lastSeen());
+            entries.add(entry);
+        }
+        FileConfiguration configuration = new YamlConfiguration();
+        configuration.set(ROOT_NODE, entries);
+        try {
+            configuration.save(stateFile);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to save plugin timings", e);
+        }
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+}
@@ -10,13 +10,16 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Persists per-plugin update preferences such as the preferred post-update
  * behaviour and whether automatic update checks should be executed.
+ * Changes go through a {@link WriteBehindJournal}.
  */
 public class PluginUpdateSettingsRepository {
 
@@ -30,7 +33,10 @@ public class PluginUpdateSettingsRepository {
     private final Logger logger;
     private final File stateFile;
 
+    private final List<SettingsChangeListener> listeners = new CopyOnWriteArrayList<>();
+
     private FileConfiguration configuration;
+    private WriteBehindJournal journal;
 
     public PluginUpdateSettingsRepository(File dataFolder, Logger logger) {
         this.dataFolder = Objects.requireNonNull(dataFolder, "dataFolder");
@@ -43,13 +49,22 @@ public class PluginUpdateSettingsRepository {
         return new PluginUpdateSettingsRepository(plugin.getDataFolder(), plugin.getLogger());
     }
 
+    public void addListener(SettingsChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
     private void initialise() {
         ensureDataFolderExists();
         ensureStateFileExists();
         configuration = YamlConfiguration.loadConfiguration(stateFile);
+        journal = new WriteBehindJournal(this, stateFile, configuration::saveToString, logger);
+        boolean mutated = journal.open(configuration::set) > 0;
         if (configuration.getConfigurationSection(ROOT_NODE) == null) {
             configuration.createSection(ROOT_NODE);
-            saveInternal();
+            mutated = true;
+        }
+        if (mutated) {
+            journal.compact();
         }
     }
 
@@ -94,15 +109,10 @@ public class PluginUpdateSettingsRepository {
             return;
         }
 
-        ConfigurationSection section = configuration.getConfigurationSection(pathForPlugin(pluginName));
-        if (section == null) {
-            section = configuration.createSection(pathForPlugin(pluginName));
-        }
-
-        section.set(AUTO_UPDATE_NODE, settings.autoUpdateEnabled());
-        section.set(BEHAVIOUR_NODE, settings.behaviour().name());
-        section.set(RETENTION_NODE, settings.retainUpstreamFilename());
-        saveInternal();
+        set(pathForPlugin(pluginName) + "." + AUTO_UPDATE_NODE, settings.autoUpdateEnabled());
+        set(pathForPlugin(pluginName) + "." + BEHAVIOUR_NODE, settings.behaviour().name());
+        set(pathForPlugin(pluginName) + "." + RETENTION_NODE, settings.retainUpstreamFilename());
+        notifyListeners(pluginName);
     }
 
     public synchronized Map<String, PluginUpdateSettings> getAllSettings() {
@@ -122,24 +132,42 @@ public class PluginUpdateSettingsRepository {
         if (pluginName == null || pluginName.isBlank()) {
             return;
         }
-        ConfigurationSection root = configuration.getConfigurationSection(ROOT_NODE);
-        if (root == null) {
+        if (configuration.getConfigurationSection(ROOT_NODE) == null) {
             return;
         }
-        root.set(pluginName, null);
-        saveInternal();
+        set(pathForPlugin(pluginName), null);
+        notifyListeners(pluginName);
+    }
+
+    /**
+     * Writes pending changes into {@code plugin-settings.yml}.
+     */
+    public synchronized void flush() {
+        journal.compact();
+    }
+
+    private void set(String path, Object value) {
+        configuration.set(path, value);
+        journal.append(path, value);
+    }
+
+    private void notifyListeners(String pluginName) {
+        for (SettingsChangeListener listener : listeners) {
+            try {
+                listener.onSettingsChanged(pluginName);
+            } catch (RuntimeException ex) {
+                logger.log(Level.WARNING, "Plugin settings listener failed", ex);
+            }
+        }
     }
 
     private String pathForPlugin(String pluginName) {
         return ROOT_NODE + "." + pluginName;
     }
 
-    private void saveInternal() {
-        try {
-            configuration.save(stateFile);
-        } catch (IOException e) {
-            logger.log(Level.SEVERE, "Failed to save plugin update settings", e);
-        }
+    @FunctionalInterface
+    public interface SettingsChangeListener {
+        void onSettingsChanged(String pluginName);
     }
 
     public enum UpdateBehaviour {
@@ -16,6 +16,7 @@ public class RestartCooldownRepository {
     private final File stateFile;
     private final Logger logger;
     private FileConfiguration configuration;
+    private WriteBehindJournal journal;
 
     public RestartCooldownRepository(File dataFolder, Logger logger) {
         this.logger = logger;
@@ -27,6 +28,10 @@ public class RestartCooldownRepository {
         ensureDataFolderExists(dataFolder);
         ensureStateFileExists();
         configuration = YamlConfiguration.loadConfiguration(stateFile);
+        journal = new WriteBehindJournal(this, stateFile, configuration::saveToString, logger);
+        if (journal.open(configuration::set) > 0) {
+            journal.compact();
+        }
     }
 
     private void ensureDataFolderExists(File dataFolder) {
@@ -53,10 +58,13 @@ public class RestartCooldownRepository {
 
     public synchronized void saveLastRestartTime(long timestamp) {
         configuration.set(LAST_RESTART_NODE, timestamp);
-        try {
-            configuration.save(stateFile);
-        } catch (IOException e) {
-            logger.log(Level.SEVERE, "Failed to persist last restart time", e);
-        }
+        journal.append(LAST_RESTART_NODE, timestamp);
+    }
+
+    /**
+     * Writes pending changes into {@code restart-state.yml}.
+     */
+    public synchronized void flush() {
+        journal.compact();
     }
 }
@@ -0,0 +1,100 @@
+package eu.nurkert.neverUp2Late.persistence;
+
+import eu.nurkert.neverUp2Late.update.UpdateSchedule;
+import eu.nurkert.neverUp2Late.update.UpdateSchedule.SourceSchedule;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores the polling schedule of every update source in {@code schedules.yml}.
+ *
+ * <pre>
+ * sources:
+ *   &lt;sourceId&gt;:
+ *     nextDue: &lt;epoch millis&gt;
+ *     interval: &lt;millis&gt;
+ *     release: &lt;string&gt;
+ *     lastRelease: &lt;epoch millis&gt;
+ *     averageGap: &lt;millis&gt;
+ * </pre>
+ */
+public class UpdateScheduleRepository implements UpdateSchedule.Store {
+
+    private static final String FILE_NAME = "schedules.yml";
+    private static final String ROOT_NODE = "sources";
+    private static final String NEXT_DUE_NODE = "nextDue";
+    private static final String INTERVAL_NODE = "interval";
+    private static final String RELEASE_NODE = "release";
+    private static final String LAST_RELEASE_NODE = "lastRelease";
+    private static final String AVERAGE_GAP_NODE = "averageGap";
+
+    private final File stateFile;
+    private final Logger logger;
+
+    public UpdateScheduleRepository(File dataFolder, Logger logger) {
+        this.stateFile = new File(dataFolder, FILE_NAME);
+        this.logger = logger;
+    }
+
+    public static UpdateScheduleRepository forPlugin(JavaPlugin plugin) {
+        return new UpdateScheduleRepository(plugin.getDataFolder(), plugin.getLogger());
+    }
+
+    @Override
+    public synchronized Map<String, SourceSchedule> load() {
+        Map<String, SourceSchedule> result = new HashMap<>();
+        if (!stateFile.isFile()) {
+            return result;
+        }
+        FileConfiguration configuration = YamlConfiguration.loadConfiguration(stateFile);
+        ConfigurationSection sources = configuration.getConfigurationSection(ROOT_NODE);
+        if (sources == null) {
+            return result;
+        }
+        for (String sourceName : sources.getKeys(false)) {
+            ConfigurationSection section = sources.getConfigurationSection(sourceName);
+            if (section == null || !section.isSet(NEXT_DUE_NODE)) {
+                continue;
+            }
+            result.put(sourceName, new SourceSchedule(
+                    section.getLong(NEXT_DUE_NODE),
+                    section.getLong(INTERVAL_NODE),
+                    section.getString(RELEASE_NODE),
+                    section.getLong(LAST_RELEASE_NODE),
+                    section.getLong(AVERAGE_GAP_NODE)));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void save(Map<String, SourceSchedule> schedules) {
+        File dataFolder = stateFile.getParentFile();
+        if (dataFolder != null && !dataFolder.exists() && !dataFolder.mkdirs()) {
+            logger.log(Level.WARNING, "Could not create plugin data folder at {0}", dataFolder.getAbsolutePath());
+        }
+        FileConfiguration configuration = new YamlConfiguration();
+        ConfigurationSection sources = configuration.createSection(ROOT_NODE);
+        schedules.forEach((sourceName, schedule) -> {
+            ConfigurationSection section = sources.createSection(sourceName);
+            section.set(NEXT_DUE_NODE, schedule.nextDueAt());
+            section.set(INTERVAL_NODE, schedule.intervalMillis());
+            section.set(RELEASE_NODE, schedule.releaseMarker());
+            section.set(LAST_RELEASE_NODE, schedule.lastReleaseAt());
+            section.set(AVERAGE_GAP_NODE, schedule.averageReleaseGapMillis());
+        });
+        try {
+            configuration.save(stateFile);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to save update schedules", e);
+        }
+    }
+}
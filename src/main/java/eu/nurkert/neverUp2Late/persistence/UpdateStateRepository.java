@@ -8,7 +8,9 @@ import org.bukkit.plugin.java.JavaPlugin;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -23,21 +25,35 @@ import java.util.logging.Logger;
  *   &lt;sourceId&gt;:
  *     build: &lt;int&gt;
  *     version: &lt;string&gt;
+ *     rolledBack:
+ *       build: &lt;int&gt;
+ *       version: &lt;string&gt;
  * </pre>
  *
- * <p>Legacy structures are migrated automatically and written back to disk.</p>
+ * <p>{@code rolledBack} names a release that was rolled back after it was installed; it is cleared once
+ * another state is saved for the plugin.</p>
+ *
+ * <p>Legacy structures are migrated automatically and written back to disk. Changes are appended to a
+ * {@link WriteBehindJournal} and compacted into the file periodically.</p>
+ *
+ * <p>Reads are served from an immutable snapshot of all states that every write replaces, so the main
+ * thread can look up states without locking while update threads save new ones.</p>
  */
 public class UpdateStateRepository {
 
     private static final String ROOT_NODE = "plugins";
     private static final String BUILD_NODE = "build";
     private static final String VERSION_NODE = "version";
+    private static final String ROLLED_BACK_NODE = "rolledBack";
     private static final String FILE_NAME = "plugins.yml";
 
     private final File dataFolder;
     private final Logger logger;
     private final File stateFile;
     private FileConfiguration configuration;
+    private WriteBehindJournal journal;
+    private volatile Map<String, PluginState> states = Map.of();
+    private volatile Map<String, PluginState> rolledBack = Map.of();
 
     public UpdateStateRepository(File dataFolder, Logger logger) {
         this.dataFolder = dataFolder;
@@ -55,14 +71,18 @@ public class UpdateStateRepository {
         ensureStateFileExists();
 
         configuration = YamlConfiguration.loadConfiguration(stateFile);
+        journal = new WriteBehindJournal(this, stateFile, configuration::saveToString, logger);
 
-        boolean mutated = migrateLegacyState();
+        boolean mutated = journal.open(configuration::set) > 0;
+        mutated |= migrateLegacyState();
         mutated |= ensurePluginsSectionExists();
         validateSchema();
 
         if (mutated) {
-            saveInternal();
+            journal.compact();
         }
+        states = readStates(null);
+        rolledBack = readStates(ROLLED_BACK_NODE);
     }
 
     private void ensureDataFolderExists() {
@@ -170,6 +190,8 @@ public class UpdateStateRepository {
                     section.set(childKey, value.toString());
                     mutated = true;
                 }
+            } else if (ROLLED_BACK_NODE.equals(childKey) && section.isConfigurationSection(childKey)) {
+                mutated |= normalisePluginSection(section.getConfigurationSection(childKey), pluginKey);
             } else {
                 logger.log(Level.WARNING,
                         "Removing unknown field {0} for plugin entry {1}", new Object[]{childKey, pluginKey});
@@ -191,7 +213,8 @@ public class UpdateStateRepository {
                 throw new IllegalStateException("Plugin entry '" + pluginKey + "' must be a configuration section");
             }
             for (String childKey : section.getKeys(false)) {
-                if (!BUILD_NODE.equals(childKey) && !VERSION_NODE.equals(childKey)) {
+                if (!BUILD_NODE.equals(childKey) && !VERSION_NODE.equals(childKey)
+                        && !ROLLED_BACK_NODE.equals(childKey)) {
                     throw new IllegalStateException(
                             "Unknown field '" + childKey + "' for plugin entry '" + pluginKey + "'");
                 }
@@ -199,55 +222,134 @@ public class UpdateStateRepository {
         }
     }
 
-    public Optional<PluginState> find(String pluginName) {
-        ConfigurationSection section = configuration.getConfigurationSection(pathForPlugin(pluginName));
+    /**
+     * @param node the child node of every plugin entry to read, {@code null} to read the entries themselves
+     */
+    private Map<String, PluginState> readStates(String node) {
+        ConfigurationSection pluginsSection = configuration.getConfigurationSection(ROOT_NODE);
+        Map<String, PluginState> result = new HashMap<>();
+        for (String pluginKey : pluginsSection.getKeys(false)) {
+            ConfigurationSection section = pluginsSection.getConfigurationSection(pluginKey);
+            PluginState state = readState(node != null && section != null
+                    ? section.getConfigurationSection(node)
+                    : section);
+            if (state != null) {
+                result.put(pluginKey, state);
+            }
+        }
+        return Map.copyOf(result);
+    }
+
+    private static PluginState readState(ConfigurationSection section) {
         if (section == null) {
-            return Optional.empty();
+            return null;
         }
         boolean hasBuild = section.contains(BUILD_NODE);
         boolean hasVersion = section.contains(VERSION_NODE);
         if (!hasBuild && !hasVersion) {
-            return Optional.empty();
+            return null;
         }
         int build = hasBuild ? section.getInt(BUILD_NODE) : -1;
         String version = hasVersion ? section.getString(VERSION_NODE) : null;
-        return Optional.of(new PluginState(build, version));
+        return new PluginState(build, version);
+    }
+
+    public Optional<PluginState> find(String pluginName) {
+        return Optional.ofNullable(get(pluginName));
+    }
+
+    /**
+     * @return the stored state, {@code null} if none is stored
+     */
+    public PluginState get(String pluginName) {
+        return pluginName != null ? states.get(pluginName) : null;
+    }
+
+    /**
+     * @return an immutable view of all stored states that later writes do not change
+     */
+    public Map<String, PluginState> snapshot() {
+        return states;
     }
 
     public boolean hasPluginInfo(String pluginName) {
-        return find(pluginName).isPresent();
+        return get(pluginName) != null;
     }
 
     public int getStoredBuild(String pluginName) {
-        return find(pluginName).map(PluginState::build).orElse(-1);
+        PluginState state = get(pluginName);
+        return state != null ? state.build() : -1;
     }
 
     public String getStoredVersion(String pluginName) {
-        return find(pluginName).map(PluginState::version).orElse(null);
+        PluginState state = get(pluginName);
+        return state != null ? state.version() : null;
+    }
+
+    /**
+     * @return the release that was rolled back after it had been installed, if any
+     */
+    public Optional<PluginState> findRolledBack(String pluginName) {
+        return Optional.ofNullable(pluginName != null ? rolledBack.get(pluginName) : null);
+    }
+
+    /**
+     * Records the currently stored release of the plugin as rolled back, so it is not installed again.
+     *
+     * @return the recorded release, empty if no state is stored for the plugin
+     */
+    public synchronized Optional<PluginState> markRolledBack(String pluginName) {
+        PluginState state = get(pluginName);
+        if (state == null) {
+            return Optional.empty();
+        }
+        String path = pathForRolledBack(pluginName);
+        configuration.set(path + "." + BUILD_NODE, state.build());
+        journal.append(path + "." + BUILD_NODE, state.build());
+        configuration.set(path + "." + VERSION_NODE, state.version());
+        journal.append(path + "." + VERSION_NODE, state.version());
+
+        Map<String, PluginState> next = new HashMap<>(rolledBack);
+        next.put(pluginName, state);
+        rolledBack = Map.copyOf(next);
+        return Optional.of(state);
     }
 
     public void saveLatestBuild(String pluginName, int build, String version) {
         savePluginState(pluginName, build, version);
     }
 
-    public void savePluginState(String pluginName, Integer build, String version) {
+    public synchronized void savePluginState(String pluginName, Integer build, String version) {
         if (pluginName == null || pluginName.isBlank()) {
             return;
         }
 
-        if (build != null) {
-            configuration.set(pathForBuild(pluginName), build);
-        } else {
-            configuration.set(pathForBuild(pluginName), null);
+        configuration.set(pathForBuild(pluginName), build);
+        journal.append(pathForBuild(pluginName), build);
+        configuration.set(pathForVersion(pluginName), version);
+        journal.append(pathForVersion(pluginName), version);
+        if (rolledBack.containsKey(pluginName)) {
+            configuration.set(pathForRolledBack(pluginName), null);
+            journal.append(pathForRolledBack(pluginName), null);
+            Map<String, PluginState> nextRolledBack = new HashMap<>(rolledBack);
+            nextRolledBack.remove(pluginName);
+            rolledBack = Map.copyOf(nextRolledBack);
         }
 
-        if (version != null) {
-            configuration.set(pathForVersion(pluginName), version);
+        Map<String, PluginState> next = new HashMap<>(states);
+        if (build == null && version == null) {
+            next.remove(pluginName);
         } else {
-            configuration.set(pathForVersion(pluginName), null);
+            next.put(pluginName, new PluginState(build != null ? build : -1, version));
         }
+        states = Map.copyOf(next);
+    }
 
-        saveInternal();
+    /**
+     * Writes pending changes into {@code plugins.yml}.
+     */
+    public synchronized void flush() {
+        journal.compact();
     }
 
     private String pathForPlugin(String pluginName) {
@@ -262,12 +364,8 @@ public class UpdateStateRepository {
         return pathForPlugin(pluginName) + "." + VERSION_NODE;
     }
 
-    private void saveInternal() {
-        try {
-            configuration.save(stateFile);
-        } catch (IOException e) {
-            logger.log(Level.SEVERE, "Failed to save update state", e);
-        }
+    private String pathForRolledBack(String pluginName) {
+        return pathForPlugin(pluginName) + "." + ROLLED_BACK_NODE;
     }
 
     private void copySection(ConfigurationSection source, ConfigurationSection target) {
@@ -0,0 +1,290 @@
+package eu.nurkert.neverUp2Late.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal in front of a YAML state file.
+ * <p>
+ * Every change is appended as one line ({@code <crc32> {"p": path, "v": value}}) instead of serialising the
+ * whole file. The journal is forced to disk in batches once per second and compacted into the YAML file
+ * every 30 seconds, after 256 records and when it is closed. On startup the repository replays the journal
+ * over the YAML file; a line torn by a crash fails its checksum and ends the replay, and the journal is cut
+ * back to the last complete record, so new records are not appended behind the torn bytes. Replaying is
+ * idempotent, so a crash during compaction only replays changes that were already compacted.
+ * <p>
+ * All methods synchronise on the lock of the owning repository, so a compaction never sees half of a change.
+ */
+public final class WriteBehindJournal {
+
+    private static final long SYNC_INTERVAL_MILLIS = 1_000L;
+    private static final long COMPACT_INTERVAL_MILLIS = 30_000L;
+    private static final int COMPACT_AFTER_RECORDS = 256;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Set<WriteBehindJournal> OPEN = ConcurrentHashMap.newKeySet();
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "NeverUp2Late-JournalFlusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock;
+    private final Path stateFile;
+    private final Path journalFile;
+    private final Supplier<String> snapshot;
+    private final Logger logger;
+    private FileChannel channel;
+    private ScheduledFuture<?> flushTask;
+    private int records;
+    private boolean unsynced;
+    private long lastCompaction = System.nanoTime();
+
+    /**
+     * @param lock      monitor guarding the repository's in-memory state
+     * @param stateFile YAML file the journal is compacted into
+     * @param snapshot  serialises the repository's current state, called while holding {@code lock}
+     */
+    WriteBehindJournal(Object lock, File stateFile, Supplier<String> snapshot, Logger logger) {
+        this.lock = lock;
+        this.stateFile = stateFile.toPath();
+        this.journalFile = this.stateFile.resolveSibling(stateFile.getName() + ".journal");
+        this.snapshot = snapshot;
+        this.logger = logger;
+    }
+
+    /**
+     * Applies the changes recorded since the last compaction and starts accepting new ones.
+     *
+     * @return the number of replayed changes
+     */
+    int open(BiConsumer<String, Object> apply) {
+        synchronized (lock) {
+            Replay replay = replay(apply);
+            try {
+                channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                if (replay.validBytes() >= 0L && channel.size() > replay.validBytes()) {
+                    channel.truncate(replay.validBytes());
+                    channel.force(false);
+                }
+                channel.position(channel.size());
+            } catch (IOException ex) {
+                logger.log(Level.SEVERE, "Failed to open journal " + journalFile + "; changes are written directly", ex);
+            }
+            int replayed = replay.records();
+            records = replayed;
+            OPEN.add(this);
+            flushTask = FLUSHER.scheduleWithFixedDelay(this::flush, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS,
+                    TimeUnit.MILLISECONDS);
+            return replayed;
+        }
+    }
+
+    /**
+     * Records a change that was already applied to the in-memory state.
+     */
+    void append(String path, Object value) {
+        synchronized (lock) {
+            if (channel == null) {
+                compact();
+                return;
+            }
+            ObjectNode record = MAPPER.createObjectNode();
+            record.put("p", path);
+            record.set("v", MAPPER.valueToTree(value));
+            byte[] json = record.toString().getBytes(StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            byte[] line = (HexFormat.of().toHexDigits((int) crc.getValue()) + " " + record + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                records++;
+                unsynced = true;
+            } catch (IOException ex) {
+                logger.log(Level.SEVERE, "Failed to append to journal " + journalFile, ex);
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Forces appended changes to disk and compacts the journal when it is due.
+     */
+    void flush() {
+        synchronized (lock) {
+            if (channel == null) {
+                return;
+            }
+            boolean due = records >= COMPACT_AFTER_RECORDS
+                    || (records > 0 && System.nanoTime() - lastCompaction >= TimeUnit.MILLISECONDS.toNanos(COMPACT_INTERVAL_MILLIS));
+            if (due) {
+                compact();
+                return;
+            }
+            if (unsynced) {
+                try {
+                    channel.force(false);
+                    unsynced = false;
+                } catch (IOException ex) {
+                    logger.log(Level.WARNING, "Failed to sync journal {0}: {1}", new Object[]{journalFile, ex.getMessage()});
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the current state into the YAML file and empties the journal.
+     */
+    void compact() {
+        synchronized (lock) {
+            Path temporary = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+            try {
+                Files.writeString(temporary, snapshot.get(), StandardCharsets.UTF_8);
+                try (FileChannel written = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                    written.force(true);
+                }
+                try {
+                    Files.move(temporary, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temporary, stateFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+                if (channel != null) {
+                    channel.truncate(0L);
+                    channel.force(false);
+                }
+                records = 0;
+                unsynced = false;
+                lastCompaction = System.nanoTime();
+            } catch (IOException ex) {
+                // The journal is kept, so the changes are replayed on the next start
+                logger.log(Level.SEVERE, "Failed to write " + stateFile, ex);
+            }
+        }
+    }
+
+    /**
+     * Compacts the journal and stops the periodic flush.
+     */
+    void close() {
+        synchronized (lock) {
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+            if (records > 0 || unsynced) {
+                compact();
+            }
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    logger.log(Level.FINE, "Failed to close journal " + journalFile, ex);
+                }
+                channel = null;
+            }
+            OPEN.remove(this);
+        }
+    }
+
+    /**
+     * Compacts and closes every open journal, for example when the plugin is disabled.
+     */
+    public static void closeAll() {
+        for (WriteBehindJournal journal : List.copyOf(OPEN)) {
+            journal.close();
+        }
+    }
+
+    private Replay replay(BiConsumer<String, Object> apply) {
+        if (!Files.isRegularFile(journalFile)) {
+            return new Replay(0, 0L);
+        }
+        byte[] content;
+        try {
+            content = Files.readAllBytes(journalFile);
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, "Failed to read journal " + journalFile, ex);
+            return new Replay(0, -1L);
+        }
+        int replayed = 0;
+        int start = 0;
+        while (start < content.length) {
+            int end = start;
+            while (end < content.length && content[end] != '\n') {
+                end++;
+            }
+            // A line without its newline was torn while it was written
+            if (end == content.length || !apply(new String(content, start, end - start, StandardCharsets.UTF_8), apply)) {
+                break;
+            }
+            replayed++;
+            start = end + 1;
+        }
+        if (start < content.length) {
+            int ignored = 1;
+            for (int i = start; i < content.length - 1; i++) {
+                if (content[i] == '\n') {
+                    ignored++;
+                }
+            }
+            logger.log(Level.WARNING, "Ignored {0} incomplete record(s) at the end of {1}",
+                    new Object[]{ignored, journalFile.getFileName()});
+        }
+        return new Replay(replayed, start);
+    }
+
+    private static boolean apply(String line, BiConsumer<String, Object> apply) {
+        int separator = line.indexOf(' ');
+        if (separator <= 0) {
+            return false;
+        }
+        String json = line.substring(separator + 1);
+        CRC32 crc = new CRC32();
+        crc.update(json.getBytes(StandardCharsets.UTF_8));
+        if (!HexFormat.of().toHexDigits((int) crc.getValue()).equals(line.substring(0, separator))) {
+            return false;
+        }
+        try {
+            JsonNode record = MAPPER.readTree(json);
+            apply.accept(record.get("p").asText(), MAPPER.treeToValue(record.get("v"), Object.class));
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * @param validBytes length of the complete records at the start of the journal, {@code -1} if it could
+     *                   not be read
+     */
+    private record Replay(int records, long validBytes) {
+    }
+}
@@ -0,0 +1,30 @@
+package eu.nurkert.neverUp2Late.plugin;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of {@link PluginLifecycleManager#reloadPlugins(java.util.Collection)}.
+ *
+ * @param reloaded    paths of the plugins that were reloaded, in the order they were enabled
+ * @param failures    paths of the plugins that could not be reloaded mapped to the reason
+ * @param regressions paths of reloaded plugins whose new version loads or enables noticeably slower than the
+ *                    previous one, mapped to a description of the regression
+ */
+public record BatchReloadResult(List<Path> reloaded, Map<Path, String> failures, Map<Path, String> regressions) {
+
+    public BatchReloadResult {
+        reloaded = List.copyOf(reloaded);
+        failures = Map.copyOf(failures);
+        regressions = Map.copyOf(regressions);
+    }
+
+    public BatchReloadResult(List<Path> reloaded, Map<Path, String> failures) {
+        this(reloaded, failures, Map.of());
+    }
+
+    public boolean isReloaded(Path path) {
+        return path != null && reloaded.contains(path.toAbsolutePath().normalize());
+    }
+}
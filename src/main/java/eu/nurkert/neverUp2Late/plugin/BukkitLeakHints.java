@@ -0,0 +1,71 @@
+package eu.nurkert.neverUp2Late.plugin;
+
+import org.bukkit.Server;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.RegisteredListener;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@link ClassLoaderLeakTracker.LeakHint Leak hints} for the places where Bukkit most often keeps classes of
+ * an unloaded plugin alive: scheduler tasks, registered services and event listeners.
+ */
+public final class BukkitLeakHints {
+
+    private BukkitLeakHints() {
+    }
+
+    public static void register(ClassLoaderLeakTracker tracker, Server server) {
+        tracker.addHint((pluginName, loader) -> scheduledTasks(server, loader));
+        tracker.addHint((pluginName, loader) -> services(server, loader));
+        tracker.addHint((pluginName, loader) -> listeners(loader));
+    }
+
+    private static Optional<String> scheduledTasks(Server server, ClassLoader loader) {
+        int count = 0;
+        for (BukkitTask task : server.getScheduler().getPendingTasks()) {
+            if (loadedBy(task.getOwner(), loader)) {
+                count++;
+            }
+        }
+        return count == 0 ? Optional.empty() : Optional.of(count + " scheduler task(s) of the old instance are still pending");
+    }
+
+    private static Optional<String> services(Server server, ClassLoader loader) {
+        Set<String> services = new LinkedHashSet<>();
+        for (Class<?> service : server.getServicesManager().getKnownServices()) {
+            for (RegisteredServiceProvider<?> registration : server.getServicesManager().getRegistrations(service)) {
+                if (service.getClassLoader() == loader
+                        || loadedBy(registration.getPlugin(), loader)
+                        || loadedBy(registration.getProvider(), loader)) {
+                    services.add(service.getSimpleName());
+                }
+            }
+        }
+        return services.isEmpty()
+                ? Optional.empty()
+                : Optional.of("still registered as service provider for " + String.join(", ", services));
+    }
+
+    private static Optional<String> listeners(ClassLoader loader) {
+        Set<String> listeners = new LinkedHashSet<>();
+        for (HandlerList handlers : HandlerList.getHandlerLists()) {
+            for (RegisteredListener listener : handlers.getRegisteredListeners()) {
+                if (loadedBy(listener.getListener(), loader) || loadedBy(listener.getPlugin(), loader)) {
+                    listeners.add(listener.getListener().getClass().getName());
+                }
+            }
+        }
+        return listeners.isEmpty()
+                ? Optional.empty()
+                : Optional.of("event listeners still registered: " + String.join(", ", listeners));
+    }
+
+    private static boolean loadedBy(Object instance, ClassLoader loader) {
+        return instance != null && instance.getClass().getClassLoader() == loader;
+    }
+}
@@ -5,20 +5,19 @@ import org.bukkit.command.SimpleCommandMap;
 import org.bukkit.plugin.InvalidDescriptionException;
 import org.bukkit.plugin.InvalidPluginException;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.RegisteredListener;
+import eu.nurkert.neverUp2Late.plugin.PluginManagerInternals.FieldAccessor;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Collections;
-import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -42,14 +41,31 @@ class BukkitManagedPlugin implements ManagedPlugin {
     private final PluginManager pluginManager;
     private final Logger logger;
     private final Path pluginPath;
+    private final PluginManagerInternals internals;
+    private final PluginTimings timings;
 
     private Plugin plugin;
     private String lastKnownName;
 
     BukkitManagedPlugin(Plugin plugin, Path pluginPath, PluginManager pluginManager, Logger logger) {
+        this(plugin, pluginPath, pluginManager, PluginManagerInternals.resolve(pluginManager, logger), logger, null);
+    }
+
+    /**
+     * @param internals internals of {@code pluginManager}, shared by the plugins of one {@link PluginManagerApi}
+     * @param timings   receives the load and enable durations of the plugin, may be {@code null}
+     */
+    BukkitManagedPlugin(Plugin plugin,
+                        Path pluginPath,
+                        PluginManager pluginManager,
+                        PluginManagerInternals internals,
+                        Logger logger,
+                        PluginTimings timings) {
         this.pluginManager = pluginManager;
+        this.timings = timings;
         this.logger = logger;
         this.pluginPath = pluginPath.toAbsolutePath().normalize();
+        this.internals = internals;
         attach(plugin);
         if (lastKnownName == null) {
             this.lastKnownName = deriveNameFromPath(pluginPath);
@@ -99,7 +115,9 @@ class BukkitManagedPlugin implements ManagedPlugin {
             throw new PluginLifecycleException("Plugin " + getName() + " is already loaded");
         }
         try {
+            long started = System.nanoTime();
             Plugin loaded = pluginManager.loadPlugin(pluginPath.toFile());
+            recordTiming(loaded, PluginTimings.Phase.LOAD, started);
             attach(loaded);
         } catch (InvalidPluginException | InvalidDescriptionException ex) {
             throw new PluginLifecycleException("Failed to load plugin from " + pluginPath + ": " + ex.getMessage(), ex);
@@ -112,10 +130,25 @@ class BukkitManagedPlugin implements ManagedPlugin {
             throw new PluginLifecycleException("Cannot enable plugin " + getName() + " because it is not loaded");
         }
         if (!plugin.isEnabled()) {
+            long started = System.nanoTime();
             pluginManager.enablePlugin(plugin);
+            recordTiming(plugin, PluginTimings.Phase.ENABLE, started);
         }
     }
 
+    private void recordTiming(Plugin target, PluginTimings.Phase phase, long startedNanos) {
+        if (timings == null || target == null) {
+            return;
+        }
+        Duration duration = Duration.ofNanos(System.nanoTime() - startedNanos);
+        timings.record(target.getName(), versionOf(target), phase, duration);
+    }
+
+    static String versionOf(Plugin target) {
+        PluginDescriptionFile description = target.getDescription();
+        return description != null ? description.getVersion() : null;
+    }
+
     @Override
     public synchronized void disable() throws PluginLifecycleException {
         if (plugin == null) {
@@ -132,11 +165,14 @@ class BukkitManagedPlugin implements ManagedPlugin {
             return;
         }
 
+        // Fail before disabling the plugin if the server cannot unregister it afterwards
+        internals.requireUnloadSupport();
         Plugin existing = plugin;
         disable();
         removePluginFromBukkit(existing);
         detachClassLoader(existing);
         attach(null);
+        trackClassLoader(existing);
         System.gc();
     }
 
@@ -154,76 +190,75 @@ class BukkitManagedPlugin implements ManagedPlugin {
     }
 
     private void removePluginFromBukkit(Plugin target) throws PluginLifecycleException {
-        try {
-            FieldAccess<List<Plugin>> pluginsAccess = extractPlugins(pluginManager);
-            if (pluginsAccess != null) {
-                removePluginFromList(pluginsAccess, target);
-            }
+        Optional<FieldAccessor> pluginsAccess = internals.plugins();
+        if (pluginsAccess.isPresent()) {
+            removePluginFromList(pluginsAccess.get(), target);
+        }
 
-            FieldAccess<Map<String, Plugin>> lookupNamesAccess = extractLookupNames(pluginManager);
-            if (lookupNamesAccess != null) {
-                removePluginFromMap(lookupNamesAccess, entry -> entry.getValue() == target);
-            }
+        Optional<FieldAccessor> lookupNamesAccess = internals.lookupNames();
+        if (lookupNamesAccess.isPresent()) {
+            removePluginFromMap(lookupNamesAccess.get(), entry -> entry.getValue() == target);
+        }
 
-            FieldAccess<Map<Object, SortedSet<RegisteredListener>>> listenersAccess = extractRegisteredListeners(pluginManager);
-            if (listenersAccess != null) {
-                cleanupRegisteredListeners(listenersAccess, target);
-            }
+        Optional<FieldAccessor> listenersAccess = internals.listeners();
+        if (listenersAccess.isPresent()) {
+            cleanupRegisteredListeners(listenersAccess.get(), target);
+        }
+
+        Optional<FieldAccessor> knownCommandsAccess = internals.knownCommands();
+        if (knownCommandsAccess.isPresent()) {
+            removePluginCommands(knownCommandsAccess.get(), target);
+        } else {
+            logger.log(Level.FINE, () -> "Command map does not expose 'knownCommands'; skipping command cleanup for "
+                    + getName());
+        }
+    }
 
-            Object commandMap = extractCommandMap(pluginManager);
-            if (commandMap != null) {
-                Optional<Field> knownCommandsField = findFieldInHierarchy(commandMap.getClass(), "knownCommands");
-                if (knownCommandsField.isPresent()) {
-                    Field field = knownCommandsField.get();
-                    field.setAccessible(true);
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> knownCommands = (Map<String, Object>) field.get(commandMap);
-                    if (knownCommands != null) {
-                        Set<String> keysToRemove = new LinkedHashSet<>();
-                        for (Map.Entry<String, Object> entry : knownCommands.entrySet()) {
-                            Object value = entry.getValue();
-                            if (value instanceof PluginCommand command && command.getPlugin() == target) {
-                                if (commandMap instanceof SimpleCommandMap simple) {
-                                    command.unregister(simple);
-                                }
-                                keysToRemove.add(entry.getKey());
-                            }
-                        }
-                        if (!keysToRemove.isEmpty()) {
-                            boolean modified = false;
-                            try {
-                                for (String key : keysToRemove) {
-                                    if (knownCommands.containsKey(key)) {
-                                        knownCommands.remove(key);
-                                        modified = true;
-                                    }
-                                }
-                            } catch (UnsupportedOperationException ex) {
-                                modified = false;
-                            }
-                            if (!modified) {
-                                Map<String, Object> mutable = new LinkedHashMap<>(knownCommands.size());
-                                for (Map.Entry<String, Object> entry : knownCommands.entrySet()) {
-                                    if (!keysToRemove.contains(entry.getKey())) {
-                                        mutable.put(entry.getKey(), entry.getValue());
-                                    }
-                                }
-                                field.set(commandMap, mutable);
-                            }
-                        }
-                    }
-                } else {
-                    logger.log(Level.FINE, () -> "Command map " + commandMap.getClass().getName()
-                            + " does not expose 'knownCommands'; skipping command cleanup for " + getName());
+    private void removePluginCommands(FieldAccessor access, Plugin target) throws PluginLifecycleException {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> knownCommands = (Map<String, Object>) access.get();
+        if (knownCommands == null) {
+            return;
+        }
+        Object commandMap = access.owner();
+        Set<String> keysToRemove = new LinkedHashSet<>();
+        for (Map.Entry<String, Object> entry : knownCommands.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof PluginCommand command && command.getPlugin() == target) {
+                if (commandMap instanceof SimpleCommandMap simple) {
+                    command.unregister(simple);
+                }
+                keysToRemove.add(entry.getKey());
+            }
+        }
+        if (keysToRemove.isEmpty()) {
+            return;
+        }
+        boolean modified = false;
+        try {
+            for (String key : keysToRemove) {
+                if (knownCommands.containsKey(key)) {
+                    knownCommands.remove(key);
+                    modified = true;
+                }
+            }
+        } catch (UnsupportedOperationException ex) {
+            modified = false;
+        }
+        if (!modified) {
+            Map<String, Object> mutable = new LinkedHashMap<>(knownCommands.size());
+            for (Map.Entry<String, Object> entry : knownCommands.entrySet()) {
+                if (!keysToRemove.contains(entry.getKey())) {
+                    mutable.put(entry.getKey(), entry.getValue());
                 }
             }
-        } catch (IllegalAccessException | InvocationTargetException ex) {
-            throw new PluginLifecycleException("Failed to cleanly unregister plugin " + getName(), ex);
+            access.set(mutable);
         }
     }
 
-    private void removePluginFromList(FieldAccess<List<Plugin>> access, Plugin target) throws IllegalAccessException {
-        List<Plugin> plugins = access.value();
+    private void removePluginFromList(FieldAccessor access, Plugin target) throws PluginLifecycleException {
+        @SuppressWarnings("unchecked")
+        List<Plugin> plugins = (List<Plugin>) access.get();
         boolean removed = false;
         try {
             removed = plugins.removeIf(candidate -> candidate == target);
@@ -243,13 +278,14 @@ class BukkitManagedPlugin implements ManagedPlugin {
             }
         }
         if (changed) {
-            access.field().set(access.owner(), mutable);
+            access.set(mutable);
         }
     }
 
-    private <K, V> void removePluginFromMap(FieldAccess<Map<K, V>> access,
-            Predicate<Map.Entry<K, V>> shouldRemove) throws IllegalAccessException {
-        Map<K, V> map = access.value();
+    private <K, V> void removePluginFromMap(FieldAccessor access,
+            Predicate<Map.Entry<K, V>> shouldRemove) throws PluginLifecycleException {
+        @SuppressWarnings("unchecked")
+        Map<K, V> map = (Map<K, V>) access.get();
         boolean modified = false;
         try {
             Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
@@ -276,13 +312,13 @@ class BukkitManagedPlugin implements ManagedPlugin {
             mutable.put(entry.getKey(), entry.getValue());
         }
         if (changed) {
-            access.field().set(access.owner(), mutable);
+            access.set(mutable);
         }
     }
 
-    private void cleanupRegisteredListeners(FieldAccess<Map<Object, SortedSet<RegisteredListener>>> access, Plugin target)
-            throws IllegalAccessException {
-        Map<Object, SortedSet<RegisteredListener>> listeners = access.value();
+    private void cleanupRegisteredListeners(FieldAccessor access, Plugin target) throws PluginLifecycleException {
+        @SuppressWarnings("unchecked")
+        Map<Object, SortedSet<RegisteredListener>> listeners = (Map<Object, SortedSet<RegisteredListener>>) access.get();
         Map<Object, SortedSet<RegisteredListener>> mutable = new LinkedHashMap<>(listeners.size());
         boolean changed = false;
         for (Map.Entry<Object, SortedSet<RegisteredListener>> entry : listeners.entrySet()) {
@@ -299,7 +335,7 @@ class BukkitManagedPlugin implements ManagedPlugin {
             listeners.clear();
             listeners.putAll(mutable);
         } catch (UnsupportedOperationException ex) {
-            access.field().set(access.owner(), mutable);
+            access.set(mutable);
         }
     }
 
@@ -321,195 +357,11 @@ class BukkitManagedPlugin implements ManagedPlugin {
         return changed ? mutable : listeners;
     }
 
-    private FieldAccess<List<Plugin>> extractPlugins(Object manager) throws IllegalAccessException {
-        return extractPlugins(manager, newIdentitySet());
-    }
-
-    private FieldAccess<List<Plugin>> extractPlugins(Object manager, Set<Object> visited) throws IllegalAccessException {
-        if (manager == null || visited.contains(manager)) {
-            return null;
-        }
-        visited.add(manager);
-
-        Optional<Field> pluginsField = findFieldInHierarchy(manager.getClass(), "plugins");
-        if (pluginsField.isPresent()) {
-            Field field = pluginsField.get();
-            field.setAccessible(true);
-            Object value = field.get(manager);
-            if (value instanceof List<?> list) {
-                @SuppressWarnings("unchecked")
-                List<Plugin> plugins = (List<Plugin>) list;
-                return new FieldAccess<>(manager, field, plugins);
-            }
-            logger.log(Level.FINE, () -> "Unexpected type for 'plugins' field on " + manager.getClass().getName());
-        }
-
-        Optional<Field> instanceManagerField = findFieldInHierarchy(manager.getClass(), "instanceManager");
-        if (instanceManagerField.isPresent()) {
-            Field delegateField = instanceManagerField.get();
-            delegateField.setAccessible(true);
-            Object delegate = delegateField.get(manager);
-            FieldAccess<List<Plugin>> result = extractPlugins(delegate, visited);
-            if (result != null) {
-                return result;
-            }
-        }
-
-        logger.log(Level.FINE, () -> "Unable to locate plugin list on " + manager.getClass().getName());
-        return null;
-    }
-
-    private FieldAccess<Map<String, Plugin>> extractLookupNames(Object manager) throws IllegalAccessException {
-        return extractLookupNames(manager, newIdentitySet());
-    }
-
-    private FieldAccess<Map<String, Plugin>> extractLookupNames(Object manager, Set<Object> visited) throws IllegalAccessException {
-        if (manager == null || visited.contains(manager)) {
-            return null;
-        }
-        visited.add(manager);
-
-        Optional<Field> lookupNamesField = findFieldInHierarchy(manager.getClass(), "lookupNames");
-        if (lookupNamesField.isPresent()) {
-            Field field = lookupNamesField.get();
-            field.setAccessible(true);
-            Object value = field.get(manager);
-            if (value instanceof Map<?, ?> map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Plugin> names = (Map<String, Plugin>) map;
-                return new FieldAccess<>(manager, field, names);
-            }
-            logger.log(Level.FINE, () -> "Unexpected type for 'lookupNames' field on " + manager.getClass().getName());
-        }
-
-        Optional<Field> instanceManagerField = findFieldInHierarchy(manager.getClass(), "instanceManager");
-        if (instanceManagerField.isPresent()) {
-            Field delegateField = instanceManagerField.get();
-            delegateField.setAccessible(true);
-            Object delegate = delegateField.get(manager);
-            FieldAccess<Map<String, Plugin>> result = extractLookupNames(delegate, visited);
-            if (result != null) {
-                return result;
-            }
-        }
-
-        logger.log(Level.FINE, () -> "Unable to locate plugin lookup names on " + manager.getClass().getName());
-        return null;
-    }
-
-    private FieldAccess<Map<Object, SortedSet<RegisteredListener>>> extractRegisteredListeners(Object manager)
-            throws IllegalAccessException {
-        return extractRegisteredListeners(manager, newIdentitySet());
-    }
-
-    private FieldAccess<Map<Object, SortedSet<RegisteredListener>>> extractRegisteredListeners(Object manager, Set<Object> visited)
-            throws IllegalAccessException {
-        if (manager == null || visited.contains(manager)) {
-            return null;
-        }
-        visited.add(manager);
-
-        Optional<Field> listenersField = findFieldInHierarchy(manager.getClass(), "listeners");
-        if (listenersField.isPresent()) {
-            Field field = listenersField.get();
-            field.setAccessible(true);
-            Object value = field.get(manager);
-            if (value instanceof Map<?, ?> map) {
-                @SuppressWarnings("unchecked")
-                Map<Object, SortedSet<RegisteredListener>> listeners =
-                        (Map<Object, SortedSet<RegisteredListener>>) map;
-                return new FieldAccess<>(manager, field, listeners);
-            }
-            logger.log(Level.FINE, () -> "Unexpected type for 'listeners' field on " + manager.getClass().getName());
-        }
-
-        for (String delegateFieldName : new String[] {"paperEventManager", "eventManager"}) {
-            Optional<Field> delegateField = findFieldInHierarchy(manager.getClass(), delegateFieldName);
-            if (delegateField.isPresent()) {
-                Field field = delegateField.get();
-                field.setAccessible(true);
-                Object delegate = field.get(manager);
-                FieldAccess<Map<Object, SortedSet<RegisteredListener>>> result = extractRegisteredListeners(delegate, visited);
-                if (result != null) {
-                    return result;
-                }
-            }
-        }
-
-        logger.log(Level.FINEST, () -> "Unable to locate registered listeners on " + manager.getClass().getName());
-        return null;
-    }
-
-    private Object extractCommandMap(Object manager)
-            throws IllegalAccessException, InvocationTargetException {
-        return extractCommandMap(manager, newIdentitySet());
-    }
-
-    private Object extractCommandMap(Object manager, Set<Object> visited)
-            throws IllegalAccessException, InvocationTargetException {
-        if (manager == null || visited.contains(manager)) {
-            return null;
-        }
-        visited.add(manager);
-
-        Optional<Field> commandMapField = findFieldInHierarchy(manager.getClass(), "commandMap");
-        if (commandMapField.isPresent()) {
-            Field field = commandMapField.get();
-            field.setAccessible(true);
-            return field.get(manager);
-        }
-
-        Optional<Method> accessor = findMethodInHierarchy(manager.getClass(), "getCommandMap");
-        if (accessor.isPresent()) {
-            Method method = accessor.get();
-            method.setAccessible(true);
-            Object result = method.invoke(manager);
-            if (result != null) {
-                return result;
-            }
-        }
-
-        Optional<Field> instanceManagerField = findFieldInHierarchy(manager.getClass(), "instanceManager");
-        if (instanceManagerField.isPresent()) {
-            Field delegateField = instanceManagerField.get();
-            delegateField.setAccessible(true);
-            Object delegate = delegateField.get(manager);
-            Object result = extractCommandMap(delegate, visited);
-            if (result != null) {
-                return result;
-            }
-        }
-
-        logger.log(Level.FINE, () -> "Unable to locate command map on " + manager.getClass().getName());
-        return null;
-    }
-
-    private Optional<Field> findFieldInHierarchy(Class<?> type, String fieldName) {
-        Class<?> current = type;
-        while (current != null) {
-            try {
-                return Optional.of(current.getDeclaredField(fieldName));
-            } catch (NoSuchFieldException ex) {
-                current = current.getSuperclass();
-            }
-        }
-        return Optional.empty();
-    }
-
-    private Optional<Method> findMethodInHierarchy(Class<?> type, String methodName) {
-        Class<?> current = type;
-        while (current != null) {
-            try {
-                return Optional.of(current.getDeclaredMethod(methodName));
-            } catch (NoSuchMethodException ex) {
-                current = current.getSuperclass();
-            }
+    private void trackClassLoader(Plugin target) {
+        ClassLoader loader = target.getClass().getClassLoader();
+        if (loader instanceof URLClassLoader) {
+            ClassLoaderLeakTracker.shared().track(getName(), loader);
         }
-        return Optional.empty();
-    }
-
-    private Set<Object> newIdentitySet() {
-        return Collections.newSetFromMap(new IdentityHashMap<>());
     }
 
     private void detachClassLoader(Plugin target) throws PluginLifecycleException {
@@ -541,28 +393,4 @@ class BukkitManagedPlugin implements ManagedPlugin {
         }
         return fileName;
     }
-
-    private static final class FieldAccess<T> {
-        private final Object owner;
-        private final Field field;
-        private final T value;
-
-        FieldAccess(Object owner, Field field, T value) {
-            this.owner = owner;
-            this.field = field;
-            this.value = value;
-        }
-
-        Object owner() {
-            return owner;
-        }
-
-        Field field() {
-            return field;
-        }
-
-        T value() {
-            return value;
-        }
-    }
 }
@@ -0,0 +1,289 @@
+package eu.nurkert.neverUp2Late.plugin;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Verifies that the class loaders of unloaded plugins are garbage collected.
+ * <p>
+ * Unloaded loaders are only referenced weakly. {@link #check()} runs periodically; a loader that is still
+ * reachable once the grace period has passed and a garbage collection was requested is reported as a leak,
+ * together with hints about what may still reference it. The collection and the hints can run on different
+ * threads by calling {@link #detect()} and {@link #describe(List)} instead. Every check also records a heap and metaspace
+ * sample, so repeated reloads that keep growing the server become visible in {@code /nu2l status}.
+ */
+public class ClassLoaderLeakTracker {
+
+    private static final int MAX_SAMPLES = 60;
+    private static final ClassLoaderLeakTracker SHARED = new ClassLoaderLeakTracker(
+            Clock.systemUTC(), Duration.ofMinutes(2), ClassLoaderLeakTracker::sampleMemory);
+
+    private final Clock clock;
+    private final Supplier<MemorySample> sampler;
+    private final ReferenceQueue<ClassLoader> collected = new ReferenceQueue<>();
+    private final List<TrackedLoader> tracked = new ArrayList<>();
+    private final Deque<MemorySample> samples = new ArrayDeque<>();
+    private final List<LeakHint> hints = new CopyOnWriteArrayList<>();
+    private volatile Duration gracePeriod;
+
+    public ClassLoaderLeakTracker(Clock clock, Duration gracePeriod, Supplier<MemorySample> sampler) {
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.sampler = Objects.requireNonNull(sampler, "sampler");
+        setGracePeriod(gracePeriod);
+        hints.add(ClassLoaderLeakTracker::describeThreads);
+    }
+
+    public static ClassLoaderLeakTracker shared() {
+        return SHARED;
+    }
+
+    public void setGracePeriod(Duration gracePeriod) {
+        this.gracePeriod = gracePeriod == null || gracePeriod.isNegative() ? Duration.ZERO : gracePeriod;
+    }
+
+    /**
+     * Adds a source of hints that explain why a leaked loader is still reachable.
+     */
+    public void addHint(LeakHint hint) {
+        hints.add(Objects.requireNonNull(hint, "hint"));
+    }
+
+    /**
+     * Starts watching the class loader of a plugin that has just been unloaded.
+     */
+    public synchronized void track(String pluginName, ClassLoader loader) {
+        if (loader == null) {
+            return;
+        }
+        tracked.add(new TrackedLoader(pluginName, loader, clock.instant(), collected));
+    }
+
+    /**
+     * Drops collected loaders, reports loaders that outlived the grace period and records a memory sample.
+     * Runs {@link #detect()} and {@link #describe(List)} on the calling thread.
+     *
+     * @return the leaks detected by this check; every leak is reported once
+     */
+    public List<Leak> check() {
+        return describe(detect());
+    }
+
+    /**
+     * Drops collected loaders, requests a garbage collection if a loader outlived the grace period and records
+     * a memory sample. Blocks for the collection, so it should not run on the server thread.
+     *
+     * @return the loaders that survived the collection, to be passed to {@link #describe(List)}
+     */
+    public List<Suspect> detect() {
+        List<TrackedLoader> due = dueLoaders();
+        if (!due.isEmpty()) {
+            // A loader only counts as leaked if it survives a collection
+            System.gc();
+        }
+        List<Suspect> suspects = new ArrayList<>();
+        for (TrackedLoader loader : due) {
+            if (loader.get() != null) {
+                suspects.add(new Suspect(loader));
+            }
+        }
+        synchronized (this) {
+            expunge();
+            samples.addLast(sampler.get());
+            while (samples.size() > MAX_SAMPLES) {
+                samples.removeFirst();
+            }
+        }
+        return suspects;
+    }
+
+    /**
+     * Collects the hints for loaders returned by {@link #detect()} and reports them as leaks. Runs the hints on
+     * the calling thread, which has to be the server thread for {@link BukkitLeakHints}.
+     *
+     * @return the leaks among the suspects that were neither collected nor reported since
+     */
+    public List<Leak> describe(List<Suspect> suspects) {
+        List<Leak> detected = new ArrayList<>();
+        for (Suspect suspect : suspects) {
+            TrackedLoader loader = suspect.loader;
+            ClassLoader classLoader = loader.get();
+            if (classLoader == null || isReported(loader)) {
+                continue;
+            }
+            Leak leak = new Leak(loader.pluginName, loader.unloadedAt, collectHints(loader.pluginName, classLoader));
+            synchronized (this) {
+                if (loader.leak != null) {
+                    continue;
+                }
+                loader.leak = leak;
+            }
+            detected.add(leak);
+        }
+        return detected;
+    }
+
+    /**
+     * @return loaders that were reported as leaked and have not been collected since
+     */
+    public synchronized List<Leak> leaks() {
+        expunge();
+        List<Leak> leaks = new ArrayList<>();
+        for (TrackedLoader loader : tracked) {
+            if (loader.leak != null) {
+                leaks.add(loader.leak);
+            }
+        }
+        return leaks;
+    }
+
+    /**
+     * @return number of unloaded loaders that are neither collected nor reported yet
+     */
+    public synchronized int pendingCount() {
+        expunge();
+        return (int) tracked.stream().filter(loader -> loader.leak == null).count();
+    }
+
+    /**
+     * @return the recorded memory samples, oldest first
+     */
+    public synchronized List<MemorySample> memoryTrend() {
+        return List.copyOf(samples);
+    }
+
+    private synchronized boolean isReported(TrackedLoader loader) {
+        return loader.leak != null;
+    }
+
+    private synchronized List<TrackedLoader> dueLoaders() {
+        expunge();
+        Instant deadline = clock.instant().minus(gracePeriod);
+        List<TrackedLoader> due = new ArrayList<>();
+        for (TrackedLoader loader : tracked) {
+            if (loader.leak == null && !loader.unloadedAt.isAfter(deadline)) {
+                due.add(loader);
+            }
+        }
+        return due;
+    }
+
+    private void expunge() {
+        Reference<? extends ClassLoader> reference;
+        while ((reference = collected.poll()) != null) {
+            tracked.remove(reference);
+        }
+    }
+
+    private List<String> collectHints(String pluginName, ClassLoader loader) {
+        List<String> descriptions = new ArrayList<>();
+        for (LeakHint hint : hints) {
+            try {
+                hint.describe(pluginName, loader).ifPresent(descriptions::add);
+            } catch (RuntimeException ex) {
+                descriptions.add(hint.getClass().getSimpleName() + " failed: " + ex.getMessage());
+            }
+        }
+        return descriptions;
+    }
+
+    private static Optional<String> describeThreads(String pluginName, ClassLoader loader) {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        Thread[] threads = new Thread[root.activeCount() * 2 + 16];
+        int count = root.enumerate(threads, true);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Thread thread = threads[i];
+            if (thread.getContextClassLoader() == loader || thread.getClass().getClassLoader() == loader) {
+                names.add(thread.getName());
+            }
+        }
+        if (names.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of("threads still running with its classes: " + String.join(", ", names));
+    }
+
+    private static MemorySample sampleMemory() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long metaspace = -1L;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                metaspace = pool.getUsage().getUsed();
+            }
+        }
+        int loadedClasses = ManagementFactory.getClassLoadingMXBean().getLoadedClassCount();
+        return new MemorySample(Instant.now(), heap.getUsed(), heap.getMax(), metaspace, loadedClasses);
+    }
+
+    /**
+     * Explains why the class loader of an unloaded plugin may still be reachable, for example because a
+     * scheduler task, a registered service or a thread of the plugin is still alive.
+     */
+    @FunctionalInterface
+    public interface LeakHint {
+        Optional<String> describe(String pluginName, ClassLoader loader);
+    }
+
+    /**
+     * @param pluginName name of the plugin whose loader was not collected
+     * @param unloadedAt time the plugin was unloaded
+     * @param hints      possible references keeping the loader alive
+     */
+    public record Leak(String pluginName, Instant unloadedAt, List<String> hints) {
+    }
+
+    /**
+     * @param metaspaceUsed bytes of metaspace in use, {@code -1} if the JVM has no metaspace pool
+     * @param heapMax       maximum heap size in bytes, {@code -1} if undefined
+     */
+    public record MemorySample(Instant time, long heapUsed, long heapMax, long metaspaceUsed, int loadedClasses) {
+    }
+
+    /**
+     * Loader of an unloaded plugin that survived a garbage collection, still referenced only weakly.
+     */
+    public static final class Suspect {
+        private final TrackedLoader loader;
+
+        private Suspect(TrackedLoader loader) {
+            this.loader = loader;
+        }
+
+        public String pluginName() {
+            return loader.pluginName;
+        }
+    }
+
+    private static final class TrackedLoader extends WeakReference<ClassLoader> {
+        private final String pluginName;
+        private final Instant unloadedAt;
+        private Leak leak;
+
+        private TrackedLoader(String pluginName,
+                              ClassLoader loader,
+                              Instant unloadedAt,
+                              ReferenceQueue<ClassLoader> queue) {
+            super(loader, queue);
+            this.pluginName = pluginName;
+            this.unloadedAt = unloadedAt;
+        }
+    }
+}
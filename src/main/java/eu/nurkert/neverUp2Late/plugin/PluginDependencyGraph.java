@@ -0,0 +1,85 @@
+package eu.nurkert.neverUp2Late.plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Orders plugins by the {@code depend}, {@code softdepend} and {@code loadbefore} entries of their
+ * plugin.yml, so dependencies are enabled before and disabled after the plugins that need them.
+ * <p>
+ * Names are compared case-insensitively. Dependency cycles are broken in the order the plugins were
+ * supplied, which keeps the result deterministic.
+ */
+final class PluginDependencyGraph {
+
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    /**
+     * @param dependencies every plugin mapped to the names of the plugins it has to be enabled after
+     */
+    PluginDependencyGraph(Map<String, ? extends Collection<String>> dependencies) {
+        Map<String, List<String>> edges = new LinkedHashMap<>();
+        dependencies.forEach((name, required) -> {
+            List<String> targets = edges.computeIfAbsent(key(name), ignored -> new ArrayList<>());
+            if (required != null) {
+                for (String dependency : required) {
+                    if (dependency != null && !dependency.isBlank()) {
+                        targets.add(key(dependency));
+                    }
+                }
+            }
+        });
+
+        Set<String> visiting = new HashSet<>();
+        for (String name : edges.keySet()) {
+            visit(name, edges, visiting);
+        }
+    }
+
+    private void visit(String name, Map<String, List<String>> edges, Set<String> visiting) {
+        if (positions.containsKey(name) || !visiting.add(name)) {
+            // Already ordered, or part of a cycle that is resolved by the plugin visited first
+            return;
+        }
+        for (String dependency : edges.getOrDefault(name, List.of())) {
+            visit(dependency, edges, visiting);
+        }
+        visiting.remove(name);
+        positions.put(name, positions.size());
+    }
+
+    /**
+     * @return the given names with dependencies before the plugins depending on them; plugins unknown to
+     * the graph keep their relative order at the end
+     */
+    List<String> enableOrder(Collection<String> names) {
+        List<String> ordered = new ArrayList<>(names);
+        ordered.sort((left, right) -> Integer.compare(position(left), position(right)));
+        return ordered;
+    }
+
+    /**
+     * @return the given names with dependents before the plugins they depend on
+     */
+    List<String> disableOrder(Collection<String> names) {
+        List<String> ordered = enableOrder(names);
+        Collections.reverse(ordered);
+        return ordered;
+    }
+
+    private int position(String name) {
+        return positions.getOrDefault(key(name), Integer.MAX_VALUE);
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
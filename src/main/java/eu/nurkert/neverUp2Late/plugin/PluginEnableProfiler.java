@@ -0,0 +1,93 @@
+package eu.nurkert.neverUp2Late.plugin;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.event.server.ServerLoadEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginLoadOrder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Observes how long the plugins enabled after NeverUp2Late take during server startup.
+ * <p>
+ * Bukkit fires {@link PluginEnableEvent} right after a plugin's {@code onEnable} returned, and plugins are
+ * enabled one after another, so the time between two events is the enable time of the later plugin.
+ * Plugins enabled before NeverUp2Late cannot be observed this way. Measuring starts with NeverUp2Late's own
+ * event, and the first plugin of a new load phase is skipped because its interval includes world loading.
+ * Once the server has finished loading, the measurements are saved and versions that enable noticeably slower
+ * than their predecessor are logged.
+ */
+public class PluginEnableProfiler implements Listener {
+
+    private final PluginTimings timings;
+    private final Logger logger;
+    private final List<Plugin> observed = new ArrayList<>();
+    private long lastEnableNanos;
+    private PluginLoadOrder lastPhase;
+    private boolean measuring;
+    private boolean startupFinished;
+
+    public PluginEnableProfiler(PluginTimings timings, Logger logger) {
+        this.timings = timings;
+        this.logger = logger;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginEnable(PluginEnableEvent event) {
+        long now = System.nanoTime();
+        if (startupFinished) {
+            return;
+        }
+        Plugin plugin = event.getPlugin();
+        PluginLoadOrder phase = plugin.getDescription().getLoad();
+        if (measuring && phase == lastPhase) {
+            record(plugin, Duration.ofNanos(now - lastEnableNanos));
+        }
+        measuring = true;
+        lastPhase = phase;
+        lastEnableNanos = now;
+    }
+
+    private void record(Plugin plugin, Duration enableTime) {
+        String version = BukkitManagedPlugin.versionOf(plugin);
+        boolean firstStart = timings.get(plugin.getName(), version)
+                .map(timing -> timing.enable().samples() == 0)
+                .orElse(true);
+        timings.record(plugin.getName(), version, PluginTimings.Phase.ENABLE, enableTime);
+        if (firstStart) {
+            // Only a version's first start is compared, so a regression is reported once
+            observed.add(plugin);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onServerLoad(ServerLoadEvent event) {
+        finishStartup();
+    }
+
+    /**
+     * Ends the observation. Besides {@link ServerLoadEvent}, this is called on the first server tick, which
+     * at startup follows the event; if NeverUp2Late was loaded into a running server, no event arrives.
+     */
+    public void finishStartup() {
+        if (startupFinished) {
+            return;
+        }
+        startupFinished = true;
+        for (Plugin plugin : observed) {
+            timings.findRegression(plugin.getName(), BukkitManagedPlugin.versionOf(plugin))
+                    .ifPresent(regression -> logger.log(Level.WARNING,
+                            "{0} became slower to start after its update: {1}",
+                            new Object[]{plugin.getName(), regression.describe()}));
+        }
+        observed.clear();
+        timings.saveIfDirty();
+    }
+}
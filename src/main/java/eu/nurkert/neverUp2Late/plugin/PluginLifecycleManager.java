@@ -3,8 +3,13 @@ package eu.nurkert.neverUp2Late.plugin;
 import org.bukkit.plugin.Plugin;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Unified management interface that exposes lifecycle operations for plugins.
@@ -34,6 +39,30 @@ public interface PluginLifecycleManager {
 
     boolean reloadPlugin(Path path) throws PluginLifecycleException;
 
+    /**
+     * Reloads the plugins at the given paths as one batch. Must be called on the server thread; the returned
+     * future completes there as well.
+     * <p>
+     * The default implementation reloads the plugins one after another before returning.
+     */
+    default CompletableFuture<BatchReloadResult> reloadPlugins(Collection<Path> paths) {
+        List<Path> reloaded = new ArrayList<>();
+        Map<Path, String> failures = new LinkedHashMap<>();
+        for (Path path : paths) {
+            Path normalized = path.toAbsolutePath().normalize();
+            try {
+                if (reloadPlugin(path)) {
+                    reloaded.add(normalized);
+                } else {
+                    failures.put(normalized, "Plugin is not managed");
+                }
+            } catch (PluginLifecycleException ex) {
+                failures.put(normalized, ex.getMessage());
+            }
+        }
+        return CompletableFuture.completedFuture(new BatchReloadResult(reloaded, failures));
+    }
+
     boolean enablePlugin(String name) throws PluginLifecycleException;
 
     boolean disablePlugin(String name) throws PluginLifecycleException;
@@ -1,6 +1,7 @@
 package eu.nurkert.neverUp2Late.plugin;
 
 import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.PluginManager;
 import eu.nurkert.neverUp2Late.util.ArchiveUtils;
 
@@ -10,14 +11,19 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.CodeSource;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,7 +37,12 @@ public class PluginManagerApi implements PluginLifecycleManager {
     private final PluginManager pluginManager;
     private final Path pluginsDirectory;
     private final Logger logger;
+    private final PluginManagerInternals internals;
     private final Map<Path, ManagedPlugin> managedPlugins = new ConcurrentHashMap<>();
+    private Consumer<Runnable> nextTick;
+    private long tickBudgetNanos = Long.MAX_VALUE;
+    private CompletableFuture<BatchReloadResult> runningBatch = CompletableFuture.completedFuture(null);
+    private volatile PluginTimings timings;
 
     public PluginManagerApi(PluginManager pluginManager, File pluginsDirectory, Logger logger) {
         this.pluginManager = Objects.requireNonNull(pluginManager, "pluginManager");
@@ -39,6 +50,45 @@ public class PluginManagerApi implements PluginLifecycleManager {
                 ? null
                 : pluginsDirectory.toPath().toAbsolutePath().normalize();
         this.logger = logger;
+        this.internals = PluginManagerInternals.resolve(this.pluginManager, logger);
+        reportInternals();
+    }
+
+    /**
+     * The internals needed for unloading are located in the constructor, so unsupported servers are reported at
+     * startup instead of on the first update.
+     */
+    private void reportInternals() {
+        if (logger == null) {
+            return;
+        }
+        if (internals.supportsUnload()) {
+            logger.log(Level.FINE, "Plugin manager internals: {0}", internals.describeCapabilities());
+        } else {
+            logger.log(Level.WARNING,
+                    "Plugins cannot be reloaded on this server; updates will wait for a restart instead ({0}).",
+                    internals.describeCapabilities());
+        }
+    }
+
+    /**
+     * Measures load and enable durations of plugins registered from now on. Call before registering plugins.
+     */
+    public void setTimings(PluginTimings timings) {
+        this.timings = timings;
+    }
+
+    /**
+     * Spreads batch reloads over server ticks. Without a tick scheduler a batch runs to completion at once.
+     *
+     * @param nextTick   runs a task on the server thread during the next tick
+     * @param tickBudget time a batch may spend per tick; at least one lifecycle step runs per tick
+     */
+    public void spreadBatchReloads(Consumer<Runnable> nextTick, Duration tickBudget) {
+        this.nextTick = nextTick;
+        this.tickBudgetNanos = tickBudget == null || tickBudget.isNegative() || tickBudget.isZero()
+                ? Long.MAX_VALUE
+                : tickBudget.toNanos();
     }
 
     @Override
@@ -51,7 +101,7 @@ public class PluginManagerApi implements PluginLifecycleManager {
             if (managed != null) {
                 managed.attach(plugin);
             } else {
-                managedPlugins.put(path, new BukkitManagedPlugin(plugin, path, pluginManager, logger));
+                managedPlugins.put(path, new BukkitManagedPlugin(plugin, path, pluginManager, internals, logger, timings));
             }
         });
     }
@@ -113,6 +163,95 @@ public class PluginManagerApi implements PluginLifecycleManager {
         return true;
     }
 
+    /**
+     * Reloads the plugins in dependency order: dependents are unloaded before and enabled after the plugins
+     * they depend on. Batches requested while another one is running start once it has finished.
+     */
+    @Override
+    public synchronized CompletableFuture<BatchReloadResult> reloadPlugins(Collection<Path> paths) {
+        List<Path> requested = new ArrayList<>(paths);
+        runningBatch = runningBatch
+                .handle((ignored, failure) -> null)
+                .thenCompose(ignored -> startBatch(requested));
+        return runningBatch;
+    }
+
+    private CompletableFuture<BatchReloadResult> startBatch(List<Path> paths) {
+        Map<Path, String> rejected = new LinkedHashMap<>();
+        Map<String, ManagedPlugin> byName = new LinkedHashMap<>();
+        for (Path path : paths) {
+            ManagedPlugin managed = ensureManaged(path);
+            if (managed == null) {
+                rejected.put(normalize(path), "Plugin file does not exist");
+            } else if (byName.putIfAbsent(managed.getName(), managed) != null) {
+                rejected.put(normalize(path), "Another jar of " + managed.getName() + " is part of the same batch");
+            }
+        }
+
+        List<ManagedPlugin> enableOrder = new ArrayList<>();
+        for (String name : dependencyGraph().enableOrder(byName.keySet())) {
+            enableOrder.add(byName.get(name));
+        }
+        PluginReloadBatch batch = new PluginReloadBatch(enableOrder, logger);
+        CompletableFuture<BatchReloadResult> result = new CompletableFuture<>();
+        runSlice(batch, rejected, result);
+        return result;
+    }
+
+    private void runSlice(PluginReloadBatch batch, Map<Path, String> rejected, CompletableFuture<BatchReloadResult> result) {
+        try {
+            long budget = nextTick != null ? tickBudgetNanos : Long.MAX_VALUE;
+            if (!batch.runSlice(budget, System::nanoTime)) {
+                nextTick.accept(() -> runSlice(batch, rejected, result));
+                return;
+            }
+            BatchReloadResult outcome = batch.result();
+            Map<Path, String> failures = new LinkedHashMap<>(rejected);
+            failures.putAll(outcome.failures());
+            result.complete(new BatchReloadResult(outcome.reloaded(), failures, findRegressions(outcome.reloaded())));
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+
+    private Map<Path, String> findRegressions(List<Path> reloaded) {
+        PluginTimings current = timings;
+        Map<Path, String> regressions = new LinkedHashMap<>();
+        if (current == null) {
+            return regressions;
+        }
+        for (Path path : reloaded) {
+            Plugin plugin = findByPath(path).flatMap(ManagedPlugin::getPlugin).orElse(null);
+            if (plugin == null) {
+                continue;
+            }
+            current.findRegression(plugin.getName(), BukkitManagedPlugin.versionOf(plugin))
+                    .ifPresent(regression -> regressions.put(path, regression.describe()));
+        }
+        current.saveIfDirty();
+        return regressions;
+    }
+
+    /**
+     * Builds the dependency graph of all loaded plugins from their plugin.yml entries.
+     */
+    private PluginDependencyGraph dependencyGraph() {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        for (Plugin plugin : pluginManager.getPlugins()) {
+            PluginDescriptionFile description = plugin != null ? plugin.getDescription() : null;
+            if (description == null) {
+                continue;
+            }
+            List<String> required = dependencies.computeIfAbsent(description.getName(), ignored -> new ArrayList<>());
+            required.addAll(description.getDepend());
+            required.addAll(description.getSoftDepend());
+            for (String loadBefore : description.getLoadBefore()) {
+                dependencies.computeIfAbsent(loadBefore, ignored -> new ArrayList<>()).add(description.getName());
+            }
+        }
+        return new PluginDependencyGraph(dependencies);
+    }
+
     @Override
     public boolean enablePlugin(String name) throws PluginLifecycleException {
         Optional<ManagedPlugin> plugin = findByName(name);
@@ -229,7 +368,7 @@ public class PluginManagerApi implements PluginLifecycleManager {
         if (existing == null) {
             return Optional.empty();
         }
-        ManagedPlugin replacement = new BukkitManagedPlugin(existing.getPlugin().orElse(null), newPath, pluginManager, logger);
+        ManagedPlugin replacement = new BukkitManagedPlugin(existing.getPlugin().orElse(null), newPath, pluginManager, internals, logger, timings);
         managedPlugins.put(normalize(newPath), replacement);
         return Optional.of(replacement);
     }
@@ -246,7 +385,7 @@ public class PluginManagerApi implements PluginLifecycleManager {
         if (!Files.exists(normalized)) {
             return null;
         }
-        ManagedPlugin newManaged = new BukkitManagedPlugin(null, normalized, pluginManager, logger);
+        ManagedPlugin newManaged = new BukkitManagedPlugin(null, normalized, pluginManager, internals, logger, timings);
         managedPlugins.put(normalized, newManaged);
         return newManaged;
     }
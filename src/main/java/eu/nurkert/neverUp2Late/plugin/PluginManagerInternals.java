@@ -0,0 +1,277 @@
+package eu.nurkert.neverUp2Late.plugin;
+
+import org.bukkit.plugin.PluginManager;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Access to the private state of the server's plugin manager that Bukkit offers no API for: the plugin list,
+ * the name lookup, the registered listeners and the known commands of the command map.
+ * <p>
+ * The fields are located once by {@link PluginManagerApi}, following the delegates used by Paper, kept as method
+ * handles and shared by its plugins. Unloading a plugin therefore does not search class hierarchies again, and
+ * servers that lack the internals required for unloading are rejected before a plugin is touched.
+ */
+final class PluginManagerInternals {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final String implementation;
+    private final FieldAccessor plugins;
+    private final FieldAccessor lookupNames;
+    private final FieldAccessor listeners;
+    private final FieldAccessor knownCommands;
+
+    private PluginManagerInternals(String implementation,
+                                   FieldAccessor plugins,
+                                   FieldAccessor lookupNames,
+                                   FieldAccessor listeners,
+                                   FieldAccessor knownCommands) {
+        this.implementation = implementation;
+        this.plugins = plugins;
+        this.lookupNames = lookupNames;
+        this.listeners = listeners;
+        this.knownCommands = knownCommands;
+    }
+
+    /**
+     * Locates the internals of the given plugin manager. The result holds on to the manager, so it is kept by
+     * its owner rather than in a static cache.
+     */
+    static PluginManagerInternals resolve(PluginManager manager, Logger logger) {
+        Resolver resolver = new Resolver(logger);
+        FieldAccessor plugins = resolver.find(manager, "plugins", List.class, "instanceManager");
+        FieldAccessor lookupNames = resolver.find(manager, "lookupNames", Map.class, "instanceManager");
+        FieldAccessor listeners = resolver.find(manager, "listeners", Map.class, "paperEventManager", "eventManager");
+        Object commandMap = resolver.findCommandMap(manager);
+        FieldAccessor knownCommands = commandMap != null
+                ? resolver.find(commandMap, "knownCommands", Map.class)
+                : null;
+        return new PluginManagerInternals(manager.getClass().getName(), plugins, lookupNames, listeners, knownCommands);
+    }
+
+    /**
+     * Unloading needs at least the plugin list and the name lookup; without them the plugin would stay
+     * registered and could not be loaded again.
+     */
+    boolean supportsUnload() {
+        return plugins != null && lookupNames != null;
+    }
+
+    void requireUnloadSupport() throws PluginLifecycleException {
+        if (!supportsUnload()) {
+            throw new PluginLifecycleException("Unloading plugins is not supported on " + implementation
+                    + " (" + describeCapabilities() + ")");
+        }
+    }
+
+    Optional<FieldAccessor> plugins() {
+        return Optional.ofNullable(plugins);
+    }
+
+    Optional<FieldAccessor> lookupNames() {
+        return Optional.ofNullable(lookupNames);
+    }
+
+    Optional<FieldAccessor> listeners() {
+        return Optional.ofNullable(listeners);
+    }
+
+    Optional<FieldAccessor> knownCommands() {
+        return Optional.ofNullable(knownCommands);
+    }
+
+    /**
+     * @return which internals were found, for example {@code plugin list: SimplePluginManager.plugins}
+     */
+    String describeCapabilities() {
+        return "plugin list: " + describe(plugins)
+                + ", name lookup: " + describe(lookupNames)
+                + ", listeners: " + describe(listeners)
+                + ", commands: " + describe(knownCommands);
+    }
+
+    private static String describe(FieldAccessor accessor) {
+        return accessor != null ? accessor.name() : "missing";
+    }
+
+    /**
+     * A field of a specific object, read and written through cached method handles.
+     */
+    record FieldAccessor(Object owner, MethodHandle getter, MethodHandle setter, String name) {
+
+        Object get() throws PluginLifecycleException {
+            try {
+                return (Object) getter.invokeExact(owner);
+            } catch (Throwable ex) {
+                throw new PluginLifecycleException("Failed to read " + name, ex);
+            }
+        }
+
+        void set(Object value) throws PluginLifecycleException {
+            if (setter == null) {
+                throw new PluginLifecycleException(name + " cannot be replaced");
+            }
+            try {
+                setter.invokeExact(owner, value);
+            } catch (Throwable ex) {
+                throw new PluginLifecycleException("Failed to replace " + name, ex);
+            }
+        }
+    }
+
+    private static final class Resolver {
+
+        private final Logger logger;
+
+        private Resolver(Logger logger) {
+            this.logger = logger;
+        }
+
+        FieldAccessor find(Object owner, String fieldName, Class<?> type, String... delegates) {
+            return find(owner, fieldName, type, delegates, newIdentitySet());
+        }
+
+        private FieldAccessor find(Object owner,
+                                   String fieldName,
+                                   Class<?> type,
+                                   String[] delegates,
+                                   Set<Object> visited) {
+            if (owner == null || !visited.add(owner)) {
+                return null;
+            }
+            Optional<Field> field = findFieldInHierarchy(owner.getClass(), fieldName);
+            if (field.isPresent()) {
+                FieldAccessor accessor = accessor(owner, field.get());
+                if (accessor != null && type.isInstance(read(accessor))) {
+                    return accessor;
+                }
+                log(Level.FINE, "Unexpected type for '" + fieldName + "' field on " + owner.getClass().getName());
+            }
+            for (String delegateName : delegates) {
+                Object delegate = readField(owner, delegateName);
+                FieldAccessor result = find(delegate, fieldName, type, delegates, visited);
+                if (result != null) {
+                    return result;
+                }
+            }
+            log(Level.FINE, "Unable to locate '" + fieldName + "' on " + owner.getClass().getName());
+            return null;
+        }
+
+        Object findCommandMap(Object manager) {
+            Set<Object> visited = newIdentitySet();
+            Object current = manager;
+            while (current != null && visited.add(current)) {
+                Object commandMap = readField(current, "commandMap");
+                if (commandMap == null) {
+                    commandMap = invokeGetter(current, "getCommandMap");
+                }
+                if (commandMap != null) {
+                    return commandMap;
+                }
+                current = readField(current, "instanceManager");
+            }
+            log(Level.FINE, "Unable to locate command map on " + manager.getClass().getName());
+            return null;
+        }
+
+        private Object readField(Object owner, String fieldName) {
+            return findFieldInHierarchy(owner.getClass(), fieldName)
+                    .map(field -> accessor(owner, field))
+                    .map(this::read)
+                    .orElse(null);
+        }
+
+        private Object invokeGetter(Object owner, String methodName) {
+            Optional<Method> method = findMethodInHierarchy(owner.getClass(), methodName);
+            if (method.isEmpty()) {
+                return null;
+            }
+            try {
+                method.get().setAccessible(true);
+                MethodHandle handle = LOOKUP.unreflect(method.get()).asType(GETTER_TYPE);
+                return (Object) handle.invokeExact(owner);
+            } catch (Throwable ex) {
+                log(Level.FINE, "Unable to invoke " + methodName + " on " + owner.getClass().getName() + ": " + ex);
+                return null;
+            }
+        }
+
+        private Object read(FieldAccessor accessor) {
+            try {
+                return accessor.get();
+            } catch (PluginLifecycleException ex) {
+                log(Level.FINE, ex.getMessage());
+                return null;
+            }
+        }
+
+        private FieldAccessor accessor(Object owner, Field field) {
+            String name = field.getDeclaringClass().getSimpleName() + "." + field.getName();
+            MethodHandle getter;
+            try {
+                field.setAccessible(true);
+                getter = LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+            } catch (RuntimeException | IllegalAccessException ex) {
+                log(Level.FINE, "Unable to access " + name + ": " + ex);
+                return null;
+            }
+            MethodHandle setter = null;
+            try {
+                setter = LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (IllegalAccessException ex) {
+                // Final fields of records and hidden classes stay read-only; callers mutate the value instead
+            }
+            return new FieldAccessor(owner, getter, setter, name);
+        }
+
+        private void log(Level level, String message) {
+            if (logger != null) {
+                logger.log(level, message);
+            }
+        }
+    }
+
+    private static Optional<Field> findFieldInHierarchy(Class<?> type, String fieldName) {
+        Class<?> current = type;
+        while (current != null) {
+            try {
+                return Optional.of(current.getDeclaredField(fieldName));
+            } catch (NoSuchFieldException ex) {
+                current = current.getSuperclass();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<Method> findMethodInHierarchy(Class<?> type, String methodName) {
+        Class<?> current = type;
+        while (current != null) {
+            try {
+                return Optional.of(current.getDeclaredMethod(methodName));
+            } catch (NoSuchMethodException ex) {
+                current = current.getSuperclass();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Set<Object> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
@@ -0,0 +1,100 @@
+package eu.nurkert.neverUp2Late.plugin;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reloads several plugins as one unit: all of them are unloaded in reverse dependency order first, then
+ * loaded and enabled in dependency order. Every unload, load and enable is a separate step, so the batch
+ * can be spread over several server ticks through {@link #runSlice(long, LongSupplier)}.
+ * <p>
+ * Once a step of a plugin fails, its remaining steps are skipped.
+ */
+final class PluginReloadBatch {
+
+    private final List<ManagedPlugin> enableOrder;
+    private final Logger logger;
+    private final Deque<Step> steps = new ArrayDeque<>();
+    private final Map<Path, String> failures = new LinkedHashMap<>();
+
+    /**
+     * @param enableOrder plugins of the batch with dependencies before their dependents
+     */
+    PluginReloadBatch(List<ManagedPlugin> enableOrder, Logger logger) {
+        this.enableOrder = List.copyOf(enableOrder);
+        this.logger = logger;
+        for (int i = this.enableOrder.size() - 1; i >= 0; i--) {
+            steps.add(new Step(this.enableOrder.get(i), "unload", ManagedPlugin::unload));
+        }
+        for (ManagedPlugin plugin : this.enableOrder) {
+            steps.add(new Step(plugin, "load", ManagedPlugin::load));
+            steps.add(new Step(plugin, "enable", ManagedPlugin::enable));
+        }
+    }
+
+    /**
+     * Runs steps until the budget is used up. At least one step runs per call, so a batch always makes
+     * progress even if a single step takes longer than the budget.
+     *
+     * @return {@code true} once every step has run
+     */
+    boolean runSlice(long budgetNanos, LongSupplier nanoTime) {
+        long start = nanoTime.getAsLong();
+        do {
+            Step step = steps.poll();
+            if (step == null) {
+                return true;
+            }
+            run(step);
+        } while (nanoTime.getAsLong() - start < budgetNanos);
+        return steps.isEmpty();
+    }
+
+    boolean isDone() {
+        return steps.isEmpty();
+    }
+
+    BatchReloadResult result() {
+        List<Path> reloaded = new ArrayList<>();
+        for (ManagedPlugin plugin : enableOrder) {
+            if (!failures.containsKey(plugin.getPath())) {
+                reloaded.add(plugin.getPath());
+            }
+        }
+        return new BatchReloadResult(reloaded, failures);
+    }
+
+    private void run(Step step) {
+        Path path = step.plugin().getPath();
+        if (failures.containsKey(path)) {
+            return;
+        }
+        try {
+            step.operation().apply(step.plugin());
+        } catch (PluginLifecycleException | RuntimeException ex) {
+            // Bukkit reports missing dependencies with unchecked exceptions
+            failures.put(path, "Failed to " + step.name() + " " + step.plugin().getName() + ": " + ex.getMessage());
+            if (logger != null) {
+                logger.log(Level.WARNING, "Failed to {0} plugin {1} during batch reload: {2}",
+                        new Object[]{step.name(), step.plugin().getName(), ex.getMessage()});
+                logger.log(Level.FINE, "Batch reload failure", ex);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void apply(ManagedPlugin plugin) throws PluginLifecycleException;
+    }
+
+    private record Step(ManagedPlugin plugin, String name, Operation operation) {
+    }
+}
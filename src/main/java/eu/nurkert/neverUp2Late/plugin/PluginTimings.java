@@ -0,0 +1,181 @@
+package eu.nurkert.neverUp2Late.plugin;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Load and enable durations of every plugin, kept per installed version.
+ * <p>
+ * Durations are measured whenever NeverUp2Late loads or enables a plugin and observed during server startup.
+ * Once a new version has been measured, {@link #findRegression(String, String)} compares it with the version
+ * that was installed before, so updates that make a plugin noticeably slower can be flagged.
+ */
+public class PluginTimings {
+
+    private static final int MAX_VERSIONS = 5;
+    // Newer measurements weigh at least this much, so the average follows lasting changes
+    private static final int MAX_AVERAGED_SAMPLES = 5;
+
+    private final Store store;
+    private final Clock clock;
+    private final Map<String, Map<String, VersionTiming>> timings = new LinkedHashMap<>();
+    private double regressionFactor = 1.5d;
+    private long regressionMinimumMillis = 100L;
+    private boolean dirty;
+
+    public PluginTimings(Store store, Clock clock) {
+        this.store = Objects.requireNonNull(store, "store");
+        this.clock = Objects.requireNonNull(clock, "clock");
+        for (VersionTiming timing : store.load()) {
+            timings.computeIfAbsent(key(timing.plugin()), ignored -> new LinkedHashMap<>())
+                    .put(timing.version(), timing);
+        }
+    }
+
+    /**
+     * @param factor         a phase regressed if it takes at least this many times as long as before
+     * @param minimumMillis  and if it takes at least this many milliseconds longer
+     */
+    public synchronized void configureRegression(double factor, long minimumMillis) {
+        this.regressionFactor = Math.max(1d, factor);
+        this.regressionMinimumMillis = Math.max(0L, minimumMillis);
+    }
+
+    public synchronized void record(String plugin, String version, Phase phase, Duration duration) {
+        if (plugin == null || duration == null || duration.isNegative()) {
+            return;
+        }
+        String versionKey = version != null ? version : "unknown";
+        Map<String, VersionTiming> versions = timings.computeIfAbsent(key(plugin), ignored -> new LinkedHashMap<>());
+        VersionTiming existing = versions.getOrDefault(versionKey,
+                new VersionTiming(plugin, versionKey, PhaseTiming.NONE, PhaseTiming.NONE, 0L));
+        long millis = duration.toMillis();
+        VersionTiming updated = phase == Phase.LOAD
+                ? new VersionTiming(plugin, versionKey, existing.load().add(millis), existing.enable(), clock.millis())
+                : new VersionTiming(plugin, versionKey, existing.load(), existing.enable().add(millis), clock.millis());
+        versions.put(versionKey, updated);
+        while (versions.size() > MAX_VERSIONS) {
+            versions.values().stream()
+                    .min(Comparator.comparingLong(VersionTiming::lastSeen))
+                    .ifPresent(oldest -> versions.remove(oldest.version()));
+        }
+        dirty = true;
+    }
+
+    public synchronized Optional<VersionTiming> get(String plugin, String version) {
+        Map<String, VersionTiming> versions = timings.get(key(plugin));
+        return versions == null ? Optional.empty() : Optional.ofNullable(versions.get(version));
+    }
+
+    /**
+     * Compares the given version of a plugin with the version measured before it.
+     *
+     * @return the slowest regressed phase, if any
+     */
+    public synchronized Optional<Regression> findRegression(String plugin, String version) {
+        Map<String, VersionTiming> versions = timings.get(key(plugin));
+        if (versions == null || !versions.containsKey(version)) {
+            return Optional.empty();
+        }
+        VersionTiming current = versions.get(version);
+        Optional<VersionTiming> previous = versions.values().stream()
+                .filter(timing -> !timing.version().equals(version))
+                .max(Comparator.comparingLong(VersionTiming::lastSeen));
+        if (previous.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Regression> regressions = new ArrayList<>();
+        compare(Phase.LOAD, previous.get(), previous.get().load(), current, current.load()).ifPresent(regressions::add);
+        compare(Phase.ENABLE, previous.get(), previous.get().enable(), current, current.enable()).ifPresent(regressions::add);
+        return regressions.stream().max(Comparator.comparingLong(regression -> regression.millis() - regression.previousMillis()));
+    }
+
+    private Optional<Regression> compare(Phase phase,
+                                         VersionTiming previous,
+                                         PhaseTiming before,
+                                         VersionTiming current,
+                                         PhaseTiming after) {
+        if (before.samples() == 0 || after.samples() == 0) {
+            return Optional.empty();
+        }
+        long increase = after.averageMillis() - before.averageMillis();
+        if (increase < regressionMinimumMillis || after.averageMillis() < before.averageMillis() * regressionFactor) {
+            return Optional.empty();
+        }
+        return Optional.of(new Regression(current.plugin(), phase, previous.version(), before.averageMillis(),
+                current.version(), after.averageMillis()));
+    }
+
+    public synchronized void saveIfDirty() {
+        if (!dirty) {
+            return;
+        }
+        List<VersionTiming> all = new ArrayList<>();
+        timings.values().forEach(versions -> all.addAll(versions.values()));
+        store.save(all);
+        dirty = false;
+    }
+
+    private static String key(String plugin) {
+        return plugin == null ? "" : plugin.toLowerCase(Locale.ROOT);
+    }
+
+    public enum Phase {
+        LOAD,
+        ENABLE
+    }
+
+    /**
+     * @param averageMillis average duration of the phase
+     * @param samples       number of measurements, {@code 0} if the phase was never measured
+     */
+    public record PhaseTiming(long averageMillis, int samples) {
+
+        static final PhaseTiming NONE = new PhaseTiming(0L, 0);
+
+        PhaseTiming add(long millis) {
+            int weight = Math.min(samples + 1, MAX_AVERAGED_SAMPLES);
+            long average = samples == 0 ? millis : averageMillis + Math.round((millis - averageMillis) / (double) weight);
+            return new PhaseTiming(average, samples + 1);
+        }
+    }
+
+    /**
+     * @param lastSeen epoch millis of the latest measurement of this version
+     */
+    public record VersionTiming(String plugin, String version, PhaseTiming load, PhaseTiming enable, long lastSeen) {
+    }
+
+    public record Regression(String plugin,
+                             Phase phase,
+                             String previousVersion,
+                             long previousMillis,
+                             String version,
+                             long millis) {
+
+        /**
+         * @return for example {@code enable time 120 ms -> 480 ms (1.2 -> 1.3)}
+         */
+        public String describe() {
+            return phase.name().toLowerCase(Locale.ROOT) + " time " + previousMillis + " ms -> " + millis + " ms ("
+                    + previousVersion + " -> " + version + ")";
+        }
+    }
+
+    /**
+     * Persistence of the measured timings.
+     */
+    public interface Store {
+        List<VersionTiming> load();
+
+        void save(List<VersionTiming> timings);
+    }
+}
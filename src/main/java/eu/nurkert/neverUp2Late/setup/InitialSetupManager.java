@@ -595,10 +595,6 @@ public class InitialSetupManager implements Listener {
     }
 
     private void persistConfiguration(CommandSender sender, List<SourceConfiguration> sources) {
-        for (SourceConfiguration source : sources) {
-            context.getConfiguration().set("filenames." + source.name, source.filename);
-        }
-
         List<Map<String, Object>> serializedSources = new ArrayList<>();
         for (SourceConfiguration source : sources) {
             Map<String, Object> data = new LinkedHashMap<>();
@@ -614,8 +610,13 @@ public class InitialSetupManager implements Listener {
             }
             serializedSources.add(data);
         }
-        context.getConfiguration().set("updates.sources", serializedSources);
-        plugin.saveConfig();
+        context.getConfigWriter().update(() -> {
+            for (SourceConfiguration source : sources) {
+                context.getConfiguration().set("filenames." + source.name, source.filename);
+            }
+            context.getConfiguration().set("updates.sources", serializedSources);
+            return true;
+        });
 
         if (pluginLifecycleManager != null && updateSettingsRepository != null) {
             for (SourceConfiguration source : sources) {
@@ -992,7 +993,7 @@ public class InitialSetupManager implements Listener {
         for (UpdateSource source : context.getUpdateSourceRegistry().getSources()) {
             SourceConfiguration configuration = new SourceConfiguration();
             configuration.name = source.getName();
-            configuration.type = source.getFetcher().getClass().getSimpleName();
+            configuration.type = source.getFetcherClass() != null ? source.getFetcherClass().getSimpleName() : null;
             configuration.target = source.getTargetDirectory();
             configuration.targetConfigValue = source.getTargetDirectory().name();
             configuration.filename = source.getFilename();
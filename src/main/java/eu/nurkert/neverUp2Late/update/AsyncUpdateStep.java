@@ -0,0 +1,69 @@
+package eu.nurkert.neverUp2Late.update;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Asynchronous counterpart of {@link UpdateStep}. The returned stage completes once the step has finished;
+ * failures complete it exceptionally. Implementations choose the executor for their work from the supplied
+ * {@link StageExecutors} and should observe {@link UpdateContext#getCancellation()}.
+ * <p>
+ * Existing synchronous steps are adapted with {@link #onIo(UpdateStep)} or {@link #onCpu(UpdateStep)}.
+ */
+@FunctionalInterface
+public interface AsyncUpdateStep {
+
+    CompletionStage<Void> executeAsync(UpdateContext context, StageExecutors executors);
+
+    /**
+     * Runs a synchronous step on the I/O executor.
+     */
+    static AsyncUpdateStep onIo(UpdateStep step) {
+        return adapt(step, StageExecutors::io);
+    }
+
+    /**
+     * Runs a synchronous step on the CPU executor.
+     */
+    static AsyncUpdateStep onCpu(UpdateStep step) {
+        return adapt(step, StageExecutors::cpu);
+    }
+
+    private static AsyncUpdateStep adapt(UpdateStep step, Function<StageExecutors, Executor> executor) {
+        Objects.requireNonNull(step, "step");
+        return new AsyncUpdateStep() {
+            @Override
+            public CompletionStage<Void> executeAsync(UpdateContext context, StageExecutors executors) {
+                return CompletableFuture.runAsync(() -> runInterruptibly(step, context), executor.apply(executors));
+            }
+
+            @Override
+            public String toString() {
+                return step.getClass().getSimpleName();
+            }
+        };
+    }
+
+    /**
+     * Runs the step on the current thread, interrupting it when the update is cancelled.
+     */
+    private static void runInterruptibly(UpdateStep step, UpdateContext context) {
+        CancellationToken cancellation = context.getCancellation();
+        Thread worker = Thread.currentThread();
+        try (CancellationToken.Registration ignored = cancellation.onCancel(worker::interrupt)) {
+            cancellation.throwIfCancelled();
+            step.execute(context);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            if (cancellation.isCancelled()) {
+                // Do not leave the interrupt flag set on a pooled thread
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package eu.nurkert.neverUp2Late.update;
+
+import eu.nurkert.neverUp2Late.handlers.ArtifactDownloader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletionStage;
+import java.util.logging.Level;
+
+/**
+ * Copies the artifact that is about to be replaced into the backups. The copy observes the update's
+ * {@link CancellationToken}; any other failure is only logged, so the update still goes ahead.
+ * <p>
+ * Run asynchronously, the copy is made on the I/O executor, so it can run as a branch next to the download.
+ */
+public class BackupUpdateStep implements UpdateStep, AsyncUpdateStep {
+
+    private final ArtifactDownloader artifactDownloader;
+
+    public BackupUpdateStep(ArtifactDownloader artifactDownloader) {
+        this.artifactDownloader = artifactDownloader;
+    }
+
+    @Override
+    public CompletionStage<Void> executeAsync(UpdateContext context, StageExecutors executors) {
+        return AsyncUpdateStep.onIo(this).executeAsync(context, executors);
+    }
+
+    @Override
+    public void execute(UpdateContext context) throws Exception {
+        String downloadUrl = context.getDownloadUrl();
+        if (context.isCancelled() || downloadUrl == null || downloadUrl.isBlank()) {
+            return;
+        }
+        Path targetPath = context.getDownloadDestination();
+        try {
+            artifactDownloader.backupExistingFileCopy(
+                    targetPath,
+                    context.getSource().getInstalledPluginName(),
+                    context.getSource().getName(),
+                    context.getCancellation());
+        } catch (UpdateAbortedException ex) {
+            throw ex;
+        } catch (IOException ex) {
+            context.log(Level.WARNING,
+                    "Download prepared but backup of previous artifact failed: {0}",
+                    ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package eu.nurkert.neverUp2Late.update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signals that a running update should be aborted, for example because the server shuts down or a step
+ * exceeded its deadline.
+ * <p>
+ * Work that blocks without observing thread interrupts (such as a socket read) registers a callback through
+ * {@link #onCancel(Runnable)} that aborts it, e.g. by closing the connection. Callbacks run exactly once,
+ * either on cancellation or immediately if the token is already cancelled.
+ */
+public class CancellationToken {
+
+    private final List<Runnable> callbacks = new ArrayList<>();
+    private String reason;
+
+    /**
+     * Cancels the token and runs all registered callbacks. Subsequent calls are ignored.
+     */
+    public void cancel(String reason) {
+        synchronized (this) {
+            if (this.reason != null) {
+                return;
+            }
+            this.reason = reason != null ? reason : "Update aborted";
+            // Callbacks run under the lock so a closed registration is guaranteed not to fire afterwards
+            for (Runnable callback : callbacks) {
+                runQuietly(callback);
+            }
+            callbacks.clear();
+            notifyAll();
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return reason != null;
+    }
+
+    public synchronized Optional<String> getReason() {
+        return Optional.ofNullable(reason);
+    }
+
+    /**
+     * @throws UpdateAbortedException if the token has been cancelled
+     */
+    public void throwIfCancelled() throws UpdateAbortedException {
+        String current = getReason().orElse(null);
+        if (current != null) {
+            throw new UpdateAbortedException(current);
+        }
+    }
+
+    /**
+     * Registers a callback that aborts blocking work once the token is cancelled.
+     *
+     * @return registration that removes the callback again when closed
+     */
+    public Registration onCancel(Runnable callback) {
+        synchronized (this) {
+            if (reason == null) {
+                callbacks.add(callback);
+                return () -> {
+                    synchronized (CancellationToken.this) {
+                        callbacks.remove(callback);
+                    }
+                };
+            }
+        }
+        runQuietly(callback);
+        return () -> {
+        };
+    }
+
+    /**
+     * Waits for the given time or until the token is cancelled, whichever comes first.
+     *
+     * @throws UpdateAbortedException if the token is cancelled before the time has passed
+     */
+    public void sleep(long millis) throws UpdateAbortedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        synchronized (this) {
+            while (reason == null) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0L) {
+                    return;
+                }
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UpdateAbortedException("Update interrupted");
+                }
+            }
+        }
+        throwIfCancelled();
+    }
+
+    private static void runQuietly(Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException ignored) {
+            // Aborting is best effort; the cancelled work notices the token on its own as well
+        }
+    }
+
+    @FunctionalInterface
+    public interface Registration extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
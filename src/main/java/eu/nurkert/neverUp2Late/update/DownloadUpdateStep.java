@@ -3,11 +3,10 @@ package eu.nurkert.neverUp2Late.update;
 import eu.nurkert.neverUp2Late.handlers.ArtifactDownloader;
 
 import java.io.IOException;
-import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.Locale;
+import java.util.concurrent.CompletionStage;
 import java.util.logging.Level;
 import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
@@ -15,13 +14,36 @@ import java.util.zip.ZipFile;
 /**
  * Downloads the latest artifact to the configured destination, using the
  * {@link ArtifactDownloader} for atomic writes and optional validation.
+ * <p>
+ * A step that only stages the artifact leaves the backup to a {@link BackupUpdateStep} running in parallel
+ * and the replacement to a following {@link ReplaceArtifactStep}:
+ *
+ * <pre>
+ * job.addParallel(new BackupUpdateStep(downloader), new DownloadUpdateStep(downloader, false))
+ *    .addStep(new ReplaceArtifactStep());
+ * </pre>
  */
-public class DownloadUpdateStep implements UpdateStep {
+public class DownloadUpdateStep implements UpdateStep, AsyncUpdateStep {
 
     private final ArtifactDownloader artifactDownloader;
+    private final boolean replaceDestination;
 
     public DownloadUpdateStep(ArtifactDownloader artifactDownloader) {
+        this(artifactDownloader, true);
+    }
+
+    /**
+     * @param replaceDestination {@code false} to only stage the downloaded artifact, see
+     *                           {@link UpdateContext#getStagedArtifact()}
+     */
+    public DownloadUpdateStep(ArtifactDownloader artifactDownloader, boolean replaceDestination) {
         this.artifactDownloader = artifactDownloader;
+        this.replaceDestination = replaceDestination;
+    }
+
+    @Override
+    public CompletionStage<Void> executeAsync(UpdateContext context, StageExecutors executors) {
+        return AsyncUpdateStep.onIo(this).executeAsync(context, executors);
     }
 
     @Override
@@ -47,7 +69,6 @@ public class DownloadUpdateStep implements UpdateStep {
         }
         Files.createDirectories(parent);
         Path staging = Files.createTempFile(parent, "nu2l-", "-" + safeFileName(targetPath));
-
         try {
             ArtifactDownloader.DownloadHook hook = context.getDownloadHook().orElse(null);
             ArtifactDownloader.DownloadHook mappedHook = hook == null ? null : new ArtifactDownloader.DownloadHook() {
@@ -69,7 +90,8 @@ public class DownloadUpdateStep implements UpdateStep {
 
             ArtifactDownloader.DownloadRequest.Builder builder = ArtifactDownloader.DownloadRequest.builder()
                     .url(downloadUrl)
-                    .destination(staging);
+                    .destination(staging)
+                    .cancellation(context.getCancellation());
 
             context.getChecksumValidator().ifPresent(builder::checksumValidator);
             if (mappedHook != null) {
@@ -84,24 +106,19 @@ public class DownloadUpdateStep implements UpdateStep {
 
             validateArchiveIfExpected(targetPath, result);
 
-            try {
-                artifactDownloader.backupExistingFileCopy(
-                        targetPath,
-                        context.getSource().getInstalledPluginName(),
-                        context.getSource().getName());
-            } catch (IOException ex) {
-                context.log(Level.WARNING,
-                        "Download prepared but backup of previous artifact failed: {0}",
-                        ex.getMessage());
+            context.setStagedArtifact(result);
+            if (replaceDestination) {
+                // The backup must hold the previous artifact before it is replaced
+                new BackupUpdateStep(artifactDownloader).execute(context);
+                new ReplaceArtifactStep().execute(context);
             }
-
-            moveReplacing(result, targetPath);
-            context.setDownloadedArtifact(targetPath);
-            context.setDownloadDestination(targetPath);
-        } catch (Exception ex) {
-            throw ex;
         } finally {
-            deleteIfTemporary(staging, parent);
+            if (!staging.equals(context.getStagedArtifact().orElse(null))) {
+                deleteIfTemporary(staging, parent);
+            }
+            if (replaceDestination) {
+                context.discardStagedArtifact();
+            }
         }
     }
 
@@ -134,14 +151,6 @@ public class DownloadUpdateStep implements UpdateStep {
         }
     }
 
-    private void moveReplacing(Path source, Path target) throws IOException {
-        try {
-            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-        } catch (AtomicMoveNotSupportedException ex) {
-            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
-        }
-    }
-
     private void deleteIfTemporary(Path path, Path expectedParent) {
         if (path == null || expectedParent == null) {
             return;
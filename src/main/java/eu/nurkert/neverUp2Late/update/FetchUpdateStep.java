@@ -1,7 +1,10 @@
 package eu.nurkert.neverUp2Late.update;
 
+import eu.nurkert.neverUp2Late.fetcher.FetchRequest;
+import eu.nurkert.neverUp2Late.fetcher.FetchResult;
 import eu.nurkert.neverUp2Late.fetcher.UpdateFetcher;
 import eu.nurkert.neverUp2Late.handlers.PersistentPluginHandler;
+import eu.nurkert.neverUp2Late.persistence.UpdateStateRepository.PluginState;
 
 import java.net.URI;
 import java.nio.file.Files;
@@ -10,37 +13,64 @@ import java.util.logging.Level;
 
 /**
  * Loads meta information for an update source and decides whether a download
- * should be executed.
+ * should be executed. Metadata loaded by a preceding dry-run check is reused
+ * when a {@link MetadataCache} is supplied. A release that was rolled back after it had been installed is
+ * not downloaded again.
  */
 public class FetchUpdateStep implements UpdateStep {
 
     private final PersistentPluginHandler persistentPluginHandler;
     private final VersionComparator versionComparator;
+    private final MetadataCache metadataCache;
 
     public FetchUpdateStep(PersistentPluginHandler persistentPluginHandler, VersionComparator versionComparator) {
+        this(persistentPluginHandler, versionComparator, null);
+    }
+
+    public FetchUpdateStep(PersistentPluginHandler persistentPluginHandler,
+                           VersionComparator versionComparator,
+                           MetadataCache metadataCache) {
         this.persistentPluginHandler = persistentPluginHandler;
         this.versionComparator = versionComparator;
+        this.metadataCache = metadataCache;
     }
 
     @Override
     public void execute(UpdateContext context) throws Exception {
         UpdateFetcher fetcher = context.getFetcher();
-        fetcher.loadLatestBuildInfo();
+        String name = context.getSource().getName();
+        FetchResult result = metadataCache != null ? metadataCache.consumeIfFresh(name).orElse(null) : null;
+        if (result != null) {
+            context.log(Level.FINE, "Reusing metadata of {0} from the preceding check", name);
+        } else {
+            result = fetcher.fetchLatest(new FetchRequest(name, context.getCancellation()));
+        }
 
-        context.setLatestBuild(fetcher.getLatestBuild());
-        context.setLatestVersion(fetcher.getLatestVersion());
-        context.setDownloadUrl(fetcher.getLatestDownloadUrl());
+        context.setFetchResult(result);
+        context.setLatestBuild(result.build());
+        context.setLatestVersion(result.version());
+        context.setDownloadUrl(result.downloadUrl());
         context.setRemoteFilename(extractFilename(context.getDownloadUrl()));
 
-        fetcher.configureContext(context);
+        result.configureContext(context);
 
         boolean updateRequired = isUpdateRequired(context, fetcher);
+        context.setUpdateAvailable(updateRequired);
         if (!updateRequired) {
             context.cancel("No new build available");
             context.log(Level.FINE, "No update required for {0}", context.getSource().getName());
             return;
         }
 
+        PluginState rolledBack = persistentPluginHandler.getRolledBackRelease(name).orElse(null);
+        if (rolledBack != null && isRolledBackRelease(rolledBack, context) && !isDestinationMissing(context)) {
+            context.setUpdateAvailable(false);
+            context.cancel("Release was rolled back");
+            context.log(Level.INFO, "Not installing {0} {1} again; it was rolled back after a performance regression",
+                    name, context.getLatestVersion());
+            return;
+        }
+
         if (context.getDownloadUrl() == null || context.getDownloadUrl().isBlank()) {
             context.cancel("Missing download URL");
             context.log(Level.WARNING, "No download URL available for {0}; skipping update.",
@@ -57,12 +87,12 @@ public class FetchUpdateStep implements UpdateStep {
         int storedBuild = persistentPluginHandler.getStoredBuild(key);
         String storedVersion = persistentPluginHandler.getStoredVersion(key);
 
-        if (storedBuild < fetcher.getLatestBuild()) {
+        if (storedBuild < context.getLatestBuild()) {
             return true;
         }
 
         String installedVersion = fetcher.getInstalledVersion();
-        String latestVersion = fetcher.getLatestVersion();
+        String latestVersion = context.getLatestVersion();
         if (installedVersion != null && latestVersion != null) {
             return versionComparator.compare(installedVersion, latestVersion) < 0;
         }
@@ -76,6 +106,22 @@ public class FetchUpdateStep implements UpdateStep {
         return storedBuild < 0; // Allow initial installation
     }
 
+    /**
+     * Matches the rolled back release against the latest one on every value both of them know.
+     */
+    private boolean isRolledBackRelease(PluginState rolledBack, UpdateContext context) {
+        String latestVersion = context.getLatestVersion();
+        boolean versionKnown = rolledBack.version() != null && latestVersion != null;
+        boolean buildKnown = rolledBack.build() >= 0 && context.getLatestBuild() >= 0;
+        if (versionKnown && !rolledBack.version().equalsIgnoreCase(latestVersion)) {
+            return false;
+        }
+        if (buildKnown && rolledBack.build() != context.getLatestBuild()) {
+            return false;
+        }
+        return versionKnown || buildKnown;
+    }
+
     private boolean isDestinationMissing(UpdateContext context) {
         Path destination = context.getDownloadDestination();
         if (destination == null) {
@@ -0,0 +1,73 @@
+package eu.nurkert.neverUp2Late.update;
+
+import eu.nurkert.neverUp2Late.fetcher.FetchResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the metadata a dry-run check fetched for an update source, so the next real run of the source
+ * can reuse it instead of asking the provider again.
+ * <p>
+ * Every entry is used at most once and only while it is younger than the configured maximum age. Results
+ * that are not {@link FetchResult#reusable() reusable} are not kept.
+ */
+public class MetadataCache {
+
+    private final Clock clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile Duration maxAge;
+
+    public MetadataCache(Clock clock, Duration maxAge) {
+        this.clock = Objects.requireNonNull(clock, "clock");
+        setMaxAge(maxAge);
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge == null || maxAge.isNegative() ? Duration.ZERO : maxAge;
+    }
+
+    /**
+     * Records the latest metadata that was just fetched for the source.
+     */
+    public void markLoaded(String sourceName, FetchResult result) {
+        if (sourceName == null) {
+            return;
+        }
+        if (result != null && result.reusable()) {
+            entries.put(sourceName, new Entry(result, clock.instant()));
+        } else {
+            entries.remove(sourceName);
+        }
+    }
+
+    /**
+     * Removes the entry of the source.
+     *
+     * @return the metadata of the source if it was fetched recently enough to be reused
+     */
+    public Optional<FetchResult> consumeIfFresh(String sourceName) {
+        if (sourceName == null) {
+            return Optional.empty();
+        }
+        Entry entry = entries.remove(sourceName);
+        if (entry == null || clock.instant().isAfter(entry.loadedAt().plus(maxAge))) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.result());
+    }
+
+    public void invalidate(String sourceName) {
+        if (sourceName != null) {
+            entries.remove(sourceName);
+        }
+    }
+
+    private record Entry(FetchResult result, Instant loadedAt) {
+    }
+}
@@ -0,0 +1,209 @@
+package eu.nurkert.neverUp2Late.update;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the server's performance after an update with a baseline recorded before it.
+ * <p>
+ * Samples are recorded continuously. When updates are completed, {@link #observe(List)} takes the average of
+ * the recent samples as baseline and opens an observation window. Once the window has passed, the samples
+ * taken after the warmup are averaged and compared with the baseline; a {@link Verdict} lists every metric
+ * that crossed its threshold. Open observations are stored, so an update completed by a restart is judged
+ * after the server is back up.
+ */
+public class PerformanceHealthCheck {
+
+    private static final int MAX_SAMPLES = 600;
+    // Increases below these amounts are noise, however large the factor
+    private static final double MIN_MSPT_INCREASE = 5d;
+    private static final long MIN_HEAP_INCREASE_BYTES = 64L * 1024L * 1024L;
+
+    private final Store store;
+    private final Clock clock;
+    private final Deque<PerformanceSample> samples = new ArrayDeque<>();
+    private final List<Observation> observations = new ArrayList<>();
+    private final Thresholds thresholds;
+
+    public PerformanceHealthCheck(Store store, Clock clock, Thresholds thresholds) {
+        this.store = Objects.requireNonNull(store, "store");
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.thresholds = Objects.requireNonNull(thresholds, "thresholds");
+        Instant now = clock.instant();
+        for (Observation observation : store.load()) {
+            // The window starts over once the server runs the new version
+            observations.add(new Observation(observation.sources(), observation.baseline(), now));
+        }
+    }
+
+    /**
+     * Opens an observation window for the given updates.
+     *
+     * @return {@code false} if no samples were recorded yet, so there is no baseline to compare with
+     */
+    public synchronized boolean observe(List<UpdatedSource> sources) {
+        if (sources.isEmpty() || samples.isEmpty()) {
+            return false;
+        }
+        Instant now = clock.instant();
+        Instant baselineStart = now.minus(thresholds.window());
+        List<PerformanceSample> recent = samples.stream()
+                .filter(sample -> !sample.time().isBefore(baselineStart))
+                .collect(Collectors.toList());
+        PerformanceSample baseline = PerformanceSample.average(recent.isEmpty() ? List.copyOf(samples) : recent);
+        observations.add(new Observation(List.copyOf(sources), baseline, now));
+        store.save(List.copyOf(observations));
+        return true;
+    }
+
+    /**
+     * Records a sample and judges the observations whose window has passed.
+     *
+     * @return the verdicts of the observations that ended with this sample
+     */
+    public synchronized List<Verdict> record(PerformanceSample sample) {
+        samples.addLast(sample);
+        while (samples.size() > MAX_SAMPLES) {
+            samples.removeFirst();
+        }
+        Instant now = clock.instant();
+        List<Verdict> verdicts = new ArrayList<>();
+        Iterator<Observation> iterator = observations.iterator();
+        while (iterator.hasNext()) {
+            Observation observation = iterator.next();
+            Instant measuredFrom = observation.startedAt().plus(thresholds.warmup());
+            if (now.isBefore(measuredFrom.plus(thresholds.window()))) {
+                continue;
+            }
+            iterator.remove();
+            List<PerformanceSample> observed = samples.stream()
+                    .filter(candidate -> !candidate.time().isBefore(measuredFrom))
+                    .collect(Collectors.toList());
+            if (!observed.isEmpty()) {
+                verdicts.add(judge(observation, PerformanceSample.average(observed), thresholds));
+            }
+        }
+        if (!verdicts.isEmpty()) {
+            store.save(List.copyOf(observations));
+        }
+        return verdicts;
+    }
+
+    public synchronized int openObservations() {
+        return observations.size();
+    }
+
+    private static Verdict judge(Observation observation, PerformanceSample observed, Thresholds thresholds) {
+        PerformanceSample baseline = observation.baseline();
+        List<String> violations = new ArrayList<>();
+        if (baseline.msPerTick() >= 0d && observed.msPerTick() >= 0d
+                && observed.msPerTick() - baseline.msPerTick() >= MIN_MSPT_INCREASE
+                && observed.msPerTick() >= baseline.msPerTick() * thresholds.msptFactor()) {
+            violations.add(String.format(Locale.ROOT, "MSPT %.1f -> %.1f", baseline.msPerTick(), observed.msPerTick()));
+        }
+        if (baseline.tps() - observed.tps() >= thresholds.tpsDrop()) {
+            violations.add(String.format(Locale.ROOT, "TPS %.1f -> %.1f", baseline.tps(), observed.tps()));
+        }
+        if (baseline.heapAfterGcBytes() > 0L
+                && observed.heapAfterGcBytes() - baseline.heapAfterGcBytes() >= MIN_HEAP_INCREASE_BYTES
+                && observed.heapAfterGcBytes() >= baseline.heapAfterGcBytes() * thresholds.heapFactor()) {
+            violations.add(String.format(Locale.ROOT, "heap after GC %d MB -> %d MB",
+                    baseline.heapAfterGcBytes() / (1024L * 1024L), observed.heapAfterGcBytes() / (1024L * 1024L)));
+        }
+        if (observed.threadCount() - baseline.threadCount() >= thresholds.threadIncrease()) {
+            violations.add("threads " + baseline.threadCount() + " -> " + observed.threadCount());
+        }
+        return new Verdict(observation, observed, violations);
+    }
+
+    /**
+     * @param warmup         time after the update that is not measured, so reloading itself does not count
+     * @param window         time that is measured after the warmup; the baseline spans the same time
+     * @param msptFactor     MSPT regressed if it grows by at least this factor
+     * @param tpsDrop        TPS regressed if it drops by at least this amount
+     * @param heapFactor     heap regressed if the heap used after garbage collection grows by at least this factor
+     * @param threadIncrease thread count regressed if at least this many threads were added
+     */
+    public record Thresholds(Duration warmup,
+                             Duration window,
+                             double msptFactor,
+                             double tpsDrop,
+                             double heapFactor,
+                             int threadIncrease) {
+
+        public Thresholds {
+            warmup = warmup == null || warmup.isNegative() ? Duration.ZERO : warmup;
+            window = window == null || window.isNegative() || window.isZero() ? Duration.ofMinutes(1) : window;
+        }
+    }
+
+    /**
+     * @param msPerTick        milliseconds spent per tick, {@code -1} if the server does not report it
+     * @param tps              ticks per second
+     * @param heapAfterGcBytes heap in use after the latest garbage collection, {@code -1} if unknown
+     */
+    public record PerformanceSample(Instant time, double msPerTick, double tps, long heapAfterGcBytes, int threadCount) {
+
+        static PerformanceSample average(List<PerformanceSample> samples) {
+            double mspt = samples.stream().filter(sample -> sample.msPerTick() >= 0d)
+                    .mapToDouble(PerformanceSample::msPerTick).average().orElse(-1d);
+            double tps = samples.stream().mapToDouble(PerformanceSample::tps).average().orElse(0d);
+            long heap = Math.round(samples.stream().filter(sample -> sample.heapAfterGcBytes() >= 0L)
+                    .mapToLong(PerformanceSample::heapAfterGcBytes).average().orElse(-1d));
+            int threads = (int) Math.round(samples.stream().mapToInt(PerformanceSample::threadCount).average().orElse(0d));
+            return new PerformanceSample(samples.get(samples.size() - 1).time(), mspt, tps, heap, threads);
+        }
+    }
+
+    /**
+     * An update source whose new build is being observed.
+     *
+     * @param installedPluginName name of the installed plugin, {@code null} if unknown
+     * @param plugin              {@code true} if the build was installed into the plugins folder
+     */
+    public record UpdatedSource(String name, String installedPluginName, Path destination, boolean plugin) {
+    }
+
+    public record Observation(List<UpdatedSource> sources, PerformanceSample baseline, Instant startedAt) {
+    }
+
+    /**
+     * @param violations descriptions of the metrics that crossed their threshold
+     */
+    public record Verdict(Observation observation, PerformanceSample observed, List<String> violations) {
+
+        public boolean regressed() {
+            return !violations.isEmpty();
+        }
+
+        public String sourceNames() {
+            return observation.sources().stream().map(UpdatedSource::name).collect(Collectors.joining(", "));
+        }
+
+        /**
+         * @return for example {@code MSPT 12.0 -> 31.5; threads 80 -> 140}
+         */
+        public String report() {
+            return String.join("; ", violations);
+        }
+    }
+
+    /**
+     * Persistence of open observations across restarts.
+     */
+    public interface Store {
+        List<Observation> load();
+
+        void save(List<Observation> observations);
+    }
+}
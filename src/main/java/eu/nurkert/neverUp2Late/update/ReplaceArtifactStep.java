@@ -0,0 +1,39 @@
+package eu.nurkert.neverUp2Late.update;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Moves the artifact staged by {@link DownloadUpdateStep} over the destination. It runs as a stage of its own
+ * after the download and the {@link BackupUpdateStep backup}, so the previous artifact is never replaced
+ * before its backup is complete.
+ */
+public class ReplaceArtifactStep implements UpdateStep {
+
+    @Override
+    public void execute(UpdateContext context) throws IOException {
+        if (context.isCancelled()) {
+            return;
+        }
+        Path staged = context.getStagedArtifact().orElse(null);
+        if (staged == null) {
+            return;
+        }
+        Path targetPath = context.getDownloadDestination();
+        moveReplacing(staged, targetPath);
+        context.setStagedArtifact(null);
+        context.setDownloadedArtifact(targetPath);
+        context.setDownloadDestination(targetPath);
+    }
+
+    static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
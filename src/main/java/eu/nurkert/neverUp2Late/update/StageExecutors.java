@@ -0,0 +1,53 @@
+package eu.nurkert.neverUp2Late.update;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors used by {@link AsyncUpdateStep AsyncUpdateSteps}: one for blocking I/O such as downloads and file
+ * copies, one for CPU bound work such as hashing and archive validation.
+ *
+ * @param io  executor for blocking I/O
+ * @param cpu executor for CPU bound work
+ */
+public record StageExecutors(Executor io, Executor cpu) {
+
+    private static final StageExecutors SHARED = new StageExecutors(
+            Executors.newCachedThreadPool(daemonThreads("NeverUp2Late-IO")),
+            Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                    daemonThreads("NeverUp2Late-CPU")));
+
+    private static final StageExecutors DIRECT = new StageExecutors(Runnable::run, Runnable::run);
+
+    public StageExecutors {
+        Objects.requireNonNull(io, "io");
+        Objects.requireNonNull(cpu, "cpu");
+    }
+
+    /**
+     * @return daemon thread pools shared by all update jobs
+     */
+    public static StageExecutors shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return executors that run every task on the calling thread, so asynchronous steps behave like
+     * synchronous ones
+     */
+    public static StageExecutors direct() {
+        return DIRECT;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
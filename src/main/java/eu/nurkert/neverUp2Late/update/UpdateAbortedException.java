@@ -0,0 +1,14 @@
+package eu.nurkert.neverUp2Late.update;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Exception thrown when an update is aborted through its {@link CancellationToken}, either because the
+ * server shuts down or because a deadline of the update was exceeded.
+ */
+public class UpdateAbortedException extends InterruptedIOException {
+
+    public UpdateAbortedException(String reason) {
+        super(reason);
+    }
+}
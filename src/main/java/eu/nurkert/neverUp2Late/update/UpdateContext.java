@@ -2,8 +2,11 @@ package eu.nurkert.neverUp2Late.update;
 
 import eu.nurkert.neverUp2Late.handlers.ArtifactDownloader;
 import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.UpdateSource;
+import eu.nurkert.neverUp2Late.fetcher.FetchResult;
 import eu.nurkert.neverUp2Late.fetcher.UpdateFetcher;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
 import java.util.Optional;
@@ -20,13 +23,17 @@ public class UpdateContext {
     private final UpdateSource source;
     private final Path destination;
     private final Logger logger;
+    private final CancellationToken cancellation = new CancellationToken();
 
     private boolean cancelled;
     private String cancelReason;
+    private boolean updateAvailable;
+    private FetchResult fetchResult;
     private String downloadUrl;
     private int latestBuild;
     private String latestVersion;
     private Path downloadedArtifact;
+    private Path stagedArtifact;
     private ArtifactDownloader.ChecksumValidator checksumValidator;
     private ArtifactDownloader.DownloadHook downloadHook;
     private DownloadProcessor downloadProcessor;
@@ -70,6 +77,36 @@ public class UpdateContext {
         return Optional.ofNullable(cancelReason);
     }
 
+    /**
+     * Token that aborts the update while it is running. Unlike {@link #cancel(String)}, which lets a step end
+     * the pipeline regularly, an aborted update fails with an {@link UpdateAbortedException}.
+     */
+    public CancellationToken getCancellation() {
+        return cancellation;
+    }
+
+    /**
+     * @return {@code true} if the fetch step found a release newer than the installed one
+     */
+    public boolean isUpdateAvailable() {
+        return updateAvailable;
+    }
+
+    public void setUpdateAvailable(boolean updateAvailable) {
+        this.updateAvailable = updateAvailable;
+    }
+
+    /**
+     * @return the metadata the fetch step used, empty before it ran
+     */
+    public Optional<FetchResult> getFetchResult() {
+        return Optional.ofNullable(fetchResult);
+    }
+
+    public void setFetchResult(FetchResult fetchResult) {
+        this.fetchResult = fetchResult;
+    }
+
     public String getDownloadUrl() {
         return downloadUrl;
     }
@@ -102,6 +139,34 @@ public class UpdateContext {
         this.downloadedArtifact = downloadedArtifact;
     }
 
+    /**
+     * @return the downloaded artifact that waits to replace the destination, empty once it was moved there
+     */
+    public Optional<Path> getStagedArtifact() {
+        return Optional.ofNullable(stagedArtifact);
+    }
+
+    public void setStagedArtifact(Path stagedArtifact) {
+        this.stagedArtifact = stagedArtifact;
+    }
+
+    /**
+     * Deletes a staged artifact that did not replace the destination, for example because the update was
+     * aborted before.
+     */
+    public void discardStagedArtifact() {
+        Path staged = stagedArtifact;
+        stagedArtifact = null;
+        if (staged == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(staged);
+        } catch (IOException ex) {
+            logger.log(Level.FINE, "Could not delete staged artifact {0}: {1}", new Object[]{staged, ex.getMessage()});
+        }
+    }
+
     public Optional<ArtifactDownloader.ChecksumValidator> getChecksumValidator() {
         return Optional.ofNullable(checksumValidator);
     }
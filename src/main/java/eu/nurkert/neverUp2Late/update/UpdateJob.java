@@ -1,32 +1,220 @@
 package eu.nurkert.neverUp2Late.update;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
- * Represents a composed update workflow consisting of ordered
- * {@link UpdateStep UpdateSteps}.
+ * Represents a composed update workflow consisting of ordered stages.
+ * <p>
+ * A stage is either a synchronous {@link UpdateStep} that runs on the calling
+ * thread, or a group of {@link AsyncUpdateStep AsyncUpdateSteps} that run as
+ * parallel branches on the job's {@link StageExecutors}. The next stage starts
+ * once every branch of the previous one has completed.
+ * <p>
+ * Every stage can be bounded by a step deadline and the whole job by a job
+ * deadline. When a deadline passes, or the context's {@link CancellationToken}
+ * is cancelled from elsewhere, the running stage is interrupted and the job
+ * fails with an {@link UpdateAbortedException}.
  */
 public class UpdateJob {
 
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "NeverUp2Late-UpdateWatchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final List<UpdateStep> steps = new ArrayList<>();
+    private final List<Stage> stages = new ArrayList<>();
+    private StageExecutors executors = StageExecutors.shared();
+    private Duration stepTimeout;
+    private Duration jobTimeout;
 
     public UpdateJob addStep(UpdateStep step) {
+        Objects.requireNonNull(step, "step");
         steps.add(step);
+        stages.add(new Stage(step, List.of()));
+        return this;
+    }
+
+    /**
+     * Adds a stage that runs the given steps in parallel.
+     */
+    public UpdateJob addParallel(AsyncUpdateStep... branches) {
+        if (branches == null || branches.length == 0) {
+            throw new IllegalArgumentException("A parallel stage needs at least one branch");
+        }
+        stages.add(new Stage(null, List.of(branches)));
         return this;
     }
 
+    /**
+     * Adds a stage consisting of a single asynchronous step.
+     */
+    public UpdateJob addAsyncStep(AsyncUpdateStep step) {
+        return addParallel(Objects.requireNonNull(step, "step"));
+    }
+
+    /**
+     * @return the synchronous steps added through {@link #addStep(UpdateStep)}
+     */
     public List<UpdateStep> getSteps() {
         return Collections.unmodifiableList(steps);
     }
 
+    /**
+     * @param executors executors handed to asynchronous steps, {@link StageExecutors#shared()} by default
+     */
+    public UpdateJob executors(StageExecutors executors) {
+        this.executors = Objects.requireNonNull(executors, "executors");
+        return this;
+    }
+
+    /**
+     * @param stepTimeout longest time a single stage may take, {@code null} for no limit
+     */
+    public UpdateJob stepTimeout(Duration stepTimeout) {
+        this.stepTimeout = positiveOrNull(stepTimeout);
+        return this;
+    }
+
+    /**
+     * @param jobTimeout longest time all stages together may take, {@code null} for no limit
+     */
+    public UpdateJob jobTimeout(Duration jobTimeout) {
+        this.jobTimeout = positiveOrNull(jobTimeout);
+        return this;
+    }
+
     public void run(UpdateContext context) throws Exception {
-        for (UpdateStep step : steps) {
+        CancellationToken cancellation = context.getCancellation();
+        long jobDeadline = jobTimeout != null ? System.nanoTime() + jobTimeout.toNanos() : 0L;
+        for (Stage stage : stages) {
             if (context.isCancelled()) {
                 break;
             }
-            step.execute(context);
+            cancellation.throwIfCancelled();
+            long remainingJob = jobTimeout != null ? jobDeadline - System.nanoTime() : Long.MAX_VALUE;
+            if (remainingJob <= 0L) {
+                cancellation.cancel("Update exceeded its deadline of " + jobTimeout.toSeconds() + " seconds");
+                cancellation.throwIfCancelled();
+            }
+            runStage(stage, context, remainingJob);
+        }
+    }
+
+    private void runStage(Stage stage, UpdateContext context, long remainingJobNanos) throws Exception {
+        CancellationToken cancellation = context.getCancellation();
+        long stepNanos = stepTimeout != null ? stepTimeout.toNanos() : Long.MAX_VALUE;
+        long budget = Math.min(stepNanos, remainingJobNanos);
+        ScheduledFuture<?> watchdog = null;
+        if (budget != Long.MAX_VALUE) {
+            String reason = budget == stepNanos
+                    ? stage.name() + " exceeded its deadline of " + stepTimeout.toSeconds() + " seconds"
+                    : "Update exceeded its deadline of " + jobTimeout.toSeconds() + " seconds";
+            watchdog = WATCHDOG.schedule(() -> cancellation.cancel(reason), budget, TimeUnit.NANOSECONDS);
+        }
+
+        Thread worker = Thread.currentThread();
+        try (CancellationToken.Registration ignored = cancellation.onCancel(worker::interrupt)) {
+            if (stage.step() != null) {
+                stage.step().execute(context);
+            } else {
+                awaitBranches(stage, context);
+            }
+        } catch (Exception e) {
+            if (cancellation.isCancelled()) {
+                UpdateAbortedException aborted = new UpdateAbortedException(cancellation.getReason().orElse(null));
+                aborted.initCause(e);
+                throw aborted;
+            }
+            throw e;
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            if (cancellation.isCancelled()) {
+                // Do not leave the interrupt flag set on a pooled worker thread
+                Thread.interrupted();
+            }
+        }
+        cancellation.throwIfCancelled();
+    }
+
+    private void awaitBranches(Stage stage, UpdateContext context) throws Exception {
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        for (AsyncUpdateStep branch : stage.branches()) {
+            CompletableFuture<Void> future;
+            try {
+                future = branch.executeAsync(context, executors).toCompletableFuture();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            running.add(future);
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(running.toArray(CompletableFuture[]::new));
+        try {
+            // Waits for every branch, so no branch is still writing when the next stage starts
+            all.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            // Branches stop through the token; until they have, the caller must not release the destination
+            context.getCancellation().cancel("Update interrupted");
+            awaitUninterruptibly(all);
+            throw e;
+        }
+    }
+
+    private static void awaitUninterruptibly(CompletableFuture<Void> branches) {
+        try {
+            branches.join();
+        } catch (CompletionException | CancellationException ignored) {
+            // The stage is aborted; how its branches ended does not matter anymore
+        }
+    }
+
+    private static Exception unwrap(Throwable failure) {
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof Exception exception) {
+            return exception;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new ExecutionException(cause);
+    }
+
+    private static Duration positiveOrNull(Duration duration) {
+        return duration == null || duration.isNegative() || duration.isZero() ? null : duration;
+    }
+
+    private record Stage(UpdateStep step, List<AsyncUpdateStep> branches) {
+
+        String name() {
+            if (step != null) {
+                return step.getClass().getSimpleName();
+            }
+            return branches.stream()
+                    .map(branch -> branch.getClass().isAnonymousClass()
+                            ? branch.toString()
+                            : branch.getClass().getSimpleName())
+                    .collect(Collectors.joining(" + "));
         }
     }
 }
@@ -0,0 +1,288 @@
+package eu.nurkert.neverUp2Late.update;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps an individual polling schedule for every update source.
+ * <p>
+ * The polling interval of a source adapts to its observed release cadence: whenever a new release is seen,
+ * the interval is derived from the average time between releases; while nothing changes, the interval grows
+ * step by step. Intervals always stay within the configured bounds. Next-due times are persisted through a
+ * {@link Store}, so a server restart only checks the sources that are actually due.
+ * <p>
+ * To keep many servers from polling the same providers at the same moment, every due time is shifted by a
+ * deterministic jitter derived from the server identity and the source name, and sources that became due
+ * while the server was offline are spread over a short window instead of being checked in one burst.
+ */
+public class UpdateSchedule {
+
+    private final Store store;
+    private final Clock clock;
+    private volatile Settings settings;
+    private final Map<String, SourceSchedule> schedules = new ConcurrentHashMap<>();
+    private volatile String serverIdentity = "";
+    private volatile boolean dirty;
+
+    public UpdateSchedule(Store store, Settings settings, Clock clock) {
+        this.store = Objects.requireNonNull(store, "store");
+        this.settings = Objects.requireNonNull(settings, "settings");
+        this.clock = Objects.requireNonNull(clock, "clock");
+        schedules.putAll(store.load());
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public void setSettings(Settings settings) {
+        this.settings = Objects.requireNonNull(settings, "settings");
+    }
+
+    /**
+     * Sets the identity the per-source jitter is derived from. Servers with different identities spread their
+     * checks differently, while every server keeps the same spread across restarts.
+     */
+    public void setServerIdentity(String serverIdentity) {
+        this.serverIdentity = serverIdentity != null ? serverIdentity : "";
+    }
+
+    /**
+     * @return {@code true} if the source has never been checked or its next-due time has passed
+     */
+    public boolean isDue(String sourceName) {
+        SourceSchedule schedule = schedules.get(sourceName);
+        return schedule == null || !clock.instant().isBefore(Instant.ofEpochMilli(schedule.nextDueAt()));
+    }
+
+    public Optional<Instant> getNextDue(String sourceName) {
+        SourceSchedule schedule = schedules.get(sourceName);
+        return schedule == null ? Optional.empty() : Optional.of(Instant.ofEpochMilli(schedule.nextDueAt()));
+    }
+
+    public Optional<SourceSchedule> getSchedule(String sourceName) {
+        return Optional.ofNullable(schedules.get(sourceName));
+    }
+
+    /**
+     * Records a successful check of the source and schedules the next one.
+     *
+     * @param releaseMarker identifier of the latest release reported by the provider (e.g. build and version)
+     */
+    public void recordCheck(String sourceName, String releaseMarker) {
+        if (sourceName == null) {
+            return;
+        }
+        Instant now = clock.instant();
+        double phase = phase(serverIdentity, sourceName);
+        schedules.compute(sourceName, (name, previous) -> advance(previous, releaseMarker, now, settings, phase));
+        dirty = true;
+    }
+
+    /**
+     * Spreads sources that are overdue or have never been checked across the given window, so a restart does
+     * not check all of them at once. Each source keeps a deterministic position within the window.
+     */
+    public void spreadOverdue(Collection<String> sourceNames, Duration window) {
+        if (sourceNames == null || window == null || window.isNegative() || window.isZero()) {
+            return;
+        }
+        Instant now = clock.instant();
+        for (String sourceName : sourceNames) {
+            if (sourceName == null || !isDue(sourceName)) {
+                continue;
+            }
+            long offset = Math.round(window.toMillis() * phase(serverIdentity, sourceName));
+            postpone(sourceName, now.plusMillis(offset));
+        }
+    }
+
+    /**
+     * Orders the given sources by how long they have been due; sources without a schedule come first.
+     */
+    public Comparator<String> dueOrder() {
+        return Comparator.comparingLong(name -> {
+            SourceSchedule schedule = schedules.get(name);
+            return schedule == null ? Long.MIN_VALUE : schedule.nextDueAt();
+        });
+    }
+
+    /**
+     * Moves the next check of the source to the given time without adapting its interval, for example after
+     * a failed check.
+     */
+    public void postpone(String sourceName, Instant until) {
+        if (sourceName == null || until == null) {
+            return;
+        }
+        long dueAt = until.toEpochMilli();
+        schedules.compute(sourceName, (name, previous) -> previous == null
+                ? new SourceSchedule(dueAt, settings.minInterval().toMillis(), null, 0L, 0L)
+                : new SourceSchedule(dueAt, previous.intervalMillis(), previous.releaseMarker(),
+                        previous.lastReleaseAt(), previous.averageReleaseGapMillis()));
+        dirty = true;
+    }
+
+    /**
+     * Postpones the source by the minimum interval.
+     */
+    public void postpone(String sourceName) {
+        postpone(sourceName, clock.instant().plus(settings.minInterval()));
+    }
+
+    /**
+     * Removes the schedules of sources that no longer exist.
+     */
+    public void retain(Collection<String> sourceNames) {
+        Set<String> known = new HashSet<>(sourceNames);
+        if (schedules.keySet().removeIf(name -> !known.contains(name))) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Persists the schedules if they changed since the last save.
+     */
+    public void saveIfDirty() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        store.save(new HashMap<>(schedules));
+    }
+
+    static SourceSchedule advance(SourceSchedule previous,
+                                  String releaseMarker,
+                                  Instant now,
+                                  Settings settings,
+                                  double phase) {
+        long nowMillis = now.toEpochMilli();
+        long minMillis = settings.minInterval().toMillis();
+        long maxMillis = settings.maxInterval().toMillis();
+
+        if (previous == null) {
+            return new SourceSchedule(nowMillis + clamp(jittered(minMillis, settings, phase), minMillis, maxMillis),
+                    minMillis, releaseMarker, 0L, 0L);
+        }
+
+        boolean releaseObserved = releaseMarker != null
+                && previous.releaseMarker() != null
+                && !releaseMarker.equals(previous.releaseMarker());
+        long interval;
+        long lastReleaseAt = previous.lastReleaseAt();
+        long averageGap = previous.averageReleaseGapMillis();
+        if (releaseObserved) {
+            if (lastReleaseAt > 0L && nowMillis > lastReleaseAt) {
+                long gap = nowMillis - lastReleaseAt;
+                averageGap = averageGap > 0L
+                        ? Math.round(averageGap * (1d - settings.smoothing()) + gap * settings.smoothing())
+                        : gap;
+            }
+            lastReleaseAt = nowMillis;
+            interval = averageGap > 0L
+                    ? Math.round(averageGap * settings.cadenceFraction())
+                    : minMillis;
+        } else {
+            interval = Math.round(previous.intervalMillis() * settings.backoffFactor());
+        }
+        interval = clamp(interval, minMillis, maxMillis);
+        String marker = releaseMarker != null ? releaseMarker : previous.releaseMarker();
+        // The jitter only spreads checks within the configured bounds
+        long delay = clamp(jittered(interval, settings, phase), minMillis, maxMillis);
+        return new SourceSchedule(nowMillis + delay, interval, marker, lastReleaseAt, averageGap);
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Stretches or shrinks the interval by up to half the jitter fraction; a phase of {@code 0.5} keeps it as is.
+     */
+    private static long jittered(long interval, Settings settings, double phase) {
+        return Math.round(interval * (1d + settings.jitter() * (phase - 0.5d)));
+    }
+
+    /**
+     * Maps server identity and source name to a stable value in {@code [0, 1)}.
+     */
+    static double phase(String serverIdentity, String sourceName) {
+        // 64-bit FNV-1a followed by a SplitMix64 finaliser for a well distributed result
+        long hash = 0xcbf29ce484222325L;
+        String key = serverIdentity + '\n' + sourceName;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 30;
+        hash *= 0xbf58476d1ce4e5b9L;
+        hash ^= hash >>> 27;
+        hash *= 0x94d049bb133111ebL;
+        hash ^= hash >>> 31;
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Polling state of a single source. All times are epoch milliseconds.
+     *
+     * @param nextDueAt               time of the next check
+     * @param intervalMillis          current polling interval
+     * @param releaseMarker           latest release seen, used to detect new releases
+     * @param lastReleaseAt           time a new release was last observed, {@code 0} if unknown
+     * @param averageReleaseGapMillis smoothed time between observed releases, {@code 0} if unknown
+     */
+    public record SourceSchedule(long nextDueAt,
+                                 long intervalMillis,
+                                 String releaseMarker,
+                                 long lastReleaseAt,
+                                 long averageReleaseGapMillis) {
+    }
+
+    /**
+     * @param minInterval     shortest polling interval
+     * @param maxInterval     longest polling interval
+     * @param cadenceFraction fraction of the average release gap used as interval after a release
+     * @param backoffFactor   factor the interval grows by after every check without a new release
+     * @param smoothing       weight ({@code 0..1}) of the latest release gap in the average
+     * @param jitter          width of the deterministic jitter as fraction of the interval ({@code 0..1})
+     */
+    public record Settings(Duration minInterval,
+                           Duration maxInterval,
+                           double cadenceFraction,
+                           double backoffFactor,
+                           double smoothing,
+                           double jitter) {
+
+        public Settings {
+            Objects.requireNonNull(minInterval, "minInterval");
+            Objects.requireNonNull(maxInterval, "maxInterval");
+            if (maxInterval.compareTo(minInterval) < 0) {
+                maxInterval = minInterval;
+            }
+            cadenceFraction = cadenceFraction > 0d ? cadenceFraction : 0.25d;
+            backoffFactor = Math.max(1d, backoffFactor);
+            smoothing = smoothing > 0d && smoothing <= 1d ? smoothing : 0.3d;
+            jitter = Math.min(1d, Math.max(0d, jitter));
+        }
+    }
+
+    /**
+     * Persistence of the schedules.
+     */
+    public interface Store {
+
+        Map<String, SourceSchedule> load();
+
+        void save(Map<String, SourceSchedule> schedules);
+    }
+}
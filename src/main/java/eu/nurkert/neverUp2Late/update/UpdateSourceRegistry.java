@@ -1,55 +1,153 @@
 package eu.nurkert.neverUp2Late.update;
 
+import eu.nurkert.neverUp2Late.fetcher.FetcherFactory;
+import eu.nurkert.neverUp2Late.fetcher.FetcherFactory.FetcherType;
 import eu.nurkert.neverUp2Late.fetcher.UpdateFetcher;
+import eu.nurkert.neverUp2Late.persistence.ConfigWriter;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.MemoryConfiguration;
 import org.bukkit.configuration.file.FileConfiguration;
 
-import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 /**
  * Registry that creates {@link UpdateFetcher} instances from configuration entries.
+ * <p>
+ * Every source remembers a fingerprint of its fetcher type and options. {@link #reload()} only creates
+ * fetchers for sources whose fingerprint changed, so unchanged fetchers keep their state, and reports the
+ * difference to the registered {@link SourceChangeListener}s.
+ * <p>
+ * Fetchers are created through the {@link FetcherFactory} when a source is first checked, not when it is
+ * loaded.
+ * <p>
+ * The configuration is read and changed under the lock of the {@link ConfigWriter}, which is always taken
+ * before the registry's own lock, and changes are saved through it.
  */
 public class UpdateSourceRegistry {
 
-    private static final String DEFAULT_FETCHER_PACKAGE = "eu.nurkert.neverUp2Late.fetcher";
     private static final String OPTION_IGNORE_UNSTABLE_DEFAULT = "_ignoreUnstableDefault";
 
     private final Logger logger;
     private final FileConfiguration configuration;
+    private final ConfigWriter configWriter;
     private final boolean ignoreUnstableGlobal;
-    private final CopyOnWriteArrayList<UpdateSource> sources = new CopyOnWriteArrayList<>();
-
+    private final FetcherFactory fetcherFactory = FetcherFactory.shared();
+    private final List<SourceChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Replaced as a whole on every change, so readers iterate a consistent list without locking
+    private volatile List<UpdateSource> sources = List.of();
+    // Fingerprint of the fetcher of each source, keyed by the lower-case source name
+    private final Map<String, String> fingerprints = new HashMap<>();
+
+    /**
+     * Creates a registry that changes {@code configuration} without saving it.
+     */
     public UpdateSourceRegistry(Logger logger, FileConfiguration configuration) {
+        this(logger, configuration, null);
+    }
+
+    public UpdateSourceRegistry(Logger logger, FileConfiguration configuration, ConfigWriter configWriter) {
         this.logger = logger;
         this.configuration = configuration;
+        this.configWriter = configWriter;
         this.ignoreUnstableGlobal = configuration.getBoolean(
                 "updates.ignoreUnstable",
                 configuration.getBoolean("ignoreUnstable", true)
         );
 
-        loadSources();
+        reload();
     }
 
     public List<UpdateSource> getSources() {
-        return Collections.unmodifiableList(sources);
+        return sources;
     }
 
-    public synchronized void reload() {
-        sources.clear();
-        loadSources();
+    public void addListener(SourceChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Applies {@code updates.sources} to the registry. Sources whose fetcher type and options are unchanged
+     * keep their fetcher instance, even if their target or filename changed.
+     *
+     * @return the sources that were added, removed or modified
+     */
+    public List<SourceChange> reload() {
+        AtomicReference<List<SourceChange>> changes = new AtomicReference<>(List.of());
+        withConfiguration(() -> {
+            changes.set(applyDefinitions());
+            return false;
+        });
+        return changes.get();
+    }
+
+    private synchronized List<SourceChange> applyDefinitions() {
+        Map<String, UpdateSource> previous = new LinkedHashMap<>();
+        for (UpdateSource source : sources) {
+            previous.putIfAbsent(key(source.getName()), source);
+        }
+        Map<String, String> previousFingerprints = new HashMap<>(fingerprints);
+        fingerprints.clear();
+
+        List<UpdateSource> next = new ArrayList<>();
+        List<SourceChange> changes = new ArrayList<>();
+        for (SourceDefinition definition : readDefinitions()) {
+            String key = key(definition.name());
+            UpdateSource existing = previous.remove(key);
+            String fingerprint = fingerprint(definition.type(), definition.options());
+            UpdateSource source;
+            if (existing != null && fingerprint.equals(previousFingerprints.get(key))) {
+                source = new UpdateSource(definition.name(), existing.fetcher, definition.targetDirectory(),
+                        definition.filename(), extractInstalledPluginName(definition.options()));
+                if (sameDefinition(existing, source)) {
+                    source = existing;
+                }
+            } else {
+                try {
+                    FetcherHolder fetcher = lazyFetcher(definition.type(), definition.options());
+                    source = new UpdateSource(definition.name(), fetcher, definition.targetDirectory(),
+                            definition.filename(), extractInstalledPluginName(definition.options()));
+                } catch (Exception e) {
+                    logger.log(Level.WARNING,
+                            "Unable to create update fetcher for source {0}: {1}",
+                            new Object[]{definition.name(), e.getMessage()});
+                    logger.log(Level.FINE, "Fetcher creation failed", e);
+                    if (existing != null) {
+                        changes.add(new SourceChange(SourceChange.Type.REMOVED, existing, null));
+                    }
+                    continue;
+                }
+            }
+            fingerprints.put(key, fingerprint);
+            next.add(source);
+            if (existing == null) {
+                changes.add(new SourceChange(SourceChange.Type.ADDED, null, source));
+            } else if (source != existing) {
+                changes.add(new SourceChange(SourceChange.Type.MODIFIED, existing, source));
+            }
+        }
+        for (UpdateSource removed : previous.values()) {
+            changes.add(new SourceChange(SourceChange.Type.REMOVED, removed, null));
+        }
+
+        sources = List.copyOf(next);
+        notifyListeners(changes);
+        return changes;
     }
 
     public Optional<UpdateSource> findSource(String name) {
@@ -70,30 +168,61 @@ public class UpdateSourceRegistry {
         if (name == null || name.isBlank()) {
             return false;
         }
-        boolean removed = sources.removeIf(source -> source.getName().equalsIgnoreCase(name.trim()));
-        if (removed) {
-            removeSourceFromConfiguration(name.trim());
+        AtomicBoolean removed = new AtomicBoolean();
+        withConfiguration(() -> {
+            removed.set(removeSource(name));
+            return removed.get();
+        });
+        return removed.get();
+    }
+
+    private synchronized boolean removeSource(String name) {
+        List<UpdateSource> next = new ArrayList<>(sources);
+        List<SourceChange> changes = new ArrayList<>();
+        for (UpdateSource source : sources) {
+            if (source.getName().equalsIgnoreCase(name.trim())) {
+                next.remove(source);
+                changes.add(new SourceChange(SourceChange.Type.REMOVED, source, null));
+            }
         }
-        return removed;
+        if (changes.isEmpty()) {
+            return false;
+        }
+        sources = List.copyOf(next);
+        fingerprints.remove(key(name));
+        removeSourceFromConfiguration(name.trim());
+        notifyListeners(changes);
+        return true;
     }
 
     public boolean updateSourceFilename(String name, String newFilename) {
         if (name == null || name.isBlank() || newFilename == null || newFilename.isBlank()) {
             return false;
         }
-        String trimmedName = name.trim();
-        String filename = newFilename.trim();
-        for (int i = 0; i < sources.size(); i++) {
-            UpdateSource source = sources.get(i);
+        AtomicBoolean updated = new AtomicBoolean();
+        withConfiguration(() -> {
+            updated.set(replaceFilename(name.trim(), newFilename.trim()));
+            return updated.get();
+        });
+        return updated.get();
+    }
+
+    private synchronized boolean replaceFilename(String trimmedName, String filename) {
+        List<UpdateSource> current = sources;
+        for (int i = 0; i < current.size(); i++) {
+            UpdateSource source = current.get(i);
             if (source.getName().equalsIgnoreCase(trimmedName)) {
                 UpdateSource replacement = new UpdateSource(
                         source.getName(),
-                        source.getFetcher(),
+                        source.fetcher,
                         source.getTargetDirectory(),
                         filename,
                         source.getInstalledPluginName());
-                sources.set(i, replacement);
+                List<UpdateSource> next = new ArrayList<>(current);
+                next.set(i, replacement);
+                sources = List.copyOf(next);
                 updateSourceFilenameInConfiguration(trimmedName, filename);
+                notifyListeners(List.of(new SourceChange(SourceChange.Type.MODIFIED, source, replacement)));
                 return true;
             }
         }
@@ -105,20 +234,24 @@ public class UpdateSourceRegistry {
         return instantiateFetcher(type, section);
     }
 
-    public UpdateSource registerDynamicSource(String name,
-                                              String type,
-                                              TargetDirectory targetDirectory,
-                                              String filename,
-                                              Map<String, Object> options) throws Exception {
+    public synchronized UpdateSource registerDynamicSource(String name,
+                                                           String type,
+                                                           TargetDirectory targetDirectory,
+                                                           String filename,
+                                                           Map<String, Object> options) throws Exception {
         ConfigurationSection optionsSection = prepareOptionsSection(createOptionsSection(options));
         UpdateFetcher fetcher = instantiateFetcher(type, optionsSection);
         String installedPlugin = extractInstalledPluginName(optionsSection);
         UpdateSource source = new UpdateSource(name, fetcher, targetDirectory, filename, installedPlugin);
-        sources.add(source);
+        List<UpdateSource> next = new ArrayList<>(sources);
+        next.add(source);
+        sources = List.copyOf(next);
+        fingerprints.put(key(name), fingerprint(type, optionsSection));
+        notifyListeners(List.of(new SourceChange(SourceChange.Type.ADDED, null, source)));
         return source;
     }
 
-    private void loadSources() {
+    private List<SourceDefinition> readDefinitions() {
         List<Map<?, ?>> configuredSources = configuration.getMapList("updates.sources");
         ConfigurationSection sourcesSection = configuration.getConfigurationSection("updates.sources");
 
@@ -151,6 +284,7 @@ public class UpdateSourceRegistry {
             configuredSources = createLegacyDefaults();
         }
 
+        List<SourceDefinition> definitions = new ArrayList<>();
         for (Map<?, ?> entry : configuredSources) {
             if (entry == null) {
                 continue;
@@ -184,18 +318,59 @@ public class UpdateSourceRegistry {
 
             TargetDirectory targetDirectory = parseTargetDirectory(asString(entry.get("target")), name);
             ConfigurationSection optionsSection = prepareOptionsSection(createOptionsSection(entry.get("options")));
+            definitions.add(new SourceDefinition(name, type, targetDirectory, filename, optionsSection));
+        }
+        return definitions;
+    }
 
+    /**
+     * Runs {@code access} under the lock of the {@link ConfigWriter} and saves the configuration if it reports a
+     * change.
+     */
+    private void withConfiguration(BooleanSupplier access) {
+        if (configWriter != null) {
+            configWriter.update(access);
+        } else {
+            access.getAsBoolean();
+        }
+    }
+
+    private void notifyListeners(List<SourceChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (SourceChangeListener listener : listeners) {
             try {
-                UpdateFetcher fetcher = instantiateFetcher(type, optionsSection);
-                String installedPlugin = extractInstalledPluginName(optionsSection);
-                sources.add(new UpdateSource(name, fetcher, targetDirectory, filename, installedPlugin));
-            } catch (Exception e) {
-                logger.log(Level.WARNING,
-                        "Unable to create update fetcher for source {0}: {1}",
-                        new Object[]{name, e.getMessage()});
-                logger.log(Level.FINE, "Fetcher creation failed", e);
+                listener.onSourcesChanged(changes);
+            } catch (RuntimeException ex) {
+                logger.log(Level.WARNING, "Update source listener failed", ex);
+            }
+        }
+    }
+
+    private static boolean sameDefinition(UpdateSource a, UpdateSource b) {
+        return a.getName().equals(b.getName())
+                && a.getTargetDirectory() == b.getTargetDirectory()
+                && Objects.equals(a.getFilename(), b.getFilename())
+                && Objects.equals(a.getInstalledPluginName(), b.getInstalledPluginName());
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Fetchers are created from their type and options only, so two sources with the same fingerprint
+     * get equivalent fetchers.
+     */
+    private static String fingerprint(String type, ConfigurationSection options) {
+        Map<String, Object> values = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : options.getValues(true).entrySet()) {
+            if (!(entry.getValue() instanceof ConfigurationSection)) {
+                values.put(entry.getKey(), entry.getValue());
             }
         }
+        return type.trim() + values;
     }
 
     private boolean parseEnabled(Object value) {
@@ -296,122 +471,17 @@ public class UpdateSourceRegistry {
     }
 
     private UpdateFetcher instantiateFetcher(String type, ConfigurationSection optionsSection) throws Exception {
-        String className = resolveClassName(type);
-        Class<?> rawClass = Class.forName(className);
-
-        if (!UpdateFetcher.class.isAssignableFrom(rawClass)) {
-            throw new IllegalArgumentException(className + " does not implement UpdateFetcher");
-        }
-
-        @SuppressWarnings("unchecked")
-        Class<? extends UpdateFetcher> fetcherClass = (Class<? extends UpdateFetcher>) rawClass;
-
-        UpdateFetcher fetcher = tryInstantiateWithConfiguration(fetcherClass, optionsSection);
-        if (fetcher != null) {
-            return fetcher;
-        }
-
-        fetcher = tryInstantiateWithBoolean(fetcherClass);
-        if (fetcher != null) {
-            return fetcher;
-        }
-
-        Constructor<? extends UpdateFetcher> constructor = fetcherClass.getDeclaredConstructor();
-        constructor.setAccessible(true);
-        return constructor.newInstance();
-    }
-
-    private UpdateFetcher tryInstantiateWithConfiguration(Class<? extends UpdateFetcher> fetcherClass,
-                                                          ConfigurationSection optionsSection) {
-        List<Constructor<?>> constructors = Arrays.asList(fetcherClass.getDeclaredConstructors());
-
-        for (Constructor<?> constructor : constructors) {
-            Class<?>[] parameterTypes = constructor.getParameterTypes();
-            if (parameterTypes.length == 1 && ConfigurationSection.class.isAssignableFrom(parameterTypes[0])) {
-                try {
-                    constructor.setAccessible(true);
-                    ConfigurationSection sectionToUse = optionsSection != null
-                            ? optionsSection
-                            : new MemoryConfiguration();
-                    return (UpdateFetcher) constructor.newInstance(sectionToUse);
-                } catch (ReflectiveOperationException e) {
-                    logger.log(Level.FINE,
-                            "Failed to instantiate {0} with ConfigurationSection constructor",
-                            fetcherClass.getName());
-                }
-            } else if (parameterTypes.length == 1 && FileConfiguration.class.isAssignableFrom(parameterTypes[0])) {
-                try {
-                    constructor.setAccessible(true);
-                    return (UpdateFetcher) constructor.newInstance(configuration);
-                } catch (ReflectiveOperationException e) {
-                    logger.log(Level.FINE,
-                            "Failed to instantiate {0} with FileConfiguration constructor",
-                            fetcherClass.getName());
-                }
-            }
-        }
-
-        return null;
-    }
-
-    private UpdateFetcher tryInstantiateWithBoolean(Class<? extends UpdateFetcher> fetcherClass) {
-        try {
-            Constructor<? extends UpdateFetcher> constructor = fetcherClass.getDeclaredConstructor(boolean.class);
-            constructor.setAccessible(true);
-            return constructor.newInstance(ignoreUnstableGlobal);
-        } catch (NoSuchMethodException ignored) {
-            // No boolean constructor available
-        } catch (ReflectiveOperationException e) {
-            logger.log(Level.FINE,
-                    "Failed to instantiate {0} with boolean constructor",
-                    fetcherClass.getName());
-        }
-
-        try {
-            Constructor<? extends UpdateFetcher> constructor = fetcherClass.getDeclaredConstructor(Boolean.class);
-            constructor.setAccessible(true);
-            return constructor.newInstance(ignoreUnstableGlobal);
-        } catch (NoSuchMethodException ignored) {
-            // No Boolean constructor available
-        } catch (ReflectiveOperationException e) {
-            logger.log(Level.FINE,
-                    "Failed to instantiate {0} with Boolean constructor",
-                    fetcherClass.getName());
-        }
-
-        return null;
+        return fetcherFactory.resolve(type).create(optionsSection, configuration, ignoreUnstableGlobal);
     }
 
-    private String resolveClassName(String type) {
-        String trimmed = type.trim();
-        if (trimmed.contains(".")) {
-            return trimmed;
-        }
-
-        if (Character.isUpperCase(trimmed.charAt(0))) {
-            return DEFAULT_FETCHER_PACKAGE + "." + trimmed;
-        }
-
-        String pascalCase = toPascalCase(trimmed);
-        if (!pascalCase.endsWith("Fetcher")) {
-            pascalCase = pascalCase + "Fetcher";
-        }
-        return DEFAULT_FETCHER_PACKAGE + "." + pascalCase;
-    }
-
-    private String toPascalCase(String value) {
-        String[] parts = value.split("[^a-zA-Z0-9]+");
-        StringBuilder builder = new StringBuilder();
-        for (String part : parts) {
-            if (part.isEmpty()) {
-                continue;
-            }
-            builder.append(Character.toUpperCase(part.charAt(0)));
-            if (part.length() > 1) {
-                builder.append(part.substring(1));
-            }
-        }
-        return builder.toString();
+    /**
+     * Resolves the fetcher type now, so unknown types are reported while loading, but creates the fetcher
+     * only when the source is first checked.
+     */
+    private FetcherHolder lazyFetcher(String type, ConfigurationSection optionsSection) throws ReflectiveOperationException {
+        FetcherType fetcherType = fetcherFactory.resolve(type);
+        return new FetcherHolder(fetcherType.fetcherClass(),
+                () -> fetcherType.create(optionsSection, configuration, ignoreUnstableGlobal));
     }
 
     private void removeSourceFromConfiguration(String name) {
@@ -481,9 +551,47 @@ public class UpdateSourceRegistry {
         PLUGINS
     }
 
+    private record SourceDefinition(String name,
+                                    String type,
+                                    TargetDirectory targetDirectory,
+                                    String filename,
+                                    ConfigurationSection options) {
+    }
+
+    /**
+     * A source that was added to, removed from or replaced in the registry.
+     *
+     * @param previous the source before the change, {@code null} if it was added
+     * @param current  the source after the change, {@code null} if it was removed
+     */
+    public record SourceChange(Type type, UpdateSource previous, UpdateSource current) {
+
+        public String name() {
+            return current != null ? current.getName() : previous.getName();
+        }
+
+        /**
+         * @return {@code true} if the source got a new fetcher instance
+         */
+        public boolean fetcherReplaced() {
+            return previous == null || current == null || previous.fetcher != current.fetcher;
+        }
+
+        public enum Type {
+            ADDED,
+            REMOVED,
+            MODIFIED
+        }
+    }
+
+    @FunctionalInterface
+    public interface SourceChangeListener {
+        void onSourcesChanged(List<SourceChange> changes);
+    }
+
     public static class UpdateSource {
         private final String name;
-        private final UpdateFetcher fetcher;
+        private final FetcherHolder fetcher;
         private final TargetDirectory targetDirectory;
         private final String filename;
         private final String installedPluginName;
@@ -493,6 +601,14 @@ public class UpdateSourceRegistry {
                             TargetDirectory targetDirectory,
                             String filename,
                             String installedPluginName) {
+            this(name, new FetcherHolder(fetcher), targetDirectory, filename, installedPluginName);
+        }
+
+        private UpdateSource(String name,
+                             FetcherHolder fetcher,
+                             TargetDirectory targetDirectory,
+                             String filename,
+                             String installedPluginName) {
             this.name = name;
             this.fetcher = fetcher;
             this.targetDirectory = targetDirectory;
@@ -504,8 +620,19 @@ public class UpdateSourceRegistry {
             return name;
         }
 
+        /**
+         * @return the fetcher of this source, created on first access
+         * @throws IllegalStateException if the fetcher cannot be created from the source's options
+         */
         public UpdateFetcher getFetcher() {
-            return fetcher;
+            return fetcher.get();
+        }
+
+        /**
+         * @return the class of the fetcher without creating it, {@code null} if the source has no fetcher
+         */
+        public Class<? extends UpdateFetcher> getFetcherClass() {
+            return fetcher.fetcherClass;
         }
 
         public TargetDirectory getTargetDirectory() {
@@ -520,4 +647,42 @@ public class UpdateSourceRegistry {
             return installedPluginName;
         }
     }
+
+    /**
+     * Creates the fetcher of a source once and shares it with the sources that replace it.
+     */
+    private static final class FetcherHolder {
+        private final Class<? extends UpdateFetcher> fetcherClass;
+        private final Callable<UpdateFetcher> factory;
+        private volatile UpdateFetcher fetcher;
+
+        private FetcherHolder(UpdateFetcher fetcher) {
+            this.fetcherClass = fetcher != null ? fetcher.getClass() : null;
+            this.factory = null;
+            this.fetcher = fetcher;
+        }
+
+        private FetcherHolder(Class<? extends UpdateFetcher> fetcherClass, Callable<UpdateFetcher> factory) {
+            this.fetcherClass = fetcherClass;
+            this.factory = factory;
+        }
+
+        private UpdateFetcher get() {
+            UpdateFetcher current = fetcher;
+            if (current != null || factory == null) {
+                return current;
+            }
+            synchronized (this) {
+                if (fetcher == null) {
+                    try {
+                        fetcher = factory.call();
+                    } catch (Exception ex) {
+                        throw new IllegalStateException("Unable to create " + fetcherClass.getSimpleName() + ": "
+                                + ex.getMessage(), ex);
+                    }
+                }
+                return fetcher;
+            }
+        }
+    }
 }
@@ -0,0 +1,117 @@
+package eu.nurkert.neverUp2Late.update;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.BinaryOperator;
+
+/**
+ * Queue of pending update runs ordered by {@link Priority} and, within a priority, by submission order.
+ * <p>
+ * Runs are identified by a key (the source name). Submitting a key that is already queued does not add a
+ * second run; the queued run is merged with the new request instead and keeps the higher of both priorities,
+ * so a manual request for a source that is waiting for a routine check moves it to the front.
+ *
+ * @param <T> payload describing the run
+ */
+public class UpdateWorkQueue<T> {
+
+    private static final Comparator<Task<?>> ORDER = Comparator
+            .comparing((Task<?> task) -> task.priority())
+            .thenComparingLong(Task::sequence);
+
+    private final PriorityQueue<Task<T>> queue = new PriorityQueue<>(ORDER);
+    private final Map<String, Task<T>> pending = new HashMap<>();
+    private long nextSequence;
+
+    /**
+     * Queues a run or merges it into the queued run with the same key.
+     *
+     * @param merge combines the payload of the queued run with the new payload
+     * @return {@code true} if a new run was queued, {@code false} if it was merged into a queued one
+     */
+    public synchronized boolean submit(String key, Priority priority, T payload, BinaryOperator<T> merge) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(priority, "priority");
+        Task<T> existing = pending.get(key);
+        if (existing == null) {
+            Task<T> task = new Task<>(key, priority, payload, nextSequence++);
+            pending.put(key, task);
+            queue.add(task);
+            return true;
+        }
+        queue.remove(existing);
+        Priority merged = priority.compareTo(existing.priority()) < 0 ? priority : existing.priority();
+        T mergedPayload = merge != null ? merge.apply(existing.payload(), payload) : existing.payload();
+        // The merged run keeps its place among runs of the same priority
+        Task<T> task = new Task<>(key, merged, mergedPayload, existing.sequence());
+        pending.put(key, task);
+        queue.add(task);
+        return false;
+    }
+
+    /**
+     * Removes the next run.
+     *
+     * @param includeRoutine whether {@link Priority#ROUTINE} runs may be returned
+     */
+    public synchronized Optional<Task<T>> poll(boolean includeRoutine) {
+        Task<T> next = queue.peek();
+        if (next == null || (!includeRoutine && next.priority() == Priority.ROUTINE)) {
+            return Optional.empty();
+        }
+        queue.poll();
+        pending.remove(next.key());
+        return Optional.of(next);
+    }
+
+    /**
+     * @param includeRoutine whether {@link Priority#ROUTINE} runs may be returned
+     * @return {@code true} if {@link #poll(boolean)} would return a run
+     */
+    public synchronized boolean hasPollable(boolean includeRoutine) {
+        Task<T> next = queue.peek();
+        return next != null && (includeRoutine || next.priority() != Priority.ROUTINE);
+    }
+
+    public synchronized boolean contains(String key) {
+        return pending.containsKey(key);
+    }
+
+    public synchronized boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    public synchronized void clear() {
+        queue.clear();
+        pending.clear();
+    }
+
+    /**
+     * Precedence of a run; earlier constants are handled first.
+     */
+    public enum Priority {
+        /**
+         * Runs requested by a player, an administrator or the setup wizard.
+         */
+        MANUAL,
+        /**
+         * Routine checks of the server jar and of NeverUp2Late itself.
+         */
+        ESSENTIAL,
+        /**
+         * Routine checks of all other sources.
+         */
+        ROUTINE
+    }
+
+    public record Task<T>(String key, Priority priority, T payload, long sequence) {
+    }
+}
@@ -0,0 +1,237 @@
+package eu.nurkert.neverUp2Late.update.suggestion;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Resolves update source candidates for many plugins at once.
+ * <p>
+ * Lookups run on a small dedicated pool so several plugins are resolved concurrently, while a shared
+ * pacing gate spaces out lookup starts to stay within the request budgets of the search providers.
+ * Every plugin receives the best scoring suggestion together with a confidence value between {@code 0}
+ * and {@code 1}.
+ */
+public class BulkLinkResolver {
+
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+    private final PluginLinkSuggester suggester;
+    private final Logger logger;
+    private final int concurrency;
+    private final long minimumSpacingMillis;
+    private final Object pacingLock = new Object();
+    private long nextLookupAt;
+
+    /**
+     * @param concurrency      maximum number of plugins resolved at the same time
+     * @param lookupsPerSecond maximum number of plugin lookups started per second, {@code 0} for no limit
+     */
+    public BulkLinkResolver(PluginLinkSuggester suggester, Logger logger, int concurrency, double lookupsPerSecond) {
+        this.suggester = Objects.requireNonNull(suggester, "suggester");
+        this.logger = Objects.requireNonNull(logger, "logger");
+        this.concurrency = Math.max(1, concurrency);
+        this.minimumSpacingMillis = lookupsPerSecond > 0 ? Math.round(1000d / lookupsPerSecond) : 0L;
+    }
+
+    /**
+     * Resolves candidates for all requests in the background.
+     *
+     * @return future completing with one proposal per request, highest confidence first
+     */
+    public CompletableFuture<List<BulkLinkProposal>> resolve(Collection<Request> requests) {
+        List<Request> pending = requests == null ? List.of() : List.copyOf(requests);
+        if (pending.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, pending.size()),
+                threadFactory(POOL_COUNTER.incrementAndGet()));
+        List<CompletableFuture<BulkLinkProposal>> futures = new ArrayList<>(pending.size());
+        for (Request request : pending) {
+            futures.add(CompletableFuture.supplyAsync(() -> resolveSingle(request), executor));
+        }
+        executor.shutdown();
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> futures.stream()
+                        .map(CompletableFuture::join)
+                        .sorted(Comparator.comparingDouble(BulkLinkProposal::confidence).reversed()
+                                .thenComparing(BulkLinkProposal::pluginName, String.CASE_INSENSITIVE_ORDER))
+                        .toList());
+    }
+
+    private BulkLinkProposal resolveSingle(Request request) {
+        try {
+            awaitLookupSlot();
+            List<PluginLinkSuggestion> suggestions = suggester.suggest(request.searchTerms());
+            PluginLinkSuggestion best = null;
+            double bestConfidence = 0d;
+            for (PluginLinkSuggestion suggestion : suggestions) {
+                double confidence = confidence(request.pluginName(), suggestion);
+                if (best == null || confidence > bestConfidence) {
+                    best = suggestion;
+                    bestConfidence = confidence;
+                }
+            }
+            return new BulkLinkProposal(request.pluginName(), best, bestConfidence, suggestions.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new BulkLinkProposal(request.pluginName(), null, 0d, 0);
+        } catch (RuntimeException e) {
+            logger.log(Level.FINE, "Failed to resolve link candidates for " + request.pluginName(), e);
+            return new BulkLinkProposal(request.pluginName(), null, 0d, 0);
+        }
+    }
+
+    private void awaitLookupSlot() throws InterruptedException {
+        if (minimumSpacingMillis <= 0) {
+            return;
+        }
+        long waitMillis;
+        synchronized (pacingLock) {
+            long now = System.currentTimeMillis();
+            long slot = Math.max(now, nextLookupAt);
+            nextLookupAt = slot + minimumSpacingMillis;
+            waitMillis = slot - now;
+        }
+        if (waitMillis > 0) {
+            TimeUnit.MILLISECONDS.sleep(waitMillis);
+        }
+    }
+
+    /**
+     * Estimates how likely the suggestion refers to the given plugin by comparing the plugin name with the
+     * suggestion title and the last path segment of its URL.
+     */
+    static double confidence(String pluginName, PluginLinkSuggestion suggestion) {
+        if (suggestion == null) {
+            return 0d;
+        }
+        String name = ProjectCatalogue.normalize(pluginName);
+        if (name.isEmpty()) {
+            return 0d;
+        }
+        double best = 0d;
+        for (String candidate : List.of(ProjectCatalogue.normalize(suggestion.title()),
+                ProjectCatalogue.normalize(urlSlug(suggestion.url())))) {
+            best = Math.max(best, similarity(name, candidate));
+        }
+        return best;
+    }
+
+    private static double similarity(String name, String candidate) {
+        if (candidate.isEmpty()) {
+            return 0d;
+        }
+        if (candidate.equals(name)) {
+            return 1d;
+        }
+        if (candidate.startsWith(name) || name.startsWith(candidate)) {
+            return 0.85d;
+        }
+        if (candidate.contains(name) || name.contains(candidate)) {
+            return 0.7d;
+        }
+        Set<String> left = bigrams(name);
+        Set<String> right = bigrams(candidate);
+        if (left.isEmpty() || right.isEmpty()) {
+            return 0d;
+        }
+        int shared = 0;
+        for (String bigram : left) {
+            if (right.contains(bigram)) {
+                shared++;
+            }
+        }
+        double dice = (2d * shared) / (left.size() + right.size());
+        return dice * 0.8d;
+    }
+
+    private static Set<String> bigrams(String value) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + 2 <= value.length(); i++) {
+            result.add(value.substring(i, i + 2));
+        }
+        return result;
+    }
+
+    private static String urlSlug(String url) {
+        if (url == null || url.isBlank()) {
+            return "";
+        }
+        try {
+            String path = URI.create(url.trim()).getPath();
+            if (path == null) {
+                return "";
+            }
+            String[] segments = path.split("/");
+            for (int i = segments.length - 1; i >= 0; i--) {
+                String segment = segments[i];
+                if (segment.isBlank()) {
+                    continue;
+                }
+                // SpigotMC resource URLs end with "<name>.<id>"
+                int dot = segment.lastIndexOf('.');
+                if (dot > 0 && segment.substring(dot + 1).chars().allMatch(Character::isDigit)) {
+                    segment = segment.substring(0, dot);
+                }
+                return segment.toLowerCase(Locale.ROOT);
+            }
+            return "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    private static ThreadFactory threadFactory(int poolId) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "nu2l-link-all-" + poolId + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Plugin that should be linked together with the terms used to search for it.
+     */
+    public record Request(String pluginName, List<String> searchTerms) {
+
+        public Request {
+            Objects.requireNonNull(pluginName, "pluginName");
+            searchTerms = searchTerms == null ? List.of() : List.copyOf(searchTerms);
+        }
+    }
+
+    /**
+     * Best candidate found for a plugin.
+     *
+     * @param suggestion     best scoring suggestion or {@code null} if nothing was found
+     * @param confidence     similarity between plugin and suggestion in the range {@code 0..1}
+     * @param candidateCount number of suggestions considered
+     */
+    public record BulkLinkProposal(String pluginName,
+                                   PluginLinkSuggestion suggestion,
+                                   double confidence,
+                                   int candidateCount) {
+
+        public boolean hasSuggestion() {
+            return suggestion != null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package eu.nurkert.neverUp2Late.update.suggestion;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Compact description of a project hosted on one of the supported platforms as stored in the
+ * {@link ProjectCatalogue}.
+ *
+ * @param provider    display name of the hosting platform (e.g. {@code Modrinth})
+ * @param key         provider scoped identifier that uniquely identifies the project
+ * @param slug        URL slug or short name of the project
+ * @param title       human readable project title
+ * @param author      project author or owner, may be {@code null}
+ * @param description short summary, may be {@code null}
+ * @param downloads   total download count reported by the provider
+ * @param platforms   supported server platforms, may be empty
+ * @param url         project page URL
+ * @param updatedAt   epoch milliseconds of the last provider side update or {@code 0} if unknown
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CatalogueEntry(String provider,
+                             String key,
+                             String slug,
+                             String title,
+                             String author,
+                             String description,
+                             long downloads,
+                             List<String> platforms,
+                             String url,
+                             long updatedAt) {
+
+    public CatalogueEntry {
+        Objects.requireNonNull(provider, "provider");
+        Objects.requireNonNull(key, "key");
+        platforms = platforms == null ? List.of() : List.copyOf(platforms);
+    }
+
+    /**
+     * @return the title if present, otherwise the slug
+     */
+    public String displayName() {
+        if (title != null && !title.isBlank()) {
+            return title;
+        }
+        return slug != null ? slug : key;
+    }
+
+    public PluginLinkSuggestion toSuggestion() {
+        List<String> highlights = new ArrayList<>();
+        if (author != null && !author.isBlank()) {
+            highlights.add("Author: " + author);
+        }
+        if (downloads > 0) {
+            highlights.add("Downloads: " + NumberFormat.getInstance(Locale.GERMAN).format(downloads));
+        }
+        if (!platforms.isEmpty()) {
+            highlights.add("Plattformen: " + String.join(", ", platforms));
+        }
+        if (updatedAt > 0) {
+            highlights.add("Aktualisiert: "
+                    + Instant.ofEpochMilli(updatedAt).atZone(ZoneId.systemDefault()).toLocalDate());
+        }
+        String summary = (description == null || description.isBlank()) ? null : description;
+        return new PluginLinkSuggestion(provider, displayName(), url, summary, List.copyOf(highlights));
+    }
+}
@@ -0,0 +1,159 @@
+package eu.nurkert.neverUp2Late.update.suggestion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.nurkert.neverUp2Late.net.HttpClient;
+import eu.nurkert.neverUp2Late.net.JsonSupport;
+import eu.nurkert.neverUp2Late.update.suggestion.PluginLinkSuggester.HangarProject;
+import eu.nurkert.neverUp2Late.update.suggestion.PluginLinkSuggester.HangarSearchResponse;
+import eu.nurkert.neverUp2Late.update.suggestion.PluginLinkSuggester.ModrinthProject;
+import eu.nurkert.neverUp2Late.update.suggestion.PluginLinkSuggester.ModrinthSearchResponse;
+import eu.nurkert.neverUp2Late.update.suggestion.PluginLinkSuggester.SpigotResource;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Incrementally copies project listings from Modrinth, Hangar and Spiget into a {@link ProjectCatalogue}.
+ * <p>
+ * Every run fetches a bounded number of pages per provider, ordered by downloads, and remembers the
+ * position in the catalogue so the next run continues where the previous one stopped. Once a provider's
+ * listing has been walked completely, the cursor wraps around and popular projects are refreshed first.
+ */
+public class CatalogueSynchronizer {
+
+    static final String MODRINTH = "modrinth";
+    static final String HANGAR = "hangar";
+    static final String SPIGOT = "spigot";
+
+    static final int MODRINTH_PAGE_SIZE = 100;
+    static final int HANGAR_PAGE_SIZE = 25;
+    static final int SPIGOT_PAGE_SIZE = 100;
+
+    private static final String MODRINTH_LIST_TEMPLATE =
+            "https://api.modrinth.com/v2/search?limit=" + MODRINTH_PAGE_SIZE + "&offset=%d&index=downloads&facets=%s";
+    private static final String MODRINTH_PLUGIN_FACETS = "[[\"project_type:plugin\"]]";
+    private static final String HANGAR_LIST_TEMPLATE =
+            "https://hangar.papermc.io/api/v1/projects?limit=" + HANGAR_PAGE_SIZE + "&offset=%d&sort=-downloads";
+    private static final String SPIGOT_LIST_TEMPLATE =
+            "https://api.spiget.org/v2/resources?size=" + SPIGOT_PAGE_SIZE + "&page=%d&sort=-downloads";
+
+    private final HttpClient httpClient;
+    private final JsonSupport json;
+    private final ProjectCatalogue catalogue;
+    private final Logger logger;
+    private final int pagesPerRun;
+
+    public CatalogueSynchronizer(ProjectCatalogue catalogue, int pagesPerRun, Logger logger) {
+        this(new HttpClient(), null, catalogue, pagesPerRun, logger);
+    }
+
+    public CatalogueSynchronizer(HttpClient httpClient,
+                                 ObjectMapper objectMapper,
+                                 ProjectCatalogue catalogue,
+                                 int pagesPerRun,
+                                 Logger logger) {
+        this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
+        this.json = JsonSupport.forMapper(objectMapper);
+        this.catalogue = Objects.requireNonNull(catalogue, "catalogue");
+        this.logger = Objects.requireNonNull(logger, "logger");
+        this.pagesPerRun = Math.max(1, pagesPerRun);
+    }
+
+    /**
+     * Fetches the next pages of every provider and persists the catalogue afterwards. Provider failures are
+     * logged and leave that provider's cursor untouched.
+     */
+    public void synchronize() {
+        int before = catalogue.size();
+        syncProvider(MODRINTH, this::fetchModrinthPage);
+        syncProvider(HANGAR, this::fetchHangarPage);
+        syncProvider(SPIGOT, this::fetchSpigotPage);
+        catalogue.saveIfDirty();
+        logger.log(Level.FINE, "Project catalogue synchronised ({0} → {1} entries)",
+                new Object[]{before, catalogue.size()});
+    }
+
+    private void syncProvider(String provider, PageFetcher fetcher) {
+        int page = catalogue.getCursor(provider).map(CatalogueSynchronizer::parseCursor).orElse(0);
+        for (int i = 0; i < pagesPerRun; i++) {
+            Page result;
+            try {
+                result = fetcher.fetch(page);
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Failed to synchronise " + provider + " catalogue page " + page, e);
+                return;
+            }
+            catalogue.upsert(result.entries());
+            if (result.last()) {
+                catalogue.setCursor(provider, "0");
+                return;
+            }
+            page++;
+            catalogue.setCursor(provider, Integer.toString(page));
+        }
+    }
+
+    private Page fetchModrinthPage(int page) throws IOException {
+        String facets = URLEncoder.encode(MODRINTH_PLUGIN_FACETS, StandardCharsets.UTF_8);
+        String url = MODRINTH_LIST_TEMPLATE.formatted(page * MODRINTH_PAGE_SIZE, facets);
+        ModrinthSearchResponse response = json.reader(ModrinthSearchResponse.class).readValue(httpClient.get(url));
+        List<ModrinthProject> hits = response.hits() == null ? List.of() : response.hits();
+        List<CatalogueEntry> entries = new ArrayList<>(hits.size());
+        for (ModrinthProject hit : hits) {
+            if (hit != null && hit.slug() != null) {
+                entries.add(hit.toCatalogueEntry());
+            }
+        }
+        return new Page(entries, hits.size() < MODRINTH_PAGE_SIZE);
+    }
+
+    private Page fetchHangarPage(int page) throws IOException {
+        String url = HANGAR_LIST_TEMPLATE.formatted(page * HANGAR_PAGE_SIZE);
+        HangarSearchResponse response = json.reader(HangarSearchResponse.class).readValue(httpClient.get(url));
+        List<HangarProject> projects = response.result() == null ? List.of() : response.result();
+        List<CatalogueEntry> entries = new ArrayList<>(projects.size());
+        for (HangarProject project : projects) {
+            if (project != null && project.isPublic() && project.namespace() != null
+                    && project.namespace().slug() != null) {
+                entries.add(project.toCatalogueEntry());
+            }
+        }
+        return new Page(entries, projects.size() < HANGAR_PAGE_SIZE);
+    }
+
+    private Page fetchSpigotPage(int page) throws IOException {
+        // Spiget pages are 1-based
+        String url = SPIGOT_LIST_TEMPLATE.formatted(page + 1);
+        SpigotResource[] resources = json.reader(SpigotResource[].class).readValue(httpClient.get(url));
+        int count = resources == null ? 0 : resources.length;
+        List<CatalogueEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (resources[i] != null && resources[i].id() != null) {
+                entries.add(resources[i].toCatalogueEntry());
+            }
+        }
+        return new Page(entries, count < SPIGOT_PAGE_SIZE);
+    }
+
+    private static int parseCursor(String cursor) {
+        try {
+            return Math.max(0, Integer.parseInt(cursor.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageFetcher {
+        Page fetch(int page) throws IOException;
+    }
+
+    private record Page(List<CatalogueEntry> entries, boolean last) {
+    }
+}
@@ -2,9 +2,9 @@ package eu.nurkert.neverUp2Late.update.suggestion;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import eu.nurkert.neverUp2Late.net.HttpClient;
+import eu.nurkert.neverUp2Late.net.JsonSupport;
 
 import java.io.IOException;
 import java.net.URLEncoder;
@@ -21,11 +21,17 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Queries known plugin hosting platforms for potential update sources.
+ * <p>
+ * When a {@link ProjectCatalogue} is attached, suggestions are answered from the local index whenever it
+ * knows matching projects; the remote search APIs are then only queried in the background to refresh the
+ * catalogue. Remote results are always written back into the catalogue.
  */
 public class PluginLinkSuggester {
 
@@ -36,19 +42,47 @@ public class PluginLinkSuggester {
     private static final String SPIGOT_SEARCH_TEMPLATE =
             "https://api.spiget.org/v2/search/resources/%s?size=5";
     private static final int MAX_RESULTS_PER_PROVIDER = 5;
+    private static final int MAX_LOCAL_RESULTS = MAX_RESULTS_PER_PROVIDER * 3;
+    private static final Set<String> SERVER_PLATFORMS = Set.of(
+            "bukkit", "spigot", "paper", "purpur", "folia", "sponge", "bungeecord", "waterfall", "velocity");
 
     private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
+    private final JsonSupport json;
     private final Logger logger;
+    private final ProjectCatalogue catalogue;
+    private final Executor refreshExecutor;
+    private final Set<Set<String>> pendingRefreshes = ConcurrentHashMap.newKeySet();
 
     public PluginLinkSuggester(Logger logger) {
-        this(new HttpClient(), createMapper(), logger);
+        this(new HttpClient(), null, logger);
+    }
+
+    public PluginLinkSuggester(Logger logger, ProjectCatalogue catalogue, Executor refreshExecutor) {
+        this(new HttpClient(), null, logger, catalogue, refreshExecutor);
     }
 
     public PluginLinkSuggester(HttpClient httpClient, ObjectMapper objectMapper, Logger logger) {
+        this(httpClient, objectMapper, logger, null, null);
+    }
+
+    /**
+     * @param catalogue       optional local catalogue; {@code null} disables local lookups
+     * @param refreshExecutor executor for background catalogue refreshes; {@code null} refreshes inline
+     */
+    public PluginLinkSuggester(HttpClient httpClient,
+                               ObjectMapper objectMapper,
+                               Logger logger,
+                               ProjectCatalogue catalogue,
+                               Executor refreshExecutor) {
         this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
-        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+        this.json = JsonSupport.forMapper(objectMapper);
         this.logger = Objects.requireNonNull(logger, "logger");
+        this.catalogue = catalogue;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    public Optional<ProjectCatalogue> getCatalogue() {
+        return Optional.ofNullable(catalogue);
     }
 
     public List<PluginLinkSuggestion> suggest(Collection<String> searchTerms) {
@@ -72,14 +106,54 @@ public class PluginLinkSuggester {
             return List.of();
         }
 
+        if (catalogue != null) {
+            List<CatalogueEntry> local = catalogue.search(normalizedTerms, MAX_LOCAL_RESULTS);
+            if (!local.isEmpty()) {
+                scheduleRefresh(normalizedTerms);
+                return local.stream().map(CatalogueEntry::toSuggestion).toList();
+            }
+        }
+        return fetchRemoteSuggestions(normalizedTerms);
+    }
+
+    private void scheduleRefresh(Set<String> searchTerms) {
+        Set<String> key = Set.copyOf(searchTerms);
+        if (!pendingRefreshes.add(key)) {
+            return;
+        }
+        Runnable refresh = () -> {
+            try {
+                fetchRemoteSuggestions(key);
+            } finally {
+                pendingRefreshes.remove(key);
+            }
+        };
+        if (refreshExecutor == null) {
+            refresh.run();
+            return;
+        }
+        try {
+            refreshExecutor.execute(refresh);
+        } catch (RuntimeException e) {
+            pendingRefreshes.remove(key);
+            logger.log(Level.FINE, "Skipping catalogue refresh for " + key, e);
+        }
+    }
+
+    private List<PluginLinkSuggestion> fetchRemoteSuggestions(Collection<String> searchTerms) {
+        List<CatalogueEntry> discovered = new ArrayList<>();
         List<PluginLinkSuggestion> suggestions = new ArrayList<>();
-        suggestions.addAll(fetchModrinthSuggestions(normalizedTerms));
-        suggestions.addAll(fetchHangarSuggestions(normalizedTerms));
-        suggestions.addAll(fetchSpigotSuggestions(normalizedTerms));
+        suggestions.addAll(fetchModrinthSuggestions(searchTerms, discovered));
+        suggestions.addAll(fetchHangarSuggestions(searchTerms, discovered));
+        suggestions.addAll(fetchSpigotSuggestions(searchTerms, discovered));
+        if (catalogue != null) {
+            catalogue.upsert(discovered);
+        }
         return suggestions;
     }
 
-    private List<PluginLinkSuggestion> fetchModrinthSuggestions(Collection<String> searchTerms) {
+    private List<PluginLinkSuggestion> fetchModrinthSuggestions(Collection<String> searchTerms,
+                                                                List<CatalogueEntry> discovered) {
         List<PluginLinkSuggestion> suggestions = new ArrayList<>();
         Set<String> seen = new LinkedHashSet<>();
         for (String term : searchTerms) {
@@ -89,7 +163,7 @@ public class PluginLinkSuggester {
             String url = MODRINTH_SEARCH_TEMPLATE.formatted(encode(term));
             try {
                 String body = httpClient.get(url);
-                ModrinthSearchResponse response = objectMapper.readValue(body, ModrinthSearchResponse.class);
+                ModrinthSearchResponse response = json.reader(ModrinthSearchResponse.class).readValue(body);
                 if (response.hits() == null) {
                     continue;
                 }
@@ -101,6 +175,7 @@ public class PluginLinkSuggester {
                         continue;
                     }
                     suggestions.add(hit.toSuggestion());
+                    discovered.add(hit.toCatalogueEntry());
                     if (suggestions.size() >= MAX_RESULTS_PER_PROVIDER) {
                         break;
                     }
@@ -112,7 +187,8 @@ public class PluginLinkSuggester {
         return suggestions;
     }
 
-    private List<PluginLinkSuggestion> fetchHangarSuggestions(Collection<String> searchTerms) {
+    private List<PluginLinkSuggestion> fetchHangarSuggestions(Collection<String> searchTerms,
+                                                              List<CatalogueEntry> discovered) {
         List<PluginLinkSuggestion> suggestions = new ArrayList<>();
         Set<String> seen = new LinkedHashSet<>();
         for (String term : searchTerms) {
@@ -122,7 +198,7 @@ public class PluginLinkSuggester {
             String url = HANGAR_SEARCH_TEMPLATE.formatted(encode(term));
             try {
                 String body = httpClient.get(url);
-                HangarSearchResponse response = objectMapper.readValue(body, HangarSearchResponse.class);
+                HangarSearchResponse response = json.reader(HangarSearchResponse.class).readValue(body);
                 if (response.result() == null) {
                     continue;
                 }
@@ -139,6 +215,7 @@ public class PluginLinkSuggester {
                         continue;
                     }
                     suggestions.add(project.toSuggestion());
+                    discovered.add(project.toCatalogueEntry());
                     if (suggestions.size() >= MAX_RESULTS_PER_PROVIDER) {
                         break;
                     }
@@ -150,7 +227,8 @@ public class PluginLinkSuggester {
         return suggestions;
     }
 
-    private List<PluginLinkSuggestion> fetchSpigotSuggestions(Collection<String> searchTerms) {
+    private List<PluginLinkSuggestion> fetchSpigotSuggestions(Collection<String> searchTerms,
+                                                              List<CatalogueEntry> discovered) {
         List<PluginLinkSuggestion> suggestions = new ArrayList<>();
         Set<Long> seen = new LinkedHashSet<>();
         for (String term : searchTerms) {
@@ -159,7 +237,7 @@ public class PluginLinkSuggester {
             }
             String url = SPIGOT_SEARCH_TEMPLATE.formatted(encode(term));
             try {
-                SpigotResource[] resources = objectMapper.readValue(httpClient.get(url), SpigotResource[].class);
+                SpigotResource[] resources = json.reader(SpigotResource[].class).readValue(httpClient.get(url));
                 if (resources == null || resources.length == 0) {
                     continue;
                 }
@@ -174,6 +252,7 @@ public class PluginLinkSuggester {
                         continue;
                     }
                     suggestions.add(resource.toSuggestion());
+                    discovered.add(resource.toCatalogueEntry());
                     if (suggestions.size() >= MAX_RESULTS_PER_PROVIDER) {
                         break;
                     }
@@ -222,25 +301,20 @@ public class PluginLinkSuggester {
         return URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
 
-    private static ObjectMapper createMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        return mapper;
-    }
-
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private record ModrinthSearchResponse(List<ModrinthProject> hits) {
+    record ModrinthSearchResponse(List<ModrinthProject> hits) {
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private record ModrinthProject(String slug,
+    record ModrinthProject(String slug,
                                    String title,
                                    String description,
                                    String author,
                                    @JsonProperty("downloads") long downloads,
                                    @JsonProperty("date_modified") String dateModified,
                                    @JsonProperty("server_side") String serverSide,
-                                   @JsonProperty("client_side") String clientSide) {
+                                   @JsonProperty("client_side") String clientSide,
+                                   List<String> categories) {
 
         PluginLinkSuggestion toSuggestion() {
             String link = "https://modrinth.com/plugin/" + slug;
@@ -264,17 +338,27 @@ public class PluginLinkSuggester {
             return new PluginLinkSuggestion("Modrinth", titleOrSlug(), link, description, List.copyOf(highlights));
         }
 
+        CatalogueEntry toCatalogueEntry() {
+            List<String> platforms = categories == null ? List.of() : categories.stream()
+                    .filter(category -> category != null && SERVER_PLATFORMS.contains(category.toLowerCase(Locale.ROOT)))
+                    .sorted()
+                    .toList();
+            return new CatalogueEntry("Modrinth", "modrinth:" + slug.toLowerCase(Locale.ROOT), slug, title, author,
+                    description, downloads, platforms, "https://modrinth.com/plugin/" + slug,
+                    parseDate(dateModified).map(Instant::toEpochMilli).orElse(0L));
+        }
+
         private String titleOrSlug() {
             return (title == null || title.isBlank()) ? slug : title;
         }
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private record HangarSearchResponse(List<HangarProject> result) {
+    record HangarSearchResponse(List<HangarProject> result) {
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private record HangarProject(String name,
+    record HangarProject(String name,
                                  String description,
                                  Namespace namespace,
                                  Stats stats,
@@ -303,19 +387,32 @@ public class PluginLinkSuggester {
             return new PluginLinkSuggestion("Hangar", title, link, description, List.copyOf(highlights));
         }
 
+        CatalogueEntry toCatalogueEntry() {
+            Namespace ns = Objects.requireNonNull(namespace, "namespace");
+            List<String> platforms = supportedPlatforms == null ? List.of() : supportedPlatforms.keySet().stream()
+                    .sorted()
+                    .toList();
+            String key = "hangar:" + (ns.owner() + '/' + ns.slug()).toLowerCase(Locale.ROOT);
+            return new CatalogueEntry("Hangar", key, ns.slug(), name, ns.owner(), description,
+                    stats != null ? stats.downloads : 0L, platforms,
+                    "https://hangar.papermc.io/" + ns.owner() + '/' + ns.slug(),
+                    parseDate(lastUpdated).map(Instant::toEpochMilli).orElse(0L));
+        }
+
         boolean isPublic() {
             return visibility == null || visibility.equalsIgnoreCase("public");
         }
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private record SpigotResource(Long id,
+    record SpigotResource(Long id,
                                   String name,
                                   String tag,
                                   @JsonProperty("testedVersions") List<String> testedVersions,
                                   SpigotFile file,
                                   SpigotRating rating,
-                                  @JsonProperty("downloads") long downloads) {
+                                  @JsonProperty("downloads") long downloads,
+                                  @JsonProperty("updateDate") long updateDate) {
 
         PluginLinkSuggestion toSuggestion() {
             List<String> highlights = new ArrayList<>();
@@ -341,6 +438,12 @@ public class PluginLinkSuggester {
             return new PluginLinkSuggestion("SpigotMC", title(), resourceLink(), description, List.copyOf(highlights));
         }
 
+        CatalogueEntry toCatalogueEntry() {
+            String description = (tag == null || tag.isBlank()) ? null : tag;
+            return new CatalogueEntry("SpigotMC", "spigot:" + id, null, title(), null, description, downloads,
+                    List.of("spigot"), resourceLink(), updateDate > 0 ? updateDate * 1000L : 0L);
+        }
+
         private String title() {
             if (name != null && !name.isBlank()) {
                 return name;
@@ -386,19 +489,19 @@ public class PluginLinkSuggester {
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private record SpigotFile(String url, String externalUrl) {
+    record SpigotFile(String url, String externalUrl) {
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private record SpigotRating(double average, long count) {
+    record SpigotRating(double average, long count) {
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private record Namespace(String owner, String slug) {
+    record Namespace(String owner, String slug) {
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private record Stats(@JsonProperty("downloads") long downloads) {
+    record Stats(@JsonProperty("downloads") long downloads) {
     }
 
     private static Optional<Instant> parseDate(String value) {
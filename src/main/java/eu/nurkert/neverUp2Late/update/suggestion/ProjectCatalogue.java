@@ -0,0 +1,448 @@
+package eu.nurkert.neverUp2Late.update.suggestion;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.nurkert.neverUp2Late.net.JsonSupport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local, searchable copy of the projects published on the supported hosting platforms.
+ * <p>
+ * Entries are kept in memory and persisted as gzip compressed JSON. Lookups run against an immutable
+ * trigram index (fuzzy search) and a sorted name table (prefix completion) that are rebuilt lazily after
+ * changes, so readers never block on writers.
+ */
+public class ProjectCatalogue {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final double MIN_SIMILARITY = 0.5d;
+
+    private final Path file;
+    private final JsonSupport json;
+    private final Logger logger;
+
+    private final Object lock = new Object();
+    private final Map<String, CatalogueEntry> entries = new LinkedHashMap<>();
+    private final Map<String, String> cursors = new HashMap<>();
+    private volatile Index index = Index.EMPTY;
+    private volatile boolean indexStale;
+    private boolean dirty;
+
+    public ProjectCatalogue(Path file, Logger logger) {
+        this(file, null, logger);
+    }
+
+    public ProjectCatalogue(Path file, ObjectMapper objectMapper, Logger logger) {
+        this.file = Objects.requireNonNull(file, "file");
+        this.json = JsonSupport.forMapper(objectMapper);
+        this.logger = Objects.requireNonNull(logger, "logger");
+    }
+
+    /**
+     * Loads the persisted catalogue. Entries and cursors that were already updated in memory take precedence
+     * over the stored ones, so loading may safely race with a first synchronisation. Missing or unreadable
+     * files are ignored.
+     */
+    public void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        StoredCatalogue stored;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            stored = json.reader(StoredCatalogue.class).readValue(in);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to read project catalogue " + file + ", starting with an empty one", e);
+            return;
+        }
+        synchronized (lock) {
+            if (stored.entries() != null) {
+                for (CatalogueEntry entry : stored.entries()) {
+                    if (entry != null && entry.key() != null) {
+                        entries.putIfAbsent(entry.key(), entry);
+                    }
+                }
+            }
+            if (stored.cursors() != null) {
+                stored.cursors().forEach(cursors::putIfAbsent);
+            }
+            indexStale = true;
+        }
+        logger.log(Level.FINE, "Loaded {0} catalogue entries from {1}", new Object[]{size(), file});
+    }
+
+    /**
+     * Persists the catalogue if it changed since the last load or save.
+     *
+     * @return {@code true} if the file was written
+     */
+    public boolean saveIfDirty() {
+        StoredCatalogue snapshot;
+        synchronized (lock) {
+            if (!dirty) {
+                return false;
+            }
+            snapshot = new StoredCatalogue(FORMAT_VERSION, Map.copyOf(cursors), List.copyOf(entries.values()));
+            dirty = false;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                    json.writer().writeValue(out, snapshot);
+                }
+                moveReplacing(temp, file);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return true;
+        } catch (IOException e) {
+            synchronized (lock) {
+                dirty = true;
+            }
+            logger.log(Level.WARNING, "Failed to persist project catalogue to " + file, e);
+            return false;
+        }
+    }
+
+    public void upsert(Collection<CatalogueEntry> updates) {
+        if (updates == null || updates.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            boolean changed = false;
+            for (CatalogueEntry entry : updates) {
+                if (entry == null) {
+                    continue;
+                }
+                CatalogueEntry previous = entries.put(entry.key(), entry);
+                if (!entry.equals(previous)) {
+                    changed = true;
+                }
+            }
+            if (changed) {
+                dirty = true;
+                indexStale = true;
+            }
+        }
+    }
+
+    public Optional<String> getCursor(String provider) {
+        synchronized (lock) {
+            return Optional.ofNullable(cursors.get(provider));
+        }
+    }
+
+    public void setCursor(String provider, String cursor) {
+        synchronized (lock) {
+            if (!Objects.equals(cursors.get(provider), cursor)) {
+                if (cursor == null) {
+                    cursors.remove(provider);
+                } else {
+                    cursors.put(provider, cursor);
+                }
+                dirty = true;
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Performs a fuzzy lookup for the given search terms. Each entry is scored by the share of query
+     * trigrams found in its slug or title, with exact and prefix matches ranked first and download counts
+     * breaking ties.
+     *
+     * @param terms search terms, typically plugin names or user input
+     * @param limit maximum number of results
+     * @return best matching entries, highest score first
+     */
+    public List<CatalogueEntry> search(Collection<String> terms, int limit) {
+        if (terms == null || terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Index current = index();
+        if (current.entries.length == 0) {
+            return List.of();
+        }
+
+        double[] scores = new double[current.entries.length];
+        for (String term : terms) {
+            String query = normalize(term);
+            if (query.isEmpty()) {
+                continue;
+            }
+            if (query.length() < 3) {
+                current.scorePrefix(query, scores);
+            } else {
+                current.scoreTrigrams(query, scores);
+            }
+        }
+
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] > 0) {
+                matches.add(i);
+            }
+        }
+        matches.sort(Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+        List<CatalogueEntry> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && result.size() < limit; i++) {
+            result.add(current.entries[matches.get(i)]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns completion candidates whose slug or title starts with the given prefix, most downloaded first.
+     * Candidates never contain whitespace so they can be used as a single command argument.
+     */
+    public List<String> complete(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Index current = index();
+        Set<Integer> hits = new LinkedHashSet<>();
+        int start = current.lowerBound(normalized);
+        for (int i = start; i < current.names.length && current.names[i].startsWith(normalized); i++) {
+            hits.add(current.nameOwners[i]);
+        }
+        return hits.stream()
+                .map(i -> current.entries[i])
+                .sorted(Comparator.comparingLong(CatalogueEntry::downloads).reversed())
+                .map(ProjectCatalogue::completionToken)
+                .distinct()
+                .limit(limit)
+                .toList();
+    }
+
+    private Index index() {
+        if (!indexStale) {
+            return index;
+        }
+        synchronized (lock) {
+            if (indexStale) {
+                index = Index.build(entries.values());
+                indexStale = false;
+            }
+            return index;
+        }
+    }
+
+    private static String completionToken(CatalogueEntry entry) {
+        String slug = entry.slug();
+        if (slug != null && !slug.isBlank() && slug.chars().noneMatch(Character::isWhitespace)) {
+            return slug;
+        }
+        return entry.displayName().replaceAll("\\s+", "");
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (char c : value.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        Set<String> result = new LinkedHashSet<>();
+        String padded = ' ' + normalized + ' ';
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    private static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record StoredCatalogue(int version, Map<String, String> cursors, List<CatalogueEntry> entries) {
+    }
+
+    /**
+     * Immutable lookup structures derived from a snapshot of the catalogue entries.
+     */
+    private static final class Index {
+
+        static final Index EMPTY = new Index(new CatalogueEntry[0], Map.of(), new String[0], new int[0]);
+
+        final CatalogueEntry[] entries;
+        final Map<String, int[]> postings;
+        final String[] names;
+        final int[] nameOwners;
+        final String[][] entryNames;
+        final double[] popularity;
+
+        private Index(CatalogueEntry[] entries, Map<String, int[]> postings, String[] names, int[] nameOwners) {
+            this.entries = entries;
+            this.postings = postings;
+            this.names = names;
+            this.nameOwners = nameOwners;
+            this.entryNames = new String[entries.length][];
+            this.popularity = new double[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                entryNames[i] = namesOf(entries[i]);
+                popularity[i] = Math.log10(Math.max(0L, entries[i].downloads()) + 1d) / 100d;
+            }
+        }
+
+        static Index build(Collection<CatalogueEntry> source) {
+            CatalogueEntry[] entries = source.toArray(new CatalogueEntry[0]);
+            Map<String, List<Integer>> postingLists = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            List<Integer> owners = new ArrayList<>();
+            for (int i = 0; i < entries.length; i++) {
+                Set<String> entryTrigrams = new LinkedHashSet<>();
+                for (String name : namesOf(entries[i])) {
+                    entryTrigrams.addAll(trigrams(name));
+                    names.add(name);
+                    owners.add(i);
+                }
+                for (String trigram : entryTrigrams) {
+                    postingLists.computeIfAbsent(trigram, key -> new ArrayList<>()).add(i);
+                }
+            }
+
+            Map<String, int[]> postings = new HashMap<>(postingLists.size() * 2);
+            postingLists.forEach((trigram, ids) ->
+                    postings.put(trigram, ids.stream().mapToInt(Integer::intValue).toArray()));
+
+            Integer[] order = new Integer[names.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(names::get));
+            String[] sortedNames = new String[order.length];
+            int[] sortedOwners = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedNames[i] = names.get(order[i]);
+                sortedOwners[i] = owners.get(order[i]);
+            }
+            return new Index(entries, postings, sortedNames, sortedOwners);
+        }
+
+        void scoreTrigrams(String query, double[] scores) {
+            Set<String> queryTrigrams = trigrams(query);
+            int[] shared = new int[entries.length];
+            for (String trigram : queryTrigrams) {
+                int[] ids = postings.get(trigram);
+                if (ids == null) {
+                    continue;
+                }
+                for (int id : ids) {
+                    shared[id]++;
+                }
+            }
+            for (int i = 0; i < shared.length; i++) {
+                if (shared[i] == 0) {
+                    continue;
+                }
+                double similarity = (double) shared[i] / queryTrigrams.size();
+                if (similarity < MIN_SIMILARITY) {
+                    continue;
+                }
+                double score = similarity + matchBonus(query, entryNames[i]) + popularity[i];
+                scores[i] = Math.max(scores[i], score);
+            }
+        }
+
+        void scorePrefix(String query, double[] scores) {
+            int start = lowerBound(query);
+            for (int i = start; i < names.length && names[i].startsWith(query); i++) {
+                int owner = nameOwners[i];
+                double score = 0.5d + matchBonus(query, entryNames[owner]) + popularity[owner];
+                scores[owner] = Math.max(scores[owner], score);
+            }
+        }
+
+        int lowerBound(String prefix) {
+            int low = 0;
+            int high = names.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (names[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static double matchBonus(String query, String[] candidates) {
+            double bonus = 0d;
+            for (String candidate : candidates) {
+                if (candidate.equals(query)) {
+                    return 1d;
+                }
+                if (candidate.startsWith(query)) {
+                    bonus = Math.max(bonus, 0.5d);
+                } else if (candidate.contains(query)) {
+                    bonus = Math.max(bonus, 0.25d);
+                }
+            }
+            return bonus;
+        }
+
+        private static String[] namesOf(CatalogueEntry entry) {
+            Set<String> names = new LinkedHashSet<>();
+            String slug = normalize(entry.slug());
+            if (!slug.isEmpty()) {
+                names.add(slug);
+            }
+            String title = normalize(entry.title());
+            if (!title.isEmpty()) {
+                names.add(title);
+            }
+            return names.toArray(new String[0]);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package eu.nurkert.neverUp2Late.fetcher;
+
+import org.bukkit.configuration.MemoryConfiguration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FetcherFactoryTest {
+
+    private final FetcherFactory factory = new FetcherFactory(FetcherFactoryTest.class.getClassLoader());
+
+    @Test
+    void resolvesShortTypeNamesOnce() throws Exception {
+        FetcherFactory.FetcherType type = factory.resolve("githubRelease");
+
+        assertEquals(GithubReleaseFetcher.class, type.fetcherClass());
+        assertSame(type, factory.resolve("githubRelease"));
+        assertEquals(GithubReleaseFetcher.class, factory.resolve("GithubReleaseFetcher").fetcherClass());
+    }
+
+    @Test
+    void prefersTheOptionsConstructor() throws Exception {
+        MemoryConfiguration options = new MemoryConfiguration();
+        options.set("owner", "nurkert");
+        options.set("repository", "never-up-2-late");
+
+        UpdateFetcher fetcher = factory.resolve("githubRelease").create(options, null, true);
+
+        assertInstanceOf(GithubReleaseFetcher.class, fetcher);
+    }
+
+    @Test
+    void fallsBackToTheIgnoreUnstableConstructor() throws Exception {
+        UpdateFetcher fetcher = factory.resolve(FlagFetcher.class.getName()).create(null, null, false);
+
+        assertTrue(((FlagFetcher) fetcher).includeUnstable);
+    }
+
+    @Test
+    void rejectsUnknownTypes() {
+        assertThrows(ClassNotFoundException.class, () -> factory.resolve("doesNotExist"));
+        assertThrows(IllegalArgumentException.class, () -> factory.resolve(String.class.getName()));
+    }
+
+    static class FlagFetcher implements UpdateFetcher {
+
+        private final boolean includeUnstable;
+
+        private FlagFetcher(boolean ignoreUnstable) {
+            this.includeUnstable = !ignoreUnstable;
+        }
+
+        @Override
+        public void loadLatestBuildInfo() {
+        }
+
+        @Override
+        public String getLatestVersion() {
+            return null;
+        }
+
+        @Override
+        public int getLatestBuild() {
+            return 0;
+        }
+
+        @Override
+        public String getLatestDownloadUrl() {
+            return null;
+        }
+
+        @Override
+        public String getInstalledVersion() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package eu.nurkert.neverUp2Late.fetcher;
+
+import eu.nurkert.neverUp2Late.net.HttpClient;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpdateFetcherTest {
+
+    @Test
+    void adaptsFetchersThatOnlyLoadIntoFields() throws Exception {
+        LegacyFetcher fetcher = new LegacyFetcher();
+
+        FetchResult first = fetcher.fetchLatest(FetchRequest.of("legacy"));
+        FetchResult second = fetcher.fetchLatest(FetchRequest.of("legacy"));
+
+        assertEquals(new FetchResult("1.1", 1, "https://example.com/1.jar"), withoutConfigurer(first));
+        assertEquals("1.2", second.version());
+        assertEquals(2, second.build());
+        assertFalse(first.reusable(), "Adapted results configure contexts from the fetcher's current state");
+        assertTrue(UpdateFetcher.isAdapted(LegacyFetcher.class));
+        assertFalse(UpdateFetcher.isAdapted(VersionFetcher.class));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void adaptsJsonFetchersThatStillSetTheLatestBuild() throws Exception {
+        LegacyJsonFetcher fetcher = new LegacyJsonFetcher();
+
+        FetchResult result = fetcher.fetchLatest(FetchRequest.of("legacy-json"));
+
+        assertEquals(new FetchResult("3.0.0", 30, "https://example.com/3.0.0.jar"), withoutConfigurer(result));
+        assertFalse(result.reusable());
+        assertEquals("3.0.0", fetcher.getLatestVersion());
+        assertTrue(UpdateFetcher.isAdapted(LegacyJsonFetcher.class));
+    }
+
+    @Test
+    void concurrentRequestsDoNotShareResults() throws Exception {
+        CyclicBarrier bothRunning = new CyclicBarrier(2);
+        VersionFetcher fetcher = new VersionFetcher(new StubHttpClient(bothRunning, Map.of(
+                "https://example.com/alpha", "{\"version\":\"1.0.0\",\"build\":10}",
+                "https://example.com/beta", "{\"version\":\"2.0.0\",\"build\":20}")));
+
+        CompletableFuture<FetchResult> alpha = CompletableFuture.supplyAsync(() -> fetch(fetcher, "alpha"));
+        CompletableFuture<FetchResult> beta = CompletableFuture.supplyAsync(() -> fetch(fetcher, "beta"));
+
+        assertEquals("1.0.0", alpha.get(5L, TimeUnit.SECONDS).version());
+        assertEquals(10, alpha.get().build());
+        assertEquals("2.0.0", beta.get(5L, TimeUnit.SECONDS).version());
+        assertEquals(20, beta.get().build());
+        assertNull(fetcher.getLatestVersion(), "Fetching does not change what the older getters report");
+    }
+
+    private static FetchResult fetch(UpdateFetcher fetcher, String source) {
+        try {
+            return fetcher.fetchLatest(FetchRequest.of(source));
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static FetchResult withoutConfigurer(FetchResult result) {
+        return new FetchResult(result.version(), result.build(), result.downloadUrl());
+    }
+
+    private static final class LegacyFetcher implements UpdateFetcher {
+
+        private int build;
+
+        @Override
+        public void loadLatestBuildInfo() {
+            build++;
+        }
+
+        @Override
+        public String getLatestVersion() {
+            return "1." + build;
+        }
+
+        @Override
+        public int getLatestBuild() {
+            return build;
+        }
+
+        @Override
+        public String getLatestDownloadUrl() {
+            return "https://example.com/" + build + ".jar";
+        }
+
+        @Override
+        public String getInstalledVersion() {
+            return null;
+        }
+    }
+
+    private static final class LegacyJsonFetcher extends JsonUpdateFetcher {
+
+        private LegacyJsonFetcher() {
+            super(new StubHttpClient(new CyclicBarrier(1), Map.of()));
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public void loadLatestBuildInfo() {
+            setLatestBuildInfo("3.0.0", 30, "https://example.com/3.0.0.jar");
+        }
+
+        @Override
+        public String getInstalledVersion() {
+            return null;
+        }
+    }
+
+    private static final class VersionFetcher extends JsonUpdateFetcher {
+
+        private VersionFetcher(HttpClient httpClient) {
+            super(httpClient);
+        }
+
+        @Override
+        public FetchResult fetchLatest(FetchRequest request) throws Exception {
+            String url = "https://example.com/" + request.sourceName();
+            LatestVersion latest = getJson(url, LatestVersion.class);
+            return new FetchResult(latest.version(), latest.build(), url + "/" + latest.version() + ".jar");
+        }
+
+        @Override
+        public String getInstalledVersion() {
+            return null;
+        }
+    }
+
+    private record LatestVersion(String version, int build) {
+    }
+
+    private static final class StubHttpClient extends HttpClient {
+
+        private final CyclicBarrier bothRunning;
+        private final Map<String, String> responses;
+
+        private StubHttpClient(CyclicBarrier bothRunning, Map<String, String> responses) {
+            super(java.net.http.HttpClient.newBuilder().build(), Duration.ofSeconds(1), Map.of());
+            this.bothRunning = bothRunning;
+            this.responses = responses;
+        }
+
+        @Override
+        public String get(String url) throws IOException {
+            try {
+                // Both requests are in flight before either reads its response
+                bothRunning.await(5L, TimeUnit.SECONDS);
+            } catch (Exception ex) {
+                throw new IOException(ex);
+            }
+            return responses.get(url);
+        }
+    }
+}
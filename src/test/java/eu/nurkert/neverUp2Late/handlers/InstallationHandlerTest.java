@@ -168,6 +168,67 @@ class InstallationHandlerTest {
         assertEquals(2, shutdownCalls.get(), "Geyser and Paper updates should restart immediately");
     }
 
+    @Test
+    void restartsOnceForBatchOfUpdates() throws IOException {
+        AtomicInteger shutdownCalls = new AtomicInteger();
+        Logger logger = Logger.getLogger("test");
+
+        Clock clock = MutableClock.fixedAt(LocalDateTime.of(2024, 1, 1, 4, 0));
+        Server server = createServer(new ArrayList<>(), shutdownCalls, logger);
+        StubLifecycleManager lifecycleManager = new StubLifecycleManager();
+        lifecycleManager.reloadResult = false;
+        InstallationHandler handler = new InstallationHandler(server, createRepository(logger), logger, lifecycleManager, null, clock);
+
+        handler.beginBatch();
+        handler.onUpdateCompleted(createEvent("first", TargetDirectory.PLUGINS));
+        handler.onUpdateCompleted(createEvent("second", TargetDirectory.PLUGINS));
+        handler.onUpdateCompleted(createEvent("third", TargetDirectory.PLUGINS));
+        assertEquals(0, shutdownCalls.get(), "Completions must be collected while the batch is open");
+        assertEquals(0, lifecycleManager.reloadCalls, "Reloads must wait for the end of the batch");
+
+        handler.endBatch();
+
+        assertEquals(3, lifecycleManager.reloadCalls, "Every plugin of the batch should be offered a reload");
+        assertEquals(1, shutdownCalls.get(), "The batch should cause a single restart");
+    }
+
+    @Test
+    void skipsRestartWhenWholeBatchReloads() throws IOException {
+        AtomicInteger shutdownCalls = new AtomicInteger();
+        Logger logger = Logger.getLogger("test");
+
+        Clock clock = MutableClock.fixedAt(LocalDateTime.of(2024, 1, 1, 4, 0));
+        Server server = createServer(new ArrayList<>(), shutdownCalls, logger);
+        StubLifecycleManager lifecycleManager = new StubLifecycleManager();
+        lifecycleManager.reloadResult = true;
+        InstallationHandler handler = new InstallationHandler(server, createRepository(logger), logger, lifecycleManager, null, clock);
+
+        handler.beginBatch();
+        handler.onUpdateCompleted(createEvent("first", TargetDirectory.PLUGINS));
+        handler.onUpdateCompleted(createEvent("second", TargetDirectory.PLUGINS));
+        handler.endBatch();
+
+        assertEquals(2, lifecycleManager.reloadCalls);
+        assertEquals(0, shutdownCalls.get(), "No restart is needed when every plugin reloaded");
+    }
+
+    @Test
+    void serverUpdateInBatchLiftsMaintenanceWindow() throws IOException {
+        AtomicInteger shutdownCalls = new AtomicInteger();
+        Logger logger = Logger.getLogger("test");
+
+        MutableClock clock = MutableClock.fixedAt(LocalDateTime.of(2024, 1, 1, 1, 0));
+        Server server = createServer(new ArrayList<>(), shutdownCalls, logger);
+        InstallationHandler handler = new InstallationHandler(server, createRepository(logger), logger, null, null, clock);
+
+        handler.beginBatch();
+        handler.onUpdateCompleted(createEvent("test", TargetDirectory.PLUGINS));
+        handler.onUpdateCompleted(createEvent("paper", TargetDirectory.SERVER));
+        handler.endBatch();
+
+        assertEquals(1, shutdownCalls.get(), "The server update should restart immediately for the whole batch");
+    }
+
     private RestartCooldownRepository createRepository(Logger logger) throws IOException {
         Path directory = Files.createTempDirectory("nu2l-restart-state-");
         directory.toFile().deleteOnExit();
@@ -250,6 +311,7 @@ class InstallationHandlerTest {
 
     private static class StubLifecycleManager implements PluginLifecycleManager {
         boolean reloadCalled;
+        int reloadCalls;
         boolean reloadResult;
         Path lastReloadPath;
 
@@ -285,6 +347,7 @@ class InstallationHandlerTest {
         @Override
         public boolean reloadPlugin(Path path) {
             reloadCalled = true;
+            reloadCalls++;
             lastReloadPath = path;
             return reloadResult;
         }
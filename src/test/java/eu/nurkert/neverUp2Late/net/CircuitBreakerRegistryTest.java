@@ -0,0 +1,95 @@
+package eu.nurkert.neverUp2Late.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerRegistryTest {
+
+    private static final String HOST = "api.modrinth.com";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final CircuitBreakerRegistry registry = new CircuitBreakerRegistry(clock,
+            new CircuitBreakerRegistry.Settings(4, 2, 0.5d, Duration.ofSeconds(30), Duration.ofSeconds(90)));
+
+    @Test
+    void opensOnceFailureRateReachesThreshold() {
+        registry.recordFailure(HOST);
+        assertEquals(CircuitBreakerRegistry.State.CLOSED, registry.getState(HOST));
+
+        registry.recordOutcome(HOST, new ConnectException("refused"));
+
+        assertEquals(CircuitBreakerRegistry.State.OPEN, registry.getState(HOST));
+        assertFalse(registry.allowRequest(HOST));
+        assertEquals(clock.instant().plusSeconds(30), registry.getRetryAt(HOST).orElseThrow());
+        assertTrue(registry.allowRequest("hangar.papermc.io"));
+    }
+
+    @Test
+    void ignoresFailuresThatDoNotIndicateAnUnavailableHost() {
+        registry.recordOutcome(HOST, new HttpException("https://" + HOST, 404, ""));
+        registry.recordOutcome(HOST, new IOException("malformed response"));
+        registry.recordOutcome(HOST, new HttpException("https://" + HOST, 503, ""));
+
+        assertEquals(CircuitBreakerRegistry.State.CLOSED, registry.getState(HOST));
+        assertTrue(registry.allowRequest(HOST));
+    }
+
+    @Test
+    void halfOpenProbeClosesOrReopensWithLongerDuration() {
+        registry.recordFailure(HOST);
+        registry.recordFailure(HOST);
+
+        clock.advance(Duration.ofSeconds(30));
+        assertTrue(registry.allowRequest(HOST));
+        assertFalse(registry.allowRequest(HOST));
+        registry.recordFailure(HOST);
+        assertEquals(clock.instant().plusSeconds(60), registry.getRetryAt(HOST).orElseThrow());
+
+        clock.advance(Duration.ofSeconds(60));
+        assertEquals(CircuitBreakerRegistry.State.HALF_OPEN, registry.getState(HOST));
+        assertTrue(registry.allowRequest(HOST));
+        registry.recordSuccess(HOST);
+
+        assertEquals(CircuitBreakerRegistry.State.CLOSED, registry.getState(HOST));
+        assertTrue(registry.snapshot().isEmpty());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -11,19 +11,37 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HttpClientTest {
 
     private HttpServer server;
     private String endpointUrl;
+    private final AtomicInteger limitedHits = new AtomicInteger();
 
     @BeforeEach
     void setUp() throws IOException {
         server = HttpServer.create(new InetSocketAddress(0), 0);
         server.createContext("/versions", new ConditionalAcceptHandler());
+        server.createContext("/limited", exchange -> {
+            limitedHits.incrementAndGet();
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("X-RateLimit-Limit", "300");
+            exchange.getResponseHeaders().add("X-RateLimit-Remaining", "0");
+            exchange.getResponseHeaders().add("X-RateLimit-Reset", "60");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
         server.start();
         endpointUrl = "http://localhost:" + server.getAddress().getPort() + "/versions";
     }
@@ -54,6 +72,41 @@ class HttpClientTest {
         assertEquals("{\"status\":\"ok\"}", response);
     }
 
+    @Test
+    void defersRequestsOnceTheHostBudgetIsExhausted() throws IOException {
+        RateLimitTracker tracker = new RateLimitTracker(Clock.systemUTC());
+        HttpClient client = HttpClient.builder()
+                .rateLimitTracker(tracker)
+                .build();
+        String limitedUrl = "http://localhost:" + server.getAddress().getPort() + "/limited";
+
+        assertEquals("{}", client.get(limitedUrl));
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class, () -> client.get(limitedUrl));
+
+        assertEquals(1, limitedHits.get());
+        assertEquals("localhost", exception.getHost());
+        assertTrue(exception.getRetryAt().isPresent());
+    }
+
+    @Test
+    void rejectedCallsToAnOpenCircuitKeepTheHostBudget() {
+        RateLimitTracker tracker = new RateLimitTracker(Clock.systemUTC());
+        tracker.configureBuckets(new RateLimitTracker.BucketSettings(1, 1d), Map.of());
+        CircuitBreakerRegistry circuits = new CircuitBreakerRegistry(Clock.systemUTC(),
+                new CircuitBreakerRegistry.Settings(1, 1, 0.5d, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+        circuits.recordFailure("localhost");
+        HttpClient client = HttpClient.builder()
+                .rateLimitTracker(tracker)
+                .circuitBreakers(circuits)
+                .build();
+
+        assertThrows(CircuitOpenException.class, () -> client.get(endpointUrl));
+        assertThrows(CircuitOpenException.class, () -> client.get(endpointUrl));
+
+        assertTrue(tracker.tryAcquire("localhost"), "Rejected calls did not take a token");
+        assertFalse(tracker.tryAcquire("localhost"));
+    }
+
     private static class ConditionalAcceptHandler implements HttpHandler {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
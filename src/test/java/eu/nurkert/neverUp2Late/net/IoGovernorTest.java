@@ -0,0 +1,88 @@
+package eu.nurkert.neverUp2Late.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IoGovernorTest {
+
+    private static final long KIB = 1024L;
+
+    @Test
+    void capsBandwidthWithTokenBucket() throws Exception {
+        AtomicLong now = new AtomicLong();
+        IoGovernor governor = new IoGovernor(now::get, now::addAndGet);
+        governor.configure(64L * KIB, 16L * KIB, 40d, 50d);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        governor.transfer(new ByteArrayInputStream(new byte[256 * 1024]), output, null);
+
+        assertEquals(256 * 1024, output.size());
+        // 256 KiB at 64 KiB/s
+        assertEquals(4L, Math.round(now.get() / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    void slowsDownWhileTicksAreSlow() throws Exception {
+        AtomicLong now = new AtomicLong();
+        IoGovernor governor = new IoGovernor(now::get, now::addAndGet);
+        governor.configure(0L, 64L * KIB, 40d, 50d);
+
+        governor.acquire(64 * 1024, null);
+        assertEquals(0L, now.get(), "Without a cap and without tick reports transfers run at full speed");
+
+        governor.reportTick(45d);
+        governor.acquire(64 * 1024, null);
+        governor.acquire(64 * 1024, null);
+
+        assertTrue(now.get() >= TimeUnit.MILLISECONDS.toNanos(1_900L), "Slowed to 64 KiB/s, took " + now.get());
+    }
+
+    @Test
+    void ignoresTickReportsOnceTheyAreStale() throws Exception {
+        AtomicLong now = new AtomicLong();
+        IoGovernor governor = new IoGovernor(now::get, now::addAndGet);
+        governor.configure(0L, 64L * KIB, 40d, 50d);
+        governor.reportTick(80d);
+        assertEquals(80d, governor.averageMspt());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(3));
+
+        assertEquals(-1d, governor.averageMspt());
+        long before = now.get();
+        governor.acquire(1024 * 1024, null);
+        assertEquals(before, now.get(), "A server thread that stopped reporting must not pause transfers");
+    }
+
+    @Test
+    void resumesOnceTheServerHasHeadroom() throws Exception {
+        AtomicLong now = new AtomicLong();
+        IoGovernor governor = new IoGovernor(now::get, now::addAndGet);
+        governor.configure(0L, 64L * KIB, 40d, 50d);
+        governor.reportTick(60d);
+
+        Thread resumer = new Thread(() -> {
+            try {
+                Thread.sleep(200L);
+            } catch (InterruptedException ignored) {
+                return;
+            }
+            for (int i = 0; i < 60; i++) {
+                governor.reportTick(5d);
+            }
+        });
+        resumer.start();
+        long started = System.nanoTime();
+        governor.acquire(1024, null);
+        resumer.join();
+
+        assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(150L), "Transfers pause while the server is slow");
+        assertTrue(governor.averageMspt() < 40d);
+    }
+}
@@ -0,0 +1,44 @@
+package eu.nurkert.neverUp2Late.net;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class JsonSupportTest {
+
+    @Test
+    void cachesOneReaderPerType() {
+        JsonSupport json = JsonSupport.shared();
+
+        assertSame(json.reader(Release.class), json.reader(Release.class));
+        assertSame(json.reader(new TypeReference<List<Release>>() {}), json.reader(new TypeReference<List<Release>>() {}),
+                "Equal type references share a reader");
+        assertNotSame(json.reader(Release.class), json.reader(Release[].class));
+    }
+
+    @Test
+    void sharedReadersIgnoreUnknownPropertiesAndReadDates() throws Exception {
+        List<Release> releases = JsonSupport.shared().reader(new TypeReference<List<Release>>() {})
+                .readValue("[{\"tag\":\"v1.2.0\",\"published\":\"2024-03-01T12:00:00Z\",\"draft\":false}]");
+
+        assertEquals(List.of(new Release("v1.2.0", Instant.parse("2024-03-01T12:00:00Z"))), releases);
+    }
+
+    @Test
+    void customMappersGetTheirOwnReaders() {
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertSame(JsonSupport.shared(), JsonSupport.forMapper(null));
+        assertNotSame(JsonSupport.shared(), JsonSupport.forMapper(mapper));
+    }
+
+    record Release(String tag, Instant published) {
+    }
+}
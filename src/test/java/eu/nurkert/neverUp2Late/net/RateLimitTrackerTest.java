@@ -0,0 +1,112 @@
+package eu.nurkert.neverUp2Late.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitTrackerTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final RateLimitTracker tracker = new RateLimitTracker(clock);
+
+    @Test
+    void honoursAnnouncedBudgetUntilReset() {
+        tracker.recordResponse("api.modrinth.com", 200, headers(Map.of(
+                "X-RateLimit-Limit", "300",
+                "X-RateLimit-Remaining", "1",
+                "X-RateLimit-Reset", "30")));
+
+        assertTrue(tracker.tryAcquire("api.modrinth.com"));
+        assertFalse(tracker.tryAcquire("API.modrinth.com"));
+        assertEquals(Optional.of(clock.instant().plusSeconds(30)), tracker.nextAvailable("api.modrinth.com"));
+
+        clock.advance(Duration.ofSeconds(30));
+        assertTrue(tracker.tryAcquire("api.modrinth.com"));
+    }
+
+    @Test
+    void blocksHostAfterTooManyRequests() {
+        tracker.recordResponse("hangar.papermc.io", 429, headers(Map.of("Retry-After", "120")));
+
+        assertFalse(tracker.tryAcquire("hangar.papermc.io"));
+        assertEquals(Optional.of(clock.instant().plusSeconds(120)), tracker.nextAvailable("hangar.papermc.io"));
+        assertTrue(tracker.tryAcquire("api.github.com"));
+
+        clock.advance(Duration.ofSeconds(120));
+        assertTrue(tracker.tryAcquire("hangar.papermc.io"));
+    }
+
+    @Test
+    void throttlesHostsWithoutHeadersUsingTokenBucket() {
+        tracker.configureBuckets(null, Map.of("api.spiget.org", new RateLimitTracker.BucketSettings(2, 60)));
+
+        assertTrue(tracker.tryAcquire("api.spiget.org"));
+        assertTrue(tracker.tryAcquire("api.spiget.org"));
+        assertFalse(tracker.tryAcquire("api.spiget.org"));
+        assertEquals(Optional.of(clock.instant().plusSeconds(1)), tracker.nextAvailable("api.spiget.org"));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(tracker.tryAcquire("api.spiget.org"));
+
+        List<RateLimitTracker.HostBudget> budgets = tracker.snapshot();
+        assertEquals(1, budgets.size());
+        assertEquals("api.spiget.org", budgets.get(0).host());
+        assertEquals(Integer.valueOf(0), budgets.get(0).remaining());
+        assertFalse(budgets.get(0).headerDriven());
+    }
+
+    @Test
+    void interpretsLargeResetValuesAsEpochSeconds() {
+        long resetEpoch = clock.instant().plusSeconds(90).getEpochSecond();
+        tracker.recordResponse("api.github.com", 200, headers(Map.of(
+                "X-RateLimit-Remaining", "0",
+                "X-RateLimit-Reset", Long.toString(resetEpoch))));
+
+        assertFalse(tracker.tryAcquire("api.github.com"));
+        assertEquals(Optional.of(Instant.ofEpochSecond(resetEpoch)), tracker.nextAvailable("api.github.com"));
+    }
+
+    private static Function<String, Optional<String>> headers(Map<String, String> values) {
+        return name -> Optional.ofNullable(values.get(name));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package eu.nurkert.neverUp2Late.persistence;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigWriterTest {
+
+    private final Logger logger = Logger.getLogger("test");
+
+    @Test
+    void coalescesChangesIntoOneWrite(@TempDir Path tempDir) throws Exception {
+        File file = tempDir.resolve("config.yml").toFile();
+        YamlConfiguration configuration = new YamlConfiguration();
+        ConfigWriter writer = new ConfigWriter(configuration, file, logger, Duration.ofMillis(200L), Duration.ofSeconds(5L));
+
+        CompletableFuture<Void> first = writer.update(() -> {
+            configuration.set("filenames.paper", "paper.jar");
+            return true;
+        });
+        CompletableFuture<Void> second = writer.update(() -> {
+            configuration.set("filenames.geyser", "Geyser-Spigot.jar");
+            return true;
+        });
+
+        assertSame(first, second, "Changes within the debounce window share one write");
+        assertFalse(file.exists(), "Nothing is written before the debounce has passed");
+        second.get(5L, TimeUnit.SECONDS);
+
+        YamlConfiguration written = YamlConfiguration.loadConfiguration(file);
+        assertEquals("paper.jar", written.getString("filenames.paper"));
+        assertEquals("Geyser-Spigot.jar", written.getString("filenames.geyser"));
+        writer.close();
+    }
+
+    @Test
+    void skipsTheWriteWhenNothingChanged(@TempDir Path tempDir) {
+        File file = tempDir.resolve("config.yml").toFile();
+        ConfigWriter writer = new ConfigWriter(new YamlConfiguration(), file, logger, Duration.ofMillis(200L), Duration.ofSeconds(5L));
+
+        assertTrue(writer.update(() -> false).isDone());
+        writer.close();
+
+        assertFalse(file.exists());
+    }
+
+    @Test
+    void closeWritesPendingChanges(@TempDir Path tempDir) throws Exception {
+        File file = tempDir.resolve("config.yml").toFile();
+        YamlConfiguration configuration = new YamlConfiguration();
+        ConfigWriter writer = new ConfigWriter(configuration, file, logger, Duration.ofMinutes(1L), Duration.ofMinutes(1L));
+
+        CompletableFuture<Void> saved = writer.update(() -> {
+            configuration.set("updates.check.cacheMinutes", 10);
+            return true;
+        });
+        writer.close();
+
+        assertTrue(saved.isDone());
+        assertEquals(10, YamlConfiguration.loadConfiguration(file).getInt("updates.check.cacheMinutes"));
+        assertFalse(Files.exists(tempDir.resolve("config.yml.tmp")));
+    }
+}
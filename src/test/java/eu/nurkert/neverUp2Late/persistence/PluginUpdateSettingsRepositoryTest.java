@@ -0,0 +1,31 @@
+package eu.nurkert.neverUp2Late.persistence;
+
+import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository.PluginUpdateSettings;
+import eu.nurkert.neverUp2Late.persistence.PluginUpdateSettingsRepository.UpdateBehaviour;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PluginUpdateSettingsRepositoryTest {
+
+    @Test
+    void notifiesListenersOfChangedPlugins(@TempDir Path tempDir) {
+        PluginUpdateSettingsRepository repository =
+                new PluginUpdateSettingsRepository(tempDir.toFile(), Logger.getLogger("test"));
+        List<String> changed = new ArrayList<>();
+        repository.addListener(changed::add);
+
+        repository.saveSettings("Geyser", new PluginUpdateSettings(false, UpdateBehaviour.AUTO_RELOAD, false));
+        repository.saveSettings(" ", PluginUpdateSettings.defaultSettings());
+        repository.removeSettings("Geyser");
+
+        assertEquals(List.of("Geyser", "Geyser"), changed);
+        repository.flush();
+    }
+}
@@ -8,6 +8,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Logger;
 
@@ -22,6 +23,7 @@ class UpdateStateRepositoryTest {
         UpdateStateRepository repository = new UpdateStateRepository(tempDir.toFile(), logger);
 
         repository.saveLatestBuild("paper", 123, "1.20.1");
+        repository.flush();
 
         File stateFile = tempDir.resolve("plugins.yml").toFile();
         YamlConfiguration configuration = YamlConfiguration.loadConfiguration(stateFile);
@@ -41,6 +43,7 @@ class UpdateStateRepositoryTest {
         repository.saveLatestBuild("paper", 100, "1.0.0");
 
         repository.saveLatestBuild("paper", 101, null);
+        repository.flush();
 
         File stateFile = tempDir.resolve("plugins.yml").toFile();
         YamlConfiguration configuration = YamlConfiguration.loadConfiguration(stateFile);
@@ -64,4 +67,45 @@ class UpdateStateRepositoryTest {
         assertFalse(configuration.contains("paper"), "Legacy root node should be removed");
         assertEquals(-1, repository.getStoredBuild("unknown"));
     }
+
+    @Test
+    void writesReplaceTheSnapshotReadersHold(@TempDir Path tempDir) {
+        UpdateStateRepository repository = new UpdateStateRepository(tempDir.toFile(), logger);
+        repository.saveLatestBuild("paper", 100, "1.0.0");
+        Map<String, UpdateStateRepository.PluginState> before = repository.snapshot();
+
+        repository.saveLatestBuild("paper", 101, "1.0.1");
+        repository.savePluginState("geyser", 5, null);
+        repository.savePluginState("paper", null, null);
+
+        assertEquals(Map.of("paper", new UpdateStateRepository.PluginState(100, "1.0.0")), before);
+        assertEquals(Map.of("geyser", new UpdateStateRepository.PluginState(5, null)), repository.snapshot());
+        assertThrows(UnsupportedOperationException.class, () -> repository.snapshot().remove("geyser"));
+        assertNull(repository.get("paper"));
+        assertNull(repository.get(null));
+        assertEquals(-1, repository.getStoredBuild("paper"));
+    }
+
+    @Test
+    void keepsTheRolledBackReleaseUntilAnotherStateIsSaved(@TempDir Path tempDir) {
+        UpdateStateRepository repository = new UpdateStateRepository(tempDir.toFile(), logger);
+        repository.saveLatestBuild("geyser", 42, "2.2.0");
+
+        assertEquals(Optional.of(new UpdateStateRepository.PluginState(42, "2.2.0")),
+                repository.markRolledBack("geyser"));
+        assertEquals(Optional.empty(), repository.markRolledBack("unknown"));
+        repository.flush();
+
+        UpdateStateRepository reloaded = new UpdateStateRepository(tempDir.toFile(), logger);
+        assertEquals(Optional.of(new UpdateStateRepository.PluginState(42, "2.2.0")),
+                reloaded.findRolledBack("geyser"));
+        assertEquals(42, reloaded.getStoredBuild("geyser"));
+
+        reloaded.saveLatestBuild("geyser", 43, "2.2.1");
+        reloaded.flush();
+
+        YamlConfiguration configuration = YamlConfiguration.loadConfiguration(tempDir.resolve("plugins.yml").toFile());
+        assertFalse(configuration.contains("plugins.geyser.rolledBack"));
+        assertTrue(reloaded.findRolledBack("geyser").isEmpty());
+    }
 }
@@ -0,0 +1,110 @@
+package eu.nurkert.neverUp2Late.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WriteBehindJournalTest {
+
+    private final Logger logger = Logger.getLogger("test");
+
+    @Test
+    void replaysChangesThatWereNotCompacted(@TempDir Path tempDir) {
+        Path stateFile = tempDir.resolve("state.yml");
+        Map<String, Object> state = new TreeMap<>();
+        WriteBehindJournal journal = new WriteBehindJournal(state, stateFile.toFile(), state::toString, logger);
+        journal.open(state::put);
+
+        state.put("plugins.paper.build", 42);
+        journal.append("plugins.paper.build", 42);
+        state.put("plugins.paper.version", "1.2.3");
+        journal.append("plugins.paper.version", "1.2.3");
+        journal.append("plugins.paper.version", null);
+        journal.flush();
+
+        Map<String, Object> restored = new TreeMap<>();
+        int replayed = new WriteBehindJournal(restored, stateFile.toFile(), restored::toString, logger)
+                .open(restored::put);
+
+        assertEquals(3, replayed);
+        assertEquals(42, restored.get("plugins.paper.build"));
+        assertNull(restored.get("plugins.paper.version"));
+        assertFalse(Files.exists(stateFile), "Appending must not rewrite the state file");
+        journal.close();
+    }
+
+    @Test
+    void stopsAtATornRecord(@TempDir Path tempDir) throws IOException {
+        Path stateFile = tempDir.resolve("state.yml");
+        Map<String, Object> state = new TreeMap<>();
+        WriteBehindJournal journal = new WriteBehindJournal(state, stateFile.toFile(), state::toString, logger);
+        journal.open(state::put);
+        journal.append("a", 1);
+        journal.append("b", 2);
+        journal.flush();
+        Files.writeString(tempDir.resolve("state.yml.journal"), "0badc0de {\"p\":\"c\",\"v\"",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        Map<String, Object> restored = new TreeMap<>();
+        int replayed = new WriteBehindJournal(restored, stateFile.toFile(), restored::toString, logger)
+                .open(restored::put);
+
+        assertEquals(2, replayed);
+        assertEquals(Map.of("a", 1, "b", 2), restored);
+        journal.close();
+    }
+
+    @Test
+    void appendsAfterTheLastCompleteRecordOfATornJournal(@TempDir Path tempDir) throws IOException {
+        Path stateFile = tempDir.resolve("state.yml");
+        Map<String, Object> state = new TreeMap<>();
+        WriteBehindJournal journal = new WriteBehindJournal(state, stateFile.toFile(), state::toString, logger);
+        journal.open(state::put);
+        journal.append("a", 1);
+        journal.flush();
+        Files.writeString(tempDir.resolve("state.yml.journal"), "0badc0de {\"p\":\"c\",\"v\"",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        Map<String, Object> reopenedState = new TreeMap<>();
+        WriteBehindJournal reopened = new WriteBehindJournal(reopenedState, stateFile.toFile(), reopenedState::toString, logger);
+        reopened.open(reopenedState::put);
+        reopened.append("b", 2);
+        reopened.flush();
+
+        Map<String, Object> restored = new TreeMap<>();
+        int replayed = new WriteBehindJournal(restored, stateFile.toFile(), restored::toString, logger)
+                .open(restored::put);
+
+        assertEquals(2, replayed, "Records appended after a torn one must be replayed");
+        assertEquals(Map.of("a", 1, "b", 2), restored);
+        journal.close();
+        reopened.close();
+    }
+
+    @Test
+    void compactionWritesSnapshotAndEmptiesJournal(@TempDir Path tempDir) throws IOException {
+        Path stateFile = tempDir.resolve("state.yml");
+        Map<String, Object> state = new TreeMap<>();
+        WriteBehindJournal journal = new WriteBehindJournal(state, stateFile.toFile(), state::toString, logger);
+        journal.open(state::put);
+        state.put("a", 1);
+        journal.append("a", 1);
+
+        journal.close();
+
+        assertEquals("{a=1}", Files.readString(stateFile));
+        assertEquals(0L, Files.size(tempDir.resolve("state.yml.journal")));
+    }
+}
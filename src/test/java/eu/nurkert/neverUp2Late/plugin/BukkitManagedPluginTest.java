@@ -41,6 +41,7 @@ import java.util.logging.Logger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class BukkitManagedPluginTest {
@@ -63,6 +64,24 @@ class BukkitManagedPluginTest {
         }
     }
 
+    @Test
+    void unloadFailsFastWhenPluginManagerInternalsAreMissing() throws Exception {
+        Path pluginFile = Files.createTempFile("unsupported-plugin", ".jar");
+        try {
+            CountingPlugin plugin = new CountingPlugin("UnsupportedPlugin");
+            CountingPluginManager manager = new CountingPluginManager(plugin, pluginFile);
+            Logger logger = Logger.getLogger("BukkitManagedPluginTest");
+
+            BukkitManagedPlugin managed = new BukkitManagedPlugin(null, pluginFile, manager, logger);
+            managed.load();
+
+            assertThrows(PluginLifecycleException.class, managed::unload);
+            assertTrue(managed.isLoaded(), "Plugin must stay loaded when it cannot be unregistered");
+        } finally {
+            Files.deleteIfExists(pluginFile);
+        }
+    }
+
     @Test
     void unloadRemovesPluginReferencesStoredInSuperclass() throws Exception {
         Path pluginFile = Files.createTempFile("hierarchy-plugin", ".jar");
@@ -0,0 +1,110 @@
+package eu.nurkert.neverUp2Late.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassLoaderLeakTrackerTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void reportsLoaderThatSurvivesTheGracePeriodOnce() throws Exception {
+        MutableClock clock = new MutableClock(NOW);
+        ClassLoaderLeakTracker tracker = new ClassLoaderLeakTracker(clock, Duration.ofMinutes(2), ClassLoaderLeakTrackerTest::sample);
+        tracker.addHint((pluginName, loader) -> Optional.of("held by test"));
+        try (URLClassLoader loader = new URLClassLoader(new URL[0], null)) {
+            tracker.track("Leaky", loader);
+
+            assertTrue(tracker.check().isEmpty(), "Loaders must not be reported within the grace period");
+            assertEquals(1, tracker.pendingCount());
+
+            clock.now = NOW.plus(Duration.ofMinutes(3));
+            List<ClassLoaderLeakTracker.Leak> leaks = tracker.check();
+
+            assertEquals(1, leaks.size());
+            assertEquals("Leaky", leaks.get(0).pluginName());
+            assertTrue(leaks.get(0).hints().contains("held by test"));
+            assertTrue(tracker.check().isEmpty(), "A leak is reported only once");
+            assertEquals(1, tracker.leaks().size());
+        }
+    }
+
+    @Test
+    void collectsHintsOnlyWhenDescribingSuspects() throws Exception {
+        MutableClock clock = new MutableClock(NOW);
+        ClassLoaderLeakTracker tracker = new ClassLoaderLeakTracker(clock, Duration.ofMinutes(2), ClassLoaderLeakTrackerTest::sample);
+        AtomicInteger hintCalls = new AtomicInteger();
+        tracker.addHint((pluginName, loader) -> {
+            hintCalls.incrementAndGet();
+            return Optional.empty();
+        });
+        try (URLClassLoader loader = new URLClassLoader(new URL[0], null)) {
+            tracker.track("Leaky", loader);
+            clock.now = NOW.plus(Duration.ofMinutes(3));
+
+            List<ClassLoaderLeakTracker.Suspect> suspects = tracker.detect();
+
+            assertEquals(1, suspects.size());
+            assertEquals("Leaky", suspects.get(0).pluginName());
+            assertEquals(0, hintCalls.get(), "Hints run only when the suspects are described");
+            assertEquals(1, tracker.pendingCount());
+
+            assertEquals(1, tracker.describe(suspects).size());
+            assertEquals(1, hintCalls.get());
+            assertTrue(tracker.describe(suspects).isEmpty(), "A leak is reported only once");
+            assertEquals(1, hintCalls.get());
+            assertEquals(1, tracker.leaks().size());
+        }
+    }
+
+    @Test
+    void recordsMemorySampleOnEveryCheck() {
+        ClassLoaderLeakTracker tracker = new ClassLoaderLeakTracker(
+                Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofMinutes(2), ClassLoaderLeakTrackerTest::sample);
+
+        tracker.check();
+        tracker.check();
+
+        assertEquals(2, tracker.memoryTrend().size());
+    }
+
+    private static ClassLoaderLeakTracker.MemorySample sample() {
+        return new ClassLoaderLeakTracker.MemorySample(NOW, 100L, 200L, 50L, 10);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
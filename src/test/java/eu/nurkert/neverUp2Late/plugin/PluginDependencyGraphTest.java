@@ -0,0 +1,46 @@
+package eu.nurkert.neverUp2Late.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PluginDependencyGraphTest {
+
+    @Test
+    void enablesDependenciesFirstAndDisablesThemLast() {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("Shop", List.of("Economy", "Vault"));
+        dependencies.put("Economy", List.of("Vault"));
+        dependencies.put("Vault", List.of());
+        PluginDependencyGraph graph = new PluginDependencyGraph(dependencies);
+
+        assertEquals(List.of("Vault", "Economy", "Shop"), graph.enableOrder(List.of("Shop", "Vault", "Economy")));
+        assertEquals(List.of("Shop", "Economy", "Vault"), graph.disableOrder(List.of("Vault", "Shop", "Economy")));
+    }
+
+    @Test
+    void keepsTransitiveOrderWhenIntermediatePluginIsNotReloaded() {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("addon", List.of("Core"));
+        dependencies.put("core", List.of("library"));
+
+        PluginDependencyGraph graph = new PluginDependencyGraph(dependencies);
+
+        assertEquals(List.of("Library", "Addon"), graph.enableOrder(List.of("Addon", "Library")));
+    }
+
+    @Test
+    void breaksCyclesAndAppendsUnknownPlugins() {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("A", List.of("B"));
+        dependencies.put("B", List.of("A"));
+
+        PluginDependencyGraph graph = new PluginDependencyGraph(dependencies);
+
+        assertEquals(List.of("B", "A", "Unknown"), graph.enableOrder(List.of("Unknown", "A", "B")));
+    }
+}
@@ -0,0 +1,141 @@
+package eu.nurkert.neverUp2Late.plugin;
+
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PluginReloadBatchTest {
+
+    @Test
+    void unloadsInReverseOrderBeforeEnablingInOrder() {
+        List<String> calls = new ArrayList<>();
+        PluginReloadBatch batch = new PluginReloadBatch(
+                List.of(new RecordingPlugin("Vault", calls), new RecordingPlugin("Shop", calls)), null);
+
+        assertTrue(batch.runSlice(Long.MAX_VALUE, System::nanoTime));
+
+        assertEquals(List.of("unload Shop", "unload Vault", "load Vault", "enable Vault", "load Shop", "enable Shop"), calls);
+        assertEquals(2, batch.result().reloaded().size());
+    }
+
+    @Test
+    void spreadsStepsOverSlicesWithinBudget() {
+        List<String> calls = new ArrayList<>();
+        AtomicLong clock = new AtomicLong();
+        PluginReloadBatch batch = new PluginReloadBatch(
+                List.of(new RecordingPlugin("Vault", calls, clock), new RecordingPlugin("Shop", calls, clock)), null);
+
+        // Every step takes 10 units, so a budget of 25 allows three steps per slice
+        assertFalse(batch.runSlice(25, clock::get));
+        assertEquals(3, calls.size());
+        assertTrue(batch.runSlice(25, clock::get));
+        assertEquals(6, calls.size());
+    }
+
+    @Test
+    void skipsRemainingStepsOfFailedPlugin() {
+        List<String> calls = new ArrayList<>();
+        RecordingPlugin broken = new RecordingPlugin("Broken", calls);
+        broken.failOn = "load";
+        RecordingPlugin healthy = new RecordingPlugin("Healthy", calls);
+        PluginReloadBatch batch = new PluginReloadBatch(List.of(broken, healthy), null);
+
+        batch.runSlice(Long.MAX_VALUE, System::nanoTime);
+
+        assertFalse(calls.contains("enable Broken"));
+        assertTrue(calls.contains("enable Healthy"));
+        BatchReloadResult result = batch.result();
+        assertEquals(List.of(healthy.getPath()), result.reloaded());
+        assertTrue(result.failures().containsKey(broken.getPath()));
+    }
+
+    private static class RecordingPlugin implements ManagedPlugin {
+        private final String name;
+        private final List<String> calls;
+        private final AtomicLong clock;
+        String failOn;
+
+        RecordingPlugin(String name, List<String> calls) {
+            this(name, calls, new AtomicLong());
+        }
+
+        RecordingPlugin(String name, List<String> calls, AtomicLong clock) {
+            this.name = name;
+            this.calls = calls;
+            this.clock = clock;
+        }
+
+        private void record(String operation) throws PluginLifecycleException {
+            clock.addAndGet(10);
+            if (operation.equals(failOn)) {
+                throw new PluginLifecycleException(operation + " failed");
+            }
+            calls.add(operation + " " + name);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Path getPath() {
+            return Path.of("plugins", name + ".jar").toAbsolutePath().normalize();
+        }
+
+        @Override
+        public void attach(Plugin plugin) {
+        }
+
+        @Override
+        public Optional<Plugin> getPlugin() {
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean isLoaded() {
+            return true;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public void load() throws PluginLifecycleException {
+            record("load");
+        }
+
+        @Override
+        public void enable() throws PluginLifecycleException {
+            record("enable");
+        }
+
+        @Override
+        public void disable() throws PluginLifecycleException {
+            record("disable");
+        }
+
+        @Override
+        public void unload() throws PluginLifecycleException {
+            record("unload");
+        }
+
+        @Override
+        public void reload() throws PluginLifecycleException {
+            unload();
+            load();
+            enable();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package eu.nurkert.neverUp2Late.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PluginTimingsTest {
+
+    @Test
+    void flagsVersionThatEnablesNoticeablySlower() {
+        InMemoryStore store = new InMemoryStore();
+        PluginTimings timings = new PluginTimings(store, Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+        timings.record("Example", "1.0", PluginTimings.Phase.ENABLE, Duration.ofMillis(200));
+        timings.record("Example", "1.0", PluginTimings.Phase.LOAD, Duration.ofMillis(50));
+        timings.saveIfDirty();
+
+        PluginTimings later = new PluginTimings(store, Clock.fixed(Instant.EPOCH.plusSeconds(60), ZoneOffset.UTC));
+        later.record("Example", "1.1", PluginTimings.Phase.ENABLE, Duration.ofMillis(600));
+        later.record("Example", "1.1", PluginTimings.Phase.LOAD, Duration.ofMillis(60));
+
+        Optional<PluginTimings.Regression> regression = later.findRegression("example", "1.1");
+
+        assertTrue(regression.isPresent());
+        assertEquals(PluginTimings.Phase.ENABLE, regression.get().phase());
+        assertEquals("1.0", regression.get().previousVersion());
+        assertEquals("enable time 200 ms -> 600 ms (1.0 -> 1.1)", regression.get().describe());
+    }
+
+    @Test
+    void ignoresSmallIncreases() {
+        PluginTimings timings = new PluginTimings(new InMemoryStore(), Clock.systemUTC());
+        timings.record("Example", "1.0", PluginTimings.Phase.ENABLE, Duration.ofMillis(20));
+        timings.record("Example", "1.1", PluginTimings.Phase.ENABLE, Duration.ofMillis(80));
+        timings.record("Other", "1.0", PluginTimings.Phase.ENABLE, Duration.ofMillis(1000));
+        timings.record("Other", "1.1", PluginTimings.Phase.ENABLE, Duration.ofMillis(1200));
+
+        assertTrue(timings.findRegression("Example", "1.1").isEmpty(), "Increases below the minimum are noise");
+        assertTrue(timings.findRegression("Other", "1.1").isEmpty(), "Increases below the factor are noise");
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentVersions() {
+        InMemoryStore store = new InMemoryStore();
+        PluginTimings timings = new PluginTimings(store, Clock.systemUTC());
+        for (int i = 0; i < 8; i++) {
+            timings.record("Example", "1." + i, PluginTimings.Phase.ENABLE, Duration.ofMillis(100));
+        }
+        timings.saveIfDirty();
+
+        assertEquals(5, store.saved.size());
+        assertTrue(timings.get("Example", "1.0").isEmpty());
+        assertTrue(timings.get("Example", "1.7").isPresent());
+    }
+
+    private static final class InMemoryStore implements PluginTimings.Store {
+        private List<PluginTimings.VersionTiming> saved = new ArrayList<>();
+
+        @Override
+        public List<PluginTimings.VersionTiming> load() {
+            return new ArrayList<>(saved);
+        }
+
+        @Override
+        public void save(List<PluginTimings.VersionTiming> timings) {
+            saved = new ArrayList<>(timings);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -59,6 +60,78 @@ class DownloadUpdateStepTest {
         }
     }
 
+    @Test
+    void stagedDownloadReplacesTheArtifactOnlyAfterItsBackup(@TempDir Path tempDir) throws Exception {
+        Path backupsDir = tempDir.resolve("backups");
+        ArtifactDownloader downloader = new ArtifactDownloader(backupsDir, 5);
+
+        Path serverDir = tempDir.resolve("server");
+        Files.createDirectories(serverDir);
+        Path destination = serverDir.resolve("paper.jar");
+        byte[] oldBytes = writeZip(destination, "old.txt", "old");
+        Path source = tempDir.resolve("source.jar");
+        byte[] newBytes = writeZip(source, "new.txt", "new");
+
+        UpdateContext context = new UpdateContext(paperSource(), destination, Logger.getLogger("test"));
+        context.setDownloadUrl(source.toUri().toURL().toString());
+
+        new UpdateJob()
+                .addParallel(new BackupUpdateStep(downloader), new DownloadUpdateStep(downloader, false))
+                .addStep(new ReplaceArtifactStep())
+                .run(context);
+
+        assertArrayEquals(newBytes, Files.readAllBytes(destination));
+        assertEquals(destination, context.getDownloadedArtifact().orElseThrow());
+        assertTrue(context.getStagedArtifact().isEmpty());
+        try (Stream<Path> backups = Files.walk(backupsDir)) {
+            List<Path> copies = backups.filter(Files::isRegularFile).toList();
+            assertEquals(1, copies.size());
+            assertArrayEquals(oldBytes, Files.readAllBytes(copies.get(0)));
+        }
+        assertNoLeftovers(serverDir);
+    }
+
+    @Test
+    void failedStagedDownloadLeavesTheArtifactAndNoStagingFile(@TempDir Path tempDir) throws Exception {
+        ArtifactDownloader downloader = new ArtifactDownloader(tempDir.resolve("backups"), 5);
+        Path serverDir = tempDir.resolve("server");
+        Files.createDirectories(serverDir);
+        Path destination = serverDir.resolve("paper.jar");
+        byte[] oldBytes = writeZip(destination, "old.txt", "old");
+        Path notAnArchive = tempDir.resolve("broken.jar");
+        Files.writeString(notAnArchive, "not a jar");
+
+        UpdateContext context = new UpdateContext(paperSource(), destination, Logger.getLogger("test"));
+        context.setDownloadUrl(notAnArchive.toUri().toURL().toString());
+        UpdateJob job = new UpdateJob()
+                .addParallel(new BackupUpdateStep(downloader), new DownloadUpdateStep(downloader, false))
+                .addStep(new ReplaceArtifactStep());
+
+        assertThrows(IOException.class, () -> job.run(context));
+
+        assertArrayEquals(oldBytes, Files.readAllBytes(destination));
+        assertTrue(context.getStagedArtifact().isEmpty());
+        assertNoLeftovers(serverDir);
+    }
+
+    private static UpdateSourceRegistry.UpdateSource paperSource() {
+        return new UpdateSourceRegistry.UpdateSource(
+                "paper",
+                null,
+                UpdateSourceRegistry.TargetDirectory.SERVER,
+                "paper.jar",
+                "paper");
+    }
+
+    private static void assertNoLeftovers(Path directory) throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            List<Path> leftovers = stream
+                    .filter(path -> path.getFileName() != null && path.getFileName().toString().startsWith("nu2l-"))
+                    .toList();
+            assertTrue(leftovers.isEmpty(), "Staging files are removed: " + leftovers);
+        }
+    }
+
     private static byte[] writeZip(Path path, String entryName, String contents) throws Exception {
         try (OutputStream outputStream = Files.newOutputStream(path);
              ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
@@ -0,0 +1,74 @@
+package eu.nurkert.neverUp2Late.update;
+
+import eu.nurkert.neverUp2Late.fetcher.FetchResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MetadataCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final FetchResult PAPER = new FetchResult("1.20.4", 400, "https://example.com/paper.jar");
+
+    @Test
+    void reusesFreshMetadataOnlyOnce() {
+        MetadataCache cache = new MetadataCache(Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofMinutes(10));
+        cache.markLoaded("paper", PAPER);
+
+        assertSame(PAPER, cache.consumeIfFresh("paper").orElseThrow());
+        assertFalse(cache.consumeIfFresh("paper").isPresent());
+        assertFalse(cache.consumeIfFresh("geyser").isPresent());
+    }
+
+    @Test
+    void ignoresMetadataOlderThanTheMaximumAge() {
+        MutableClock clock = new MutableClock(NOW);
+        MetadataCache cache = new MetadataCache(clock, Duration.ofMinutes(10));
+        cache.markLoaded("paper", PAPER);
+
+        clock.now = NOW.plus(Duration.ofMinutes(11));
+
+        assertFalse(cache.consumeIfFresh("paper").isPresent());
+    }
+
+    @Test
+    void doesNotKeepResultsThatAreNotReusable() {
+        MetadataCache cache = new MetadataCache(Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofMinutes(10));
+        cache.markLoaded("paper", PAPER);
+
+        cache.markLoaded("paper", new FetchResult("1.20.5", 401, "https://example.com/paper.jar", context -> { }, false));
+
+        assertFalse(cache.consumeIfFresh("paper").isPresent(), "The older result is not reused either");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
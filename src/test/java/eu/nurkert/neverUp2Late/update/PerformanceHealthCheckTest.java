@@ -0,0 +1,147 @@
+package eu.nurkert.neverUp2Late.update;
+
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck.Observation;
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck.PerformanceSample;
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck.Thresholds;
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck.UpdatedSource;
+import eu.nurkert.neverUp2Late.update.PerformanceHealthCheck.Verdict;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerformanceHealthCheckTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    private static final long MB = 1024L * 1024L;
+    private static final Thresholds THRESHOLDS = new Thresholds(Duration.ofSeconds(30), Duration.ofMinutes(1),
+            1.5d, 2d, 1.5d, 50);
+    private static final List<UpdatedSource> SOURCES = List.of(
+            new UpdatedSource("example", "Example", Path.of("plugins", "Example.jar"), true));
+
+    @Test
+    void reportsMetricsThatRegressedAfterTheUpdate() {
+        MutableClock clock = new MutableClock(START);
+        InMemoryStore store = new InMemoryStore();
+        PerformanceHealthCheck check = new PerformanceHealthCheck(store, clock, THRESHOLDS);
+        recordFor(check, clock, Duration.ofMinutes(1), 12d, 20d, 500L * MB, 80);
+
+        assertTrue(check.observe(SOURCES));
+        assertEquals(1, store.saved.size());
+
+        List<Verdict> verdicts = recordFor(check, clock, Duration.ofSeconds(90), 30d, 20d, 520L * MB, 150);
+
+        assertEquals(1, verdicts.size());
+        Verdict verdict = verdicts.get(0);
+        assertTrue(verdict.regressed());
+        assertEquals("example", verdict.sourceNames());
+        assertEquals("MSPT 12.0 -> 30.0; threads 80 -> 150", verdict.report());
+        assertTrue(store.saved.isEmpty(), "Judged observations are removed from the store");
+    }
+
+    @Test
+    void passesWhenChangesStayBelowTheThresholds() {
+        MutableClock clock = new MutableClock(START);
+        PerformanceHealthCheck check = new PerformanceHealthCheck(new InMemoryStore(), clock, THRESHOLDS);
+        recordFor(check, clock, Duration.ofMinutes(1), 2d, 20d, 100L * MB, 80);
+
+        assertTrue(check.observe(SOURCES));
+        List<Verdict> verdicts = recordFor(check, clock, Duration.ofSeconds(90), 4d, 19.5d, 160L * MB, 100);
+
+        assertEquals(1, verdicts.size());
+        assertFalse(verdicts.get(0).regressed(), verdicts.get(0).report());
+        assertEquals(0, check.openObservations());
+    }
+
+    @Test
+    void resumesStoredObservationAfterRestart() {
+        MutableClock clock = new MutableClock(START);
+        InMemoryStore store = new InMemoryStore();
+        PerformanceHealthCheck beforeRestart = new PerformanceHealthCheck(store, clock, THRESHOLDS);
+        recordFor(beforeRestart, clock, Duration.ofMinutes(1), -1d, 20d, 500L * MB, 80);
+        assertTrue(beforeRestart.observe(SOURCES));
+
+        clock.now = clock.now.plus(Duration.ofMinutes(10));
+        PerformanceHealthCheck afterRestart = new PerformanceHealthCheck(store, clock, THRESHOLDS);
+        assertEquals(1, afterRestart.openObservations());
+        assertTrue(recordFor(afterRestart, clock, Duration.ofSeconds(60), -1d, 15d, 500L * MB, 80).isEmpty(),
+                "The window starts over after the restart");
+
+        List<Verdict> verdicts = recordFor(afterRestart, clock, Duration.ofSeconds(30), -1d, 15d, 500L * MB, 80);
+
+        assertEquals(1, verdicts.size());
+        assertEquals("TPS 20.0 -> 15.0", verdicts.get(0).report());
+    }
+
+    @Test
+    void needsBaselineBeforeObserving() {
+        PerformanceHealthCheck check = new PerformanceHealthCheck(new InMemoryStore(), Clock.systemUTC(), THRESHOLDS);
+
+        assertFalse(check.observe(SOURCES));
+        assertEquals(0, check.openObservations());
+    }
+
+    private static List<Verdict> recordFor(PerformanceHealthCheck check,
+                                           MutableClock clock,
+                                           Duration duration,
+                                           double mspt,
+                                           double tps,
+                                           long heap,
+                                           int threads) {
+        List<Verdict> verdicts = new ArrayList<>();
+        Instant end = clock.now.plus(duration);
+        while (clock.now.isBefore(end)) {
+            clock.now = clock.now.plusSeconds(5);
+            verdicts.addAll(check.record(new PerformanceSample(clock.now, mspt, tps, heap, threads)));
+        }
+        return verdicts;
+    }
+
+    private static final class InMemoryStore implements PerformanceHealthCheck.Store {
+        private List<Observation> saved = new ArrayList<>();
+
+        @Override
+        public List<Observation> load() {
+            return new ArrayList<>(saved);
+        }
+
+        @Override
+        public void save(List<Observation> observations) {
+            saved = new ArrayList<>(observations);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
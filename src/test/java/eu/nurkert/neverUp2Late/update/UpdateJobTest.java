@@ -0,0 +1,135 @@
+package eu.nurkert.neverUp2Late.update;
+
+import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.TargetDirectory;
+import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.UpdateSource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpdateJobTest {
+
+    @Test
+    void abortsStepThatExceedsItsDeadline() {
+        AtomicBoolean nextStepRan = new AtomicBoolean();
+        UpdateJob job = new UpdateJob()
+                .addStep(context -> Thread.sleep(10_000L))
+                .addStep(context -> nextStepRan.set(true))
+                .stepTimeout(Duration.ofMillis(100));
+        UpdateContext context = newContext();
+
+        long started = System.nanoTime();
+        UpdateAbortedException exception = assertThrows(UpdateAbortedException.class, () -> job.run(context));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 5_000L);
+        assertTrue(exception.getMessage().contains("deadline"));
+        assertFalse(nextStepRan.get());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void abortsRunningStepWhenCancelledFromOutside() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        UpdateJob job = new UpdateJob()
+                .addStep(context -> {
+                    started.countDown();
+                    context.getCancellation().sleep(10_000L);
+                });
+        UpdateContext context = newContext();
+
+        Thread canceller = new Thread(() -> {
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            context.getCancellation().cancel("shutdown");
+        });
+        canceller.start();
+
+        UpdateAbortedException exception = assertThrows(UpdateAbortedException.class, () -> job.run(context));
+        canceller.join();
+        assertTrue(exception.getMessage().contains("shutdown"));
+    }
+
+    @Test
+    void runsParallelBranchesConcurrentlyBeforeTheNextStage() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        List<String> order = new CopyOnWriteArrayList<>();
+        UpdateStep branch = context -> {
+            bothRunning.countDown();
+            // Only completes if the other branch runs at the same time
+            assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+            order.add("branch");
+        };
+        UpdateJob job = new UpdateJob()
+                .addStep(context -> order.add("first"))
+                .addParallel(AsyncUpdateStep.onIo(branch), AsyncUpdateStep.onCpu(branch))
+                .addStep(context -> order.add("last"));
+
+        job.run(newContext());
+
+        assertEquals(List.of("first", "branch", "branch", "last"), order);
+    }
+
+    @Test
+    void waitsForAbortedBranchesToStopBeforeFailing() {
+        AtomicBoolean branchStopped = new AtomicBoolean();
+        UpdateJob job = new UpdateJob()
+                .addParallel(AsyncUpdateStep.onIo(context -> {
+                    try {
+                        Thread.sleep(10_000L);
+                    } catch (InterruptedException e) {
+                        // Cleaning up a partial download takes a moment
+                        Thread.sleep(200L);
+                        branchStopped.set(true);
+                        throw e;
+                    }
+                }))
+                .stepTimeout(Duration.ofMillis(100));
+
+        assertThrows(UpdateAbortedException.class, () -> job.run(newContext()));
+        assertTrue(branchStopped.get(), "The job only fails once its branches have stopped");
+    }
+
+    @Test
+    void reportsTheOriginalFailureOfABranch() {
+        UpdateJob job = new UpdateJob()
+                .addParallel(AsyncUpdateStep.onIo(context -> {
+                    throw new IOException("download failed");
+                }), AsyncUpdateStep.onIo(context -> {
+                }));
+
+        IOException exception = assertThrows(IOException.class, () -> job.run(newContext()));
+        assertEquals("download failed", exception.getMessage());
+    }
+
+    @Test
+    void runsCallbacksRegisteredAfterCancellationImmediately() {
+        CancellationToken token = new CancellationToken();
+        token.cancel("done");
+        AtomicBoolean called = new AtomicBoolean();
+
+        token.onCancel(() -> called.set(true)).close();
+
+        assertTrue(called.get());
+        assertThrows(UpdateAbortedException.class, token::throwIfCancelled);
+    }
+
+    private static UpdateContext newContext() {
+        UpdateSource source = new UpdateSource("paper", null, TargetDirectory.SERVER, "paper.jar", "paper");
+        return new UpdateContext(source, Path.of("paper.jar"), Logger.getLogger("test"));
+    }
+}
@@ -0,0 +1,153 @@
+package eu.nurkert.neverUp2Late.update;
+
+import eu.nurkert.neverUp2Late.update.UpdateSchedule.SourceSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpdateScheduleTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final UpdateSchedule.Settings SETTINGS = new UpdateSchedule.Settings(
+            Duration.ofHours(1), Duration.ofHours(24), 0.25d, 2d, 0.5d, 0d);
+
+    @Test
+    void growsIntervalWhileNothingIsReleased() {
+        SourceSchedule first = UpdateSchedule.advance(null, "1|1.0", NOW, SETTINGS, 0.5d);
+        assertEquals(Duration.ofHours(1).toMillis(), first.intervalMillis());
+
+        SourceSchedule second = UpdateSchedule.advance(first, "1|1.0", NOW, SETTINGS, 0.5d);
+        assertEquals(Duration.ofHours(2).toMillis(), second.intervalMillis());
+
+        SourceSchedule capped = second;
+        for (int i = 0; i < 10; i++) {
+            capped = UpdateSchedule.advance(capped, "1|1.0", NOW, SETTINGS, 0.5d);
+        }
+        assertEquals(Duration.ofHours(24).toMillis(), capped.intervalMillis());
+        assertEquals(NOW.plus(Duration.ofHours(24)).toEpochMilli(), capped.nextDueAt());
+    }
+
+    @Test
+    void derivesIntervalFromObservedReleaseCadence() {
+        SourceSchedule schedule = UpdateSchedule.advance(null, "1|1.0", NOW, SETTINGS, 0.5d);
+        schedule = UpdateSchedule.advance(schedule, "2|1.1", NOW, SETTINGS, 0.5d);
+        assertEquals(Duration.ofHours(1).toMillis(), schedule.intervalMillis());
+
+        Instant nextRelease = NOW.plus(Duration.ofHours(16));
+        schedule = UpdateSchedule.advance(schedule, "3|1.2", nextRelease, SETTINGS, 0.5d);
+
+        assertEquals(Duration.ofHours(16).toMillis(), schedule.averageReleaseGapMillis());
+        assertEquals(Duration.ofHours(4).toMillis(), schedule.intervalMillis());
+        assertEquals(nextRelease.toEpochMilli(), schedule.lastReleaseAt());
+    }
+
+    @Test
+    void persistsNextDueTimesAcrossRestarts() {
+        InMemoryStore store = new InMemoryStore();
+        UpdateSchedule schedule = new UpdateSchedule(store, SETTINGS, Clock.fixed(NOW, ZoneOffset.UTC));
+        assertTrue(schedule.isDue("paper"));
+
+        schedule.recordCheck("paper", "100|1.20.1");
+        schedule.postpone("geyser", NOW.minusSeconds(1));
+        schedule.saveIfDirty();
+
+        UpdateSchedule restarted = new UpdateSchedule(store, SETTINGS,
+                Clock.fixed(NOW.plus(Duration.ofMinutes(30)), ZoneOffset.UTC));
+        assertFalse(restarted.isDue("paper"));
+        assertTrue(restarted.isDue("geyser"));
+        assertEquals(NOW.plus(Duration.ofHours(1)), restarted.getNextDue("paper").orElseThrow());
+    }
+
+    @Test
+    void jitterIsDeterministicPerServerAndSource() {
+        UpdateSchedule.Settings jittered = new UpdateSchedule.Settings(
+                Duration.ofHours(1), Duration.ofHours(24), 0.25d, 2d, 0.5d, 0.5d);
+        double phase = UpdateSchedule.phase("server-a", "paper");
+
+        assertEquals(phase, UpdateSchedule.phase("server-a", "paper"));
+        assertNotEquals(phase, UpdateSchedule.phase("server-b", "paper"));
+        assertNotEquals(phase, UpdateSchedule.phase("server-a", "geyser"));
+
+        SourceSchedule twoHours = UpdateSchedule.advance(
+                UpdateSchedule.advance(null, null, NOW, jittered, 0.5d), null, NOW, jittered, 0.5d);
+        assertEquals(Duration.ofHours(2).toMillis(), twoHours.intervalMillis());
+        long delay = UpdateSchedule.advance(twoHours, null, NOW, jittered, 0d).nextDueAt() - NOW.toEpochMilli();
+        assertEquals(Duration.ofHours(3).toMillis(), delay);
+        delay = UpdateSchedule.advance(twoHours, null, NOW, jittered, 1d).nextDueAt() - NOW.toEpochMilli();
+        assertEquals(Duration.ofHours(5).toMillis(), delay);
+    }
+
+    @Test
+    void jitterKeepsChecksWithinTheConfiguredBounds() {
+        UpdateSchedule.Settings fullJitter = new UpdateSchedule.Settings(
+                Duration.ofHours(1), Duration.ofHours(24), 0.25d, 2d, 0.5d, 1d);
+        long min = Duration.ofHours(1).toMillis();
+        long max = Duration.ofHours(24).toMillis();
+
+        for (double phase : new double[]{0d, 1d}) {
+            SourceSchedule schedule = UpdateSchedule.advance(null, "1|1.0", NOW, fullJitter, phase);
+            assertEquals(min, schedule.intervalMillis());
+            long delay = schedule.nextDueAt() - NOW.toEpochMilli();
+            assertTrue(delay >= min && delay <= max, "First check after " + delay + " ms");
+            for (int i = 0; i < 10; i++) {
+                schedule = UpdateSchedule.advance(schedule, "1|1.0", NOW, fullJitter, phase);
+                delay = schedule.nextDueAt() - NOW.toEpochMilli();
+                assertTrue(delay >= min && delay <= max, "Check after " + delay + " ms at phase " + phase);
+            }
+            assertEquals(max, schedule.intervalMillis());
+        }
+        assertEquals(min, UpdateSchedule.advance(null, null, NOW, fullJitter, 0d).nextDueAt() - NOW.toEpochMilli());
+        assertEquals(max, UpdateSchedule.advance(
+                new SourceSchedule(0L, max, null, 0L, 0L), null, NOW, fullJitter, 1d).nextDueAt() - NOW.toEpochMilli());
+    }
+
+    @Test
+    void spreadsOverdueSourcesAcrossStartupWindow() {
+        UpdateSchedule schedule = new UpdateSchedule(new InMemoryStore(), SETTINGS, Clock.fixed(NOW, ZoneOffset.UTC));
+        schedule.setServerIdentity("server-a");
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            sources.add("source-" + i);
+        }
+
+        schedule.spreadOverdue(sources, Duration.ofMinutes(10));
+
+        Set<Instant> dueTimes = new HashSet<>();
+        for (String source : sources) {
+            Instant due = schedule.getNextDue(source).orElseThrow();
+            assertFalse(due.isBefore(NOW));
+            assertTrue(due.isBefore(NOW.plus(Duration.ofMinutes(10))));
+            dueTimes.add(due);
+        }
+        assertTrue(dueTimes.size() > 15);
+    }
+
+    private static final class InMemoryStore implements UpdateSchedule.Store {
+
+        private Map<String, SourceSchedule> saved = new HashMap<>();
+
+        @Override
+        public Map<String, SourceSchedule> load() {
+            return new HashMap<>(saved);
+        }
+
+        @Override
+        public void save(Map<String, SourceSchedule> schedules) {
+            saved = new HashMap<>(schedules);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package eu.nurkert.neverUp2Late.update;
+
+import eu.nurkert.neverUp2Late.fetcher.UpdateFetcher;
+import eu.nurkert.neverUp2Late.persistence.ConfigWriter;
+import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.SourceChange;
+import eu.nurkert.neverUp2Late.update.UpdateSourceRegistry.UpdateSource;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpdateSourceRegistryTest {
+
+    private static final String FETCHER_TYPE = StubFetcher.class.getName();
+
+    @Test
+    void reloadKeepsFetchersOfUnchangedSources() {
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.set("updates.sources", List.of(
+                source("alpha", "Alpha.jar", Map.of("project", "alpha")),
+                source("beta", "Beta.jar", Map.of("project", "beta")),
+                source("gamma", "Gamma.jar", Map.of("project", "gamma"))));
+        UpdateSourceRegistry registry = new UpdateSourceRegistry(Logger.getLogger("test"), configuration);
+        UpdateSource alpha = registry.findSource("alpha").orElseThrow();
+        UpdateSource beta = registry.findSource("beta").orElseThrow();
+        List<SourceChange> events = new ArrayList<>();
+        registry.addListener(events::addAll);
+
+        configuration.set("updates.sources", List.of(
+                source("alpha", "Alpha.jar", Map.of("project", "alpha")),
+                source("beta", "Beta-renamed.jar", Map.of("project", "beta")),
+                source("gamma", "Gamma.jar", Map.of("project", "gamma-fork")),
+                source("delta", "Delta.jar", Map.of("project", "delta"))));
+        List<SourceChange> changes = registry.reload();
+
+        assertSame(alpha, registry.findSource("alpha").orElseThrow(), "Unchanged sources are kept as they are");
+        UpdateSource renamed = registry.findSource("beta").orElseThrow();
+        assertEquals("Beta-renamed.jar", renamed.getFilename());
+        assertSame(beta.getFetcher(), renamed.getFetcher(), "A new filename does not need a new fetcher");
+        assertEquals(3, changes.size());
+        assertEquals(changes, events);
+        assertEquals(SourceChange.Type.MODIFIED, changes.get(0).type());
+        assertFalse(changes.get(0).fetcherReplaced());
+        assertEquals(SourceChange.Type.MODIFIED, changes.get(1).type());
+        assertEquals("gamma", changes.get(1).name());
+        assertNotSame(changes.get(1).previous().getFetcher(), changes.get(1).current().getFetcher());
+        assertEquals(SourceChange.Type.ADDED, changes.get(2).type());
+        assertEquals("delta", changes.get(2).name());
+    }
+
+    @Test
+    void reloadReportsRemovedSources() {
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.set("updates.sources", List.of(
+                source("alpha", "Alpha.jar", Map.of("project", "alpha")),
+                source("beta", "Beta.jar", Map.of("project", "beta"))));
+        UpdateSourceRegistry registry = new UpdateSourceRegistry(Logger.getLogger("test"), configuration);
+
+        configuration.set("updates.sources", List.of(source("alpha", "Alpha.jar", Map.of("project", "alpha"))));
+        List<SourceChange> changes = registry.reload();
+
+        assertEquals(1, changes.size());
+        assertEquals(SourceChange.Type.REMOVED, changes.get(0).type());
+        assertEquals("beta", changes.get(0).name());
+        assertEquals(1, registry.getSources().size());
+        assertTrue(registry.reload().isEmpty(), "Reloading an unchanged configuration changes nothing");
+    }
+
+    @Test
+    void createsFetchersWhenFirstUsed() {
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.set("updates.sources", List.of(source("alpha", "Alpha.jar", Map.of("project", "alpha"))));
+        int before = StubFetcher.CREATED.get();
+        UpdateSourceRegistry registry = new UpdateSourceRegistry(Logger.getLogger("test"), configuration);
+        UpdateSource alpha = registry.findSource("alpha").orElseThrow();
+
+        assertEquals(before, StubFetcher.CREATED.get(), "Loading a source does not create its fetcher");
+        assertEquals(StubFetcher.class, alpha.getFetcherClass());
+        assertSame(alpha.getFetcher(), alpha.getFetcher());
+        assertEquals(before + 1, StubFetcher.CREATED.get());
+    }
+
+    @Test
+    void savesRemovedSourcesAndRenamedFilesThroughTheConfigWriter(@TempDir Path tempDir) {
+        File file = tempDir.resolve("config.yml").toFile();
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.set("updates.sources", List.of(
+                source("alpha", "Alpha.jar", Map.of("project", "alpha")),
+                source("beta", "Beta.jar", Map.of("project", "beta"))));
+        ConfigWriter writer = new ConfigWriter(configuration, file, Logger.getLogger("test"),
+                Duration.ofMinutes(1L), Duration.ofMinutes(1L));
+        UpdateSourceRegistry registry = new UpdateSourceRegistry(Logger.getLogger("test"), configuration, writer);
+
+        assertTrue(registry.unregisterSource("beta"));
+        assertTrue(registry.updateSourceFilename("alpha", "Alpha-2.jar"));
+        assertFalse(registry.unregisterSource("beta"));
+        writer.close();
+
+        List<Map<?, ?>> written = YamlConfiguration.loadConfiguration(file).getMapList("updates.sources");
+        assertEquals(1, written.size());
+        assertEquals("alpha", written.get(0).get("name"));
+        assertEquals("Alpha-2.jar", written.get(0).get("filename"));
+    }
+
+    private static Map<String, Object> source(String name, String filename, Map<String, Object> options) {
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("name", name);
+        source.put("type", FETCHER_TYPE);
+        source.put("target", "plugins");
+        source.put("filename", filename);
+        source.put("options", options);
+        return source;
+    }
+
+    public static class StubFetcher implements UpdateFetcher {
+
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        public StubFetcher(ConfigurationSection options) {
+            CREATED.incrementAndGet();
+        }
+
+        @Override
+        public void loadLatestBuildInfo() {
+        }
+
+        @Override
+        public String getLatestVersion() {
+            return null;
+        }
+
+        @Override
+        public int getLatestBuild() {
+            return 0;
+        }
+
+        @Override
+        public String getLatestDownloadUrl() {
+            return null;
+        }
+
+        @Override
+        public String getInstalledVersion() {
+            return null;
+        }
+    }
+}
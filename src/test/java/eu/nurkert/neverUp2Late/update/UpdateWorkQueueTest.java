@@ -0,0 +1,63 @@
+package eu.nurkert.neverUp2Late.update;
+
+import eu.nurkert.neverUp2Late.update.UpdateWorkQueue.Priority;
+import eu.nurkert.neverUp2Late.update.UpdateWorkQueue.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpdateWorkQueueTest {
+
+    @Test
+    void handlesHigherPrioritiesFirstAndKeepsSubmissionOrder() {
+        UpdateWorkQueue<String> queue = new UpdateWorkQueue<>();
+        queue.submit("geyser", Priority.ROUTINE, "geyser", null);
+        queue.submit("luckperms", Priority.ROUTINE, "luckperms", null);
+        queue.submit("paper", Priority.ESSENTIAL, "paper", null);
+        queue.submit("worldedit", Priority.MANUAL, "worldedit", null);
+
+        assertEquals(List.of("worldedit", "paper", "geyser", "luckperms"), drain(queue));
+    }
+
+    @Test
+    void coalescesDuplicateRequestsAndKeepsHigherPriority() {
+        UpdateWorkQueue<String> queue = new UpdateWorkQueue<>();
+        assertTrue(queue.submit("geyser", Priority.ROUTINE, "scheduled", null));
+        queue.submit("paper", Priority.ESSENTIAL, "paper", null);
+        assertFalse(queue.submit("geyser", Priority.MANUAL, "manual", (queued, submitted) -> queued + "+" + submitted));
+
+        assertEquals(2, queue.size());
+        Task<String> first = queue.poll(true).orElseThrow();
+        assertEquals("geyser", first.key());
+        assertEquals(Priority.MANUAL, first.priority());
+        assertEquals("scheduled+manual", first.payload());
+        assertFalse(queue.contains("geyser"));
+    }
+
+    @Test
+    void holdsBackRoutineRunsWhenRequested() {
+        UpdateWorkQueue<String> queue = new UpdateWorkQueue<>();
+        queue.submit("geyser", Priority.ROUTINE, "geyser", null);
+
+        assertTrue(queue.poll(false).isEmpty());
+        assertFalse(queue.hasPollable(false), "Nothing to start a worker for while routine slots are taken");
+        assertTrue(queue.hasPollable(true));
+        queue.submit("paper", Priority.ESSENTIAL, "paper", null);
+        assertEquals("paper", queue.poll(false).orElseThrow().key());
+        assertEquals("geyser", queue.poll(true).orElseThrow().key());
+        assertTrue(queue.isEmpty());
+    }
+
+    private static List<String> drain(UpdateWorkQueue<String> queue) {
+        List<String> keys = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            keys.add(queue.poll(true).orElseThrow().key());
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,78 @@
+package eu.nurkert.neverUp2Late.update.suggestion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.nurkert.neverUp2Late.net.HttpClient;
+import eu.nurkert.neverUp2Late.update.suggestion.BulkLinkResolver.BulkLinkProposal;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkLinkResolverTest {
+
+    @Test
+    void confidenceRanksExactMatchesAboveFuzzyOnes() {
+        PluginLinkSuggestion exact = suggestion("LuckPerms", "https://modrinth.com/plugin/luckperms");
+        PluginLinkSuggestion prefix = suggestion("LuckPerms Addon", "https://modrinth.com/plugin/luckperms-addon");
+        PluginLinkSuggestion unrelated = suggestion("WorldEdit", "https://modrinth.com/plugin/worldedit");
+        PluginLinkSuggestion spigot = suggestion("Some title", "https://www.spigotmc.org/resources/luckperms.28140/");
+
+        assertEquals(1d, BulkLinkResolver.confidence("LuckPerms", exact));
+        assertEquals(0.85d, BulkLinkResolver.confidence("LuckPerms", prefix));
+        assertEquals(1d, BulkLinkResolver.confidence("LuckPerms", spigot));
+        assertTrue(BulkLinkResolver.confidence("LuckPerms", unrelated) < 0.5d);
+        assertEquals(0d, BulkLinkResolver.confidence("LuckPerms", null));
+    }
+
+    @Test
+    void resolvesAllRequestsAndSortsByConfidence() throws Exception {
+        StubSuggester suggester = new StubSuggester(Map.of(
+                "Chunky", List.of(
+                        suggestion("Chunky Border", "https://modrinth.com/plugin/chunkyborder"),
+                        suggestion("Chunky", "https://modrinth.com/plugin/chunky")),
+                "Essentialz", List.of(suggestion("EssentialsX", "https://hangar.papermc.io/EssentialsX/Essentials"))));
+        BulkLinkResolver resolver = new BulkLinkResolver(suggester, Logger.getAnonymousLogger(), 2, 0);
+
+        List<BulkLinkProposal> proposals = resolver.resolve(List.of(
+                new BulkLinkResolver.Request("Unknown", List.of("Unknown")),
+                new BulkLinkResolver.Request("Essentialz", List.of("Essentialz")),
+                new BulkLinkResolver.Request("Chunky", List.of("Chunky")))).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("Chunky", "Essentialz", "Unknown"),
+                proposals.stream().map(BulkLinkProposal::pluginName).toList());
+        assertEquals("https://modrinth.com/plugin/chunky", proposals.get(0).suggestion().url());
+        assertEquals(2, proposals.get(0).candidateCount());
+        assertTrue(proposals.get(1).hasSuggestion());
+        assertFalse(proposals.get(2).hasSuggestion());
+        assertNull(proposals.get(2).suggestion());
+    }
+
+    private static PluginLinkSuggestion suggestion(String title, String url) {
+        return new PluginLinkSuggestion("Modrinth", title, url, null, List.of());
+    }
+
+    private static final class StubSuggester extends PluginLinkSuggester {
+
+        private final Map<String, List<PluginLinkSuggestion>> results;
+
+        StubSuggester(Map<String, List<PluginLinkSuggestion>> results) {
+            super(new HttpClient(), new ObjectMapper(), Logger.getAnonymousLogger());
+            this.results = results;
+        }
+
+        @Override
+        public List<PluginLinkSuggestion> suggest(Collection<String> searchTerms) {
+            return searchTerms.stream()
+                    .flatMap(term -> results.getOrDefault(term, List.of()).stream())
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package eu.nurkert.neverUp2Late.update.suggestion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectCatalogueTest {
+
+    private final Logger logger = Logger.getLogger("test");
+
+    @Test
+    void fuzzySearchToleratesTyposAndRanksExactMatchesFirst(@TempDir Path tempDir) {
+        ProjectCatalogue catalogue = new ProjectCatalogue(tempDir.resolve("catalogue.json.gz"), logger);
+        catalogue.upsert(List.of(
+                entry("modrinth:luckperms", "luckperms", "LuckPerms", 5_000_000),
+                entry("modrinth:luckperms-addon", "luckperms-addon", "LuckPerms Addon", 100),
+                entry("modrinth:worldedit", "worldedit", "WorldEdit", 9_000_000)));
+
+        List<CatalogueEntry> exact = catalogue.search(List.of("LuckPerms"), 5);
+        assertEquals(2, exact.size());
+        assertEquals("luckperms", exact.get(0).slug());
+
+        List<CatalogueEntry> typo = catalogue.search(List.of("worldedt"), 5);
+        assertFalse(typo.isEmpty());
+        assertEquals("worldedit", typo.get(0).slug());
+
+        assertTrue(catalogue.search(List.of("essentials"), 5).isEmpty());
+    }
+
+    @Test
+    void completesByPrefixOrderedByDownloads(@TempDir Path tempDir) {
+        ProjectCatalogue catalogue = new ProjectCatalogue(tempDir.resolve("catalogue.json.gz"), logger);
+        catalogue.upsert(List.of(
+                entry("modrinth:chunky", "chunky", "Chunky", 10),
+                entry("modrinth:chunkyborder", "chunkyborder", "ChunkyBorder", 500),
+                entry("spigot:1", null, "Chunk Loader", 50),
+                entry("modrinth:worldedit", "worldedit", "WorldEdit", 9_000_000)));
+
+        assertEquals(List.of("chunkyborder", "ChunkLoader", "chunky"), catalogue.complete("Chun", 10));
+        assertEquals(List.of("chunkyborder"), catalogue.complete("chunky", 1));
+    }
+
+    @Test
+    void persistsEntriesAndCursors(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("catalogue.json.gz");
+        ProjectCatalogue catalogue = new ProjectCatalogue(file, logger);
+        catalogue.upsert(List.of(entry("hangar:owner/geyser", "geyser", "Geyser", 42)));
+        catalogue.setCursor(CatalogueSynchronizer.HANGAR, "3");
+
+        assertTrue(catalogue.saveIfDirty());
+        assertFalse(catalogue.saveIfDirty());
+        assertTrue(Files.isRegularFile(file));
+
+        ProjectCatalogue reloaded = new ProjectCatalogue(file, logger);
+        reloaded.load();
+
+        assertEquals(1, reloaded.size());
+        assertEquals("3", reloaded.getCursor(CatalogueSynchronizer.HANGAR).orElseThrow());
+        CatalogueEntry entry = reloaded.search(List.of("geyser"), 1).get(0);
+        assertEquals("Geyser", entry.title());
+        assertEquals(List.of("paper"), entry.platforms());
+    }
+
+    @Test
+    void upsertReplacesExistingEntries(@TempDir Path tempDir) {
+        ProjectCatalogue catalogue = new ProjectCatalogue(tempDir.resolve("catalogue.json.gz"), logger);
+        catalogue.upsert(List.of(entry("modrinth:chunky", "chunky", "Chunky", 10)));
+        catalogue.search(List.of("chunky"), 1);
+        catalogue.upsert(List.of(entry("modrinth:chunky", "chunky", "Chunky Renamed", 20)));
+
+        List<CatalogueEntry> result = catalogue.search(List.of("chunky"), 5);
+        assertEquals(1, result.size());
+        assertEquals("Chunky Renamed", result.get(0).title());
+    }
+
+    private static CatalogueEntry entry(String key, String slug, String title, long downloads) {
+        return new CatalogueEntry("Modrinth", key, slug, title, "author", null, downloads,
+                List.of("paper"), "https://example.org/" + key, 0L);
+    }
+}